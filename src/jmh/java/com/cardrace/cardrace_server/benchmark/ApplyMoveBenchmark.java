@@ -0,0 +1,120 @@
+package com.cardrace.cardrace_server.benchmark;
+
+import com.cardrace.cardrace_server.exceptions.IllegalMoveException;
+import com.cardrace.cardrace_server.model.game.Board;
+import com.cardrace.cardrace_server.model.game.Card;
+import com.cardrace.cardrace_server.model.game.Game;
+import com.cardrace.cardrace_server.model.game.Move;
+import com.cardrace.cardrace_server.model.game.Types;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Game.applyMove for every card, played by the last seat of a started game. JACK swaps with the first seat's
+ * marble, KING enters a marble from the reserve, FOUR moves back, JOKER stands in for a FIVE and every other
+ * card moves forward by its value. The move is undone on the Board after each invocation, so the reported time
+ * includes one extra board operation. applyMove passes the move as a Move, as the socket path does, and
+ * applyDistanceMap as the boxed distance map bots and older callers pass.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ApplyMoveBenchmark {
+
+    @Param({"2", "4", "6"})
+    public int numPlayers;
+
+    @Param({"TWO", "THREE", "FOUR", "FIVE", "SIX", "SEVEN", "EIGHT", "NINE", "TEN", "JACK", "QUEEN", "KING", "ACE", "JOKER"})
+    public Types.CardValue cardValue;
+
+    private Game game;
+    private Board board;
+    private Card card;
+    private Card substitute;
+    private Types.CardValue acting;
+    private final Map<Integer, Integer> distances = new LinkedHashMap<>();
+    private Move move;
+    private int marbleId;
+    private int otherId;
+    private int reserveId;
+    private int distance;
+
+    @Setup
+    public void setUp() throws Exception {
+        game = BenchmarkGames.started(numPlayers);
+        board = game.getBoard();
+        int seat = numPlayers - 1;
+        marbleId = seat * 4;
+        otherId = 0;
+        reserveId = seat * 4 + 1;
+
+        if (cardValue == Types.CardValue.JOKER) {
+            card = new Card(Types.CardValue.JOKER, Types.CardSuit.JOKER);
+            substitute = new Card(Types.CardValue.FIVE, Types.CardSuit.HEARTS);
+        } else {
+            card = new Card(cardValue, Types.CardSuit.HEARTS);
+        }
+        acting = substitute != null ? substitute.cardValue : cardValue;
+        switch (acting) {
+            case JACK -> {
+                distances.put(marbleId, 0);
+                distances.put(otherId, 0);
+            }
+            case KING -> distances.put(reserveId, 0);
+            case FOUR -> {
+                distance = -4;
+                distances.put(marbleId, distance);
+            }
+            default -> {
+                distance = IntStream.rangeClosed(1, 13).filter(d -> Types.isValidCardValue(acting, d)).findFirst().orElseThrow();
+                distances.put(marbleId, distance);
+            }
+        }
+        move = Move.of(card, substitute, distances);
+    }
+
+    @Benchmark
+    public void applyMove() throws IllegalMoveException {
+        game.applyMove(move);
+        undo();
+    }
+
+    @Benchmark
+    public void applyDistanceMap() throws IllegalMoveException {
+        game.applyMove(card, substitute, distances);
+        undo();
+    }
+
+    private void undo() throws IllegalMoveException {
+        switch (acting) {
+            case JACK -> {
+                board.swapMarble(marbleId, otherId);
+                board.setMarbleState(otherId, Types.MarbleState.PROTECTED);
+                board.setMarbleState(marbleId, Types.MarbleState.PROTECTED);
+            }
+            case KING -> board.returnToReserve(reserveId);
+            default -> {
+                // Protected first, so moving back across the start space does not enter the safe zone.
+                board.setMarbleState(marbleId, Types.MarbleState.PROTECTED);
+                board.moveMarble(marbleId, -distance, false);
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.cardrace.cardrace_server.benchmark;
+
+import com.cardrace.cardrace_server.exceptions.IllegalMoveException;
+import com.cardrace.cardrace_server.model.game.Board;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Board primitives on a started game. The marbles used belong to the last seat, so the linear scan in
+ * findMarble covers most of the board. Each invocation leaves the board as the next one expects it: moves
+ * alternate forward and back, swaps alternate, and an activation is reset by writing the board fields back.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BoardBenchmark {
+
+    @Param({"2", "4", "6"})
+    public int numPlayers;
+
+    private Board board;
+    private int marbleId;
+    private int otherId;
+    private int reserveId;
+    private int distance = -5;
+
+    @Setup
+    public void setUp() throws Exception {
+        board = BenchmarkGames.started(numPlayers).getBoard();
+        int seat = numPlayers - 1;
+        marbleId = seat * 4;
+        otherId = 0;
+        reserveId = seat * 4 + 1;
+    }
+
+    @Benchmark
+    public void moveMarble() throws IllegalMoveException {
+        distance = -distance;
+        board.moveMarble(marbleId, distance, false);
+    }
+
+    @Benchmark
+    public void swapMarble() throws IllegalMoveException {
+        board.swapMarble(marbleId, otherId);
+    }
+
+    @Benchmark
+    public void activateMarble() throws IllegalMoveException {
+        board.activateMarble(reserveId);
+        board.returnToReserve(reserveId);
+    }
+}
@@ -0,0 +1,56 @@
+package com.cardrace.cardrace_server.benchmark;
+
+import com.cardrace.cardrace_server.model.game.Deck;
+import com.cardrace.cardrace_server.model.game.Types;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deck.shuffle and a full deal of one hand per seat at the game's largest hand size. Every game uses two
+ * decks whatever its size, so shuffle does not depend on the player count. Deals run the deck down and
+ * reshuffle it as games do, so the cost of the reshuffle is spread over the deals.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DeckBenchmark {
+
+    @Param({"2", "4", "6"})
+    public int numPlayers;
+
+    private Deck deck;
+    private int handSize;
+
+    @Setup
+    public void setUp() {
+        deck = new Deck(2);
+        handSize = Types.getHandSize(numPlayers);
+    }
+
+    @Benchmark
+    public void shuffle() {
+        deck.shuffle();
+    }
+
+    @Benchmark
+    public void dealHand(Blackhole blackhole) {
+        for (int seat = 0; seat < numPlayers; seat++) {
+            blackhole.consume(deck.dealHand(handSize));
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.cardrace.cardrace_server.benchmark;
+
+import com.cardrace.cardrace_server.config.RedisConfig;
+import com.cardrace.cardrace_server.model.game.Game;
+import com.cardrace.cardrace_server.repository.CompressingRedisSerializer;
+import com.cardrace.cardrace_server.repository.GameRedisSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Redis value serializer for games, built as RedisConfig builds it with the default compression settings,
+ * writing either GameCodec or legacy JSON. Games have been played for 40 turns.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameSerializerBenchmark {
+
+    @Param({"2", "4", "6"})
+    public int numPlayers;
+
+    @Param({"codec", "json"})
+    public String format;
+
+    private RedisSerializer<Game> serializer;
+    private Game game;
+    private byte[] bytes;
+
+    @Setup
+    public void setUp() throws Exception {
+        Jackson2JsonRedisSerializer<Game> json = new Jackson2JsonRedisSerializer<>(RedisConfig.gameObjectMapper(), Game.class);
+        serializer = new CompressingRedisSerializer<>(new GameRedisSerializer(json, format.equals("json")), 256, 1);
+        game = BenchmarkGames.played(numPlayers, 40, 1);
+        bytes = serializer.serialize(game);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(game);
+    }
+
+    @Benchmark
+    public Game deserialize() {
+        return serializer.deserialize(bytes);
+    }
+}
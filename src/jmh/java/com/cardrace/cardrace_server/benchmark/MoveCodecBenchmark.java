@@ -0,0 +1,84 @@
+package com.cardrace.cardrace_server.benchmark;
+
+import com.cardrace.cardrace_server.dto.MoveDTO;
+import com.cardrace.cardrace_server.exceptions.InvalidMoveFormatException;
+import com.cardrace.cardrace_server.repository.TieredGameRepository;
+import com.cardrace.cardrace_server.service.GameService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The socket move path before the game is loaded: a "move" event payload decoded to a MoveDTO, and
+ * GameService.isValidMoveStructure on the decoded move. Moves are made by the last seat, so marble IDs grow
+ * with the player count; neither step depends on the game otherwise.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoveCodecBenchmark {
+
+    @Param({"2", "4", "6"})
+    public int numPlayers;
+
+    @Param({"single", "seven", "jack", "joker"})
+    public String move;
+
+    private final ObjectReader reader = new ObjectMapper().readerFor(MoveDTO.class);
+    private GameService gameService;
+    private byte[] payload;
+    private MoveDTO decoded;
+
+    @Setup
+    public void setUp() throws Exception {
+        gameService = new GameService(Mockito.mock(TieredGameRepository.class), null, null, null, null);
+        int marble = (numPlayers - 1) * 4;
+        String player = "player" + (numPlayers - 1);
+        String json = switch (move) {
+            case "single" -> moveJson(player, card("FIVE", "HEARTS"), "null", "[[" + marble + ",5]]");
+            case "seven" -> moveJson(player, card("SEVEN", "CLUBS"), "null", "[[" + marble + ",3],[" + (marble + 1) + ",4]]");
+            case "jack" -> moveJson(player, card("JACK", "SPADES"), "null", "[[" + marble + ",0],[0,0]]");
+            case "joker" -> moveJson(player, card("JOKER", "JOKER"), card("TEN", "DIAMONDS"), "[[" + marble + ",10]]");
+            default -> throw new IllegalArgumentException("Unknown move " + move);
+        };
+        payload = json.getBytes(StandardCharsets.UTF_8);
+        decoded = reader.readValue(payload);
+    }
+
+    @Benchmark
+    public MoveDTO decode() throws Exception {
+        return reader.readValue(payload);
+    }
+
+    @Benchmark
+    public MoveDTO validate() throws InvalidMoveFormatException {
+        gameService.isValidMoveStructure(decoded);
+        return decoded;
+    }
+
+    private static String moveJson(String username, String card, String substitute, String distances) {
+        return "{\"username\":\"" + username + "\",\"card\":" + card + ",\"substitute\":" + substitute
+                + ",\"distances\":" + distances + ",\"forfeit\":false}";
+    }
+
+    private static String card(String value, String suit) {
+        return "{\"cardValue\":\"" + value + "\",\"cardSuit\":\"" + suit + "\"}";
+    }
+}
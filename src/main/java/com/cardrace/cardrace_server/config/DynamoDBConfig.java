@@ -1,14 +1,22 @@
 package com.cardrace.cardrace_server.config;
 
+import com.amazonaws.ClientConfiguration;
 import com.amazonaws.auth.AWSStaticCredentialsProvider;
 import com.amazonaws.auth.BasicAWSCredentials;
 import com.amazonaws.client.builder.AwsClientBuilder;
+import com.amazonaws.retry.PredefinedRetryPolicies;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDBAsync;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDBAsyncClientBuilder;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Configuration
 public class DynamoDBConfig {
@@ -25,11 +33,57 @@ public class DynamoDBConfig {
     @Value("${aws.dynamodb.secretKey}")
     private String dynamoDbSecretKey;
 
+    @Value("${aws.dynamodb.client.max-connections:100}")
+    private int maxConnections;
+
+    @Value("${aws.dynamodb.client.connection-timeout-ms:2000}")
+    private int connectionTimeoutMs;
+
+    @Value("${aws.dynamodb.client.socket-timeout-ms:5000}")
+    private int socketTimeoutMs;
+
+    @Value("${aws.dynamodb.client.request-timeout-ms:10000}")
+    private int requestTimeoutMs;
+
+    @Value("${aws.dynamodb.client.max-retries:3}")
+    private int maxRetries;
+
+    @Value("${aws.dynamodb.async.threads:16}")
+    private int asyncThreads;
+
     @Bean
-    public AmazonDynamoDB amazonDynamoDB() {
+    public ClientConfiguration dynamoDbClientConfiguration() {
+        return new ClientConfiguration()
+                .withMaxConnections(maxConnections)
+                .withConnectionTimeout(connectionTimeoutMs)
+                .withSocketTimeout(socketTimeoutMs)
+                .withRequestTimeout(requestTimeoutMs)
+                .withTcpKeepAlive(true)
+                .withRetryPolicy(PredefinedRetryPolicies.getDynamoDBDefaultRetryPolicyWithCustomMaxRetries(maxRetries));
+    }
+
+    @Bean
+    @Primary
+    public AmazonDynamoDB amazonDynamoDB(ClientConfiguration dynamoDbClientConfiguration) {
         return AmazonDynamoDBClientBuilder.standard()
                 .withEndpointConfiguration(new AwsClientBuilder.EndpointConfiguration(dynamoDbEndpoint, awsRegion))
                 .withCredentials(new AWSStaticCredentialsProvider(new BasicAWSCredentials(dynamoDbAccessKey, dynamoDbSecretKey)))
+                .withClientConfiguration(dynamoDbClientConfiguration)
+                .build();
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public AmazonDynamoDBAsync amazonDynamoDBAsync(ClientConfiguration dynamoDbClientConfiguration) {
+        AtomicInteger counter = new AtomicInteger();
+        return AmazonDynamoDBAsyncClientBuilder.standard()
+                .withEndpointConfiguration(new AwsClientBuilder.EndpointConfiguration(dynamoDbEndpoint, awsRegion))
+                .withCredentials(new AWSStaticCredentialsProvider(new BasicAWSCredentials(dynamoDbAccessKey, dynamoDbSecretKey)))
+                .withClientConfiguration(dynamoDbClientConfiguration)
+                .withExecutorFactory(() -> Executors.newFixedThreadPool(asyncThreads, runnable -> {
+                    Thread thread = new Thread(runnable, "dynamodb-async-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }))
                 .build();
     }
 
@@ -37,4 +91,4 @@ public class DynamoDBConfig {
     public DynamoDBMapper dynamoDBMapper(AmazonDynamoDB amazonDynamoDB) {
         return new DynamoDBMapper(amazonDynamoDB);
     }
-}
\ No newline at end of file
+}
@@ -1,22 +1,38 @@
 package com.cardrace.cardrace_server.config;
 
 import com.cardrace.cardrace_server.model.game.Game;
+import com.cardrace.cardrace_server.repository.CompressingRedisSerializer;
+import com.cardrace.cardrace_server.repository.GameRedisSerializer;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.SocketOptions;
+import io.lettuce.core.TimeoutOptions;
+import io.lettuce.core.api.StatefulConnection;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnection;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettucePoolingClientConfiguration;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.time.Duration;
+
 @Configuration
 public class RedisConfig {
 
@@ -28,26 +44,80 @@ public class RedisConfig {
     @Value("${spring.redis.port}")
     private int redisPort;
 
+    @Value("${redis.pool.max-active:16}")
+    private int poolMaxActive;
+
+    @Value("${redis.pool.min-idle:2}")
+    private int poolMinIdle;
+
+    @Value("${redis.command-timeout-ms:500}")
+    private long commandTimeoutMs;
+
+    @Value("${redis.connect-timeout-ms:1000}")
+    private long connectTimeoutMs;
+
     @Bean
-    public RedisConnectionFactory redisConnectionFactory() {
+    public LettuceConnectionFactory redisConnectionFactory() {
         RedisStandaloneConfiguration redisConfig = new RedisStandaloneConfiguration(redisHost, redisPort);
         logger.info("Configuring Redis connection to {}:{}", redisHost, redisPort);
-        return new LettuceConnectionFactory(redisConfig);
+
+        // Pipelines and MULTI run on dedicated connections; pooling them avoids a connect per batch.
+        GenericObjectPoolConfig<StatefulConnection<?, ?>> poolConfig = new GenericObjectPoolConfig<>();
+        poolConfig.setMaxTotal(poolMaxActive);
+        poolConfig.setMaxIdle(poolMaxActive);
+        poolConfig.setMinIdle(poolMinIdle);
+        // Waiting for a pooled connection is bounded like any command, so a stalled Redis cannot park callers.
+        poolConfig.setMaxWait(Duration.ofMillis(commandTimeoutMs));
+
+        // Commands fail after the timeout, and fail at once while the connection is down instead of queueing.
+        ClientOptions clientOptions = ClientOptions.builder()
+                .socketOptions(SocketOptions.builder().connectTimeout(Duration.ofMillis(connectTimeoutMs)).build())
+                .timeoutOptions(TimeoutOptions.enabled(Duration.ofMillis(commandTimeoutMs)))
+                .disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS)
+                .build();
+        LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(redisConfig,
+                LettucePoolingClientConfiguration.builder()
+                        .poolConfig(poolConfig)
+                        .clientOptions(clientOptions)
+                        .commandTimeout(Duration.ofMillis(commandTimeoutMs))
+                        .build());
+        // Send each pipeline as one write instead of flushing after every command.
+        connectionFactory.setPipeliningFlushPolicy(LettuceConnection.PipeliningFlushPolicy.flushOnClose());
+        return connectionFactory;
     }
 
-    @Bean
-    public RedisTemplate<String, Game> redisTemplate(RedisConnectionFactory connectionFactory) {
-        RedisTemplate<String, Game> template = new RedisTemplate<>();
-        template.setConnectionFactory(connectionFactory);
+    @Value("${redis.game.write-json:false}")
+    private boolean writeJson;
+
+    @Value("${redis.game.compression.enabled:true}")
+    private boolean compressionEnabled;
+
+    @Value("${redis.game.compression.threshold-bytes:256}")
+    private int compressionThresholdBytes;
 
+    @Value("${redis.game.compression.level:1}")
+    private int compressionLevel;
+
+    public static ObjectMapper gameObjectMapper() {
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
         objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
         objectMapper.enable(DeserializationFeature.READ_ENUMS_USING_TO_STRING);
         objectMapper.enable(DeserializationFeature.READ_UNKNOWN_ENUM_VALUES_USING_DEFAULT_VALUE);
         objectMapper.enable(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY);
+        return objectMapper;
+    }
 
-        Jackson2JsonRedisSerializer<Game> serializer = new Jackson2JsonRedisSerializer<>(objectMapper, Game.class);
+    @Bean
+    public RedisTemplate<String, Game> redisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, Game> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+
+        Jackson2JsonRedisSerializer<Game> jsonSerializer = new Jackson2JsonRedisSerializer<>(gameObjectMapper(), Game.class);
+        // Always wrapped so values compressed earlier stay readable after compression is switched off.
+        int threshold = compressionEnabled ? compressionThresholdBytes : Integer.MAX_VALUE;
+        RedisSerializer<Game> serializer = new CompressingRedisSerializer<>(
+                new GameRedisSerializer(jsonSerializer, writeJson), threshold, compressionLevel);
 
         template.setKeySerializer(new StringRedisSerializer());
         template.setValueSerializer(serializer);
@@ -58,4 +128,40 @@ public class RedisConfig {
         logger.info("Redis template configured successfully");
         return template;
     }
+
+    /**
+     * The serializer for the fields of game hashes, shared by the blocking and reactive templates.
+     */
+    public static RedisSerializer<byte[]> gameHashValueSerializer(int thresholdBytes, int level) {
+        return new CompressingRedisSerializer<>(RedisSerializer.byteArray(), thresholdBytes, level);
+    }
+
+    @Bean
+    public RedisTemplate<String, byte[]> gameHashRedisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+
+        int threshold = compressionEnabled ? compressionThresholdBytes : Integer.MAX_VALUE;
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setHashKeySerializer(new StringRedisSerializer());
+        template.setHashValueSerializer(gameHashValueSerializer(threshold, compressionLevel));
+        template.afterPropertiesSet();
+        return template;
+    }
+
+    @Bean
+    public ReactiveRedisTemplate<String, byte[]> reactiveGameHashRedisTemplate(ReactiveRedisConnectionFactory connectionFactory) {
+        int threshold = compressionEnabled ? compressionThresholdBytes : Integer.MAX_VALUE;
+        RedisSerializationContext<String, byte[]> context = RedisSerializationContext.<String, byte[]>newSerializationContext(new StringRedisSerializer())
+                .value(RedisSerializer.byteArray())
+                .hashKey(new StringRedisSerializer())
+                .hashValue(gameHashValueSerializer(threshold, compressionLevel))
+                .build();
+        return new ReactiveRedisTemplate<>(connectionFactory, context);
+    }
+
+    @Bean
+    public StringRedisTemplate stringRedisTemplate(RedisConnectionFactory connectionFactory) {
+        return new StringRedisTemplate(connectionFactory);
+    }
 }
\ No newline at end of file
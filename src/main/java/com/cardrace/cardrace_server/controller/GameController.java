@@ -1,25 +1,35 @@
 package com.cardrace.cardrace_server.controller;
 
+import com.cardrace.cardrace_server.dto.LobbyPageDTO;
+import com.cardrace.cardrace_server.exceptions.PlayerLimitException;
+import com.cardrace.cardrace_server.service.BotService;
+import com.cardrace.cardrace_server.service.GameIdGenerator;
 import com.cardrace.cardrace_server.service.GameService;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
+
 @RequestMapping("api/games")
 @Controller
 public class GameController {
 
     private final GameService gameService;
+    private final BotService botService;
     private static final Logger logger = LoggerFactory.getLogger(GameController.class);
 
     @Autowired
-    public GameController(GameService gameService) {
+    public GameController(GameService gameService, BotService botService) {
         this.gameService = gameService;
+        this.botService = botService;
     }
 
     @PostConstruct
@@ -27,6 +37,8 @@ public class GameController {
         logger.info("GameController initialized with mappings:");
         logger.info("/api/games/create (POST)");
         logger.info("/api/games/available/{gameId} (GET)");
+        logger.info("/api/games/lobbies (GET)");
+        logger.info("/api/games/{gameId}/bots (POST)");
     }
 
     @PostMapping("/create")
@@ -38,7 +50,33 @@ public class GameController {
 
     @GetMapping("/available/{gameId}")
     public ResponseEntity<Boolean> checkGameAvailability(@PathVariable String gameId) {
-        boolean isAvailable = gameService.inLobby(gameId);
+        boolean isAvailable = gameService.isJoinable(GameIdGenerator.normalize(gameId));
         return ResponseEntity.ok(isAvailable);
     }
+
+    @GetMapping("/lobbies")
+    public ResponseEntity<LobbyPageDTO> getOpenLobbies(@RequestParam(defaultValue = "0") int page,
+                                                       @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(gameService.getOpenLobbies(page, size));
+    }
+
+    /**
+     * Seats bots in a waiting game; without a count every open seat is filled, which starts the game. Only a
+     * player already seated in the game may add bots, as filling it starts the game for everyone waiting.
+     */
+    @PostMapping("/{gameId}/bots")
+    public ResponseEntity<List<String>> addBots(Authentication authentication, @PathVariable("gameId") String code,
+                                                @RequestParam(required = false) Integer count) {
+        String gameId = GameIdGenerator.normalize(code);
+        try {
+            if (!gameService.doesPlayerExist(gameId, authentication.getName())) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+            return ResponseEntity.ok(botService.addBots(gameId, count));
+        } catch (PlayerLimitException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
 }
\ No newline at end of file
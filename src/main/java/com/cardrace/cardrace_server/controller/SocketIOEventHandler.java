@@ -4,8 +4,16 @@ import com.cardrace.cardrace_server.dto.MoveDTO;
 import com.cardrace.cardrace_server.exceptions.IllegalMoveException;
 import com.cardrace.cardrace_server.exceptions.InvalidMoveFormatException;
 import com.cardrace.cardrace_server.exceptions.PlayerLimitException;
+import com.cardrace.cardrace_server.model.MatchRecord;
+import com.cardrace.cardrace_server.model.game.Game;
+import com.cardrace.cardrace_server.model.game.Types;
+import com.cardrace.cardrace_server.service.BotService;
+import com.cardrace.cardrace_server.service.GameIdGenerator;
 import com.cardrace.cardrace_server.service.GameService;
 import com.cardrace.cardrace_server.service.JwtService;
+import com.cardrace.cardrace_server.service.LeaderboardService;
+import com.cardrace.cardrace_server.service.MatchHistoryService;
+import com.cardrace.cardrace_server.service.NodeSnapshotService;
 import com.cardrace.cardrace_server.service.UserService;
 import com.corundumstudio.socketio.SocketIOClient;
 import com.corundumstudio.socketio.SocketIOServer;
@@ -14,12 +22,24 @@ import com.corundumstudio.socketio.listener.DataListener;
 import com.corundumstudio.socketio.listener.DisconnectListener;
 import com.corundumstudio.socketio.HandshakeData;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Component
 public class SocketIOEventHandler {
@@ -28,25 +48,85 @@ public class SocketIOEventHandler {
     private final GameService gameService;
     private final JwtService jwtService;
     private final UserService userService;
+    private final LeaderboardService leaderboardService;
+    private final MatchHistoryService matchHistoryService;
+    private final NodeSnapshotService nodeSnapshotService;
+    private final BotService botService;
+    private final long drainTimeoutMs;
+    // One party per move in flight, plus the handler itself.
+    private final Phaser movesInFlight = new Phaser(1);
+    private volatile boolean draining;
+    private final ExecutorService gameEndExecutor = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "game-end");
+        thread.setDaemon(true);
+        return thread;
+    });
     private static final Logger logger = LoggerFactory.getLogger(SocketIOEventHandler.class);
 
     @Autowired
-    public SocketIOEventHandler(SocketIOServer server, GameService gameService, JwtService jwtService, UserService userService) {
+    public SocketIOEventHandler(SocketIOServer server, GameService gameService, JwtService jwtService, UserService userService,
+                                LeaderboardService leaderboardService, MatchHistoryService matchHistoryService,
+                                NodeSnapshotService nodeSnapshotService, BotService botService,
+                                @Value("${socket-server.drain-timeout-ms:10000}") long drainTimeoutMs) {
         this.server = server;
         this.gameService = gameService;
         this.jwtService = jwtService;
         this.userService = userService;
+        this.leaderboardService = leaderboardService;
+        this.matchHistoryService = matchHistoryService;
+        this.nodeSnapshotService = nodeSnapshotService;
+        this.botService = botService;
+        this.drainTimeoutMs = drainTimeoutMs;
     }
 
     /**
      * Initializes the SocketIO event listeners after the bean has been constructed.
-     * Sets up listeners for connection, disconnection, and move events.
+     * Sets up listeners for connection, disconnection, and move events, and routes bot moves through the
+     * same path as moves from sockets.
      */
     @PostConstruct
     public void init() {
         server.addConnectListener(onConnected());
         server.addDisconnectListener(onDisconnected());
         server.addEventListener("move", MoveDTO.class, onMakeMove());
+        server.addEventListener("hint", String.class, onHint());
+        botService.setDriver(new BotService.GameDriver() {
+            @Override
+            public void gameChanged(String gameId) {
+                SocketIOEventHandler.this.gameChanged(gameId);
+            }
+
+            @Override
+            public CompletionStage<Optional<Game>> submitMove(String gameId, MoveDTO move) {
+                return SocketIOEventHandler.this.submitMove(null, gameId, move);
+            }
+        });
+    }
+
+    /**
+     * Shuts down for a restart without ending games: new connections and moves are refused, moves and
+     * game-end work in flight are given {@code socket-server.drain-timeout-ms} to finish, the socket server is
+     * stopped without treating the dropped connections as players leaving, and the node's game state is
+     * written to a snapshot for the next run.
+     */
+    @PreDestroy
+    public void shutdown() {
+        draining = true;
+        long deadline = System.currentTimeMillis() + drainTimeoutMs;
+        try {
+            movesInFlight.awaitAdvanceInterruptibly(movesInFlight.arrive(), drainTimeoutMs, TimeUnit.MILLISECONDS);
+            gameEndExecutor.shutdown();
+            if (!gameEndExecutor.awaitTermination(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS)) {
+                logger.warn("Game-end work still running after drain timeout");
+            }
+        } catch (TimeoutException e) {
+            logger.warn("{} moves still in flight after drain timeout", movesInFlight.getUnarrivedParties());
+            gameEndExecutor.shutdown();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        server.stop();
+        nodeSnapshotService.save();
     }
 
     /**
@@ -58,9 +138,13 @@ public class SocketIOEventHandler {
      */
     private ConnectListener onConnected() {
         return (client) -> {
+            if (draining) {
+                client.disconnect();
+                return;
+            }
             HandshakeData handshakeData = client.getHandshakeData();
             String token = handshakeData.getSingleUrlParam("token");
-            String gameId = handshakeData.getSingleUrlParam("gameId");
+            String gameId = GameIdGenerator.normalize(handshakeData.getSingleUrlParam("gameId"));
 
             if (token == null || token.isEmpty() || gameId == null || gameId.isEmpty()) {
                 client.disconnect();
@@ -76,7 +160,7 @@ public class SocketIOEventHandler {
                     if (!gameService.doesPlayerExist(gameId, username)) {
                         try {
                             gameService.joinGame(gameId, username);
-                            broadcastGameState(gameId);
+                            gameChanged(gameId);
                         } catch (PlayerLimitException e) {
                             client.disconnect();
                         }
@@ -102,15 +186,17 @@ public class SocketIOEventHandler {
     private DisconnectListener onDisconnected() {
         return (client) -> {
             HandshakeData handshakeData = client.getHandshakeData();
-            String gameId = handshakeData.getSingleUrlParam("gameId");
+            String gameId = GameIdGenerator.normalize(handshakeData.getSingleUrlParam("gameId"));
             String username = client.get("username");
 
             logger.info("Client disconnected: " + client.getSessionId() + ", username: " + username);
 
-            if (gameService.doesGameExist(gameId)) {
+            // Connections dropped by a restart are not players leaving; they reconnect to the next run.
+            if (!draining && gameService.doesGameExist(gameId)) {
                 gameService.leaveGame(gameId, username);
                 broadcastGameState(gameId);
                 if (gameService.isTerminated(gameId)) {
+                    botService.gameEnded(gameId);
                     gameService.deleteGame(gameId);
                 }
             }
@@ -121,67 +207,150 @@ public class SocketIOEventHandler {
     /**
      * Handles move events from clients.
      * Validates moves, applies them to the game state, broadcasts updated game state,
-     * and manages game completion logic including player stat updates.
+     * and manages game completion logic including player stat updates. The move is loaded, applied and
+     * saved without blocking the socket thread; the broadcast runs on the Redis I/O thread that completes
+     * the save, and the blocking game-end work is handed to a small dedicated pool.
      *
      * @return DataListener that processes move events
      */
     private DataListener<MoveDTO> onMakeMove() {
-        return (client, data, ackSender) -> {
-            String username = client.get("username");
-            String gameId = client.get("gameId");
+        return (client, data, ackSender) -> submitMove(client, client.get("gameId"), data);
+    }
 
-            if (gameService.doesGameExist(gameId)) {
-                if (!gameService.hasCompleted(gameId)) {
-                    try {
-                        gameService.isValidMoveStructure(data);
-                    } catch (InvalidMoveFormatException e) {
-                        client.sendEvent("moveResult", "Error processing move: " + e.getMessage());
-                        return;
-                    }
+    /**
+     * Validates and applies a move, from a player's socket or, when the client is null, from a bot.
+     *
+     * @return A stage completing once the move has been applied and broadcast
+     */
+    private CompletionStage<Optional<Game>> submitMove(SocketIOClient client, String gameId, MoveDTO data) {
+        // Registered before checking for a drain, so a drain that starts in between still waits for this move.
+        movesInFlight.register();
+        if (draining) {
+            movesInFlight.arriveAndDeregister();
+            if (client != null) {
+                client.sendEvent("moveResult", "Error processing move: Server is restarting");
+            }
+            return CompletableFuture.failedFuture(new IllegalStateException("Server is restarting"));
+        }
+        try {
+            gameService.isValidMoveStructure(data);
+        } catch (InvalidMoveFormatException e) {
+            movesInFlight.arriveAndDeregister();
+            if (client != null) {
+                client.sendEvent("moveResult", "Error processing move: " + e.getMessage());
+            }
+            return CompletableFuture.failedFuture(e);
+        }
 
-                    try {
-                        gameService.applyMove(gameId, data);
-                        broadcastGameState(gameId);
-                        if (gameService.hasCompleted(gameId)) {
-                            handlePlayerStatUpdates(gameId);
-                            gameService.deleteGame(gameId);
-                        }
-                    } catch (IllegalMoveException e) {
-                        logger.error("Error processing move", e);
-                        client.sendEvent("moveResult", "Error processing move: " + e.getMessage());
-                    }
-                }
+        return gameService.applyMoveAsync(gameId, data).whenComplete((game, error) -> {
+            try {
+                completeMove(client, gameId, data, game, error);
+            } finally {
+                movesInFlight.arriveAndDeregister();
             }
+        });
+    }
+
+    private void completeMove(SocketIOClient client, String gameId, MoveDTO move, Optional<Game> game, Throwable error) {
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+            logger.error("Error processing move", cause);
+            if (client != null && cause instanceof IllegalMoveException) {
+                client.sendEvent("moveResult", "Error processing move: " + cause.getMessage());
+            }
+            return;
+        }
+        game.ifPresent(updated -> {
+            botService.moveApplied(gameId, move);
+            broadcastGameState(gameId, updated);
+            // Turns after a bot's own move are scheduled by the bot service once that move completes.
+            if (client != null) {
+                botService.onGameState(gameId, updated);
+            }
+            if (updated.getStatus() == Types.GameStatus.COMPLETE) {
+                gameEndExecutor.execute(() -> {
+                    handlePlayerStatUpdates(gameId, updated);
+                    gameService.deleteGame(gameId);
+                });
+            }
+        });
+    }
+
+    /**
+     * Handles hint requests: the player to move is sent a "hint" event with the move a search suggests.
+     * Requests out of turn, or while the bot pool is saturated, get no reply.
+     *
+     * @return DataListener that processes hint events
+     */
+    private DataListener<String> onHint() {
+        return (client, data, ackSender) -> {
+            String gameId = client.get("gameId");
+            String username = client.get("username");
+            gameService.findGame(gameId)
+                    .filter(game -> game.getStatus() == Types.GameStatus.IN_PROGRESS && Objects.equals(username, game.getCurrentPlayer()))
+                    .ifPresent(game -> botService.hint(gameId, game, username).thenAccept(move -> client.sendEvent("hint", move)));
         };
     }
 
+    /**
+     * Broadcasts a game whose players changed and plays its first turn if the game has just started and the
+     * turn falls to a bot.
+     *
+     * @param gameId The ID of the game
+     */
+    private void gameChanged(String gameId) {
+        gameService.findSnapshot(gameId).ifPresent(game -> {
+            broadcastGameState(gameId, game);
+            botService.onGameState(gameId, game);
+        });
+    }
+
     /**
      * Updates player statistics after a game has completed.
-     * Increments games played and turns for all players, and increments wins for the winner.
+     * Increments games played and turns for all players and wins for the winner in one batched
+     * write that completes off the socket thread, and records each result on the leaderboards.
+     * Bots have no accounts, so their results are left out.
      *
      * @param gameId The ID of the completed game
+     * @param game   The completed game
      */
-    private void handlePlayerStatUpdates(String gameId) {
-        Map<String, Integer> turnInformation = gameService.getPlayerTurnInformation(gameId);
-        String winner = gameService.getGameWinner(gameId);
-
-        for (Map.Entry<String, Integer> entry : turnInformation.entrySet()) {
-            String player = entry.getKey();
+    private void handlePlayerStatUpdates(String gameId, Game game) {
+        Map<String, Integer> turnInformation = gameService.getPlayerTurnInformation(game);
+        turnInformation.keySet().removeIf(BotService::isBot);
+        String winner = game.getWinner();
 
-            userService.incrementGamesPlayed(player);
-            userService.incrementTurns(player, entry.getValue());
-            if (Objects.equals(player, winner)) { userService.incrementWins(player); }
+        userService.recordGameResults(turnInformation, winner)
+                .exceptionally(e -> {
+                    logger.error("Error updating player stats for game {}", gameId, e);
+                    return null;
+                });
+        for (String player : turnInformation.keySet()) {
+            leaderboardService.recordResult(player, Objects.equals(player, winner));
         }
+        List<MatchRecord> records = gameService.getMatchRecords(gameId, game);
+        records.removeIf(record -> BotService.isBot(record.getUsername()));
+        matchHistoryService.record(records);
     }
 
     /**
-     * Broadcasts the current game state to all clients in a specific game room.
+     * Broadcasts the current game state to all clients in a specific game room, from one copy of the game
+     * taken under its lock.
      *
      * @param gameId The ID of the game whose state is to be broadcast
      */
     private void broadcastGameState(String gameId) {
+        gameService.findSnapshot(gameId).ifPresent(game -> broadcastGameState(gameId, game));
+    }
+
+    /**
+     * Broadcasts an already loaded game state to all clients in a specific game room.
+     *
+     * @param gameId The ID of the game whose state is to be broadcast
+     * @param game   A copy of the game no other thread changes, as the states are serialized later
+     */
+    private void broadcastGameState(String gameId, Game game) {
         for (SocketIOClient client : server.getRoomOperations(gameId).getClients()) {
-            sendGameState(client);
+            sendGameState(client, game);
         }
     }
 
@@ -190,17 +359,17 @@ public class SocketIOEventHandler {
      * This could be a waiting state, terminated state, or player-specific game state.
      *
      * @param client The SocketIOClient to send the game state to
+     * @param game   A copy of the game no other thread changes
      */
-    private void sendGameState(SocketIOClient client) {
+    private void sendGameState(SocketIOClient client, Game game) {
         String username = client.get("username");
-        String gameId = client.get("gameId");
 
-        if (gameService.inLobby(gameId)) {
-            client.sendEvent("gameState", gameService.getWaitingGameState(gameId));
-        } else if (gameService.isTerminated(gameId)) {
-            client.sendEvent("gameState", gameService.getTerminatedGameState(gameId));
+        if (game.getStatus() == Types.GameStatus.WAITING) {
+            client.sendEvent("gameState", gameService.getWaitingGameState(game));
+        } else if (game.getStatus() == Types.GameStatus.TERMINATED) {
+            client.sendEvent("gameState", gameService.getTerminatedGameState(game));
         } else {
-            client.sendEvent("gameState", gameService.getPlayerSpecificGameState(gameId, username));
+            client.sendEvent("gameState", gameService.getPlayerSpecificGameState(game, username));
         }
     }
 }
\ No newline at end of file
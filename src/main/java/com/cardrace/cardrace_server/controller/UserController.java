@@ -1,8 +1,16 @@
 package com.cardrace.cardrace_server.controller;
 
-import com.cardrace.cardrace_server.model.User;
+import com.cardrace.cardrace_server.dto.LeaderboardEntryDTO;
+import com.cardrace.cardrace_server.dto.LeaderboardPageDTO;
+import com.cardrace.cardrace_server.dto.MatchHistoryPageDTO;
+import com.cardrace.cardrace_server.dto.UserProfileDTO;
+import com.cardrace.cardrace_server.model.LeaderboardCategory;
+import com.cardrace.cardrace_server.service.LeaderboardService;
+import com.cardrace.cardrace_server.service.MatchHistoryService;
 import com.cardrace.cardrace_server.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
@@ -12,22 +20,51 @@ import org.springframework.web.bind.annotation.*;
 public class UserController {
 
     private final UserService userService;
+    private final LeaderboardService leaderboardService;
+    private final MatchHistoryService matchHistoryService;
 
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, LeaderboardService leaderboardService, MatchHistoryService matchHistoryService) {
         this.userService = userService;
+        this.leaderboardService = leaderboardService;
+        this.matchHistoryService = matchHistoryService;
     }
 
     @GetMapping("/profile")
-    public ResponseEntity<User> getUserProfile(Authentication authentication) {
+    public ResponseEntity<UserProfileDTO> getUserProfile(Authentication authentication,
+                                                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         String username = authentication.getName();
-        User user = userService.getUserProfile(username);
-        if (user != null) {
-            user.setPassword(null);
-            return ResponseEntity.ok(user);
-        } else {
+        UserProfileDTO profile = userService.getUserProfile(username);
+        if (profile == null) {
             return ResponseEntity.notFound().build();
         }
+        String eTag = profile.eTag();
+        if (eTag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).body(profile);
+    }
+
+    @GetMapping("/leaderboard")
+    public ResponseEntity<LeaderboardPageDTO> getLeaderboard(@RequestParam(defaultValue = "WINS") LeaderboardCategory category,
+                                                             @RequestParam(defaultValue = "0") int page,
+                                                             @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(leaderboardService.getPage(category, page, size));
+    }
+
+    @GetMapping("/leaderboard/me")
+    public ResponseEntity<LeaderboardEntryDTO> getOwnRank(Authentication authentication,
+                                                          @RequestParam(defaultValue = "WINS") LeaderboardCategory category) {
+        return leaderboardService.getRank(category, authentication.getName())
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/history")
+    public ResponseEntity<MatchHistoryPageDTO> getMatchHistory(Authentication authentication,
+                                                               @RequestParam(defaultValue = "20") int limit,
+                                                               @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(matchHistoryService.getHistory(authentication.getName(), limit, cursor));
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.cardrace.cardrace_server.dto;
+
+public record LeaderboardEntryDTO(
+        long rank,
+        String username,
+        double score
+) {}
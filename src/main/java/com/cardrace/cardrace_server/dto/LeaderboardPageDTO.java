@@ -0,0 +1,12 @@
+package com.cardrace.cardrace_server.dto;
+
+import com.cardrace.cardrace_server.model.LeaderboardCategory;
+
+import java.util.List;
+
+public record LeaderboardPageDTO(
+        LeaderboardCategory category,
+        int page,
+        int size,
+        List<LeaderboardEntryDTO> entries
+) {}
@@ -0,0 +1,9 @@
+package com.cardrace.cardrace_server.dto;
+
+import java.util.List;
+
+public record LobbyPageDTO(
+        int page,
+        int size,
+        List<LobbySummaryDTO> lobbies
+) {}
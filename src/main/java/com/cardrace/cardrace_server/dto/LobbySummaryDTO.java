@@ -0,0 +1,8 @@
+package com.cardrace.cardrace_server.dto;
+
+public record LobbySummaryDTO(
+        String gameId,
+        String gameName,
+        int players,
+        int capacity
+) {}
@@ -0,0 +1,17 @@
+package com.cardrace.cardrace_server.dto;
+
+import com.cardrace.cardrace_server.model.MatchRecord;
+
+public record MatchHistoryEntryDTO(
+        String gameId,
+        String color,
+        int placement,
+        int turns,
+        long durationSeconds,
+        long completedAt
+) {
+    public static MatchHistoryEntryDTO from(MatchRecord record) {
+        return new MatchHistoryEntryDTO(record.getGameId(), record.getColor(), record.getPlacement(),
+                record.getTurns(), record.getDurationSeconds(), record.getCompletedAt());
+    }
+}
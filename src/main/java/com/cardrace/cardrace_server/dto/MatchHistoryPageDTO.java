@@ -0,0 +1,8 @@
+package com.cardrace.cardrace_server.dto;
+
+import java.util.List;
+
+public record MatchHistoryPageDTO(
+        List<MatchHistoryEntryDTO> entries,
+        String nextCursor
+) {}
@@ -1,8 +1,8 @@
 package com.cardrace.cardrace_server.dto;
 
 import com.cardrace.cardrace_server.model.game.Card;
-import com.fasterxml.jackson.annotation.JsonCreator;
-import com.fasterxml.jackson.annotation.JsonProperty;
+import com.cardrace.cardrace_server.model.game.Move;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationContext;
@@ -10,31 +10,26 @@ import com.fasterxml.jackson.databind.JsonDeserializer;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
+@JsonDeserialize(using = MoveDTO.MoveDeserializer.class)
 public class MoveDTO {
     private final String username;
     private final Card card;
     private final Card substitute;
-
-    @JsonDeserialize(using = DistancesDeserializer.class)
-    private final Map<Integer, Integer> distances;
-
+    // Null if the move came without distances.
+    private final Move move;
     private final boolean forfeit;
 
-    @JsonCreator
-    public MoveDTO(
-            @JsonProperty("username") String username,
-            @JsonProperty("card") Card card,
-            @JsonProperty("substitute") Card substitute,
-            @JsonProperty("distances") Map<Integer, Integer> distances,
-            @JsonProperty("forfeit") boolean forfeit) {
+    public MoveDTO(String username, Card card, Card substitute, Map<Integer, Integer> distances, boolean forfeit) {
+        this(username, card, substitute, distances == null ? null : Move.of(card, substitute, distances), forfeit);
+    }
+
+    private MoveDTO(String username, Card card, Card substitute, Move move, boolean forfeit) {
         this.username = username;
         this.card = card;
         this.substitute = substitute;
-        this.distances = distances;
+        this.move = move;
         this.forfeit = forfeit;
     }
 
@@ -42,22 +37,26 @@ public class MoveDTO {
     public String getUsername() { return username; }
     public Card getCard() { return card; }
     public Card getSubstitute() { return substitute; }
-    public Map<Integer, Integer> getDistances() { return distances; }
+    public Map<Integer, Integer> getDistances() { return move == null ? null : move.toMap(); }
     public boolean isForfeit() { return forfeit; }
 
-    // Custom deserializer for distances
-    private static class DistancesDeserializer extends JsonDeserializer<Map<Integer, Integer>> {
+    /**
+     * @return The move's cards and distances in primitives, or null if it came without distances
+     */
+    @JsonIgnore
+    public Move getMove() { return move; }
+
+    // Custom deserializer reading the payload token by token, so distances are never boxed
+    static class MoveDeserializer extends JsonDeserializer<MoveDTO> {
         @Override
-        public Map<Integer, Integer> deserialize(JsonParser p, DeserializationContext ctxt)
+        public MoveDTO deserialize(JsonParser p, DeserializationContext ctxt)
                 throws IOException, JsonProcessingException {
-            List<List<Integer>> list = p.readValueAs(List.class);
-            Map<Integer, Integer> map = new HashMap<>();
-            for (List<Integer> pair : list) {
-                if (pair.size() == 2) {
-                    map.put(pair.get(0), pair.get(1));
-                }
-            }
-            return map;
+            MoveReader reader = new MoveReader();
+            reader.read(p);
+            Move move = reader.move();
+            CharSequence username = reader.username();
+            return new MoveDTO(username == null ? null : username.toString(), move.getCard(), move.getSubstitute(),
+                    reader.hasDistances() ? move : null, reader.isForfeit());
         }
     }
 
@@ -67,9 +66,9 @@ public class MoveDTO {
                 "username='" + username + '\'' +
                 ", card=" + card +
                 ", substitute=" + substitute +
-                ", distances=" + distances +
+                ", distances=" + getDistances() +
                 ", forfeit=" + forfeit +
                 '}';
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,193 @@
+package com.cardrace.cardrace_server.dto;
+
+import com.cardrace.cardrace_server.model.game.Card;
+import com.cardrace.cardrace_server.model.game.Move;
+import com.cardrace.cardrace_server.model.game.Types;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * Reads "move" payloads straight off a JSON token stream into a reused {@link Move}, the shape MoveDTO takes:
+ * {"username": ..., "card": {...}, "substitute": {...}, "distances": [[marble, distance], ...], "forfeit": ...}.
+ * Distances are read as ints in payload order and cards resolve to their shared instances, so once the
+ * username buffer has grown to the longest name seen, reading a move allocates nothing. As with MoveDTO,
+ * unknown fields are skipped and distance pairs that are not pairs are ignored.
+ */
+public final class MoveReader {
+
+    private static final Types.CardValue[] CARD_VALUES = Types.CardValue.values();
+    private static final Types.CardSuit[] CARD_SUITS = Types.CardSuit.values();
+
+    private final Move move = new Move();
+    private final StringBuilder username = new StringBuilder();
+    private boolean hasUsername;
+    private boolean hasDistances;
+    private boolean forfeit;
+
+    /**
+     * Reads the next move object. The parser may be positioned on the object's start or just before it.
+     *
+     * @param p The parser
+     * @return false if the input ended before another move
+     * @throws JsonParseException If the next value is not a well-formed move
+     */
+    public boolean read(JsonParser p) throws IOException {
+        JsonToken token = p.currentToken() == JsonToken.START_OBJECT ? JsonToken.START_OBJECT : p.nextToken();
+        if (token == null) {
+            return false;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw new JsonParseException(p, "Move must be an object");
+        }
+        move.clear();
+        username.setLength(0);
+        hasUsername = false;
+        hasDistances = false;
+        forfeit = false;
+
+        String field;
+        while ((field = p.nextFieldName()) != null) {
+            JsonToken value = p.nextToken();
+            switch (field) {
+                case "username" -> {
+                    if (value == JsonToken.VALUE_STRING) {
+                        username.append(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+                        hasUsername = true;
+                    } else if (value != JsonToken.VALUE_NULL) {
+                        throw new JsonParseException(p, "Username must be a string");
+                    }
+                }
+                case "card" -> move.setCard(readCard(p));
+                case "substitute" -> move.setSubstitute(readCard(p));
+                case "distances" -> hasDistances = readDistances(p, move);
+                case "forfeit" -> {
+                    forfeit = p.getValueAsBoolean();
+                    p.skipChildren();
+                }
+                default -> p.skipChildren();
+            }
+        }
+        if (p.currentToken() != JsonToken.END_OBJECT) {
+            throw new JsonParseException(p, "Unexpected " + p.currentToken() + " in move");
+        }
+        return true;
+    }
+
+    /**
+     * Reads a distances array, the parser being on its start, into a move as ordered marble and distance pairs.
+     *
+     * @return false if the distances were null
+     */
+    private static boolean readDistances(JsonParser p, Move into) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL) {
+            return false;
+        }
+        if (p.currentToken() != JsonToken.START_ARRAY) {
+            throw new JsonParseException(p, "Distances must be an array of [marble, distance] pairs");
+        }
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            if (p.currentToken() != JsonToken.START_ARRAY) {
+                throw new JsonParseException(p, "Distances must be an array of [marble, distance] pairs");
+            }
+            int count = 0;
+            int marbleId = 0;
+            int distance = 0;
+            while (p.nextToken() != JsonToken.END_ARRAY) {
+                if (p.currentToken() != JsonToken.VALUE_NUMBER_INT) {
+                    throw new JsonParseException(p, "Marble IDs and distances must be integers");
+                }
+                if (count == 0) {
+                    marbleId = p.getIntValue();
+                } else {
+                    distance = p.getIntValue();
+                }
+                count++;
+            }
+            if (count == 2) {
+                try {
+                    into.put(marbleId, distance);
+                } catch (IllegalArgumentException e) {
+                    throw new JsonParseException(p, e.getMessage());
+                }
+            }
+        }
+        return true;
+    }
+
+    private static Card readCard(JsonParser p) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (p.currentToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(p, "Card must be an object");
+        }
+        Types.CardValue value = null;
+        Types.CardSuit suit = null;
+        String field;
+        while ((field = p.nextFieldName()) != null) {
+            p.nextToken();
+            switch (field) {
+                case "cardValue" -> value = enumValue(p, CARD_VALUES);
+                case "cardSuit" -> suit = enumValue(p, CARD_SUITS);
+                default -> p.skipChildren();
+            }
+        }
+        return Card.of(value, suit);
+    }
+
+    /**
+     * Matches a string value against enum constant names in place, without reading it into a String.
+     */
+    private static <E extends Enum<E>> E enumValue(JsonParser p, E[] values) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (p.currentToken() != JsonToken.VALUE_STRING) {
+            throw new JsonParseException(p, "Expected a " + values[0].getDeclaringClass().getSimpleName() + " name");
+        }
+        char[] text = p.getTextCharacters();
+        int offset = p.getTextOffset();
+        int length = p.getTextLength();
+        for (E value : values) {
+            String name = value.name();
+            if (name.length() == length && matches(name, text, offset)) {
+                return value;
+            }
+        }
+        throw new JsonParseException(p, "Unknown " + values[0].getDeclaringClass().getSimpleName() + " " + p.getText());
+    }
+
+    private static boolean matches(String name, char[] text, int offset) {
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) != text[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return The move last read; reused by the next read
+     */
+    public Move move() {
+        return move;
+    }
+
+    /**
+     * @return The username last read, or null if the move had none; the buffer is reused by the next read
+     */
+    public CharSequence username() {
+        return hasUsername ? username : null;
+    }
+
+    public boolean hasDistances() {
+        return hasDistances;
+    }
+
+    public boolean isForfeit() {
+        return forfeit;
+    }
+}
@@ -0,0 +1,22 @@
+package com.cardrace.cardrace_server.dto;
+
+import com.cardrace.cardrace_server.model.User;
+
+public record UserProfileDTO(
+        String id,
+        String username,
+        int gamesPlayed,
+        int wins,
+        int turns
+) {
+    public static UserProfileDTO from(User user) {
+        return new UserProfileDTO(user.getId(), user.getUsername(), user.getGamesPlayed(), user.getWins(), user.getTurns());
+    }
+
+    /**
+     * Counters only ever grow, so they identify a given user's profile version without hashing.
+     */
+    public String eTag() {
+        return "\"" + gamesPlayed + "." + wins + "." + turns + "\"";
+    }
+}
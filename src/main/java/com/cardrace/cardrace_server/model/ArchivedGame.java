@@ -0,0 +1,84 @@
+package com.cardrace.cardrace_server.model;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.*;
+
+/**
+ * Final state of a completed or terminated game. Game IDs are short and may be reused once a game is gone,
+ * so rows are keyed by game ID and archive time. The state is stored as a deflated GameCodec snapshot.
+ */
+@DynamoDBTable(tableName = "GameArchive")
+public class ArchivedGame {
+
+    @DynamoDBHashKey
+    private String gameId;
+
+    @DynamoDBRangeKey
+    private long archivedAt;
+
+    @DynamoDBAttribute
+    private String status;
+
+    @DynamoDBAttribute
+    private String winner;
+
+    @DynamoDBAttribute
+    private byte[] state;
+
+    // Default constructor
+    public ArchivedGame() {}
+
+    // Constructor with fields
+    public ArchivedGame(String gameId, long archivedAt, String status, String winner, byte[] state) {
+        this.gameId = gameId;
+        this.archivedAt = archivedAt;
+        this.status = status;
+        this.winner = winner;
+        this.state = state;
+    }
+
+    // Getters and Setters
+    @DynamoDBHashKey
+    public String getGameId() {
+        return gameId;
+    }
+
+    public void setGameId(String gameId) {
+        this.gameId = gameId;
+    }
+
+    @DynamoDBRangeKey
+    public long getArchivedAt() {
+        return archivedAt;
+    }
+
+    public void setArchivedAt(long archivedAt) {
+        this.archivedAt = archivedAt;
+    }
+
+    @DynamoDBAttribute
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    @DynamoDBAttribute
+    public String getWinner() {
+        return winner;
+    }
+
+    public void setWinner(String winner) {
+        this.winner = winner;
+    }
+
+    @DynamoDBAttribute
+    public byte[] getState() {
+        return state;
+    }
+
+    public void setState(byte[] state) {
+        this.state = state;
+    }
+}
@@ -0,0 +1,13 @@
+package com.cardrace.cardrace_server.model;
+
+public enum LeaderboardCategory {
+    WINS("wins"),
+    WIN_RATE("winRate"),
+    GAMES_PLAYED("gamesPlayed");
+
+    public final String key;
+
+    LeaderboardCategory(String key) {
+        this.key = key;
+    }
+}
@@ -0,0 +1,127 @@
+package com.cardrace.cardrace_server.model;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.*;
+
+/**
+ * One player's result in one finished game. Rows are keyed by username and a sort key that
+ * starts with the zero-padded completion time, so a descending query returns the latest games first.
+ */
+@DynamoDBTable(tableName = "MatchHistory")
+public class MatchRecord {
+
+    @DynamoDBHashKey
+    private String username;
+
+    @DynamoDBRangeKey
+    private String sortKey;
+
+    @DynamoDBAttribute
+    private String gameId;
+
+    @DynamoDBAttribute
+    private String color;
+
+    @DynamoDBAttribute
+    private int placement;
+
+    @DynamoDBAttribute
+    private int turns;
+
+    @DynamoDBAttribute
+    private long durationSeconds;
+
+    @DynamoDBAttribute
+    private long completedAt;
+
+    // Default constructor
+    public MatchRecord() {}
+
+    // Constructor with fields
+    public MatchRecord(String username, String gameId, String color, int placement, int turns, long durationSeconds, long completedAt) {
+        this.username = username;
+        this.sortKey = sortKey(completedAt, gameId);
+        this.gameId = gameId;
+        this.color = color;
+        this.placement = placement;
+        this.turns = turns;
+        this.durationSeconds = durationSeconds;
+        this.completedAt = completedAt;
+    }
+
+    public static String sortKey(long completedAt, String gameId) {
+        return String.format("%013d#%s", completedAt, gameId);
+    }
+
+    // Getters and Setters
+    @DynamoDBHashKey
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    @DynamoDBRangeKey
+    public String getSortKey() {
+        return sortKey;
+    }
+
+    public void setSortKey(String sortKey) {
+        this.sortKey = sortKey;
+    }
+
+    @DynamoDBAttribute
+    public String getGameId() {
+        return gameId;
+    }
+
+    public void setGameId(String gameId) {
+        this.gameId = gameId;
+    }
+
+    @DynamoDBAttribute
+    public String getColor() {
+        return color;
+    }
+
+    public void setColor(String color) {
+        this.color = color;
+    }
+
+    @DynamoDBAttribute
+    public int getPlacement() {
+        return placement;
+    }
+
+    public void setPlacement(int placement) {
+        this.placement = placement;
+    }
+
+    @DynamoDBAttribute
+    public int getTurns() {
+        return turns;
+    }
+
+    public void setTurns(int turns) {
+        this.turns = turns;
+    }
+
+    @DynamoDBAttribute
+    public long getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public void setDurationSeconds(long durationSeconds) {
+        this.durationSeconds = durationSeconds;
+    }
+
+    @DynamoDBAttribute
+    public long getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(long completedAt) {
+        this.completedAt = completedAt;
+    }
+}
@@ -3,34 +3,68 @@ package com.cardrace.cardrace_server.model.game;
 import com.cardrace.cardrace_server.exceptions.IllegalMoveException;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 
 import java.util.*;
 
+/*
+ * The board is held in primitive arrays indexed by seat, the order colors were given in: marble IDs seat * 4
+ * to seat * 4 + 3 belong to a seat, whose start space is seat * 16. Track spaces and safe zone slots hold
+ * marble IDs as bytes, and reserves and protection are bit sets over marble IDs. The JSON shape is unchanged:
+ * the maps and boxed arrays it is made of are built by the property getters when a board is written, and
+ * taken apart by the creator when one is read.
+ */
 public class Board {
-    @JsonProperty
-    public final Map<Integer, Marble> marbles;
-    @JsonProperty
-    public final Integer[] spaces;
-    @JsonProperty
-    public final Map<Types.Color, Integer[]> safeZones;
-    @JsonProperty
-    public final Map<Types.Color, List<Integer>> reserves;
-    @JsonProperty
-    public final Map<Types.Color, Integer> startPositions;
-    @JsonProperty
-    private final int boardSize;
+    public static final int SAFE_ZONE_SIZE = 4;
+    public static final int MARBLES_PER_SEAT = 4;
+    public static final int SPACES_PER_SEAT = 16;
+    public static final int NONE = -1;
+
+    private final Types.Color[] seatColors;
+    private final byte[] spaces;
+    // Slot seat * SAFE_ZONE_SIZE + slot of every seat's safe zone.
+    private final byte[] safeZones;
+    private int reserveMask;
+    private int protectedMask;
+    // Filled safe zone slots as a bit set indexed like safeZones, so win checks are a bit count.
+    private int safeMask;
+    // Zobrist hash of marble placement and protection, kept up to date by every mutation below.
+    private long hash;
 
     public Board(List<Types.Color> colors) {
-        this.boardSize = colors.size() * 16;
-        this.spaces = new Integer[boardSize];
-        this.safeZones = new EnumMap<>(Types.Color.class);
-        this.reserves = new EnumMap<>(Types.Color.class);
-        this.startPositions = new EnumMap<>(Types.Color.class);
-        this.marbles = new HashMap<>();
+        this(colors.toArray(new Types.Color[0]));
+        for (int id = 0; id < seatColors.length * MARBLES_PER_SEAT; id++) {
+            reserveMask |= 1 << id;
+            protectedMask |= 1 << id;
+        }
+        this.hash = computeHash();
+    }
 
-        initializeBoard(colors);
+    private Board(Types.Color[] seatColors) {
+        this.seatColors = seatColors;
+        this.spaces = new byte[seatColors.length * SPACES_PER_SEAT];
+        this.safeZones = new byte[seatColors.length * SAFE_ZONE_SIZE];
+        Arrays.fill(spaces, (byte) NONE);
+        Arrays.fill(safeZones, (byte) NONE);
+    }
+
+    /**
+     * Restores a board from already-decoded state. Used by GameCodec and for copies.
+     */
+    Board(Types.Color[] seatColors, byte[] spaces, byte[] safeZones, int reserveMask, int protectedMask) {
+        this.seatColors = seatColors;
+        this.spaces = spaces;
+        this.safeZones = safeZones;
+        this.reserveMask = reserveMask;
+        this.protectedMask = protectedMask;
+        for (int slot = 0; slot < safeZones.length; slot++) {
+            if (safeZones[slot] != NONE) {
+                safeMask |= 1 << slot;
+            }
+        }
+        this.hash = computeHash();
     }
 
     @JsonCreator
@@ -42,68 +76,62 @@ public class Board {
             @JsonProperty("startPositions") Map<Types.Color, Integer> startPositions,
             @JsonProperty("boardSize") int boardSize
     ) {
-        this.marbles = marbles;
-        this.spaces = spaces;
-        this.safeZones = safeZones;
-        this.reserves = reserves;
-        this.startPositions = startPositions;
-        this.boardSize = boardSize;
-    }
-
-    private void initializeBoard(List<Types.Color> colors) {
-        int startPosition = 0;
-        int marbleId = 0;
-        for (Types.Color color : colors) {
-            createSafeZone(color);
-            createReserve(color, marbleId);
-            marbleId += 4;
-
-            startPositions.put(color, startPosition);
-            startPosition += 16;
+        this(seatColors(marbles));
+        for (int position = 0; position < spaces.length; position++) {
+            if (spaces[position] != null) {
+                this.spaces[position] = spaces[position].byteValue();
+            }
         }
+        for (int seat = 0; seat < seatColors.length; seat++) {
+            Integer[] safeZone = safeZones.get(seatColors[seat]);
+            for (int slot = 0; slot < SAFE_ZONE_SIZE; slot++) {
+                if (safeZone[slot] != null) {
+                    this.safeZones[seat * SAFE_ZONE_SIZE + slot] = safeZone[slot].byteValue();
+                    safeMask |= 1 << (seat * SAFE_ZONE_SIZE + slot);
+                }
+            }
+            for (int marbleId : reserves.get(seatColors[seat])) {
+                reserveMask |= 1 << marbleId;
+            }
+        }
+        for (Marble marble : marbles.values()) {
+            if (marble.getState() == Types.MarbleState.PROTECTED) {
+                protectedMask |= 1 << marble.id;
+            }
+        }
+        this.hash = computeHash();
     }
 
-    private void createSafeZone(Types.Color color) {
-        safeZones.put(color, new Integer[4]);
-    }
-
-    private void createReserve(Types.Color color, int startId) {
-        Types.MarbleType[] types = {Types.MarbleType.A, Types.MarbleType.B, Types.MarbleType.C, Types.MarbleType.D};
-
-        ArrayList<Integer> reserve = new ArrayList<>();
-        for (int i = 0; i < 4; i++) {
-            int id = startId + i;
-            Marble marble = new Marble(id, color, types[i], Types.MarbleState.PROTECTED);
-            marbles.put(id, marble);
-            reserve.add(id);
+    private static Types.Color[] seatColors(Map<Integer, Marble> marbles) {
+        Types.Color[] colors = new Types.Color[marbles.size() / MARBLES_PER_SEAT];
+        for (Marble marble : marbles.values()) {
+            colors[marble.id / MARBLES_PER_SEAT] = marble.getColor();
         }
-        reserves.put(color, reserve);
+        return colors;
     }
 
     public void activateMarble(int marbleId) throws IllegalMoveException {
-        Marble marble = marbles.get(marbleId);
-        marble.setState(Types.MarbleState.PROTECTED);
-        Types.Color marbleColor = marble.getColor();
-
-        List<Integer> reserveMarbles = reserves.get(marbleColor);
-        if (!reserveMarbles.contains(marbleId)) {
+        if (!inReserve(marbleId)) {
             throw new NoSuchElementException("Marble not in reserve!");
         }
-        reserveMarbles.remove(Integer.valueOf(marbleId));
-        int startPos = startPositions.get(marbleColor);
-        if (spaces[startPos] != null) {
-            Integer tenantId = spaces[startPos];
-            Marble tenantMarble = marbles.get(tenantId);
-            if (tenantMarble.getColor() == marbleColor && tenantMarble.getState() == Types.MarbleState.PROTECTED) {
+        setMarbleState(marbleId, Types.MarbleState.PROTECTED);
+        reserveMask &= ~(1 << marbleId);
+        hash ^= Zobrist.reserve(marbleId);
+        int seat = marbleId / MARBLES_PER_SEAT;
+        int startPos = seat * SPACES_PER_SEAT;
+        int tenantId = spaces[startPos];
+        if (tenantId != NONE) {
+            if (tenantId / MARBLES_PER_SEAT == seat && isProtected(tenantId)) {
                 throw new IllegalMoveException("Cannot activate a new marble onto a protected one!");
-            } else { sendToReserve(tenantId); }
+            } else { sendToReserve(startPos); }
         }
-        spaces[startPos] = marbleId;
+        place(marbleId, startPos);
     }
 
     public int findMarble(int marbleId) throws NoSuchElementException {
-        for (int i = 0; i < boardSize; i++) {
-            if (spaces[i] != null && spaces[i].equals(marbleId)) {
+        checkMarble(marbleId);
+        for (int i = 0; i < spaces.length; i++) {
+            if (spaces[i] == marbleId) {
                 return i;
             }
         }
@@ -111,19 +139,18 @@ public class Board {
     }
 
     public boolean inReserve(int marbleId) {
-        Marble marble = marbles.get(marbleId);
-        Types.Color marbleColor = marble.getColor();
-
-        List<Integer> reserve = reserves.get(marbleColor);
-        return reserve.contains(marbleId);
+        checkMarble(marbleId);
+        return (reserveMask & (1 << marbleId)) != 0;
     }
 
     public void swapMarble(int sourceId, int targetId) throws IllegalMoveException {
         int pos1 = findMarble(sourceId);
         int pos2 = findMarble(targetId);
 
-        spaces[pos1] = targetId;
-        spaces[pos2] = sourceId;
+        vacate(pos1);
+        vacate(pos2);
+        place(targetId, pos1);
+        place(sourceId, pos2);
     }
 
     public void moveMarble(int marbleId, int distance, boolean bully) throws IllegalMoveException {
@@ -132,16 +159,19 @@ public class Board {
         int currentPosition = startPosition;
         int remainingDistance = Math.abs(distance);
         boolean movingBackwards = distance < 0;
-        Marble marble = marbles.get(marbleId);
+        int seat = marbleId / MARBLES_PER_SEAT;
+        int boardSize = spaces.length;
 
         while (remainingDistance > 0) {
 
-            if (!movingBackwards && currentPosition == startPositions.get(marble.getColor()) && marble.getState() != Types.MarbleState.PROTECTED) {
+            if (!movingBackwards && currentPosition == seat * SPACES_PER_SEAT && !isProtected(marbleId)) {
                 int safeZonePosition = remainingDistance - 1;
-                Integer[] safeZone = safeZones.get(marble.getColor());
-                if (safeZonePosition < 4 && safeZone[safeZonePosition] == null) {
-                    spaces[startPosition] = null;
-                    safeZone[safeZonePosition] = marbleId;
+                int slot = seat * SAFE_ZONE_SIZE + safeZonePosition;
+                if (safeZonePosition < SAFE_ZONE_SIZE && safeZones[slot] == NONE) {
+                    vacate(startPosition);
+                    safeZones[slot] = (byte) marbleId;
+                    safeMask |= 1 << slot;
+                    hash ^= Zobrist.safe(marbleId, safeZonePosition);
                     return;
                 }
             }
@@ -154,38 +184,254 @@ public class Board {
             remainingDistance--;
 
             // Check for any occupying marbles
-            Integer occupyingMarbleId = spaces[currentPosition];
-            if (occupyingMarbleId != null) {
-                Marble occupyingMarble = marbles.get(occupyingMarbleId);
-                if (bully && occupyingMarble.getState() != Types.MarbleState.PROTECTED) {
-                    sendToReserve(occupyingMarbleId);
-                    spaces[currentPosition] = null;
-                }
+            int occupyingMarbleId = spaces[currentPosition];
+            if (occupyingMarbleId != NONE && bully && !isProtected(occupyingMarbleId)) {
+                sendToReserve(currentPosition);
             }
         }
-        Integer landingMarbleId = spaces[currentPosition];
-        if (landingMarbleId != null) {
-            Marble landingMarble = marbles.get(landingMarbleId);
-            if (landingMarble.getState() == Types.MarbleState.PROTECTED) {
+        int landingMarbleId = spaces[currentPosition];
+        if (landingMarbleId != NONE) {
+            if (isProtected(landingMarbleId)) {
                 throw new IllegalMoveException("Cannot land on a protected marble");
             } else {
-                sendToReserve(landingMarbleId);
+                sendToReserve(currentPosition);
             }
         }
-        spaces[startPosition] = null;
-        spaces[currentPosition] = marbleId;
+        vacate(startPosition);
+        place(marbleId, currentPosition);
+    }
+
+    /**
+     * Takes a marble off the track and puts it back in its reserve, as a capture does.
+     */
+    public void returnToReserve(int marbleId) {
+        sendToReserve(findMarble(marbleId));
+    }
+
+    /**
+     * Sets a marble's protection, keeping the board's hash in step.
+     */
+    public void setMarbleState(int marbleId, Types.MarbleState state) {
+        checkMarble(marbleId);
+        if (isProtected(marbleId) != (state == Types.MarbleState.PROTECTED)) {
+            protectedMask ^= 1 << marbleId;
+            hash ^= Zobrist.protectedMarble(marbleId);
+        }
+    }
+
+    public boolean isProtected(int marbleId) {
+        checkMarble(marbleId);
+        return (protectedMask & (1 << marbleId)) != 0;
+    }
+
+    /**
+     * @return The Zobrist hash of where every marble is and which are protected; equal boards hash equally
+     */
+    @JsonIgnore
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Hashes the board from scratch, for boards built from stored state and for checking the kept hash.
+     */
+    long computeHash() {
+        long computed = 0;
+        for (int marbleId = 0; marbleId < numMarbles(); marbleId++) {
+            if (isProtected(marbleId)) {
+                computed ^= Zobrist.protectedMarble(marbleId);
+            }
+            if (inReserve(marbleId)) {
+                computed ^= Zobrist.reserve(marbleId);
+            }
+        }
+        for (int position = 0; position < spaces.length; position++) {
+            if (spaces[position] != NONE) {
+                computed ^= Zobrist.space(spaces[position], position);
+            }
+        }
+        for (int slot = 0; slot < safeZones.length; slot++) {
+            if (safeZones[slot] != NONE) {
+                computed ^= Zobrist.safe(safeZones[slot], slot % SAFE_ZONE_SIZE);
+            }
+        }
+        return computed;
+    }
+
+    /*
+     * Marble IDs index bit sets by shifting, which wraps at 32, so an ID off the board would alias a real
+     * marble. Every public method taking an ID checks it before changing anything.
+     */
+    private void checkMarble(int marbleId) {
+        if (marbleId < 0 || marbleId >= numMarbles()) {
+            throw new IllegalArgumentException("No marble " + marbleId + " on this board!");
+        }
+    }
+
+    private void place(int marbleId, int position) {
+        spaces[position] = (byte) marbleId;
+        hash ^= Zobrist.space(marbleId, position);
     }
 
-    private void sendToReserve(int marbleId) {
-        Marble marble = marbles.get(marbleId);
-        reserves.get(marble.getColor()).add(marbleId);
+    private void vacate(int position) {
+        hash ^= Zobrist.space(spaces[position], position);
+        spaces[position] = NONE;
     }
 
-    public Integer[] getSafeZone(Types.Color color) {
-        return safeZones.get(color);
+    private void sendToReserve(int position) {
+        int marbleId = spaces[position];
+        vacate(position);
+        reserveMask |= 1 << marbleId;
+        hash ^= Zobrist.reserve(marbleId);
     }
 
+    public int countSafeMarbles(Types.Color color) {
+        return Integer.bitCount((safeMask >>> (seatOf(color) * SAFE_ZONE_SIZE)) & ((1 << SAFE_ZONE_SIZE) - 1));
+    }
+
+    /**
+     * @return The marble in a slot of a color's safe zone, or NONE
+     */
+    public int safeZoneSlot(Types.Color color, int slot) {
+        return safeZones[seatOf(color) * SAFE_ZONE_SIZE + slot];
+    }
+
+    /**
+     * @return The marble on a track space, or NONE
+     */
+    public int marbleAt(int position) {
+        return spaces[position];
+    }
+
+    /**
+     * @return The lowest-numbered marble in a color's reserve, or NONE if it is empty
+     */
+    public int firstInReserve(Types.Color color) {
+        int seatReserve = (reserveMask >>> (seatOf(color) * MARBLES_PER_SEAT)) & ((1 << MARBLES_PER_SEAT) - 1);
+        return seatReserve == 0 ? NONE : seatOf(color) * MARBLES_PER_SEAT + Integer.numberOfTrailingZeros(seatReserve);
+    }
+
+    public Marble getMarble(int marbleId) {
+        checkMarble(marbleId);
+        return Marble.of(marbleId, seatColors[marbleId / MARBLES_PER_SEAT],
+                isProtected(marbleId) ? Types.MarbleState.PROTECTED : Types.MarbleState.UNPROTECTED);
+    }
+
+    public int numMarbles() {
+        return seatColors.length * MARBLES_PER_SEAT;
+    }
+
+    public int numSeats() {
+        return seatColors.length;
+    }
+
+    public Types.Color seatColor(int seat) {
+        return seatColors[seat];
+    }
+
+    public int seatOf(Types.Color color) {
+        for (int seat = 0; seat < seatColors.length; seat++) {
+            if (seatColors[seat] == color) {
+                return seat;
+            }
+        }
+        throw new NoSuchElementException("No seat for " + color);
+    }
+
+    public int getStartPosition(Types.Color color) {
+        return seatOf(color) * SPACES_PER_SEAT;
+    }
+
+    /**
+     * @return A deep copy of the board, for searches that play moves out without touching the real game
+     */
+    public Board copy() {
+        return new Board(seatColors, spaces.clone(), safeZones.clone(), reserveMask, protectedMask);
+    }
+
+    /**
+     * Copies this board's state into a board with as many seats, allocating nothing. Used to undo a move that
+     * failed partway through.
+     */
+    void copyInto(Board target) {
+        System.arraycopy(spaces, 0, target.spaces, 0, spaces.length);
+        System.arraycopy(safeZones, 0, target.safeZones, 0, safeZones.length);
+        target.reserveMask = reserveMask;
+        target.protectedMask = protectedMask;
+        target.safeMask = safeMask;
+        target.hash = hash;
+    }
+
+    int getReserveMask() {
+        return reserveMask;
+    }
+
+    int getProtectedMask() {
+        return protectedMask;
+    }
+
+    /*
+     * JSON properties, built on demand from the arrays above.
+     */
+
+    @JsonProperty("marbles")
     public Map<Integer, Marble> getMarbles() {
+        Map<Integer, Marble> marbles = new LinkedHashMap<>();
+        for (int marbleId = 0; marbleId < numMarbles(); marbleId++) {
+            marbles.put(marbleId, getMarble(marbleId));
+        }
         return marbles;
     }
-}
\ No newline at end of file
+
+    @JsonProperty("spaces")
+    Integer[] getSpaces() {
+        Integer[] boxed = new Integer[spaces.length];
+        for (int position = 0; position < spaces.length; position++) {
+            boxed[position] = spaces[position] == NONE ? null : (int) spaces[position];
+        }
+        return boxed;
+    }
+
+    @JsonProperty("safeZones")
+    Map<Types.Color, Integer[]> getSafeZones() {
+        Map<Types.Color, Integer[]> zones = new EnumMap<>(Types.Color.class);
+        for (Types.Color color : seatColors) {
+            Integer[] zone = new Integer[SAFE_ZONE_SIZE];
+            for (int slot = 0; slot < SAFE_ZONE_SIZE; slot++) {
+                int marbleId = safeZoneSlot(color, slot);
+                zone[slot] = marbleId == NONE ? null : marbleId;
+            }
+            zones.put(color, zone);
+        }
+        return zones;
+    }
+
+    @JsonProperty("reserves")
+    Map<Types.Color, List<Integer>> getReserves() {
+        Map<Types.Color, List<Integer>> reserves = new EnumMap<>(Types.Color.class);
+        for (int seat = 0; seat < seatColors.length; seat++) {
+            List<Integer> reserve = new ArrayList<>(MARBLES_PER_SEAT);
+            for (int marbleId = seat * MARBLES_PER_SEAT; marbleId < (seat + 1) * MARBLES_PER_SEAT; marbleId++) {
+                if (inReserve(marbleId)) {
+                    reserve.add(marbleId);
+                }
+            }
+            reserves.put(seatColors[seat], reserve);
+        }
+        return reserves;
+    }
+
+    @JsonProperty("startPositions")
+    Map<Types.Color, Integer> getStartPositions() {
+        Map<Types.Color, Integer> startPositions = new EnumMap<>(Types.Color.class);
+        for (int seat = 0; seat < seatColors.length; seat++) {
+            startPositions.put(seatColors[seat], seat * SPACES_PER_SEAT);
+        }
+        return startPositions;
+    }
+
+    @JsonProperty("boardSize")
+    public int getBoardSize() {
+        return spaces.length;
+    }
+}
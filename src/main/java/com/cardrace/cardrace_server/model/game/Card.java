@@ -4,17 +4,56 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 public class Card {
+    private static final int SUITS = Types.CardSuit.values().length;
+    static final int DISTINCT_CARDS = Types.CardValue.values().length * SUITS;
+    private static final Card[] INSTANCES = new Card[DISTINCT_CARDS];
+
+    static {
+        for (Types.CardValue value : Types.CardValue.values()) {
+            for (Types.CardSuit suit : Types.CardSuit.values()) {
+                INSTANCES[value.ordinal() * SUITS + suit.ordinal()] = new Card(value, suit);
+            }
+        }
+    }
+
     @JsonProperty
     public final Types.CardValue cardValue;
     @JsonProperty
     public final Types.CardSuit cardSuit;
 
+    public Card(Types.CardValue cardValue, Types.CardSuit cardSuit) {
+        this.cardValue = cardValue;
+        this.cardSuit = cardSuit;
+    }
+
+    /**
+     * Cards are immutable, so decks, hands and decoded games share one instance per value and suit. An
+     * incomplete card, as a client may send, gets an instance of its own for validation to reject.
+     *
+     * @return The shared card with the given value and suit
+     */
     @JsonCreator
-    public Card(
+    public static Card of(
             @JsonProperty("cardValue") Types.CardValue cardValue,
             @JsonProperty("cardSuit") Types.CardSuit cardSuit) {
-        this.cardValue = cardValue;
-        this.cardSuit = cardSuit;
+        if (cardValue == null || cardSuit == null) {
+            return new Card(cardValue, cardSuit);
+        }
+        return INSTANCES[cardValue.ordinal() * SUITS + cardSuit.ordinal()];
+    }
+
+    /**
+     * @return The shared card with the given {@link #index}
+     */
+    static Card of(int index) {
+        return INSTANCES[index];
+    }
+
+    /**
+     * @return A number below DISTINCT_CARDS identifying the card's value and suit
+     */
+    int index() {
+        return cardValue.ordinal() * SUITS + cardSuit.ordinal();
     }
 
     @Override
@@ -34,4 +73,4 @@ public class Card {
     public String toString() {
         return cardValue + " of " + cardSuit;
     }
-}
\ No newline at end of file
+}
@@ -1,7 +1,8 @@
 package com.cardrace.cardrace_server.model.game;
-import java.util.Stack;
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 import com.cardrace.cardrace_server.controller.SocketIOEventHandler;
 import com.fasterxml.jackson.annotation.JsonCreator;
@@ -38,10 +39,12 @@ public class Deck {
     };
     @JsonProperty
     private int numDecks;
-    @JsonProperty
-    private Stack<Card> playingDeck;
+    // Card indexes, bottom first, with the top card at size - 1.
+    private byte[] cards;
+    private int size;
+    // Null for a game's own deck, which shuffles with the thread's generator instead of carrying one.
     @JsonIgnore
-    private Random random;
+    private final Random random;
 
     /**
      * Constructs a new Deck with the specified number of standard decks.
@@ -49,20 +52,33 @@ public class Deck {
      *
      * @param numDecks The number of standard 52-card decks to include
      */
-    @JsonCreator
-    public Deck(@JsonProperty int numDecks) {
-        this.numDecks = numDecks;
-        this.playingDeck = new Stack<>();
-        this.random = new Random();
+    public Deck(int numDecks) {
+        this(numDecks, List.of(), null);
         shuffle();
     }
 
     @JsonCreator
     public Deck(
             @JsonProperty("numDecks") int numDecks,
-            @JsonProperty("playingDeck") Stack<Card> playingDeck) {
+            @JsonProperty("playingDeck") List<Card> playingDeck) {
+        this(numDecks, playingDeck, null);
+    }
+
+    /**
+     * Restores a deck with a given source of randomness, so a copy made for a search reshuffles from the
+     * searching thread's own generator.
+     */
+    Deck(int numDecks, List<Card> playingDeck, Random random) {
         this.numDecks = numDecks;
-        this.playingDeck = playingDeck;
+        this.cards = new byte[Math.max(playingDeck.size(), fullSize(numDecks))];
+        for (Card card : playingDeck) {
+            cards[size++] = (byte) card.index();
+        }
+        this.random = random;
+    }
+
+    private static int fullSize(int numDecks) {
+        return numDecks * SUITS.length * VALUES.length + 2;
     }
 
     /**
@@ -70,19 +86,26 @@ public class Deck {
      * and then randomly shuffling the order.
      */
     public void shuffle() {
-        playingDeck.clear();
+        size = 0;
 
         for (int i = 0; i < numDecks; i++) {
             for (Types.CardSuit suit : SUITS) {
                 for (Types.CardValue value : VALUES) {
-                    playingDeck.push(new Card(value, suit));
+                    cards[size++] = (byte) Card.of(value, suit).index();
                 }
             }
         }
-        playingDeck.push(new Card(Types.CardValue.JOKER, Types.CardSuit.JOKER));
-        playingDeck.push(new Card(Types.CardValue.JOKER, Types.CardSuit.JOKER));
+        cards[size++] = (byte) Card.of(Types.CardValue.JOKER, Types.CardSuit.JOKER).index();
+        cards[size++] = (byte) Card.of(Types.CardValue.JOKER, Types.CardSuit.JOKER).index();
 
-        Collections.shuffle(playingDeck, random);
+        // Same swaps as Collections.shuffle, so a seeded deck deals as it did when it was a Stack.
+        Random rnd = random != null ? random : ThreadLocalRandom.current();
+        for (int i = size; i > 1; i--) {
+            int j = rnd.nextInt(i);
+            byte swapped = cards[i - 1];
+            cards[i - 1] = cards[j];
+            cards[j] = swapped;
+        }
     }
 
     /**
@@ -94,18 +117,39 @@ public class Deck {
      */
     public Hand dealHand(int handSize) {
         Hand hand = new Hand(handSize);
-        if (playingDeck.isEmpty()) {
+        if (size == 0) {
             shuffle();
         }
 
         for (int i = 0; i < handSize; i++) {
-            if (playingDeck.isEmpty()) {
+            if (size == 0) {
                 shuffle();
             }
-            if (!playingDeck.isEmpty()) {
-                hand.addCard(playingDeck.pop());
+            if (size > 0) {
+                hand.addCard(Card.of(cards[--size]));
             }
         }
         return hand;
     }
+
+    int getNumDecks() {
+        return numDecks;
+    }
+
+    int size() {
+        return size;
+    }
+
+    Card cardAt(int index) {
+        return Card.of(cards[index]);
+    }
+
+    @JsonProperty("playingDeck")
+    List<Card> getPlayingDeck() {
+        List<Card> playingDeck = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            playingDeck.add(Card.of(cards[i]));
+        }
+        return playingDeck;
+    }
 }
@@ -4,6 +4,8 @@ import com.cardrace.cardrace_server.controller.SocketIOEventHandler;
 import com.cardrace.cardrace_server.exceptions.IllegalMoveException;
 import com.cardrace.cardrace_server.exceptions.PlayerLimitException;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.*;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
@@ -13,6 +15,32 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 public class Game {
 
+    /*
+     * Dirty bits for field-level storage. Each mutator marks the parts of the game it changes,
+     * so a store can write back only those parts.
+     */
+    public static final int DIRTY_META = 1;
+    public static final int DIRTY_TURNS = 1 << 1;
+    public static final int DIRTY_BOARD = 1 << 2;
+    public static final int DIRTY_DECK = 1 << 3;
+    private static final int DIRTY_HANDS_SHIFT = 4;
+    public static final int DIRTY_ALL = -1;
+
+    // Filled by the overloads taking a distance map, so they allocate no more than iterating the map does.
+    private static final ThreadLocal<Move> SCRATCH_MOVE = ThreadLocal.withInitial(Move::new);
+    // The board as it was before the move being applied, restored if the move turns out to be illegal.
+    private static final ThreadLocal<Board> SCRATCH_BOARD = new ThreadLocal<>();
+    // Stores may mark bits again from a Redis I/O thread while the game is changed, so the bits are updated atomically.
+    private static final VarHandle DIRTY_FIELDS;
+
+    static {
+        try {
+            DIRTY_FIELDS = MethodHandles.lookup().findVarHandle(Game.class, "dirtyFields", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     @JsonProperty
     public final String gameName;
 
@@ -22,17 +50,16 @@ public class Game {
     @JsonProperty
     private Board board;
 
-    @JsonProperty
-    private final Map<String, Types.Color> playerColorMap;
-
     @JsonProperty
     private final List<String> players;
 
-    @JsonProperty
-    private final Map<String, Integer> playerTurnCounter;
-
-    @JsonProperty
-    private final Map<Types.Color, Hand> colorHandMap;
+    /*
+     * Per-seat state, indexed like players and like the board's seats, which also give each player's color;
+     * null until the game starts. They are written as the playerColorMap, colorHandMap and playerTurnCounter
+     * maps of the JSON form, built only when a game is written.
+     */
+    private Hand[] seatHands;
+    private int[] seatTurns;
 
     @JsonProperty
     private int handSize;
@@ -55,27 +82,108 @@ public class Game {
     @JsonProperty
     private String winner;
 
+    @JsonProperty
+    private long startedAt;
+
+    @JsonIgnore
+    private int dirtyFields = DIRTY_ALL;
+
+    /*
+     * Counters derived from the hands, kept up to date by the mutators so per-move checks need not scan the
+     * hands: the cards left in all hands, and the sum of the Zobrist keys of those cards.
+     */
+    @JsonIgnore
+    private int cardsInHands;
+
+    @JsonIgnore
+    private long handHash;
+
     /**
      * Constructs a new Game with the specified name and number of players.
      *
      * @param gameName The name of the game
      * @param numPlayers The number of players in the game
      */
-    @JsonCreator
-    public Game(@JsonProperty("gameName") String gameName,
-                @JsonProperty("numPlayers") int numPlayers) {
+    public Game(String gameName, int numPlayers) {
         this.gameName = gameName;
         this.numPlayers = numPlayers;
 
-        this.players = new ArrayList<>();
-        this.playerColorMap = new HashMap<>();
-        this.colorHandMap = new EnumMap<>(Types.Color.class);
-        this.playerTurnCounter = new HashMap<>();
+        this.players = new ArrayList<>(numPlayers);
 
         this.status = Types.GameStatus.WAITING;
         this.maxHandSize = Types.getHandSize(numPlayers);
     }
 
+    /**
+     * Restores a game from already-decoded state. Used by GameCodec, which bypasses Jackson.
+     */
+    Game(String gameName, int numPlayers, int maxHandSize, int handSize, List<String> players, Hand[] seatHands,
+         int[] seatTurns, Board board, Deck deck, int currentPlayerIndex, Types.GameStatus status, Card lastCard,
+         String winner, long startedAt) {
+        this.gameName = gameName;
+        this.numPlayers = numPlayers;
+        this.maxHandSize = maxHandSize;
+        this.handSize = handSize;
+        this.players = players;
+        this.seatHands = seatHands;
+        this.seatTurns = seatTurns;
+        this.board = board;
+        this.deck = deck;
+        this.currentPlayerIndex = currentPlayerIndex;
+        this.status = status;
+        this.lastCard = lastCard;
+        this.winner = winner;
+        this.startedAt = startedAt;
+        if (seatHands != null) {
+            for (int seat = 0; seat < seatHands.length; seat++) {
+                count(seat, seatHands[seat], 1);
+            }
+        }
+    }
+
+    /**
+     * Reads a game from its JSON form, moving the per-player maps into seat order.
+     */
+    @JsonCreator
+    static Game fromJson(@JsonProperty("gameName") String gameName,
+                         @JsonProperty("numPlayers") int numPlayers,
+                         @JsonProperty("maxHandSize") int maxHandSize,
+                         @JsonProperty("handSize") int handSize,
+                         @JsonProperty("players") List<String> players,
+                         @JsonProperty("playerColorMap") Map<String, Types.Color> playerColorMap,
+                         @JsonProperty("playerTurnCounter") Map<String, Integer> playerTurnCounter,
+                         @JsonProperty("colorHandMap") Map<Types.Color, Hand> colorHandMap,
+                         @JsonProperty("board") Board board,
+                         @JsonProperty("deck") Deck deck,
+                         @JsonProperty("currentPlayerIndex") int currentPlayerIndex,
+                         @JsonProperty("status") Types.GameStatus status,
+                         @JsonProperty("lastCard") Card lastCard,
+                         @JsonProperty("winner") String winner,
+                         @JsonProperty("startedAt") long startedAt) {
+        List<String> seated = new ArrayList<>(numPlayers);
+        if (players != null) {
+            seated.addAll(players);
+        }
+        Hand[] seatHands = null;
+        int[] seatTurns = null;
+        if (board != null) {
+            seatHands = new Hand[seated.size()];
+            seatTurns = new int[seated.size()];
+            for (int seat = 0; seat < seated.size(); seat++) {
+                String player = seated.get(seat);
+                if (colorHandMap != null && playerColorMap != null) {
+                    seatHands[seat] = colorHandMap.get(playerColorMap.get(player));
+                }
+                if (playerTurnCounter != null) {
+                    seatTurns[seat] = playerTurnCounter.getOrDefault(player, 0);
+                }
+            }
+        }
+        return new Game(gameName, numPlayers, maxHandSize == 0 ? Types.getHandSize(numPlayers) : maxHandSize, handSize,
+                seated, seatHands, seatTurns, board, deck, currentPlayerIndex,
+                status == null ? Types.GameStatus.WAITING : status, lastCard, winner, startedAt);
+    }
+
     /**
      * Initializes the game by randomly assigning colors, setting up the deck, dealing hands, creating the board, and setting game status.
      * This method should be called once all players have joined the game.
@@ -93,22 +201,18 @@ public class Game {
         Collections.shuffle(colorList);
 
 
-        List<Types.Color> colors = new ArrayList<Types.Color>();
+        List<Types.Color> colors = new ArrayList<Types.Color>(colorList.subList(0, players.size()));
 
-        for (int pos = 0; pos < players.size(); pos++) {
-            String player = players.get(pos);
-            Types.Color color = colorList.get(pos);
-
-            playerTurnCounter.put(player, 0);
-            playerColorMap.put(player, color);
-            colors.add(color);
-        }
+        this.seatHands = new Hand[players.size()];
+        this.seatTurns = new int[players.size()];
         this.deck = new Deck(2);
         this.board = new Board(colors);
         this.status = Types.GameStatus.IN_PROGRESS;
+        this.startedAt = System.currentTimeMillis();
         this.currentPlayerIndex = 0;
         this.handSize = maxHandSize;
         dealOut();
+        markDirty(DIRTY_ALL);
     }
 
     /**
@@ -124,6 +228,7 @@ public class Game {
         }
 
         players.add(username);
+        markDirty(DIRTY_META);
     }
 
     /**
@@ -131,6 +236,7 @@ public class Game {
      */
     public void removePlayer(String username) {
         players.remove(username);
+        markDirty(DIRTY_META);
     }
 
     /**
@@ -140,10 +246,7 @@ public class Game {
      * @return Boolean of whether player has won.
      */
     public boolean hasWon(String username) {
-        Types.Color playerColor = getPlayerColor(username);
-        Integer[] safeZone = board.getSafeZone(playerColor);
-
-        return Arrays.stream(safeZone).noneMatch(Objects::isNull);
+        return board.countSafeMarbles(getPlayerColor(username)) == Board.SAFE_ZONE_SIZE;
     }
     /**
      * Update player hand after playing a card. Re-deal if necessary and cycle handSize after all players are dealt.
@@ -152,28 +255,31 @@ public class Game {
      * @param card Card used.
      */
     public void updatePlayerHand(String username, Card card) {
-        Hand playerHand = getPlayerHand(username);
-        playerHand.removeCard(card);
+        int seat = seatOf(username);
+        seatHands[seat].removeCard(card);
+        cardsInHands--;
+        handHash -= Zobrist.handCard(board.seatColor(seat), card);
+        markDirty(dirtyHand(board.seatColor(seat)));
     }
 
     /**
      * Check if all player hands are empty and deal if so.
      */
     public boolean timeToDeal() {
-        return players.stream()
-                .map(playerColorMap::get)
-                .map(colorHandMap::get)
-                .allMatch(hand -> hand.getNumCards() == 0);
+        return cardsInHands == 0;
     }
 
     /**
      * Deal out hands to each player of size handSize.
      */
     public void dealOut() {
-        for (String player : players) {
-            Types.Color playerColor = getPlayerColor(player);
-            colorHandMap.put(playerColor, deck.dealHand(handSize));
+        for (int seat = 0; seat < seatHands.length; seat++) {
+            count(seat, seatHands[seat], -1);
+            seatHands[seat] = deck.dealHand(handSize);
+            count(seat, seatHands[seat], 1);
+            markDirty(dirtyHand(board.seatColor(seat)));
         }
+        markDirty(DIRTY_DECK);
         cycleHandSize();
     }
 
@@ -185,58 +291,148 @@ public class Game {
      * @param distances Ordered marble to distance mapping.
      */
     public void applyMove(Card card, Card substitute, Map<Integer, Integer> distances) throws IllegalMoveException {
-        Card actingCard = (card.cardValue == Types.CardValue.JOKER) ? substitute : card;
-        List<Integer> marbleList = new ArrayList<>(distances.keySet());
+        applyMove(scratchMove(card, substitute, distances));
+    }
+
+    /**
+     * Apply a new move to the game post card-specific format-validation. Allocates nothing unless the move
+     * is illegal. An illegal move leaves the board as it was, even if it failed partway through.
+     *
+     * @param move Cards played and ordered marble distances.
+     */
+    public void applyMove(Move move) throws IllegalMoveException {
+        Card actingCard = move.actingCard();
         boolean protect;
+        Board before = saveBoard();
+        markDirty(DIRTY_BOARD);
 
         try {
             switch (actingCard.cardValue) {
                 case JACK -> {
-                    board.swapMarble(marbleList.get(0), marbleList.get(1));
+                    board.swapMarble(move.marbleId(0), move.marbleId(1));
                     protect = false;
                 }
                 case ACE, KING -> {
-                    int marbleId = marbleList.get(0);
+                    int marbleId = move.marbleId(0);
                     if (board.inReserve(marbleId)) {
                         board.activateMarble(marbleId);
                         protect = true;
                     } else {
-                        board.moveMarble(marbleId, distances.get(marbleId), false);
+                        board.moveMarble(marbleId, move.distance(0), false);
                         protect = false;
                     }
                 }
                 case SEVEN -> {
-                    for (Map.Entry<Integer, Integer> entry : distances.entrySet()) {
-                        board.moveMarble(entry.getKey(), entry.getValue(), true);
+                    for (int i = 0; i < move.size(); i++) {
+                        board.moveMarble(move.marbleId(i), move.distance(i), true);
                     }
                     protect = false;
                 }
                 default -> {
-                    for (Map.Entry<Integer, Integer> entry : distances.entrySet()) {
-                        board.moveMarble(entry.getKey(), entry.getValue(), false);
+                    for (int i = 0; i < move.size(); i++) {
+                        board.moveMarble(move.marbleId(i), move.distance(i), false);
                     }
                     protect = false;
                 }
             }
             if (!protect) {
-                for (int marbleId : marbleList) {
-                    board.getMarbles().get(marbleId).setState(Types.MarbleState.UNPROTECTED);
+                for (int i = 0; i < move.size(); i++) {
+                    board.setMarbleState(move.marbleId(i), Types.MarbleState.UNPROTECTED);
                 }
             }
         } catch (Exception e) {
+            before.copyInto(board);
             throw new IllegalMoveException(e.getMessage());
         }
 
     }
 
+    private Board saveBoard() {
+        Board saved = SCRATCH_BOARD.get();
+        if (saved == null || saved.numSeats() != board.numSeats()) {
+            saved = board.copy();
+            SCRATCH_BOARD.set(saved);
+        } else {
+            board.copyInto(saved);
+        }
+        return saved;
+    }
+
+    /**
+     * Plays a card for the current player: applies the move, spends the card, records a win, and passes the
+     * turn, dealing first if every hand is now empty.
+     *
+     * @param username Player making the move.
+     * @param card Card played.
+     * @param substitute Subbed card if Joker is used.
+     * @param distances Ordered marble to distance mapping.
+     */
+    public void playTurn(String username, Card card, Card substitute, Map<Integer, Integer> distances) throws IllegalMoveException {
+        playTurn(username, scratchMove(card, substitute, distances));
+    }
+
+    /**
+     * Plays a card for the current player, as {@link #playTurn(String, Card, Card, Map)} does.
+     *
+     * @param username Player making the move.
+     * @param move Cards played and ordered marble distances.
+     */
+    public void playTurn(String username, Move move) throws IllegalMoveException {
+        if (getPlayerColor(username) != getCurrentPlayerColor()) {
+            throw new IllegalMoveException("Not player's turn!");
+        }
+        if (!seatHands[seatOf(username)].cards().contains(move.getCard())) {
+            throw new IllegalMoveException("Card not in player's hand!");
+        }
+        applyMove(move);
+        incrementPlayerTurns(username);
+        if (hasWon(username)) {
+            setStatus(Types.GameStatus.COMPLETE);
+            setWinner(username);
+        }
+        setLastCard(move.getCard());
+        updatePlayerHand(username, move.getCard());
+        endTurn();
+    }
+
+    private static Move scratchMove(Card card, Card substitute, Map<Integer, Integer> distances) throws IllegalMoveException {
+        Move move = SCRATCH_MOVE.get();
+        try {
+            move.set(card, substitute, distances);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalMoveException(e.getMessage());
+        }
+        return move;
+    }
+
+    /**
+     * Forfeits the rest of a player's hand and passes the turn, dealing first if every hand is now empty.
+     *
+     * @param username Player who forfeits.
+     */
+    public void forfeitTurn(String username) {
+        clearHand(username);
+        setLastCard(null);
+        endTurn();
+    }
+
+    private void endTurn() {
+        if (timeToDeal()) {
+            dealOut();
+        }
+        nextTurn();
+    }
+
     /**
      * Forfeit cards of hand
      *
      * @param username Player who forfeits cards.
      */
     public void clearHand(String username) {
-        Hand playerHand = getPlayerHand(username);
-        playerHand.forfeitCards();
+        int seat = seatOf(username);
+        count(seat, seatHands[seat], -1);
+        seatHands[seat].forfeitCards();
+        markDirty(dirtyHand(board.seatColor(seat)));
 
     }
 
@@ -245,6 +441,7 @@ public class Game {
      */
     public void nextTurn() {
         currentPlayerIndex = (currentPlayerIndex + 1) % numPlayers;
+        markDirty(DIRTY_META);
     }
 
     /**
@@ -259,41 +456,212 @@ public class Game {
         if (handSize < 2) {
             handSize = maxHandSize;
         }
+        markDirty(DIRTY_META);
+    }
+
+    /**
+     * Copies the game as one player sees it. The board and that player's hand are copied exactly, while the
+     * cards hidden from them, the other hands and the deck, are dealt again at random with every hand keeping
+     * its size. Searches play moves out on such copies without touching the real game.
+     *
+     * @param observer The player whose view is kept
+     * @param random Shuffles the hidden cards now and the copy's deck later
+     * @return A copy sharing nothing that moves change with this game
+     */
+    public Game determinize(String observer, Random random) {
+        int observerSeat = seatOf(observer);
+        List<Card> hidden = deck.getPlayingDeck();
+        for (int seat = 0; seat < seatHands.length; seat++) {
+            if (seat != observerSeat) {
+                hidden.addAll(seatHands[seat].cards());
+            }
+        }
+        Collections.shuffle(hidden, random);
+
+        Hand[] hands = new Hand[seatHands.length];
+        int dealt = 0;
+        for (int seat = 0; seat < seatHands.length; seat++) {
+            List<Card> cards = seatHands[seat].cards();
+            if (seat == observerSeat) {
+                hands[seat] = new Hand(new ArrayList<>(cards));
+            } else {
+                hands[seat] = new Hand(new ArrayList<>(hidden.subList(dealt, dealt + cards.size())));
+                dealt += cards.size();
+            }
+        }
+
+        return new Game(gameName, numPlayers, maxHandSize, handSize, new ArrayList<>(players), hands,
+                seatTurns.clone(), board.copy(), new Deck(deck.getNumDecks(), hidden.subList(dealt, hidden.size()), random),
+                currentPlayerIndex, status, lastCard, winner, startedAt);
+    }
+
+    /**
+     * A 64-bit Zobrist hash of everything that decides how the game goes on: the board, every hand, whose turn
+     * it is, the status and the last card played. Games in the same state hash equally however they got there,
+     * so two hashes differing proves the states differ; equal hashes mean equal states barring a collision.
+     * Kept up to date by the mutators, so reading it costs a few XORs.
+     *
+     * @return The hash of the current state
+     */
+    @JsonIgnore
+    public long getStateHash() {
+        if (board == null) {
+            return Zobrist.status(status);
+        }
+        return board.getHash() ^ handHash ^ Zobrist.turn(currentPlayerIndex) ^ Zobrist.status(status)
+                ^ Zobrist.lastCard(lastCard);
+    }
+
+    /**
+     * The state hash extended with the players and the winner, which a lobby or a terminated game can change
+     * without touching it. Stores keep it beside a game so a copy held elsewhere can be checked against theirs
+     * without loading the whole game.
+     *
+     * @return The version of the current state
+     */
+    @JsonIgnore
+    public long getVersion() {
+        return (getStateHash() * 31 + players.hashCode()) * 31 + Objects.hashCode(winner);
+    }
+
+    /**
+     * Hashes the game from scratch, ignoring the kept hashes. Equal to {@link #getStateHash} unless a mutation
+     * bypassed them, which makes it a check that a replay stayed consistent.
+     */
+    public long computeStateHash() {
+        if (board == null) {
+            return Zobrist.status(status);
+        }
+        return board.computeHash() ^ computeHandHash() ^ Zobrist.turn(currentPlayerIndex) ^ Zobrist.status(status)
+                ^ Zobrist.lastCard(lastCard);
+    }
+
+    /**
+     * Adds a hand to the hand counters, or with a sign of -1 takes it out.
+     */
+    private void count(int seat, Hand hand, int sign) {
+        if (hand == null) {
+            return;
+        }
+        cardsInHands += sign * hand.getNumCards();
+        for (Card card : hand.cards()) {
+            handHash += sign * Zobrist.handCard(board.seatColor(seat), card);
+        }
+    }
+
+    private long computeHandHash() {
+        long computed = 0;
+        for (int seat = 0; seat < seatHands.length; seat++) {
+            if (seatHands[seat] != null) {
+                for (Card card : seatHands[seat].cards()) {
+                    computed += Zobrist.handCard(board.seatColor(seat), card);
+                }
+            }
+        }
+        return computed;
+    }
+
+    private int seatOf(String username) {
+        return players.indexOf(username);
     }
 
     /**
      * Getters/Setters
      */
     public Hand getPlayerHand(String username) {
-        Types.Color color = getPlayerColor(username);
-        if (color == null) {
+        int seat = seatOf(username);
+        if (seatHands == null || seat < 0) {
             return null;
         }
-        return colorHandMap.get(color);
+        return seatHands[seat];
+    }
+    public Types.Color getPlayerColor(String username) {
+        int seat = seatOf(username);
+        if (board == null || seat < 0) {
+            return null;
+        }
+        return board.seatColor(seat);
     }
-    public Types.Color getPlayerColor(String username) { return playerColorMap.get(username); }
     public Board getBoard() { return board; }
     public List<String> getPlayers() { return players; }
     public Types.GameStatus getStatus() { return status; }
-    public void setStatus(Types.GameStatus status) { this.status = status; }
-    public void setLastCard(Card lastCard) { this.lastCard = lastCard; }
+    public void setStatus(Types.GameStatus status) { this.status = status; markDirty(DIRTY_META); }
+    public void setLastCard(Card lastCard) { this.lastCard = lastCard; markDirty(DIRTY_META); }
     public Card getLastCard() { return lastCard; }
     @JsonIgnore
+    public String getCurrentPlayer() {
+        if (players.isEmpty() || currentPlayerIndex >= players.size()) {
+            return null;
+        }
+        return players.get(currentPlayerIndex);
+    }
+    @JsonIgnore
     public Types.Color getCurrentPlayerColor() {
         if (players.isEmpty() || currentPlayerIndex >= players.size()) {
             return null;
         }
-        String currentPlayer = players.get(currentPlayerIndex);
-        return playerColorMap.get(currentPlayer);
+        return board == null ? null : board.seatColor(currentPlayerIndex);
     }
-    public void setWinner(String winner) { this.winner = winner; }
+    public void setWinner(String winner) { this.winner = winner; markDirty(DIRTY_META); }
     public String getWinner() { return winner; }
+    public long getStartedAt() { return startedAt; }
     @JsonIgnore
     public int getNumCurrPlayers() { return players.size(); }
-    public Map<String, Types.Color> getPlayerColorMap() { return playerColorMap; }
+    @JsonProperty("playerColorMap")
+    public Map<String, Types.Color> getPlayerColorMap() {
+        Map<String, Types.Color> colors = new HashMap<>();
+        if (board != null) {
+            for (int seat = 0; seat < players.size(); seat++) {
+                colors.put(players.get(seat), board.seatColor(seat));
+            }
+        }
+        return colors;
+    }
     public void incrementPlayerTurns(String username) {
-        int turns = playerTurnCounter.get(username);
-        playerTurnCounter.put(username, turns + 1);
+        seatTurns[seatOf(username)]++;
+        markDirty(DIRTY_TURNS);
+    }
+    public int getPlayerTurns(String username) {
+        return seatTurns[seatOf(username)];
+    }
+
+    @JsonIgnore
+    public int getDirtyFields() { return (int) DIRTY_FIELDS.getVolatile(this); }
+    public void clearDirtyFields() { DIRTY_FIELDS.setVolatile(this, 0); }
+    /**
+     * Clears the dirty bits, returning those that were set. A store restores them with {@link #markDirty} if
+     * its write is dropped, which may happen on a Redis I/O thread while the game is being changed.
+     */
+    public int takeDirtyFields() { return (int) DIRTY_FIELDS.getAndSet(this, 0); }
+    public void markDirty(int fields) { DIRTY_FIELDS.getAndBitwiseOr(this, fields); }
+    public static int dirtyHand(Types.Color color) { return 1 << (DIRTY_HANDS_SHIFT + color.ordinal()); }
+
+    int getHandSize() { return handSize; }
+    int getMaxHandSize() { return maxHandSize; }
+    int getCurrentPlayerIndex() { return currentPlayerIndex; }
+    public Deck getDeck() { return deck; }
+    Hand[] getSeatHands() { return seatHands; }
+    int[] getSeatTurns() { return seatTurns; }
+
+    @JsonProperty("colorHandMap")
+    Map<Types.Color, Hand> getColorHandMap() {
+        Map<Types.Color, Hand> hands = new EnumMap<>(Types.Color.class);
+        if (seatHands != null) {
+            for (int seat = 0; seat < seatHands.length; seat++) {
+                hands.put(board.seatColor(seat), seatHands[seat]);
+            }
+        }
+        return hands;
+    }
+
+    @JsonProperty("playerTurnCounter")
+    Map<String, Integer> getPlayerTurnCounter() {
+        Map<String, Integer> counter = new HashMap<>();
+        if (seatTurns != null) {
+            for (int seat = 0; seat < seatTurns.length; seat++) {
+                counter.put(players.get(seat), seatTurns[seat]);
+            }
+        }
+        return counter;
     }
-    public int getPlayerTurns(String username) { return playerTurnCounter.get(username); }
 }
@@ -0,0 +1,475 @@
+package com.cardrace.cardrace_server.model.game;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Compact, versioned binary layout for Game snapshots.
+ * Cards are one byte each, board cells and marble ids are one byte each, marble protection is a bitmask,
+ * and counters are varints. Marble color, type and start positions are derived from the board's color order
+ * rather than stored, since Board assigns marble 4i..4i+3 and start position 16i to its i-th color.
+ */
+public final class GameCodec {
+
+    public static final byte MAGIC = (byte) 0xC7;
+    public static final byte VERSION = 1;
+
+    private static final int NONE = 0xFF;
+    private static final int SPACES_PER_COLOR = 16;
+    private static final int MARBLES_PER_COLOR = 4;
+    private static final int SAFE_ZONE_SIZE = 4;
+
+    private static final Types.CardValue[] CARD_VALUES = Types.CardValue.values();
+    private static final Types.CardSuit[] CARD_SUITS = Types.CardSuit.values();
+    private static final Types.Color[] COLORS = Types.Color.values();
+    private static final Types.GameStatus[] STATUSES = Types.GameStatus.values();
+
+    private GameCodec() {}
+
+    /**
+     * Checks whether a value starts with this codec's header, as opposed to e.g. legacy JSON.
+     */
+    public static boolean isEncoded(byte[] bytes) {
+        return bytes != null && bytes.length >= 2 && bytes[0] == MAGIC;
+    }
+
+    public static byte[] encode(Game game) {
+        Writer out = new Writer(512);
+        out.writeByte(MAGIC);
+        out.writeByte(VERSION);
+        writeMeta(out, game);
+        writeHands(out, game);
+        writeTurns(out, game);
+
+        Board board = game.getBoard();
+        out.writeByte(board == null ? 0 : 1);
+        if (board != null) {
+            writeBoard(out, board);
+        }
+        Deck deck = game.getDeck();
+        out.writeByte(deck == null ? 0 : 1);
+        if (deck != null) {
+            writeDeck(out, deck);
+        }
+        return out.toByteArray();
+    }
+
+    public static Game decode(byte[] bytes) {
+        if (!isEncoded(bytes)) {
+            throw new IllegalArgumentException("Not an encoded game");
+        }
+        Reader in = new Reader(bytes, 1);
+        int version = in.readByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported game encoding version: " + version);
+        }
+        Meta meta = readMeta(in);
+        Map<Types.Color, Hand> hands = readHands(in);
+        int[] turns = readTurns(in, meta.players);
+        Board board = in.readByte() == 1 ? readBoard(in) : null;
+        Deck deck = in.readByte() == 1 ? readDeck(in) : null;
+        return meta.toGame(turns, hands, board, deck);
+    }
+
+    /*
+     * Section encoders for field-level storage, where each part of a game is stored and read separately.
+     * The meta section carries the format header; the others are only read together with it.
+     */
+
+    public static byte[] encodeStatus(Types.GameStatus status) {
+        return new byte[]{(byte) status.ordinal()};
+    }
+
+    public static Types.GameStatus decodeStatus(byte[] bytes) {
+        return STATUSES[bytes[0] & 0xFF];
+    }
+
+    // Decimal text rather than raw bytes, so a version never starts with CompressingRedisSerializer.MAGIC.
+    public static byte[] encodeVersion(long version) {
+        return Long.toString(version).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    public static long decodeVersion(byte[] bytes) {
+        return Long.parseLong(new String(bytes, StandardCharsets.US_ASCII));
+    }
+
+    public static byte[] encodeMeta(Game game) {
+        Writer out = new Writer(64);
+        out.writeByte(MAGIC);
+        out.writeByte(VERSION);
+        writeMeta(out, game);
+        return out.toByteArray();
+    }
+
+    public static byte[] encodeTurns(Game game) {
+        Writer out = new Writer(16);
+        writeTurns(out, game);
+        return out.toByteArray();
+    }
+
+    public static byte[] encodeHand(Hand hand) {
+        Writer out = new Writer(16);
+        writeHand(out, hand);
+        return out.toByteArray();
+    }
+
+    public static byte[] encodeBoard(Board board) {
+        Writer out = new Writer(160);
+        writeBoard(out, board);
+        return out.toByteArray();
+    }
+
+    public static byte[] encodeDeck(Deck deck) {
+        Writer out = new Writer(128);
+        writeDeck(out, deck);
+        return out.toByteArray();
+    }
+
+    /**
+     * Rebuilds a game from separately stored sections.
+     *
+     * @param meta  The meta section, required
+     * @param turns The turn counters, or null before the game has started
+     * @param hands Encoded hands by color
+     * @param board The board, or null before the game has started
+     * @param deck  The deck, or null before the game has started
+     * @return The decoded game
+     */
+    public static Game assemble(byte[] meta, byte[] turns, Map<Types.Color, byte[]> hands, byte[] board, byte[] deck) {
+        if (!isEncoded(meta)) {
+            throw new IllegalArgumentException("Not an encoded game");
+        }
+        Reader metaIn = new Reader(meta, 1);
+        int version = metaIn.readByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported game encoding version: " + version);
+        }
+        Meta decoded = readMeta(metaIn);
+
+        Map<Types.Color, Hand> decodedHands = new EnumMap<>(Types.Color.class);
+        for (Map.Entry<Types.Color, byte[]> entry : hands.entrySet()) {
+            decodedHands.put(entry.getKey(), readHand(new Reader(entry.getValue(), 0)));
+        }
+        int[] decodedTurns = turns == null ? new int[0] : readTurns(new Reader(turns, 0), decoded.players);
+        Board decodedBoard = board == null ? null : readBoard(new Reader(board, 0));
+        Deck decodedDeck = deck == null ? null : readDeck(new Reader(deck, 0));
+        return decoded.toGame(decodedTurns, decodedHands, decodedBoard, decodedDeck);
+    }
+
+    private static void writeMeta(Writer out, Game game) {
+        out.writeString(game.gameName);
+        out.writeVarInt(game.numPlayers);
+        out.writeVarInt(game.getMaxHandSize());
+        out.writeVarInt(game.getHandSize());
+        out.writeVarInt(game.getCurrentPlayerIndex());
+        out.writeByte(game.getStatus().ordinal());
+        out.writeCard(game.getLastCard());
+        out.writeString(game.getWinner());
+        out.writeVarLong(game.getStartedAt());
+
+        List<String> players = game.getPlayers();
+        out.writeVarInt(players.size());
+        for (String player : players) {
+            out.writeString(player);
+            Types.Color color = game.getPlayerColor(player);
+            out.writeByte(color == null ? NONE : color.ordinal());
+        }
+    }
+
+    private static Meta readMeta(Reader in) {
+        Meta meta = new Meta();
+        meta.gameName = in.readString();
+        meta.numPlayers = in.readVarInt();
+        meta.maxHandSize = in.readVarInt();
+        meta.handSize = in.readVarInt();
+        meta.currentPlayerIndex = in.readVarInt();
+        meta.status = STATUSES[in.readByte()];
+        meta.lastCard = in.readCard();
+        meta.winner = in.readString();
+        meta.startedAt = in.readVarLong();
+
+        int count = in.readVarInt();
+        meta.players = new ArrayList<>(Math.max(count, meta.numPlayers));
+        for (int i = 0; i < count; i++) {
+            meta.players.add(in.readString());
+            // Each player's color, which the board's seat order already gives.
+            in.readByte();
+        }
+        return meta;
+    }
+
+    private static void writeHands(Writer out, Game game) {
+        Hand[] hands = game.getSeatHands();
+        if (hands == null) {
+            out.writeVarInt(0);
+            return;
+        }
+        // In color order, as the hands were once kept by color, so encodings stay byte for byte the same.
+        Board board = game.getBoard();
+        out.writeVarInt(hands.length);
+        for (Types.Color color : COLORS) {
+            for (int seat = 0; seat < hands.length; seat++) {
+                if (board.seatColor(seat) == color) {
+                    out.writeByte(color.ordinal());
+                    writeHand(out, hands[seat]);
+                }
+            }
+        }
+    }
+
+    private static Map<Types.Color, Hand> readHands(Reader in) {
+        Map<Types.Color, Hand> hands = new EnumMap<>(Types.Color.class);
+        int count = in.readVarInt();
+        for (int i = 0; i < count; i++) {
+            Types.Color color = COLORS[in.readByte()];
+            hands.put(color, readHand(in));
+        }
+        return hands;
+    }
+
+    private static void writeHand(Writer out, Hand hand) {
+        List<Card> cards = hand.cards();
+        out.writeVarInt(cards.size());
+        for (Card card : cards) {
+            out.writeCard(card);
+        }
+    }
+
+    private static Hand readHand(Reader in) {
+        int count = in.readVarInt();
+        List<Card> cards = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            cards.add(in.readCard());
+        }
+        return new Hand(cards);
+    }
+
+    private static void writeTurns(Writer out, Game game) {
+        int[] turns = game.getSeatTurns();
+        if (turns == null) {
+            out.writeVarInt(0);
+            return;
+        }
+        out.writeVarInt(turns.length);
+        for (int seat = 0; seat < turns.length; seat++) {
+            out.writeVarInt(seat);
+            out.writeVarInt(turns[seat]);
+        }
+    }
+
+    private static int[] readTurns(Reader in, List<String> players) {
+        int count = in.readVarInt();
+        int[] turns = new int[count == 0 ? 0 : players.size()];
+        for (int i = 0; i < count; i++) {
+            int seat = in.readVarInt();
+            turns[seat] = in.readVarInt();
+        }
+        return turns;
+    }
+
+    private static void writeBoard(Writer out, Board board) {
+        int numColors = board.numSeats();
+
+        out.writeVarInt(numColors);
+        for (int seat = 0; seat < numColors; seat++) {
+            out.writeByte(board.seatColor(seat).ordinal());
+        }
+        out.writeVarLong(board.getProtectedMask());
+
+        for (int position = 0; position < board.getBoardSize(); position++) {
+            int marbleId = board.marbleAt(position);
+            out.writeByte(marbleId == Board.NONE ? NONE : marbleId);
+        }
+        for (int seat = 0; seat < numColors; seat++) {
+            for (int slot = 0; slot < SAFE_ZONE_SIZE; slot++) {
+                int marbleId = board.safeZoneSlot(board.seatColor(seat), slot);
+                out.writeByte(marbleId == Board.NONE ? NONE : marbleId);
+            }
+            int reserve = (board.getReserveMask() >>> (seat * MARBLES_PER_COLOR)) & ((1 << MARBLES_PER_COLOR) - 1);
+            out.writeVarInt(Integer.bitCount(reserve));
+            for (int i = 0; i < MARBLES_PER_COLOR; i++) {
+                if ((reserve & (1 << i)) != 0) {
+                    out.writeByte(seat * MARBLES_PER_COLOR + i);
+                }
+            }
+        }
+    }
+
+    private static Board readBoard(Reader in) {
+        int numColors = in.readVarInt();
+        Types.Color[] colors = new Types.Color[numColors];
+        for (int i = 0; i < numColors; i++) {
+            colors[i] = COLORS[in.readByte()];
+        }
+        int protectedMask = (int) in.readVarLong();
+
+        byte[] spaces = new byte[numColors * SPACES_PER_COLOR];
+        for (int i = 0; i < spaces.length; i++) {
+            spaces[i] = readMarbleId(in);
+        }
+        byte[] safeZones = new byte[numColors * SAFE_ZONE_SIZE];
+        int reserveMask = 0;
+        for (int i = 0; i < numColors; i++) {
+            for (int slot = 0; slot < SAFE_ZONE_SIZE; slot++) {
+                safeZones[i * SAFE_ZONE_SIZE + slot] = readMarbleId(in);
+            }
+            int reserveSize = in.readVarInt();
+            for (int j = 0; j < reserveSize; j++) {
+                reserveMask |= 1 << in.readByte();
+            }
+        }
+        return new Board(colors, spaces, safeZones, reserveMask, protectedMask);
+    }
+
+    private static byte readMarbleId(Reader in) {
+        int value = in.readByte();
+        return (byte) (value == NONE ? Board.NONE : value);
+    }
+
+    private static void writeDeck(Writer out, Deck deck) {
+        out.writeVarInt(deck.getNumDecks());
+        out.writeVarInt(deck.size());
+        for (int i = 0; i < deck.size(); i++) {
+            out.writeCard(deck.cardAt(i));
+        }
+    }
+
+    private static Deck readDeck(Reader in) {
+        int numDecks = in.readVarInt();
+        int count = in.readVarInt();
+        List<Card> cards = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            cards.add(in.readCard());
+        }
+        return new Deck(numDecks, cards);
+    }
+
+    private static final class Meta {
+        String gameName;
+        int numPlayers;
+        int maxHandSize;
+        int handSize;
+        int currentPlayerIndex;
+        Types.GameStatus status;
+        Card lastCard;
+        String winner;
+        long startedAt;
+        List<String> players;
+
+        Game toGame(int[] turns, Map<Types.Color, Hand> hands, Board board, Deck deck) {
+            Hand[] seatHands = null;
+            int[] seatTurns = null;
+            if (board != null) {
+                seatHands = new Hand[players.size()];
+                for (int seat = 0; seat < seatHands.length; seat++) {
+                    seatHands[seat] = hands.get(board.seatColor(seat));
+                }
+                seatTurns = Arrays.copyOf(turns, players.size());
+            }
+            return new Game(gameName, numPlayers, maxHandSize, handSize, players, seatHands, seatTurns,
+                    board, deck, currentPlayerIndex, status, lastCard, winner, startedAt);
+        }
+    }
+
+    private static final class Writer {
+        private byte[] buffer;
+        private int position;
+
+        Writer(int capacity) {
+            this.buffer = new byte[capacity];
+        }
+
+        void writeByte(int value) {
+            ensureCapacity(1);
+            buffer[position++] = (byte) value;
+        }
+
+        void writeVarInt(int value) {
+            writeVarLong(value & 0xFFFFFFFFL);
+        }
+
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                writeVarInt(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length + 1);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        void writeCard(Card card) {
+            writeByte(card == null ? NONE : (card.cardValue.ordinal() << 3) | card.cardSuit.ordinal());
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+
+        private void ensureCapacity(int extra) {
+            if (position + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+            }
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] buffer;
+        private int position;
+
+        Reader(byte[] buffer, int position) {
+            this.buffer = buffer;
+            this.position = position;
+        }
+
+        int readByte() {
+            return buffer[position++] & 0xFF;
+        }
+
+        int readVarInt() {
+            return (int) readVarLong();
+        }
+
+        long readVarLong() {
+            long value = 0;
+            int shift = 0;
+            while (true) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+                shift += 7;
+            }
+        }
+
+        String readString() {
+            int length = readVarInt();
+            if (length == 0) {
+                return null;
+            }
+            String value = new String(buffer, position, length - 1, StandardCharsets.UTF_8);
+            position += length - 1;
+            return value;
+        }
+
+        Card readCard() {
+            int value = readByte();
+            if (value == NONE) {
+                return null;
+            }
+            return Card.of(CARD_VALUES[value >>> 3], CARD_SUITS[value & 0x7]);
+        }
+    }
+}
@@ -50,6 +50,10 @@ public class Hand {
         return new ArrayList<>(cards);
     }
 
+    List<Card> cards() {
+        return cards;
+    }
+
     @Override
     public String toString() {
         return "Hand{cards=" + cards + ", numCards=" + getNumCards() + '}';
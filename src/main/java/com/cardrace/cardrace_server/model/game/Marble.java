@@ -3,27 +3,60 @@ package com.cardrace.cardrace_server.model.game;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
-import java.util.Objects;
+/**
+ * A marble as seen from outside the board. Marbles are flyweights: there is one shared, immutable instance per
+ * ID, color and state, and a board stores only which marble is where and which are protected, handing out the
+ * matching instance on request. Changing a marble's protection goes through {@link Board#setMarbleState}.
+ */
+public final class Marble {
+    private static final Types.Color[] COLORS = Types.Color.values();
+    private static final Types.MarbleState[] STATES = Types.MarbleState.values();
+    private static final Types.MarbleType[] TYPES = Types.MarbleType.values();
+    private static final Marble[] INSTANCES = new Marble[Zobrist.MAX_MARBLES * COLORS.length * STATES.length];
+
+    static {
+        for (int id = 0; id < Zobrist.MAX_MARBLES; id++) {
+            for (Types.Color color : COLORS) {
+                for (Types.MarbleState state : STATES) {
+                    INSTANCES[index(id, color, state)] = new Marble(id, color, TYPES[id % TYPES.length], state);
+                }
+            }
+        }
+    }
 
-public class Marble {
     @JsonProperty
-    private Types.MarbleState state;
+    private final Types.MarbleState state;
     @JsonProperty
     private final Types.Color color;
     @JsonProperty
     private final Types.MarbleType type;
     public final int id;
 
+    private Marble(int id, Types.Color color, Types.MarbleType type, Types.MarbleState state) {
+        this.id = id;
+        this.color = color;
+        this.type = type;
+        this.state = state;
+    }
+
+    /**
+     * @return The shared marble with the given ID, color and state; its type follows from its ID
+     */
+    public static Marble of(int id, Types.Color color, Types.MarbleState state) {
+        return INSTANCES[index(id, color, state)];
+    }
+
     @JsonCreator
-    public Marble(
+    static Marble fromJson(
             @JsonProperty("id") int id,
             @JsonProperty("color") Types.Color color,
             @JsonProperty("type") Types.MarbleType type,
             @JsonProperty("state") Types.MarbleState state) {
-        this.id = id;
-        this.color = color;
-        this.type = type;
-        this.state = state;
+        return of(id, color, state);
+    }
+
+    private static int index(int id, Types.Color color, Types.MarbleState state) {
+        return (id * COLORS.length + color.ordinal()) * STATES.length + state.ordinal();
     }
 
     public Types.Color getColor() {
@@ -37,8 +70,4 @@ public class Marble {
     public Types.MarbleType getType() {
         return type;
     }
-
-    public void setState(Types.MarbleState state) {
-        this.state = state;
-    }
 }
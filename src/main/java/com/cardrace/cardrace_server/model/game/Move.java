@@ -0,0 +1,137 @@
+package com.cardrace.cardrace_server.model.game;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A move held in primitives: the card played, the Joker's substitute if any, and marble IDs paired with the
+ * distances they move, in the order they are applied. A move is mutable so that a decoder can read every
+ * move it sees into the same instance, and nothing in it is boxed, so reading a move into one and applying
+ * it to a game allocates nothing.
+ */
+public final class Move {
+
+    // A Seven moves at most seven marbles, one space each.
+    public static final int MAX_MARBLES = 7;
+
+    private Card card;
+    private Card substitute;
+    private final int[] marbleIds = new int[MAX_MARBLES];
+    private final int[] distances = new int[MAX_MARBLES];
+    private int size;
+
+    /**
+     * @param distances Ordered marble to distance mapping
+     * @return A new move with the given cards and distances
+     */
+    public static Move of(Card card, Card substitute, Map<Integer, Integer> distances) {
+        Move move = new Move();
+        move.set(card, substitute, distances);
+        return move;
+    }
+
+    /**
+     * Replaces the move's cards and distances.
+     *
+     * @param distances Ordered marble to distance mapping
+     * @throws IllegalArgumentException If the mapping holds more than {@value #MAX_MARBLES} marbles
+     */
+    public void set(Card card, Card substitute, Map<Integer, Integer> distances) {
+        clear();
+        this.card = card;
+        this.substitute = substitute;
+        for (Map.Entry<Integer, Integer> entry : distances.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Empties the move for reuse.
+     */
+    public void clear() {
+        card = null;
+        substitute = null;
+        size = 0;
+    }
+
+    /**
+     * Sets how far a marble moves. As with a map, a marble already in the move keeps its place and takes
+     * the new distance.
+     *
+     * @throws IllegalArgumentException If the move already holds {@value #MAX_MARBLES} other marbles
+     */
+    public void put(int marbleId, int distance) {
+        for (int i = 0; i < size; i++) {
+            if (marbleIds[i] == marbleId) {
+                distances[i] = distance;
+                return;
+            }
+        }
+        if (size == MAX_MARBLES) {
+            throw new IllegalArgumentException("A move involves at most " + MAX_MARBLES + " marbles");
+        }
+        marbleIds[size] = marbleId;
+        distances[size] = distance;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int marbleId(int index) {
+        return marbleIds[Objects.checkIndex(index, size)];
+    }
+
+    public int distance(int index) {
+        return distances[Objects.checkIndex(index, size)];
+    }
+
+    public int distanceSum() {
+        int sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += distances[i];
+        }
+        return sum;
+    }
+
+    public Card getCard() {
+        return card;
+    }
+
+    public void setCard(Card card) {
+        this.card = card;
+    }
+
+    public Card getSubstitute() {
+        return substitute;
+    }
+
+    public void setSubstitute(Card substitute) {
+        this.substitute = substitute;
+    }
+
+    /**
+     * @return The card whose value decides the move: the substitute if a Joker is played, else the card
+     */
+    public Card actingCard() {
+        return card.cardValue == Types.CardValue.JOKER ? substitute : card;
+    }
+
+    /**
+     * @return The distances as an ordered marble to distance mapping
+     */
+    public Map<Integer, Integer> toMap() {
+        Map<Integer, Integer> map = new LinkedHashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            map.put(marbleIds[i], distances[i]);
+        }
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return "Move{card=" + card + ", substitute=" + substitute + ", distances=" + toMap() + '}';
+    }
+}
@@ -0,0 +1,72 @@
+package com.cardrace.cardrace_server.model.game;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random 64-bit keys for Zobrist hashing of game state. A board's hash is the XOR of one key per marble for
+ * where it is (a track space, a safe zone slot or its reserve) and one more for each protected marble, so a
+ * mutation updates the hash by XORing out the keys it invalidates and XORing in the new ones. Hands can hold
+ * two copies of a card, which XOR would cancel, so card keys are summed instead.
+ *
+ * Keys come from a fixed seed, so hashes are comparable across nodes and restarts.
+ */
+final class Zobrist {
+
+    static final int MAX_MARBLES = 24;
+    static final int MAX_SPACES = 96;
+    static final int SAFE_SLOTS = 4;
+    private static final int CARDS = Card.DISTINCT_CARDS;
+    private static final int COLORS = Types.Color.values().length;
+
+    private static final long[] SPACE = new long[MAX_MARBLES * MAX_SPACES];
+    private static final long[] SAFE = new long[MAX_MARBLES * SAFE_SLOTS];
+    private static final long[] RESERVE = new long[MAX_MARBLES];
+    private static final long[] PROTECTED = new long[MAX_MARBLES];
+    private static final long[] HAND = new long[COLORS * CARDS];
+    private static final long[] LAST_CARD = new long[CARDS + 1];
+    private static final long[] TURN = new long[COLORS];
+    private static final long[] STATUS = new long[Types.GameStatus.values().length];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5A0B_2157_C0DE_F00DL);
+        for (long[] keys : new long[][]{SPACE, SAFE, RESERVE, PROTECTED, HAND, LAST_CARD, TURN, STATUS}) {
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = random.nextLong();
+            }
+        }
+    }
+
+    private Zobrist() {}
+
+    static long space(int marbleId, int position) {
+        return SPACE[marbleId * MAX_SPACES + position];
+    }
+
+    static long safe(int marbleId, int slot) {
+        return SAFE[marbleId * SAFE_SLOTS + slot];
+    }
+
+    static long reserve(int marbleId) {
+        return RESERVE[marbleId];
+    }
+
+    static long protectedMarble(int marbleId) {
+        return PROTECTED[marbleId];
+    }
+
+    static long handCard(Types.Color color, Card card) {
+        return HAND[color.ordinal() * CARDS + card.index()];
+    }
+
+    static long lastCard(Card card) {
+        return card == null ? LAST_CARD[CARDS] : LAST_CARD[card.index()];
+    }
+
+    static long turn(int playerIndex) {
+        return TURN[playerIndex];
+    }
+
+    static long status(Types.GameStatus status) {
+        return STATUS[status.ordinal()];
+    }
+}
@@ -0,0 +1,215 @@
+package com.cardrace.cardrace_server.repository;
+
+import com.amazonaws.AmazonWebServiceRequest;
+import com.amazonaws.handlers.AsyncHandler;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDBAsync;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperTableModel;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTable;
+import com.amazonaws.services.dynamodbv2.model.*;
+import com.cardrace.cardrace_server.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking counterpart of UserRepository. Every call returns immediately and completes on the
+ * async client's executor, so socket and request threads never wait on DynamoDB.
+ */
+@Repository
+public class AsyncUserRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncUserRepository.class);
+    private static final String TABLE_NAME = User.class.getAnnotation(DynamoDBTable.class).tableName();
+    private static final int MAX_BATCH_GET = 100;
+    private static final int MAX_BATCH_WRITE = 25;
+    private static final int MAX_UNPROCESSED_RETRIES = 5;
+    private static final long BASE_BACKOFF_MS = 50;
+
+    private final AmazonDynamoDBAsync dynamoDBAsync;
+    private final DynamoDBMapperTableModel<User> tableModel;
+
+    @Autowired
+    public AsyncUserRepository(AmazonDynamoDBAsync dynamoDBAsync, DynamoDBMapper dynamoDBMapper) {
+        this.dynamoDBAsync = dynamoDBAsync;
+        this.tableModel = dynamoDBMapper.getTableModel(User.class);
+    }
+
+    public CompletableFuture<Optional<User>> findByUsername(String username) {
+        QueryRequest request = new QueryRequest()
+                .withTableName(TABLE_NAME)
+                .withIndexName("UsernameIndex")
+                .withKeyConditionExpression("username = :val1")
+                .withExpressionAttributeValues(Map.of(":val1", new AttributeValue().withS(username)))
+                .withLimit(1);
+
+        return AsyncUserRepository.<QueryRequest, QueryResult>call(request, dynamoDBAsync::queryAsync)
+                .thenApply(result -> result.getItems().stream().findFirst().map(tableModel::unconvert));
+    }
+
+    /**
+     * Loads users by id with BatchGetItem, 100 keys per request, retrying unprocessed keys with backoff.
+     *
+     * @param ids The user ids to load
+     * @return The users found, in no particular order
+     */
+    public CompletableFuture<List<User>> batchGetByIds(Collection<String> ids) {
+        List<CompletableFuture<List<User>>> chunks = new ArrayList<>();
+        for (List<String> chunk : partition(new ArrayList<>(ids), MAX_BATCH_GET)) {
+            List<Map<String, AttributeValue>> keys = new ArrayList<>();
+            for (String id : chunk) {
+                keys.add(Map.of("id", new AttributeValue().withS(id)));
+            }
+            KeysAndAttributes request = new KeysAndAttributes().withKeys(keys).withConsistentRead(true);
+            chunks.add(batchGet(Map.of(TABLE_NAME, request), new ArrayList<>(), 0));
+        }
+        return CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> {
+                    List<User> users = new ArrayList<>();
+                    chunks.forEach(chunk -> users.addAll(chunk.join()));
+                    return users;
+                });
+    }
+
+    /**
+     * Writes users with BatchWriteItem, 25 items per request, retrying unprocessed items with backoff.
+     *
+     * @param users The users to write
+     * @return A future that completes once every item has been written
+     */
+    public CompletableFuture<Void> batchSave(Collection<User> users) {
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+        for (List<User> chunk : partition(new ArrayList<>(users), MAX_BATCH_WRITE)) {
+            List<WriteRequest> writes = new ArrayList<>();
+            for (User user : chunk) {
+                writes.add(new WriteRequest(new PutRequest(tableModel.convert(user))));
+            }
+            chunks.add(batchWrite(Map.of(TABLE_NAME, writes), 0));
+        }
+        return CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0]));
+    }
+
+    /**
+     * Applies the stats of a finished game to every player. Each player's id is looked up through the
+     * username index and their counters are then raised with an UpdateItem ADD on the primary key, so
+     * games ending together never lose increments and no other attribute is touched. Lookups and
+     * updates for different players run concurrently.
+     *
+     * @param turnsByUsername Turns taken in the game, keyed by username
+     * @param winner          The winning username
+     * @return A future that completes once all players have been updated
+     */
+    public CompletableFuture<Void> recordGameResults(Map<String, Integer> turnsByUsername, String winner) {
+        List<CompletableFuture<Void>> updates = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : turnsByUsername.entrySet()) {
+            String username = entry.getKey();
+            int wins = Objects.equals(username, winner) ? 1 : 0;
+            updates.add(findIdByUsername(username).thenCompose(id -> {
+                if (id.isEmpty()) {
+                    logger.warn("Player of a finished game was not found: {}", username);
+                    return CompletableFuture.completedFuture(null);
+                }
+                return addStats(id.get(), entry.getValue(), wins);
+            }));
+        }
+        return CompletableFuture.allOf(updates.toArray(new CompletableFuture[0]));
+    }
+
+    private CompletableFuture<Optional<String>> findIdByUsername(String username) {
+        // Index keys always include the table key, whatever the index projects.
+        QueryRequest request = new QueryRequest()
+                .withTableName(TABLE_NAME)
+                .withIndexName("UsernameIndex")
+                .withKeyConditionExpression("username = :val1")
+                .withExpressionAttributeValues(Map.of(":val1", new AttributeValue().withS(username)))
+                .withProjectionExpression("id")
+                .withLimit(1);
+
+        return AsyncUserRepository.<QueryRequest, QueryResult>call(request, dynamoDBAsync::queryAsync)
+                .thenApply(result -> result.getItems().stream().findFirst().map(item -> item.get("id").getS()));
+    }
+
+    private CompletableFuture<Void> addStats(String id, int turns, int wins) {
+        UpdateItemRequest request = new UpdateItemRequest()
+                .withTableName(TABLE_NAME)
+                .withKey(Map.of("id", new AttributeValue().withS(id)))
+                .withUpdateExpression("ADD gamesPlayed :one, wins :wins, turns :turns")
+                .withConditionExpression("attribute_exists(id)")
+                .withExpressionAttributeValues(Map.of(
+                        ":one", new AttributeValue().withN("1"),
+                        ":wins", new AttributeValue().withN(Integer.toString(wins)),
+                        ":turns", new AttributeValue().withN(Integer.toString(turns))));
+
+        return AsyncUserRepository.<UpdateItemRequest, UpdateItemResult>call(request, dynamoDBAsync::updateItemAsync)
+                .thenApply(ignored -> null);
+    }
+
+    private CompletableFuture<List<User>> batchGet(Map<String, KeysAndAttributes> requestItems, List<User> found, int attempt) {
+        return AsyncUserRepository.<BatchGetItemRequest, BatchGetItemResult>call(new BatchGetItemRequest().withRequestItems(requestItems), dynamoDBAsync::batchGetItemAsync)
+                .thenCompose(result -> {
+                    result.getResponses().getOrDefault(TABLE_NAME, List.of())
+                            .forEach(item -> found.add(tableModel.unconvert(item)));
+                    Map<String, KeysAndAttributes> unprocessed = result.getUnprocessedKeys();
+                    if (unprocessed == null || unprocessed.isEmpty()) {
+                        return CompletableFuture.completedFuture(found);
+                    }
+                    checkRetries(attempt);
+                    return later(attempt, () -> batchGet(unprocessed, found, attempt + 1));
+                });
+    }
+
+    private CompletableFuture<Void> batchWrite(Map<String, List<WriteRequest>> requestItems, int attempt) {
+        return AsyncUserRepository.<BatchWriteItemRequest, BatchWriteItemResult>call(new BatchWriteItemRequest().withRequestItems(requestItems), dynamoDBAsync::batchWriteItemAsync)
+                .thenCompose(result -> {
+                    Map<String, List<WriteRequest>> unprocessed = result.getUnprocessedItems();
+                    if (unprocessed == null || unprocessed.isEmpty()) {
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    checkRetries(attempt);
+                    return later(attempt, () -> batchWrite(unprocessed, attempt + 1));
+                });
+    }
+
+    private static void checkRetries(int attempt) {
+        if (attempt >= MAX_UNPROCESSED_RETRIES) {
+            throw new IllegalStateException("DynamoDB batch still has unprocessed items after " + attempt + " retries");
+        }
+    }
+
+    private static <T> CompletableFuture<T> later(int attempt, Supplier<CompletableFuture<T>> next) {
+        long backoff = BASE_BACKOFF_MS << attempt;
+        return CompletableFuture.supplyAsync(() -> null, CompletableFuture.delayedExecutor(backoff, TimeUnit.MILLISECONDS))
+                .thenCompose(ignored -> next.get());
+    }
+
+    private static <Q extends AmazonWebServiceRequest, S> CompletableFuture<S> call(Q request, BiConsumer<Q, AsyncHandler<Q, S>> operation) {
+        CompletableFuture<S> future = new CompletableFuture<>();
+        operation.accept(request, new AsyncHandler<>() {
+            @Override
+            public void onError(Exception exception) {
+                future.completeExceptionally(exception);
+            }
+
+            @Override
+            public void onSuccess(Q ignored, S result) {
+                future.complete(result);
+            }
+        });
+        return future;
+    }
+
+    private static <T> List<List<T>> partition(List<T> items, int size) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int i = 0; i < items.size(); i += size) {
+            chunks.add(items.subList(i, Math.min(i + size, items.size())));
+        }
+        return chunks;
+    }
+}
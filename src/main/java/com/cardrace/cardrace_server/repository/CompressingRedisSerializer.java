@@ -0,0 +1,121 @@
+package com.cardrace.cardrace_server.repository;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Deflates values from another serializer once they reach a size threshold. Compressed values start with
+ * a magic byte followed by the original length, so compressed and uncompressed values can live side by side
+ * and the threshold can change at any time. Every value the delegate writes is read back as compressed if it
+ * starts with the magic byte, so the delegate must never write one that does: GameCodec output and JSON
+ * never do, and fields stored beside them must be encoded to match. A value whose header or deflate stream
+ * does not hold up fails with a {@link SerializationException}.
+ */
+public class CompressingRedisSerializer<T> implements RedisSerializer<T> {
+
+    public static final byte MAGIC = (byte) 0xDF;
+    // Far beyond any game, and small enough that a corrupt header cannot ask for a huge buffer.
+    static final int MAX_LENGTH = 16 << 20;
+
+    private final RedisSerializer<T> delegate;
+    private final int thresholdBytes;
+    private final ThreadLocal<Deflater> deflaters;
+    private final ThreadLocal<Inflater> inflaters = ThreadLocal.withInitial(() -> new Inflater(true));
+
+    public CompressingRedisSerializer(RedisSerializer<T> delegate, int thresholdBytes, int level) {
+        this.delegate = delegate;
+        this.thresholdBytes = thresholdBytes;
+        this.deflaters = ThreadLocal.withInitial(() -> new Deflater(level, true));
+    }
+
+    @Override
+    public byte[] serialize(T value) throws SerializationException {
+        byte[] raw = delegate.serialize(value);
+        if (raw == null || raw.length < thresholdBytes) {
+            return raw;
+        }
+        byte[] compressed = compress(raw);
+        return compressed.length < raw.length ? compressed : raw;
+    }
+
+    @Override
+    public T deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0 || bytes[0] != MAGIC) {
+            return delegate.deserialize(bytes);
+        }
+        return delegate.deserialize(decompress(bytes));
+    }
+
+    byte[] compress(byte[] raw) {
+        Deflater deflater = deflaters.get();
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+
+        byte[] out = new byte[raw.length + 16];
+        int position = writeHeader(out, raw.length);
+        while (!deflater.finished()) {
+            if (position == out.length) {
+                out = Arrays.copyOf(out, out.length * 2);
+            }
+            position += deflater.deflate(out, position, out.length - position);
+        }
+        return Arrays.copyOf(out, position);
+    }
+
+    byte[] decompress(byte[] bytes) {
+        int position = 1;
+        long claimed = 0;
+        int shift = 0;
+        int b;
+        do {
+            if (position == bytes.length || shift > 28) {
+                throw new SerializationException("Corrupt compressed value header");
+            }
+            b = bytes[position++] & 0xFF;
+            claimed |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        if (claimed > MAX_LENGTH) {
+            throw new SerializationException("Compressed value claims " + claimed + " bytes");
+        }
+        int length = (int) claimed;
+
+        Inflater inflater = inflaters.get();
+        inflater.reset();
+        inflater.setInput(bytes, position, bytes.length - position);
+        byte[] raw = new byte[length];
+        try {
+            int read = 0;
+            while (read < length && !inflater.finished()) {
+                int n = inflater.inflate(raw, read, length - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != length) {
+                throw new SerializationException("Truncated compressed value");
+            }
+        } catch (DataFormatException e) {
+            throw new SerializationException("Corrupt compressed value", e);
+        }
+        return raw;
+    }
+
+    private static int writeHeader(byte[] out, int length) {
+        int position = 0;
+        out[position++] = MAGIC;
+        while ((length & ~0x7F) != 0) {
+            out[position++] = (byte) ((length & 0x7F) | 0x80);
+            length >>>= 7;
+        }
+        out[position++] = (byte) length;
+        return position;
+    }
+}
@@ -0,0 +1,51 @@
+package com.cardrace.cardrace_server.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Leases ID blocks on a single node without Redis. The end of the last leased block is written and forced
+ * to a local file before the block is handed out, so IDs are not reused after a restart.
+ */
+@Repository
+@ConditionalOnProperty(name = "game.store", havingValue = "journal")
+public class FileIdBlockRepository implements IdBlockRepository {
+
+    private final FileChannel channel;
+    private long next;
+
+    public FileIdBlockRepository(@Value("${game.id.counter-file:data/game-id-counter}") String path) throws IOException {
+        this(Paths.get(path));
+    }
+
+    FileIdBlockRepository(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+        this.next = channel.read(buffer, 0) == Long.BYTES ? buffer.flip().getLong() : 0;
+    }
+
+    @Override
+    public synchronized long leaseBlock(int size) {
+        long start = next;
+        try {
+            channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, start + size), 0);
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error leasing game ID block", e);
+        }
+        next = start + size;
+        return start;
+    }
+}
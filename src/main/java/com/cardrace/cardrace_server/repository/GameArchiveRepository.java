@@ -0,0 +1,60 @@
+package com.cardrace.cardrace_server.repository;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.cardrace.cardrace_server.model.ArchivedGame;
+import com.cardrace.cardrace_server.model.game.Game;
+import com.cardrace.cardrace_server.model.game.GameCodec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Repository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.Deflater;
+
+/**
+ * Cold store for finished games. Snapshots are written once and rarely read, so they are deflated at the
+ * highest level regardless of size.
+ */
+@Repository
+public class GameArchiveRepository {
+
+    private final DynamoDBMapper dynamoDBMapper;
+    private final CompressingRedisSerializer<byte[]> compressor =
+            new CompressingRedisSerializer<>(RedisSerializer.byteArray(), 0, Deflater.BEST_COMPRESSION);
+
+    @Autowired
+    public GameArchiveRepository(DynamoDBMapper dynamoDBMapper) {
+        this.dynamoDBMapper = dynamoDBMapper;
+    }
+
+    public void archive(String gameId, Game game) {
+        dynamoDBMapper.save(new ArchivedGame(gameId, System.currentTimeMillis(), game.getStatus().name(),
+                game.getWinner(), compressor.serialize(GameCodec.encode(game))));
+    }
+
+    /**
+     * @param gameId The ID of the archived game
+     * @return The most recently archived game with this ID, if any
+     */
+    public Optional<Game> findLatest(String gameId) {
+        Map<String, AttributeValue> eav = new HashMap<>();
+        eav.put(":val1", new AttributeValue().withS(gameId));
+
+        DynamoDBQueryExpression<ArchivedGame> queryExpression = new DynamoDBQueryExpression<ArchivedGame>()
+                .withKeyConditionExpression("gameId = :val1")
+                .withExpressionAttributeValues(eav)
+                .withScanIndexForward(false)
+                .withLimit(1);
+
+        List<ArchivedGame> results = dynamoDBMapper.queryPage(ArchivedGame.class, queryExpression).getResults();
+        if (results.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(GameCodec.decode(compressor.deserialize(results.get(0).getState())));
+    }
+}
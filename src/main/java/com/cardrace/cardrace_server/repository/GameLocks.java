@@ -0,0 +1,50 @@
+package com.cardrace.cardrace_server.repository;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Locks serializing every change to a game held on this node. The {@link HotGameTier} hands the same game
+ * object to every caller, so changes, saves and copies taken for other threads all happen under the game's
+ * lock. Locks are striped by game ID, so unrelated games may share one, and a holder must not take another
+ * game's lock.
+ *
+ * A holder may wait on Redis, so the lock must not be taken on a Redis I/O thread.
+ */
+@Component
+public class GameLocks {
+
+    @FunctionalInterface
+    public interface Work<T, E extends Exception> {
+        T execute() throws E;
+    }
+
+    private static final int STRIPES = 256;
+
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+    public GameLocks() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Runs work holding a game's lock.
+     *
+     * @param gameId The ID of the game
+     * @param work   The work to run
+     * @return The result of the work
+     */
+    public <T, E extends Exception> T withLock(String gameId, Work<T, E> work) throws E {
+        int hash = gameId.hashCode();
+        ReentrantLock lock = stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+        lock.lock();
+        try {
+            return work.execute();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.cardrace.cardrace_server.repository;
+
+import com.cardrace.cardrace_server.model.game.Game;
+import com.cardrace.cardrace_server.model.game.GameCodec;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * Writes games with the compact GameCodec layout and reads both that layout and legacy JSON values,
+ * which are told apart by the codec's header byte. JSON writes can be kept during a rolling upgrade
+ * so that nodes without the codec can still read every game.
+ */
+public class GameRedisSerializer implements RedisSerializer<Game> {
+
+    private final RedisSerializer<Game> jsonSerializer;
+    private final boolean writeJson;
+
+    public GameRedisSerializer(RedisSerializer<Game> jsonSerializer, boolean writeJson) {
+        this.jsonSerializer = jsonSerializer;
+        this.writeJson = writeJson;
+    }
+
+    @Override
+    public byte[] serialize(Game game) throws SerializationException {
+        if (game == null) {
+            return null;
+        }
+        if (writeJson) {
+            return jsonSerializer.serialize(game);
+        }
+        return GameCodec.encode(game);
+    }
+
+    @Override
+    public Game deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (!GameCodec.isEncoded(bytes)) {
+            return jsonSerializer.deserialize(bytes);
+        }
+        try {
+            return GameCodec.decode(bytes);
+        } catch (RuntimeException e) {
+            throw new SerializationException("Could not decode game", e);
+        }
+    }
+}
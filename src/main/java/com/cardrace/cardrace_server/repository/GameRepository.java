@@ -1,11 +1,37 @@
 package com.cardrace.cardrace_server.repository;
 
 import com.cardrace.cardrace_server.model.game.Game;
+import com.cardrace.cardrace_server.model.game.Types;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 
 public interface GameRepository {
     Game save(String uuid, Game game);
     Optional<Game> findById(String gameId);
+    Optional<Types.GameStatus> findStatus(String gameId);
     void delete(String gameId);
+    Map<String, Game> findAllById(Collection<String> gameIds);
+    void saveAll(Map<String, Game> games);
+    void deleteAll(Collection<String> gameIds);
+
+    /**
+     * @return The {@link Game#getVersion} of each stored game; by default read from the games themselves, which
+     *         stores that keep the version beside a game answer without loading it
+     */
+    default Map<String, Long> findVersions(Collection<String> gameIds) {
+        Map<String, Long> versions = new HashMap<>();
+        findAllById(gameIds).forEach((gameId, game) -> versions.put(gameId, game.getVersion()));
+        return versions;
+    }
+
+    /**
+     * @return A non-blocking view of this repository; by default each call runs in place, which suits stores
+     *         that never block on the network
+     */
+    default ReactiveGameRepository async() {
+        return ReactiveGameRepository.completed(this);
+    }
 }
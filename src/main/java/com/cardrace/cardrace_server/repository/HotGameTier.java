@@ -0,0 +1,207 @@
+package com.cardrace.cardrace_server.repository;
+
+import com.cardrace.cardrace_server.model.game.Game;
+import com.cardrace.cardrace_server.model.game.Types;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Games held on the heap of this node, bounded by an estimated byte budget. When a put takes the tier over
+ * budget, games are evicted by approximate LRU: a few entries are sampled from a cursor that moves around the
+ * map, and the least recently used of them goes, as Redis does for its own eviction. Games idle for longer
+ * than the idle threshold are evicted by {@link #evictIdle()}. Games the eviction guard rejects, such as
+ * ones with writes not yet in Redis, are never evicted.
+ */
+@Component
+public class HotGameTier {
+
+    static final int EVICTION_SAMPLES = 5;
+
+    private static final class Entry {
+        final String gameId;
+        final Game game;
+        final long weight;
+        volatile long lastAccess;
+
+        Entry(String gameId, Game game, long weight, long lastAccess) {
+            this.gameId = gameId;
+            this.game = game;
+            this.weight = weight;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    private final Map<String, Entry> games = new ConcurrentHashMap<>();
+    private final AtomicLong weight = new AtomicLong();
+    private final long maxBytes;
+    private final long idleMillis;
+    private final LongSupplier clock;
+    private volatile Predicate<String> evictionGuard = gameId -> true;
+    private Iterator<Entry> cursor;
+
+    @Autowired
+    public HotGameTier(@Value("${game.store.hot.max-bytes:268435456}") long maxBytes,
+                       @Value("${game.store.hot.idle-seconds:300}") long idleSeconds) {
+        this(maxBytes, idleSeconds * 1000, System::currentTimeMillis);
+    }
+
+    HotGameTier(long maxBytes, long idleMillis, LongSupplier clock) {
+        this.maxBytes = maxBytes;
+        this.idleMillis = idleMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Estimates the heap held by a game. A lobby holds little more than its name and player list, while a
+     * started game also holds the board, the deck and a hand per player. The figures round up what
+     * GameFootprintBenchmark measures.
+     *
+     * @param game The game to weigh
+     * @return The estimated size in bytes
+     */
+    static long estimateBytes(Game game) {
+        long players = game.numPlayers;
+        if (game.getStatus() == Types.GameStatus.WAITING) {
+            return 192 + 64 * players;
+        }
+        return 512 + 160 * players;
+    }
+
+    /**
+     * @param guard Returns false for games that must stay on the heap
+     */
+    void setEvictionGuard(Predicate<String> guard) {
+        this.evictionGuard = guard;
+    }
+
+    public Optional<Game> get(String gameId) {
+        Entry entry = games.get(gameId);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        entry.lastAccess = clock.getAsLong();
+        return Optional.of(entry.game);
+    }
+
+    public Optional<Types.GameStatus> getStatus(String gameId) {
+        return get(gameId).map(Game::getStatus);
+    }
+
+    public boolean contains(String gameId) {
+        return games.containsKey(gameId);
+    }
+
+    public void put(String gameId, Game game) {
+        Entry entry = new Entry(gameId, game, estimateBytes(game), clock.getAsLong());
+        Entry previous = games.put(gameId, entry);
+        weight.addAndGet(entry.weight - (previous == null ? 0 : previous.weight));
+        evictOverBudget();
+    }
+
+    /**
+     * Holds a game loaded from the warm store unless the tier already holds one, which is at least as new since
+     * every save writes through the tier. Two loads of the same game racing each other settle on one object.
+     *
+     * @return The game now held
+     */
+    public Game putIfAbsent(String gameId, Game game) {
+        Entry entry = new Entry(gameId, game, estimateBytes(game), clock.getAsLong());
+        Entry previous = games.putIfAbsent(gameId, entry);
+        if (previous != null) {
+            previous.lastAccess = entry.lastAccess;
+            return previous.game;
+        }
+        weight.addAndGet(entry.weight);
+        evictOverBudget();
+        return game;
+    }
+
+    public void remove(String gameId) {
+        Entry removed = games.remove(gameId);
+        if (removed != null) {
+            weight.addAndGet(-removed.weight);
+        }
+    }
+
+    /**
+     * Evicts every game not used within the idle threshold. Evicted games stay available from Redis.
+     *
+     * @return The number of games evicted
+     */
+    public int evictIdle() {
+        long cutoff = clock.getAsLong() - idleMillis;
+        int evicted = 0;
+        for (Entry entry : games.values()) {
+            if (entry.lastAccess < cutoff && evictionGuard.test(entry.gameId) && games.remove(entry.gameId, entry)) {
+                weight.addAndGet(-entry.weight);
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * @return A copy of the games currently held, least recently used first
+     */
+    public Map<String, Game> residentGames() {
+        Map<String, Game> resident = new LinkedHashMap<>();
+        games.values().stream()
+                .sorted(Comparator.comparingLong(entry -> entry.lastAccess))
+                .forEach(entry -> resident.put(entry.gameId, entry.game));
+        return resident;
+    }
+
+    public int size() {
+        return games.size();
+    }
+
+    public long estimatedBytes() {
+        return weight.get();
+    }
+
+    private void evictOverBudget() {
+        while (weight.get() > maxBytes) {
+            Entry victim = sampleLeastRecentlyUsed();
+            if (victim == null) {
+                return;
+            }
+            if (games.remove(victim.gameId, victim)) {
+                weight.addAndGet(-victim.weight);
+            }
+        }
+    }
+
+    private synchronized Entry sampleLeastRecentlyUsed() {
+        Entry oldest = null;
+        int sampled = 0;
+        // Two passes at most, so a tier holding only guarded games is given up on instead of spinning.
+        for (int visited = 0; sampled < EVICTION_SAMPLES && visited < 2 * games.size() + EVICTION_SAMPLES; visited++) {
+            if (cursor == null || !cursor.hasNext()) {
+                cursor = games.values().iterator();
+                if (!cursor.hasNext()) {
+                    break;
+                }
+            }
+            Entry candidate = cursor.next();
+            if (!evictionGuard.test(candidate.gameId)) {
+                continue;
+            }
+            sampled++;
+            if (oldest == null || candidate.lastAccess < oldest.lastAccess) {
+                oldest = candidate;
+            }
+        }
+        return oldest;
+    }
+}
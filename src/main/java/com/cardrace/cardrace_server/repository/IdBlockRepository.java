@@ -0,0 +1,11 @@
+package com.cardrace.cardrace_server.repository;
+
+public interface IdBlockRepository {
+    /**
+     * Reserves a block of consecutive IDs that no other caller, on this node or any other, will be given.
+     *
+     * @param size The number of IDs to reserve
+     * @return The first ID of the block
+     */
+    long leaseBlock(int size);
+}
@@ -1,8 +1,11 @@
 package com.cardrace.cardrace_server.repository;
 
 import com.cardrace.cardrace_server.model.game.Game;
+import com.cardrace.cardrace_server.model.game.Types;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
@@ -24,8 +27,35 @@ public class InMemoryGameRepository implements GameRepository{
         return Optional.ofNullable(gameStore.get(gameId));
     }
 
+    @Override
+    public Optional<Types.GameStatus> findStatus(String gameId) {
+        return findById(gameId).map(Game::getStatus);
+    }
+
     @Override
     public void delete(String gameId) {
         gameStore.remove(gameId);
     }
+
+    @Override
+    public Map<String, Game> findAllById(Collection<String> gameIds) {
+        Map<String, Game> games = new HashMap<>();
+        for (String gameId : gameIds) {
+            Game game = gameStore.get(gameId);
+            if (game != null) {
+                games.put(gameId, game);
+            }
+        }
+        return games;
+    }
+
+    @Override
+    public void saveAll(Map<String, Game> games) {
+        gameStore.putAll(games);
+    }
+
+    @Override
+    public void deleteAll(Collection<String> gameIds) {
+        gameIds.forEach(gameStore::remove);
+    }
 }
@@ -0,0 +1,86 @@
+package com.cardrace.cardrace_server.repository;
+
+import com.cardrace.cardrace_server.dto.LeaderboardEntryDTO;
+import com.cardrace.cardrace_server.model.LeaderboardCategory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+
+/**
+ * Single-node leaderboard for local testing. Ranks are found by walking the sorted view,
+ * so unlike the Redis implementation rank lookups are linear in the number of players.
+ */
+@Repository
+@ConditionalOnProperty(name = "leaderboard.store", havingValue = "memory")
+public class InMemoryLeaderboardRepository implements LeaderboardRepository {
+
+    private static final Comparator<LeaderboardEntryDTO> ORDER = Comparator
+            .comparingDouble(LeaderboardEntryDTO::score).reversed()
+            .thenComparing(LeaderboardEntryDTO::username);
+
+    private final Map<String, int[]> stats = new HashMap<>();
+    private final Map<LeaderboardCategory, TreeSet<LeaderboardEntryDTO>> boards = new EnumMap<>(LeaderboardCategory.class);
+
+    public InMemoryLeaderboardRepository() {
+        for (LeaderboardCategory category : LeaderboardCategory.values()) {
+            boards.put(category, new TreeSet<>(ORDER));
+        }
+    }
+
+    @Override
+    public synchronized void recordResult(String username, boolean won) {
+        int[] current = stats.getOrDefault(username, new int[2]);
+        setStats(username, current[0] + 1, current[1] + (won ? 1 : 0));
+    }
+
+    @Override
+    public synchronized void setStats(String username, int gamesPlayed, int wins) {
+        if (gamesPlayed == 0) {
+            return;
+        }
+        int[] previous = stats.put(username, new int[]{gamesPlayed, wins});
+        for (LeaderboardCategory category : LeaderboardCategory.values()) {
+            TreeSet<LeaderboardEntryDTO> board = boards.get(category);
+            if (previous != null) {
+                board.remove(new LeaderboardEntryDTO(0, username, score(category, previous[0], previous[1])));
+            }
+            board.add(new LeaderboardEntryDTO(0, username, score(category, gamesPlayed, wins)));
+        }
+    }
+
+    @Override
+    public synchronized List<LeaderboardEntryDTO> findPage(LeaderboardCategory category, long offset, int limit) {
+        List<LeaderboardEntryDTO> entries = new ArrayList<>();
+        long rank = 0;
+        for (LeaderboardEntryDTO entry : boards.get(category)) {
+            if (rank >= offset + limit) {
+                break;
+            }
+            rank++;
+            if (rank > offset) {
+                entries.add(new LeaderboardEntryDTO(rank, entry.username(), entry.score()));
+            }
+        }
+        return entries;
+    }
+
+    @Override
+    public synchronized Optional<LeaderboardEntryDTO> findRank(LeaderboardCategory category, String username) {
+        int[] current = stats.get(username);
+        if (current == null) {
+            return Optional.empty();
+        }
+        LeaderboardEntryDTO probe = new LeaderboardEntryDTO(0, username, score(category, current[0], current[1]));
+        long rank = boards.get(category).headSet(probe).size() + 1;
+        return Optional.of(new LeaderboardEntryDTO(rank, username, probe.score()));
+    }
+
+    private static double score(LeaderboardCategory category, int gamesPlayed, int wins) {
+        return switch (category) {
+            case WINS -> wins;
+            case GAMES_PLAYED -> gamesPlayed;
+            case WIN_RATE -> (double) wins / gamesPlayed;
+        };
+    }
+}
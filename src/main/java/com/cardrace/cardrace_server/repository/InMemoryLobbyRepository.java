@@ -0,0 +1,48 @@
+package com.cardrace.cardrace_server.repository;
+
+import com.cardrace.cardrace_server.dto.LobbySummaryDTO;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+@Repository
+@ConditionalOnProperty(name = "lobby.store", havingValue = "memory")
+public class InMemoryLobbyRepository implements LobbyRepository {
+
+    private final Map<String, Long> sequenceByGame = new HashMap<>();
+    private final NavigableMap<Long, LobbySummaryDTO> lobbies = new TreeMap<>();
+    private long sequence;
+
+    @Override
+    public synchronized void upsert(String gameId, String gameName, int players, int capacity) {
+        Long key = sequenceByGame.computeIfAbsent(gameId, id -> sequence++);
+        lobbies.put(key, new LobbySummaryDTO(gameId, gameName, players, capacity));
+    }
+
+    @Override
+    public synchronized void remove(String gameId) {
+        Long key = sequenceByGame.remove(gameId);
+        if (key != null) {
+            lobbies.remove(key);
+        }
+    }
+
+    @Override
+    public synchronized boolean isOpen(String gameId) {
+        return sequenceByGame.containsKey(gameId);
+    }
+
+    @Override
+    public synchronized List<LobbySummaryDTO> findPage(long offset, int limit) {
+        return lobbies.descendingMap().values().stream()
+                .skip(offset)
+                .limit(limit)
+                .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+    }
+}
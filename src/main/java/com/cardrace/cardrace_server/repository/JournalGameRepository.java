@@ -0,0 +1,433 @@
+package com.cardrace.cardrace_server.repository;
+
+import com.cardrace.cardrace_server.model.game.Game;
+import com.cardrace.cardrace_server.model.game.GameCodec;
+import com.cardrace.cardrace_server.model.game.Types;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Single-node game store that needs no Redis. Every save appends a GameCodec snapshot to a memory-mapped,
+ * append-only segment file, and an in-memory index maps each game to its latest record. A save is in the
+ * page cache once it returns, so it survives a crash of the process, and it reaches the disk by the next
+ * flush ({@code game.store.journal.flush-interval-ms}, or on every save when that is 0).
+ *
+ * On startup the segments are replayed in order to rebuild the index, stopping at the first torn or
+ * corrupt record of a segment. Sealed segments whose live records fall below half of their size are
+ * compacted: live records are copied to the active segment and the file is deleted. Delete markers are
+ * carried over while an older segment might still hold a save they cancel.
+ *
+ * Record layout: length (int, of everything after the header), CRC32 (int), type (byte), status (byte),
+ * ID length (short), ID (UTF-8), snapshot. A zero length marks the end of a segment.
+ */
+@Repository
+@Qualifier("warmGameStore")
+@ConditionalOnProperty(name = "game.store", havingValue = "journal")
+public class JournalGameRepository implements GameRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(JournalGameRepository.class);
+
+    static final int HEADER_BYTES = 8;
+    static final byte TYPE_SAVE = 1;
+    static final byte TYPE_DELETE = 2;
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final Types.GameStatus[] STATUSES = Types.GameStatus.values();
+
+    private record Location(Segment segment, int offset, int length, Types.GameStatus status) {}
+
+    static final class Segment {
+        final long sequence;
+        final Path path;
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+        int writePosition;
+        long liveBytes;
+
+        Segment(long sequence, Path path, int size) throws IOException {
+            this.sequence = sequence;
+            this.path = path;
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(size, channel.size()));
+        }
+
+        int capacity() {
+            return buffer.capacity();
+        }
+    }
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final double compactionThreshold;
+    private final boolean flushEverySave;
+    private final Map<String, Location> index = new HashMap<>();
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final CRC32 crc = new CRC32();
+    private volatile Segment active;
+    private ScheduledExecutorService maintenanceExecutor;
+
+    @Autowired
+    public JournalGameRepository(@Value("${game.store.journal.dir:data/journal}") String directory,
+                                 @Value("${game.store.journal.segment-bytes:67108864}") int segmentBytes,
+                                 @Value("${game.store.journal.flush-interval-ms:1000}") long flushIntervalMs,
+                                 @Value("${game.store.journal.compaction-interval-ms:30000}") long compactionIntervalMs) throws IOException {
+        this(Paths.get(directory), segmentBytes, 0.5, flushIntervalMs == 0);
+        maintenanceExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "game-journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (flushIntervalMs > 0) {
+            maintenanceExecutor.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        }
+        maintenanceExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                compact();
+            } catch (RuntimeException e) {
+                logger.error("Error compacting game journal", e);
+            }
+        }, compactionIntervalMs, compactionIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    JournalGameRepository(Path directory, int segmentBytes, double compactionThreshold, boolean flushEverySave) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.compactionThreshold = compactionThreshold;
+        this.flushEverySave = flushEverySave;
+        Files.createDirectories(directory);
+        recover();
+    }
+
+    @PreDestroy
+    public void close() {
+        if (maintenanceExecutor != null) {
+            maintenanceExecutor.shutdown();
+        }
+        lock.writeLock().lock();
+        try {
+            for (Segment segment : segments.values()) {
+                segment.buffer.force();
+                segment.channel.close();
+            }
+        } catch (IOException e) {
+            logger.error("Error closing game journal", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Game save(String uuid, Game game) {
+        byte[] snapshot = GameCodec.encode(game);
+        lock.writeLock().lock();
+        try {
+            append(TYPE_SAVE, game.getStatus(), uuid, snapshot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        game.clearDirtyFields();
+        return game;
+    }
+
+    @Override
+    public Optional<Game> findById(String gameId) {
+        byte[] snapshot;
+        lock.readLock().lock();
+        try {
+            Location location = index.get(gameId);
+            if (location == null) {
+                return Optional.empty();
+            }
+            snapshot = readSnapshot(location);
+        } finally {
+            lock.readLock().unlock();
+        }
+        Game game = GameCodec.decode(snapshot);
+        game.clearDirtyFields();
+        return Optional.of(game);
+    }
+
+    @Override
+    public Optional<Types.GameStatus> findStatus(String gameId) {
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(index.get(gameId)).map(Location::status);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void delete(String gameId) {
+        deleteAll(List.of(gameId));
+    }
+
+    @Override
+    public Map<String, Game> findAllById(Collection<String> gameIds) {
+        Map<String, Game> games = new HashMap<>();
+        for (String gameId : gameIds) {
+            findById(gameId).ifPresent(game -> games.put(gameId, game));
+        }
+        return games;
+    }
+
+    @Override
+    public void saveAll(Map<String, Game> games) {
+        Map<String, byte[]> snapshots = new HashMap<>();
+        games.forEach((id, game) -> snapshots.put(id, GameCodec.encode(game)));
+        lock.writeLock().lock();
+        try {
+            games.forEach((id, game) -> append(TYPE_SAVE, game.getStatus(), id, snapshots.get(id)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+        games.values().forEach(Game::clearDirtyFields);
+    }
+
+    @Override
+    public void deleteAll(Collection<String> gameIds) {
+        lock.writeLock().lock();
+        try {
+            for (String gameId : gameIds) {
+                if (index.containsKey(gameId)) {
+                    append(TYPE_DELETE, null, gameId, new byte[0]);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Forces the active segment to disk.
+     */
+    public void flush() {
+        // msync runs alongside appends; a segment rolled meanwhile was forced when it was sealed.
+        active.buffer.force();
+    }
+
+    /**
+     * Compacts every sealed segment whose live records fill less than the compaction threshold, oldest first.
+     *
+     * @return The number of segments deleted
+     */
+    public int compact() {
+        int compacted = 0;
+        for (Segment segment : new ArrayList<>(segments.values())) {
+            if (segment == active) {
+                break;
+            }
+            if (segment.liveBytes < segment.writePosition * compactionThreshold) {
+                compactSegment(segment);
+                compacted++;
+            }
+        }
+        return compacted;
+    }
+
+    int segmentCount() {
+        return segments.size();
+    }
+
+    private void compactSegment(Segment segment) {
+        int position = 0;
+        while (position + HEADER_BYTES <= segment.writePosition) {
+            int length = segment.buffer.getInt(position);
+            byte[] body = new byte[length];
+            segment.buffer.get(position + HEADER_BYTES, body);
+            String gameId = new String(body, 4, readShort(body, 2), StandardCharsets.UTF_8);
+            int offset = position;
+            lock.writeLock().lock();
+            try {
+                Location location = index.get(gameId);
+                if (body[0] == TYPE_SAVE && location != null && location.segment() == segment && location.offset() == offset) {
+                    appendBody(body, gameId);
+                } else if (body[0] == TYPE_DELETE && location == null && segments.firstKey() < segment.sequence) {
+                    appendBody(body, gameId);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            position += HEADER_BYTES + length;
+        }
+        lock.writeLock().lock();
+        try {
+            segments.remove(segment.sequence);
+            segment.channel.close();
+            Files.deleteIfExists(segment.path);
+        } catch (IOException e) {
+            logger.error("Error deleting compacted journal segment {}", segment.path, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void append(byte type, Types.GameStatus status, String gameId, byte[] snapshot) {
+        byte[] id = gameId.getBytes(StandardCharsets.UTF_8);
+        byte[] body = new byte[4 + id.length + snapshot.length];
+        body[0] = type;
+        body[1] = (byte) (status == null ? 0 : status.ordinal());
+        body[2] = (byte) (id.length >>> 8);
+        body[3] = (byte) id.length;
+        System.arraycopy(id, 0, body, 4, id.length);
+        System.arraycopy(snapshot, 0, body, 4 + id.length, snapshot.length);
+        appendBody(body, gameId);
+    }
+
+    // Caller holds the write lock.
+    private void appendBody(byte[] body, String gameId) {
+        int recordBytes = HEADER_BYTES + body.length;
+        if (recordBytes + HEADER_BYTES > segmentBytes) {
+            throw new IllegalArgumentException("Game " + gameId + " is too large for a journal segment");
+        }
+        if (active.writePosition + recordBytes + HEADER_BYTES > active.capacity()) {
+            roll();
+        }
+        crc.reset();
+        crc.update(body);
+        int offset = active.writePosition;
+        // Body first, length last, so a record is never visible before it is complete.
+        active.buffer.put(offset + HEADER_BYTES, body);
+        active.buffer.putInt(offset + 4, (int) crc.getValue());
+        active.buffer.putInt(offset, body.length);
+        active.writePosition += recordBytes;
+        if (flushEverySave) {
+            active.buffer.force();
+        }
+        apply(active, offset, body, gameId);
+    }
+
+    private void apply(Segment segment, int offset, byte[] body, String gameId) {
+        int recordBytes = HEADER_BYTES + body.length;
+        Location previous = body[0] == TYPE_SAVE
+                ? index.put(gameId, new Location(segment, offset, recordBytes, STATUSES[body[1]]))
+                : index.remove(gameId);
+        if (previous != null) {
+            previous.segment().liveBytes -= previous.length();
+        }
+        if (body[0] == TYPE_SAVE) {
+            segment.liveBytes += recordBytes;
+        }
+    }
+
+    private void roll() {
+        try {
+            active.buffer.force();
+            active = openSegment(active.sequence + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error opening journal segment", e);
+        }
+    }
+
+    private Segment openSegment(long sequence) throws IOException {
+        Path path = directory.resolve(String.format("segment-%016d%s", sequence, SEGMENT_SUFFIX));
+        Segment segment = new Segment(sequence, path, segmentBytes);
+        segments.put(sequence, segment);
+        return segment;
+    }
+
+    private byte[] readSnapshot(Location location) {
+        MappedByteBuffer buffer = location.segment().buffer;
+        int bodyOffset = location.offset() + HEADER_BYTES;
+        int idLength = ((buffer.get(bodyOffset + 2) & 0xFF) << 8) | (buffer.get(bodyOffset + 3) & 0xFF);
+        int snapshotOffset = bodyOffset + 4 + idLength;
+        byte[] snapshot = new byte[location.offset() + location.length() - snapshotOffset];
+        buffer.get(snapshotOffset, snapshot);
+        return snapshot;
+    }
+
+    private static int readShort(byte[] bytes, int offset) {
+        return ((bytes[offset] & 0xFF) << 8) | (bytes[offset + 1] & 0xFF);
+    }
+
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX)).sorted().toList();
+        }
+        long start = System.nanoTime();
+        int records = 0;
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            long sequence = Long.parseLong(name.substring("segment-".length(), name.length() - SEGMENT_SUFFIX.length()));
+            Segment segment = openSegment(sequence);
+            records += replay(segment);
+            active = segment;
+        }
+        if (active == null) {
+            active = openSegment(0);
+        }
+        logger.info("Recovered {} games from {} journal records in {} segments in {} ms", index.size(), records,
+                segments.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private int replay(Segment segment) {
+        MappedByteBuffer buffer = segment.buffer;
+        int position = 0;
+        int records = 0;
+        boolean torn = false;
+        while (position + HEADER_BYTES <= segment.capacity()) {
+            int length = buffer.getInt(position);
+            if (length == 0) {
+                break;
+            }
+            if (length < 4 || position + HEADER_BYTES + length > segment.capacity()) {
+                logger.warn("Discarding torn journal tail in {} at offset {}", segment.path, position);
+                torn = true;
+                break;
+            }
+            byte[] body = new byte[length];
+            buffer.get(position + HEADER_BYTES, body);
+            crc.reset();
+            crc.update(body);
+            int idLength = readShort(body, 2);
+            if ((int) crc.getValue() != buffer.getInt(position + 4) || 4 + idLength > length
+                    || (body[0] != TYPE_SAVE && body[0] != TYPE_DELETE) || body[1] < 0 || body[1] >= STATUSES.length) {
+                logger.warn("Discarding torn journal tail in {} at offset {}", segment.path, position);
+                torn = true;
+                break;
+            }
+            apply(segment, position, body, new String(body, 4, idLength, StandardCharsets.UTF_8));
+            position += HEADER_BYTES + length;
+            records++;
+        }
+        segment.writePosition = position;
+        if (torn) {
+            // Clear the rest of the segment so leftovers of the torn write cannot be read as records later.
+            byte[] zeros = new byte[64 * 1024];
+            for (int i = position; i < segment.capacity(); i += zeros.length) {
+                buffer.put(i, zeros, 0, Math.min(zeros.length, segment.capacity() - i));
+            }
+        }
+        return records;
+    }
+}
@@ -0,0 +1,14 @@
+package com.cardrace.cardrace_server.repository;
+
+import com.cardrace.cardrace_server.dto.LeaderboardEntryDTO;
+import com.cardrace.cardrace_server.model.LeaderboardCategory;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface LeaderboardRepository {
+    void recordResult(String username, boolean won);
+    void setStats(String username, int gamesPlayed, int wins);
+    List<LeaderboardEntryDTO> findPage(LeaderboardCategory category, long offset, int limit);
+    Optional<LeaderboardEntryDTO> findRank(LeaderboardCategory category, String username);
+}
@@ -0,0 +1,12 @@
+package com.cardrace.cardrace_server.repository;
+
+import com.cardrace.cardrace_server.dto.LobbySummaryDTO;
+
+import java.util.List;
+
+public interface LobbyRepository {
+    void upsert(String gameId, String gameName, int players, int capacity);
+    void remove(String gameId);
+    boolean isOpen(String gameId);
+    List<LobbySummaryDTO> findPage(long offset, int limit);
+}
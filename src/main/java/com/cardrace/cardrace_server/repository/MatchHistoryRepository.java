@@ -0,0 +1,63 @@
+package com.cardrace.cardrace_server.repository;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.QueryResultPage;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.cardrace.cardrace_server.model.MatchRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+public class MatchHistoryRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(MatchHistoryRepository.class);
+
+    private final DynamoDBMapper dynamoDBMapper;
+
+    @Autowired
+    public MatchHistoryRepository(DynamoDBMapper dynamoDBMapper) {
+        this.dynamoDBMapper = dynamoDBMapper;
+    }
+
+    public void saveAll(List<MatchRecord> records) {
+        List<DynamoDBMapper.FailedBatch> failed = dynamoDBMapper.batchSave(records);
+        for (DynamoDBMapper.FailedBatch batch : failed) {
+            logger.error("Error saving match history batch: {}", batch.getException().getMessage(), batch.getException());
+        }
+    }
+
+    /**
+     * Reads a user's games newest first with a single key-condition query.
+     *
+     * @param username     The player whose history is read
+     * @param limit        Maximum number of rows to return
+     * @param afterSortKey Sort key of the last row of the previous page, or null for the first page
+     * @return One page of rows; its last evaluated key is null on the final page
+     */
+    public QueryResultPage<MatchRecord> findRecent(String username, int limit, String afterSortKey) {
+        Map<String, AttributeValue> eav = new HashMap<>();
+        eav.put(":val1", new AttributeValue().withS(username));
+
+        DynamoDBQueryExpression<MatchRecord> queryExpression = new DynamoDBQueryExpression<MatchRecord>()
+                .withKeyConditionExpression("username = :val1")
+                .withExpressionAttributeValues(eav)
+                .withScanIndexForward(false)
+                .withLimit(limit);
+
+        if (afterSortKey != null) {
+            Map<String, AttributeValue> startKey = new HashMap<>();
+            startKey.put("username", new AttributeValue().withS(username));
+            startKey.put("sortKey", new AttributeValue().withS(afterSortKey));
+            queryExpression.withExclusiveStartKey(startKey);
+        }
+
+        return dynamoDBMapper.queryPage(MatchRecord.class, queryExpression);
+    }
+}
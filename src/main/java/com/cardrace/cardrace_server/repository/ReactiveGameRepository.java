@@ -0,0 +1,43 @@
+package com.cardrace.cardrace_server.repository;
+
+import com.cardrace.cardrace_server.model.game.Game;
+import com.cardrace.cardrace_server.model.game.Types;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+public interface ReactiveGameRepository {
+    CompletionStage<Game> save(String uuid, Game game);
+    CompletionStage<Optional<Game>> findById(String gameId);
+    CompletionStage<Optional<Types.GameStatus>> findStatus(String gameId);
+    CompletionStage<Void> delete(String gameId);
+
+    /**
+     * Adapts a repository whose calls never block, such as the in-memory one, by running each call in place.
+     */
+    static ReactiveGameRepository completed(GameRepository repository) {
+        return new ReactiveGameRepository() {
+            @Override
+            public CompletionStage<Game> save(String uuid, Game game) {
+                return CompletableFuture.completedFuture(repository.save(uuid, game));
+            }
+
+            @Override
+            public CompletionStage<Optional<Game>> findById(String gameId) {
+                return CompletableFuture.completedFuture(repository.findById(gameId));
+            }
+
+            @Override
+            public CompletionStage<Optional<Types.GameStatus>> findStatus(String gameId) {
+                return CompletableFuture.completedFuture(repository.findStatus(gameId));
+            }
+
+            @Override
+            public CompletionStage<Void> delete(String gameId) {
+                repository.delete(gameId);
+                return CompletableFuture.completedFuture(null);
+            }
+        };
+    }
+}
@@ -1,40 +1,241 @@
 package com.cardrace.cardrace_server.repository;
 
 import com.cardrace.cardrace_server.model.game.Game;
+import com.cardrace.cardrace_server.model.game.GameCodec;
+import com.cardrace.cardrace_server.model.game.Hand;
+import com.cardrace.cardrace_server.model.game.Types;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
+/**
+ * Stores each game as a Redis hash with one field per separately changing part: status, meta, turns,
+ * board, deck and one hand per color. Saves write only the fields the game marked dirty, and status
+ * checks read a single one-byte field. Games still stored as a single value under the legacy key are
+ * read transparently and migrated to the hash layout on their next save. Writes go through
+ * {@link RedisWriteBatch}, so a save issued inside a batch shares its round trip with the other writes there.
+ */
 @Repository
 public class RedisGameRepository implements GameRepository {
 
     private final RedisTemplate<String, Game> redisTemplate;
+    private final RedisTemplate<String, byte[]> hashTemplate;
+    private final RedisWriteBatch writeBatch;
     private static final String KEY_PREFIX = "game:";
+    private static final String HASH_KEY_PREFIX = "gamestate:";
     private static final long DEFAULT_EXPIRATION = 24 * 60 * 60; // 24 hours in seconds
 
-    public RedisGameRepository(RedisTemplate<String, Game> redisTemplate) {
+    static final String STATUS_FIELD = "status";
+    static final String META_FIELD = "meta";
+    static final String TURNS_FIELD = "turns";
+    static final String BOARD_FIELD = "board";
+    static final String DECK_FIELD = "deck";
+    static final String HAND_FIELD_PREFIX = "hand:";
+    // Game.getVersion of the state last written, so a copy held elsewhere can be checked without a full load.
+    static final String VERSION_FIELD = "version";
+
+    public RedisGameRepository(RedisTemplate<String, Game> redisTemplate, RedisTemplate<String, byte[]> gameHashRedisTemplate,
+                               RedisWriteBatch writeBatch) {
         this.redisTemplate = redisTemplate;
+        this.hashTemplate = gameHashRedisTemplate;
+        this.writeBatch = writeBatch;
     }
 
     @Override
     public Game save(String uuid, Game game) {
-        String key = KEY_PREFIX + uuid;
-        redisTemplate.opsForValue().set(key, game, DEFAULT_EXPIRATION, TimeUnit.SECONDS);
+        byte[] key = rawKey(HASH_KEY_PREFIX + uuid);
+        byte[] legacyKey = rawKey(KEY_PREFIX + uuid);
+        // Cleared up front so changes made while the write is queued stay dirty, and restored if it is dropped.
+        int dirty = game.takeDirtyFields();
+        Map<byte[], byte[]> fields = new LinkedHashMap<>();
+        dirtyFields(game, dirty).forEach((field, value) -> fields.put(rawKey(field), rawValue(value)));
+
+        writeBatch.submit(connection -> {
+            if (!fields.isEmpty()) {
+                connection.hashCommands().hMSet(key, fields);
+            }
+            connection.keyCommands().expire(key, DEFAULT_EXPIRATION);
+            if (dirty == Game.DIRTY_ALL) {
+                connection.keyCommands().del(legacyKey);
+            }
+            return null;
+        }, () -> game.markDirty(dirty));
         return game;
     }
 
+    @Override
+    public void saveAll(Map<String, Game> games) {
+        writeBatch.run(() -> {
+            games.forEach(this::save);
+            return null;
+        });
+    }
+
     @Override
     public Optional<Game> findById(String gameId) {
-        String key = KEY_PREFIX + gameId;
-        Game game = redisTemplate.opsForValue().get(key);
-        return Optional.ofNullable(game);
+        Map<String, byte[]> fields = hashTemplate.<String, byte[]>opsForHash().entries(HASH_KEY_PREFIX + gameId);
+        if (fields.isEmpty()) {
+            return Optional.ofNullable(redisTemplate.opsForValue().get(KEY_PREFIX + gameId));
+        }
+        Game game = assemble(fields);
+        game.clearDirtyFields();
+        return Optional.of(game);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<String, Game> findAllById(Collection<String> gameIds) {
+        List<String> ids = new ArrayList<>(gameIds);
+        List<Object> results = hashTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public Object execute(RedisOperations operations) throws DataAccessException {
+                for (String id : ids) {
+                    operations.opsForHash().entries(HASH_KEY_PREFIX + id);
+                }
+                return null;
+            }
+        });
+
+        Map<String, Game> games = new LinkedHashMap<>();
+        List<String> legacyIds = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Map<String, byte[]> fields = (Map<String, byte[]>) results.get(i);
+            if (fields == null || fields.isEmpty()) {
+                legacyIds.add(ids.get(i));
+            } else {
+                Game game = assemble(fields);
+                game.clearDirtyFields();
+                games.put(ids.get(i), game);
+            }
+        }
+        if (!legacyIds.isEmpty()) {
+            List<Game> legacy = redisTemplate.opsForValue().multiGet(legacyIds.stream().map(id -> KEY_PREFIX + id).toList());
+            for (int i = 0; legacy != null && i < legacyIds.size(); i++) {
+                if (legacy.get(i) != null) {
+                    games.put(legacyIds.get(i), legacy.get(i));
+                }
+            }
+        }
+        return games;
+    }
+
+    @Override
+    public Optional<Types.GameStatus> findStatus(String gameId) {
+        byte[] status = hashTemplate.<String, byte[]>opsForHash().get(HASH_KEY_PREFIX + gameId, STATUS_FIELD);
+        if (status == null) {
+            return Optional.ofNullable(redisTemplate.opsForValue().get(KEY_PREFIX + gameId)).map(Game::getStatus);
+        }
+        return Optional.of(GameCodec.decodeStatus(status));
+    }
+
+    /**
+     * Reads the version stored beside each game, in one round trip.
+     *
+     * @param gameIds The IDs of the games
+     * @return The stored version of each game that has a readable one; games missing, in the legacy layout or
+     *         with a version in an older encoding are left out
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<String, Long> findVersions(Collection<String> gameIds) {
+        List<String> ids = new ArrayList<>(gameIds);
+        List<Object> results = hashTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            public Object execute(RedisOperations operations) throws DataAccessException {
+                for (String id : ids) {
+                    operations.opsForHash().get(HASH_KEY_PREFIX + id, VERSION_FIELD);
+                }
+                return null;
+            }
+        });
+
+        Map<String, Long> versions = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (results.get(i) instanceof byte[] version) {
+                try {
+                    versions.put(ids.get(i), GameCodec.decodeVersion(version));
+                } catch (NumberFormatException e) {
+                    // Rewritten by the game's next save; until then its copies are not trusted.
+                }
+            }
+        }
+        return versions;
     }
 
     @Override
     public void delete(String gameId) {
-        String key = KEY_PREFIX + gameId;
-        redisTemplate.delete(key);
+        deleteAll(List.of(gameId));
+    }
+
+    @Override
+    public void deleteAll(Collection<String> gameIds) {
+        byte[][] keys = gameIds.stream()
+                .flatMap(id -> Stream.of(HASH_KEY_PREFIX + id, KEY_PREFIX + id))
+                .map(this::rawKey)
+                .toArray(byte[][]::new);
+        if (keys.length > 0) {
+            writeBatch.submit(connection -> connection.keyCommands().del(keys));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] rawKey(String key) {
+        return ((RedisSerializer<String>) hashTemplate.getKeySerializer()).serialize(key);
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] rawValue(byte[] value) {
+        return ((RedisSerializer<byte[]>) hashTemplate.getHashValueSerializer()).serialize(value);
+    }
+
+    static Map<String, byte[]> dirtyFields(Game game, int dirty) {
+        Map<String, byte[]> fields = new HashMap<>();
+        if ((dirty & Game.DIRTY_META) != 0) {
+            fields.put(STATUS_FIELD, GameCodec.encodeStatus(game.getStatus()));
+            fields.put(META_FIELD, GameCodec.encodeMeta(game));
+        }
+        if ((dirty & Game.DIRTY_TURNS) != 0 && game.getBoard() != null) {
+            fields.put(TURNS_FIELD, GameCodec.encodeTurns(game));
+        }
+        if ((dirty & Game.DIRTY_BOARD) != 0 && game.getBoard() != null) {
+            fields.put(BOARD_FIELD, GameCodec.encodeBoard(game.getBoard()));
+        }
+        if ((dirty & Game.DIRTY_DECK) != 0 && game.getBoard() != null) {
+            fields.put(DECK_FIELD, GameCodec.encodeDeck(game.getDeck()));
+        }
+        for (String player : game.getPlayers()) {
+            Types.Color color = game.getPlayerColor(player);
+            Hand hand = game.getPlayerHand(player);
+            if (hand != null && (dirty & Game.dirtyHand(color)) != 0) {
+                fields.put(HAND_FIELD_PREFIX + color.name(), GameCodec.encodeHand(hand));
+            }
+        }
+        if (!fields.isEmpty()) {
+            fields.put(VERSION_FIELD, GameCodec.encodeVersion(game.getVersion()));
+        }
+        return fields;
+    }
+
+    static Game assemble(Map<String, byte[]> fields) {
+        Map<Types.Color, byte[]> hands = new EnumMap<>(Types.Color.class);
+        for (Map.Entry<String, byte[]> field : fields.entrySet()) {
+            if (field.getKey().startsWith(HAND_FIELD_PREFIX)) {
+                hands.put(Types.Color.valueOf(field.getKey().substring(HAND_FIELD_PREFIX.length())), field.getValue());
+            }
+        }
+        return GameCodec.assemble(fields.get(META_FIELD), fields.get(TURNS_FIELD), hands, fields.get(BOARD_FIELD), fields.get(DECK_FIELD));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,30 @@
+package com.cardrace.cardrace_server.repository;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Leases ID blocks from a single Redis counter. INCRBY is atomic, so blocks never overlap across nodes.
+ */
+@Repository
+@ConditionalOnProperty(name = "game.store", havingValue = "redis", matchIfMissing = true)
+public class RedisIdBlockRepository implements IdBlockRepository {
+
+    private static final String COUNTER_KEY = "game:id:counter";
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisIdBlockRepository(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public long leaseBlock(int size) {
+        Long end = redisTemplate.opsForValue().increment(COUNTER_KEY, size);
+        if (end == null) {
+            throw new IllegalStateException("Game ID counter increment returned no value");
+        }
+        return end - size;
+    }
+}
@@ -0,0 +1,83 @@
+package com.cardrace.cardrace_server.repository;
+
+import com.cardrace.cardrace_server.dto.LeaderboardEntryDTO;
+import com.cardrace.cardrace_server.model.LeaderboardCategory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+@Repository
+@ConditionalOnProperty(name = "leaderboard.store", havingValue = "redis", matchIfMissing = true)
+public class RedisLeaderboardRepository implements LeaderboardRepository {
+
+    private static final String KEY_PREFIX = "leaderboard:";
+
+    // Keeps all three sorted sets consistent in a single round trip: O(log n) per set.
+    private static final RedisScript<Long> RECORD_RESULT = new DefaultRedisScript<>(
+            "local games = redis.call('ZINCRBY', KEYS[1], 1, ARGV[1]) " +
+            "local wins = redis.call('ZINCRBY', KEYS[2], ARGV[2], ARGV[1]) " +
+            "redis.call('ZADD', KEYS[3], tonumber(wins) / tonumber(games), ARGV[1]) " +
+            "return 1",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisLeaderboardRepository(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public void recordResult(String username, boolean won) {
+        List<String> keys = List.of(key(LeaderboardCategory.GAMES_PLAYED), key(LeaderboardCategory.WINS), key(LeaderboardCategory.WIN_RATE));
+        redisTemplate.execute(RECORD_RESULT, keys, username, won ? "1" : "0");
+    }
+
+    @Override
+    public void setStats(String username, int gamesPlayed, int wins) {
+        if (gamesPlayed == 0) {
+            return;
+        }
+        ZSetOperations<String, String> zSet = redisTemplate.opsForZSet();
+        zSet.add(key(LeaderboardCategory.GAMES_PLAYED), username, gamesPlayed);
+        zSet.add(key(LeaderboardCategory.WINS), username, wins);
+        zSet.add(key(LeaderboardCategory.WIN_RATE), username, (double) wins / gamesPlayed);
+    }
+
+    @Override
+    public List<LeaderboardEntryDTO> findPage(LeaderboardCategory category, long offset, int limit) {
+        Set<ZSetOperations.TypedTuple<String>> tuples =
+                redisTemplate.opsForZSet().reverseRangeWithScores(key(category), offset, offset + limit - 1);
+
+        List<LeaderboardEntryDTO> entries = new ArrayList<>();
+        if (tuples == null) {
+            return entries;
+        }
+        long rank = offset + 1;
+        for (ZSetOperations.TypedTuple<String> tuple : tuples) {
+            entries.add(new LeaderboardEntryDTO(rank++, tuple.getValue(), tuple.getScore()));
+        }
+        return entries;
+    }
+
+    @Override
+    public Optional<LeaderboardEntryDTO> findRank(LeaderboardCategory category, String username) {
+        Long rank = redisTemplate.opsForZSet().reverseRank(key(category), username);
+        Double score = redisTemplate.opsForZSet().score(key(category), username);
+        if (rank == null || score == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new LeaderboardEntryDTO(rank + 1, username, score));
+    }
+
+    private static String key(LeaderboardCategory category) {
+        return KEY_PREFIX + category.key;
+    }
+}
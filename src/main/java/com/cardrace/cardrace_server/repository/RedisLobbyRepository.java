@@ -0,0 +1,103 @@
+package com.cardrace.cardrace_server.repository;
+
+import com.cardrace.cardrace_server.dto.LobbySummaryDTO;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Index of joinable games: a sorted set of waiting game ids scored by creation time, newest listed first,
+ * and a hash of each lobby's player count, capacity and name. Entries older than the game TTL are
+ * trimmed from both on write so lobbies whose game expired without being removed do not linger.
+ */
+@Repository
+@ConditionalOnProperty(name = "lobby.store", havingValue = "redis", matchIfMissing = true)
+public class RedisLobbyRepository implements LobbyRepository {
+
+    private static final String INDEX_KEY = "lobbies";
+    private static final String INFO_KEY = "lobbies:info";
+    private static final long LOBBY_TTL_MILLIS = 24 * 60 * 60 * 1000L; // matches the game TTL
+
+    // Adds or updates the lobby, then drops up to TRIM_LIMIT expired lobbies from the index and the info hash.
+    private static final byte[] UPSERT = raw(
+            "redis.call('ZADD', KEYS[1], 'NX', ARGV[3], ARGV[1]) " +
+            "redis.call('HSET', KEYS[2], ARGV[1], ARGV[2]) " +
+            "local expired = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[4], 'LIMIT', 0, ARGV[5]) " +
+            "if #expired > 0 then " +
+            "  redis.call('ZREM', KEYS[1], unpack(expired)) " +
+            "  redis.call('HDEL', KEYS[2], unpack(expired)) " +
+            "end " +
+            "return #expired");
+    private static final int TRIM_LIMIT = 100;
+
+    private static final byte[] INDEX = raw(INDEX_KEY);
+    private static final byte[] INFO = raw(INFO_KEY);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisWriteBatch writeBatch;
+
+    public RedisLobbyRepository(StringRedisTemplate redisTemplate, RedisWriteBatch writeBatch) {
+        this.redisTemplate = redisTemplate;
+        this.writeBatch = writeBatch;
+    }
+
+    @Override
+    public void upsert(String gameId, String gameName, int players, int capacity) {
+        long now = System.currentTimeMillis();
+        byte[] id = raw(gameId);
+        byte[] info = raw(players + "|" + capacity + "|" + gameName);
+        byte[] score = raw(Long.toString(now));
+        byte[] cutoff = raw(Long.toString(now - LOBBY_TTL_MILLIS));
+        byte[] trimLimit = raw(Integer.toString(TRIM_LIMIT));
+        writeBatch.submit(connection -> connection.scriptingCommands()
+                .eval(UPSERT, ReturnType.INTEGER, 2, INDEX, INFO, id, info, score, cutoff, trimLimit));
+    }
+
+    @Override
+    public void remove(String gameId) {
+        byte[] id = raw(gameId);
+        writeBatch.submit(connection -> {
+            connection.zSetCommands().zRem(INDEX, id);
+            connection.hashCommands().hDel(INFO, id);
+            return null;
+        });
+    }
+
+    @Override
+    public boolean isOpen(String gameId) {
+        return redisTemplate.opsForZSet().score(INDEX_KEY, gameId) != null;
+    }
+
+    @Override
+    public List<LobbySummaryDTO> findPage(long offset, int limit) {
+        List<LobbySummaryDTO> lobbies = new ArrayList<>();
+        Set<String> gameIds = redisTemplate.opsForZSet().reverseRange(INDEX_KEY, offset, offset + limit - 1);
+        if (gameIds == null || gameIds.isEmpty()) {
+            return lobbies;
+        }
+        List<String> ids = new ArrayList<>(gameIds);
+        List<Object> infos = redisTemplate.opsForHash().multiGet(INFO_KEY, new ArrayList<>(ids));
+        for (int i = 0; i < ids.size(); i++) {
+            Object info = infos.get(i);
+            if (info != null) {
+                lobbies.add(parse(ids.get(i), (String) info));
+            }
+        }
+        return lobbies;
+    }
+
+    private static byte[] raw(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static LobbySummaryDTO parse(String gameId, String info) {
+        String[] parts = info.split("\\|", 3);
+        return new LobbySummaryDTO(gameId, parts[2], Integer.parseInt(parts[0]), Integer.parseInt(parts[1]));
+    }
+}
@@ -0,0 +1,119 @@
+package com.cardrace.cardrace_server.repository;
+
+import com.cardrace.cardrace_server.model.game.Game;
+import com.cardrace.cardrace_server.model.game.GameCodec;
+import com.cardrace.cardrace_server.model.game.Types;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisElementReader;
+import org.springframework.data.redis.serializer.RedisElementWriter;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.util.ByteUtils;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Non-blocking counterpart of {@link RedisGameRepository} over the same hash layout, built on Lettuce's
+ * reactive API: no thread waits for Redis, and callers chain on the returned stages, which complete on
+ * Lettuce's I/O threads. Continuations must therefore not block.
+ */
+@Repository
+public class RedisReactiveGameRepository implements ReactiveGameRepository {
+
+    private static final String KEY_PREFIX = "game:";
+    private static final String HASH_KEY_PREFIX = "gamestate:";
+    private static final long DEFAULT_EXPIRATION = 24 * 60 * 60; // 24 hours in seconds
+
+    // Writes the dirty fields, refreshes the TTL and drops the legacy value in one round trip.
+    private static final RedisScript<Long> SAVE = RedisScript.of(
+            "if #ARGV > 2 then redis.call('HSET', KEYS[1], unpack(ARGV, 3)) end " +
+            "redis.call('EXPIRE', KEYS[1], ARGV[1]) " +
+            "if ARGV[2] == '1' then redis.call('DEL', KEYS[2]) end " +
+            "return 1",
+            Long.class);
+
+    private final ReactiveRedisTemplate<String, byte[]> redisTemplate;
+    private final RedisSerializer<Game> legacySerializer;
+
+    @SuppressWarnings("unchecked")
+    public RedisReactiveGameRepository(ReactiveRedisTemplate<String, byte[]> reactiveGameHashRedisTemplate,
+                                       RedisTemplate<String, Game> redisTemplate) {
+        this.redisTemplate = reactiveGameHashRedisTemplate;
+        this.legacySerializer = (RedisSerializer<Game>) redisTemplate.getValueSerializer();
+    }
+
+    @Override
+    public CompletionStage<Game> save(String uuid, Game game) {
+        // Cleared up front so changes made while the script runs stay dirty, and restored if it fails.
+        int dirty = game.takeDirtyFields();
+        List<byte[]> args = new ArrayList<>();
+        args.add(ascii(Long.toString(DEFAULT_EXPIRATION)));
+        args.add(ascii(dirty == Game.DIRTY_ALL ? "1" : "0"));
+        RedisGameRepository.dirtyFields(game, dirty).forEach((field, value) -> {
+            args.add(ascii(field));
+            args.add(rawHashValue(value));
+        });
+
+        return redisTemplate.execute(SAVE, List.of(HASH_KEY_PREFIX + uuid, KEY_PREFIX + uuid), args,
+                        RedisElementWriter.from(RedisSerializer.byteArray()), RedisElementReader.from(new GenericToStringSerializer<>(Long.class)))
+                .doOnError(error -> game.markDirty(dirty))
+                .then(Mono.just(game))
+                .toFuture();
+    }
+
+    @Override
+    public CompletionStage<Optional<Game>> findById(String gameId) {
+        return redisTemplate.<String, byte[]>opsForHash().entries(HASH_KEY_PREFIX + gameId)
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .flatMap(fields -> {
+                    if (fields.isEmpty()) {
+                        return findLegacy(gameId);
+                    }
+                    Game game = RedisGameRepository.assemble(fields);
+                    game.clearDirtyFields();
+                    return Mono.just(game);
+                })
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .toFuture();
+    }
+
+    @Override
+    public CompletionStage<Optional<Types.GameStatus>> findStatus(String gameId) {
+        return redisTemplate.<String, byte[]>opsForHash().get(HASH_KEY_PREFIX + gameId, RedisGameRepository.STATUS_FIELD)
+                .map(GameCodec::decodeStatus)
+                .switchIfEmpty(findLegacy(gameId).map(Game::getStatus))
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .toFuture();
+    }
+
+    @Override
+    public CompletionStage<Void> delete(String gameId) {
+        return redisTemplate.delete(HASH_KEY_PREFIX + gameId, KEY_PREFIX + gameId).then().toFuture();
+    }
+
+    private Mono<Game> findLegacy(String gameId) {
+        return redisTemplate.opsForValue().get(KEY_PREFIX + gameId).mapNotNull(legacySerializer::deserialize);
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] rawHashValue(byte[] value) {
+        SerializationPair<byte[]> pair = (SerializationPair<byte[]>) (SerializationPair<?>) redisTemplate.getSerializationContext().getHashValueSerializationPair();
+        return ByteUtils.getBytes(pair.write(value));
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
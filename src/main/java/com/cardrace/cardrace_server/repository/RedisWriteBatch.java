@@ -0,0 +1,122 @@
+package com.cardrace.cardrace_server.repository;
+
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Groups the Redis writes issued on the current thread into one flush. Repositories hand their writes to
+ * {@link #submit}: outside of {@link #run} each write is pipelined and sent on its own, inside it writes are
+ * queued and sent together as a single MULTI/EXEC pipeline when the outermost batch completes. Reads are
+ * never queued, so a read inside a batch does not see writes queued before it. A write may carry an action
+ * to run if it is dropped, so callers that mark state as persisted on submit can undo that.
+ */
+@Component
+public class RedisWriteBatch {
+
+    @FunctionalInterface
+    public interface Work<T, E extends Exception> {
+        T execute() throws E;
+    }
+
+    private final StringRedisTemplate redisTemplate;
+    private final ThreadLocal<Pending> pending = new ThreadLocal<>();
+
+    public RedisWriteBatch(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * Runs the given work with all writes it submits queued, then flushes them in one round trip. Nested
+     * calls join the enclosing batch. Queued writes are dropped if the work throws or the flush fails, and
+     * their drop actions run before the exception propagates.
+     *
+     * @param work The work to run
+     * @return The value returned by the work
+     * @throws E If the work throws
+     */
+    public <T, E extends Exception> T run(Work<T, E> work) throws E {
+        if (pending.get() != null) {
+            return work.execute();
+        }
+        Pending batch = new Pending();
+        pending.set(batch);
+        boolean sent = false;
+        try {
+            T result = work.execute();
+            pending.remove();
+            flush(batch.commands);
+            sent = true;
+            return result;
+        } finally {
+            pending.remove();
+            if (!sent) {
+                batch.onDrop.forEach(Runnable::run);
+            }
+        }
+    }
+
+    /**
+     * @return true if a batch is open on the current thread
+     */
+    public boolean isOpen() {
+        return pending.get() != null;
+    }
+
+    /**
+     * Queues a write on the current batch, or sends it immediately when no batch is open.
+     *
+     * @param command The commands to issue on the connection
+     */
+    public void submit(RedisCallback<?> command) {
+        submit(command, () -> {});
+    }
+
+    /**
+     * Queues a write on the current batch, or sends it immediately when no batch is open.
+     *
+     * @param command The commands to issue on the connection
+     * @param onDrop  Runs on the submitting thread if the write is never sent or its flush fails
+     */
+    public void submit(RedisCallback<?> command, Runnable onDrop) {
+        Pending batch = pending.get();
+        if (batch != null) {
+            batch.commands.add(command);
+            batch.onDrop.add(onDrop);
+            return;
+        }
+        try {
+            flush(List.of(command));
+        } catch (RuntimeException e) {
+            onDrop.run();
+            throw e;
+        }
+    }
+
+    private void flush(List<RedisCallback<?>> commands) {
+        if (commands.isEmpty()) {
+            return;
+        }
+        boolean transactional = commands.size() > 1;
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            if (transactional) {
+                connection.multi();
+            }
+            for (RedisCallback<?> command : commands) {
+                command.doInRedis(connection);
+            }
+            if (transactional) {
+                connection.exec();
+            }
+            return null;
+        });
+    }
+
+    private static final class Pending {
+        private final List<RedisCallback<?>> commands = new ArrayList<>();
+        private final List<Runnable> onDrop = new ArrayList<>();
+    }
+}
@@ -0,0 +1,506 @@
+package com.cardrace.cardrace_server.repository;
+
+import com.cardrace.cardrace_server.model.game.Game;
+import com.cardrace.cardrace_server.model.game.GameCodec;
+import com.cardrace.cardrace_server.model.game.Types;
+import io.lettuce.core.RedisException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Game store that keeps games running while Redis is slow or down. Every game read or written on this
+ * instance is also kept in the {@link HotGameTier} of this node, and calls to Redis go through a circuit breaker. When a
+ * call fails or the circuit is open, reads are answered from the local tier and writes are queued per game,
+ * newest state winning, to be replayed once Redis answers again. A queued write holds the game encoded when it
+ * was queued, so replaying never reads a game that is being changed. Games with queued writes are never evicted
+ * from the local tier, and are decoded from their queued write if removed from it. Games never loaded on this
+ * instance, or already evicted, are unavailable while degraded.
+ *
+ * Writes issued inside a {@link RedisWriteBatch} also update the lobby index, which has no local tier, so
+ * they are not degraded: they fail fast while the circuit is open and otherwise go to Redis only.
+ */
+@Repository
+@Qualifier("warmGameStore")
+@ConditionalOnProperty(name = "game.store", havingValue = "redis", matchIfMissing = true)
+public class ResilientGameRepository implements GameRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResilientGameRepository.class);
+
+    private final GameRepository remote;
+    private final ReactiveGameRepository remoteAsync;
+    private final RedisWriteBatch writeBatch;
+    private final CircuitBreaker breaker;
+    private final HotGameTier local;
+    private final GameLocks locks;
+    // Queued writes in arrival order, as GameCodec snapshots; a null snapshot is a queued delete. Guarded by itself.
+    private final Map<String, byte[]> pending = new LinkedHashMap<>();
+    private final ReactiveGameRepository async = new AsyncView();
+    private ScheduledExecutorService replayExecutor;
+
+    @Autowired
+    public ResilientGameRepository(RedisGameRepository remote, RedisReactiveGameRepository remoteAsync, RedisWriteBatch writeBatch,
+                                   HotGameTier local, GameLocks locks,
+                                   @Value("${game.store.breaker.failure-threshold:5}") int failureThreshold,
+                                   @Value("${game.store.breaker.open-ms:5000}") long openMillis,
+                                   @Value("${game.store.replay-interval-ms:1000}") long replayIntervalMs) {
+        this(remote, remoteAsync, writeBatch, new CircuitBreaker(failureThreshold, openMillis, System::currentTimeMillis), local,
+                locks);
+        replayExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "game-store-replay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        replayExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                replayPending();
+                local.evictIdle();
+            } catch (RuntimeException e) {
+                logger.error("Error replaying queued game writes", e);
+            }
+        }, replayIntervalMs, replayIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    ResilientGameRepository(GameRepository remote, ReactiveGameRepository remoteAsync, RedisWriteBatch writeBatch,
+                            CircuitBreaker breaker, HotGameTier local, GameLocks locks) {
+        this.remote = remote;
+        this.remoteAsync = remoteAsync;
+        this.writeBatch = writeBatch;
+        this.breaker = breaker;
+        this.local = local;
+        this.locks = locks;
+        local.setEvictionGuard(gameId -> !isPending(gameId));
+    }
+
+    /**
+     * @return A non-blocking view of this repository sharing its local tier, breaker and write queue
+     */
+    @Override
+    public ReactiveGameRepository async() {
+        return async;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (replayExecutor != null) {
+            replayExecutor.shutdown();
+        }
+        replayPending();
+        synchronized (pending) {
+            if (!pending.isEmpty()) {
+                logger.warn("Shutting down with {} game writes not replayed to Redis", pending.size());
+            }
+        }
+    }
+
+    @Override
+    public Game save(String uuid, Game game) {
+        if (writeBatch.isOpen()) {
+            failFastWhenOpen();
+            remote.save(uuid, game);
+            forget(uuid);
+            return game;
+        }
+        keep(uuid, game);
+        if (isPending(uuid)) {
+            game.markDirty(Game.DIRTY_ALL);
+        }
+        boolean saved = callRemote(() -> {
+            remote.save(uuid, game);
+            return true;
+        }, () -> false);
+        if (saved) {
+            clearPending(uuid);
+        } else {
+            enqueue(uuid, game);
+        }
+        return game;
+    }
+
+    @Override
+    public Optional<Game> findById(String gameId) {
+        if (isPending(gameId)) {
+            return findLocal(gameId);
+        }
+        return callRemote(() -> cache(gameId, remote.findById(gameId)), () -> findLocal(gameId));
+    }
+
+    @Override
+    public Optional<Types.GameStatus> findStatus(String gameId) {
+        if (isPending(gameId)) {
+            return findLocal(gameId).map(Game::getStatus);
+        }
+        return callRemote(() -> remote.findStatus(gameId), () -> local.getStatus(gameId));
+    }
+
+    @Override
+    public void delete(String gameId) {
+        deleteAll(List.of(gameId));
+    }
+
+    @Override
+    public Map<String, Game> findAllById(Collection<String> gameIds) {
+        List<String> remoteIds = new ArrayList<>();
+        List<String> localIds = new ArrayList<>();
+        for (String gameId : gameIds) {
+            (isPending(gameId) ? localIds : remoteIds).add(gameId);
+        }
+        Map<String, Game> games = findAllLocal(localIds);
+        if (!remoteIds.isEmpty()) {
+            games.putAll(callRemote(() -> {
+                Map<String, Game> found = remote.findAllById(remoteIds);
+                Map<String, Game> cached = new LinkedHashMap<>();
+                remoteIds.forEach(id -> cache(id, Optional.ofNullable(found.get(id))).ifPresent(game -> cached.put(id, game)));
+                return cached;
+            }, () -> findAllLocal(remoteIds)));
+        }
+        return games;
+    }
+
+    /**
+     * Answers for games with queued writes from their queued state, and for the rest from Redis without
+     * caching anything.
+     *
+     * @return The version of each game found; games Redis could not be asked about are left out
+     */
+    @Override
+    public Map<String, Long> findVersions(Collection<String> gameIds) {
+        List<String> remoteIds = new ArrayList<>();
+        Map<String, Long> versions = new HashMap<>();
+        for (String gameId : gameIds) {
+            if (isPending(gameId)) {
+                findLocal(gameId).ifPresent(game -> versions.put(gameId, game.getVersion()));
+            } else {
+                remoteIds.add(gameId);
+            }
+        }
+        if (!remoteIds.isEmpty()) {
+            versions.putAll(callRemote(() -> remote.findVersions(remoteIds), Map::<String, Long>of));
+        }
+        return versions;
+    }
+
+    @Override
+    public void saveAll(Map<String, Game> games) {
+        if (writeBatch.isOpen()) {
+            failFastWhenOpen();
+            remote.saveAll(games);
+            games.keySet().forEach(this::forget);
+            return;
+        }
+        games.forEach((id, game) -> {
+            keep(id, game);
+            if (isPending(id)) {
+                game.markDirty(Game.DIRTY_ALL);
+            }
+        });
+        boolean saved = callRemote(() -> {
+            remote.saveAll(games);
+            return true;
+        }, () -> false);
+        games.forEach((id, game) -> {
+            if (saved) {
+                clearPending(id);
+            } else {
+                enqueue(id, game);
+            }
+        });
+    }
+
+    @Override
+    public void deleteAll(Collection<String> gameIds) {
+        gameIds.forEach(this::forget);
+        if (writeBatch.isOpen()) {
+            failFastWhenOpen();
+            remote.deleteAll(gameIds);
+            return;
+        }
+        boolean deleted = callRemote(() -> {
+            remote.deleteAll(gameIds);
+            return true;
+        }, () -> false);
+        for (String gameId : gameIds) {
+            if (deleted) {
+                clearPending(gameId);
+            } else {
+                enqueue(gameId, null);
+            }
+        }
+    }
+
+    /**
+     * Sends queued writes to Redis in arrival order, stopping at the first failure.
+     */
+    public void replayPending() {
+        while (true) {
+            String gameId;
+            byte[] snapshot;
+            synchronized (pending) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                Map.Entry<String, byte[]> next = pending.entrySet().iterator().next();
+                gameId = next.getKey();
+                snapshot = next.getValue();
+            }
+            if (!breaker.allowRequest()) {
+                return;
+            }
+            try {
+                if (snapshot == null) {
+                    remote.delete(gameId);
+                } else {
+                    Game game = GameCodec.decode(snapshot);
+                    game.markDirty(Game.DIRTY_ALL);
+                    remote.save(gameId, game);
+                }
+                breaker.recordSuccess();
+            } catch (RuntimeException e) {
+                if (isStoreFailure(e)) {
+                    breaker.recordFailure();
+                    return;
+                }
+                breaker.recordSuccess();
+                logger.error("Dropping queued write for game {} that Redis rejected", gameId, e);
+            }
+            synchronized (pending) {
+                pending.remove(gameId, snapshot);
+            }
+        }
+    }
+
+    /**
+     * @return The queued writes in arrival order, each game decoded from its snapshot; a null game is a queued delete
+     */
+    public Map<String, Game> queuedWrites() {
+        Map<String, byte[]> snapshots;
+        synchronized (pending) {
+            snapshots = new LinkedHashMap<>(pending);
+        }
+        Map<String, Game> writes = new LinkedHashMap<>();
+        snapshots.forEach((gameId, snapshot) -> writes.put(gameId, snapshot == null ? null : GameCodec.decode(snapshot)));
+        return writes;
+    }
+
+    /**
+     * Queues writes carried over from an earlier run, keeping the saved games in the local tier.
+     *
+     * @param writes Queued writes in arrival order; a null game is a queued delete
+     */
+    public void requeue(Map<String, Game> writes) {
+        writes.forEach((gameId, game) -> {
+            if (game != null) {
+                keep(gameId, game);
+            }
+            enqueue(gameId, game);
+        });
+    }
+
+    /**
+     * @return The number of games with a write waiting to be replayed to Redis
+     */
+    public int pendingWrites() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    private <T> T callRemote(Supplier<T> call, Supplier<T> fallback) {
+        if (breaker.allowRequest()) {
+            try {
+                T result = call.get();
+                breaker.recordSuccess();
+                return result;
+            } catch (RuntimeException e) {
+                if (!isStoreFailure(e)) {
+                    breaker.recordSuccess();
+                    throw e;
+                }
+                breaker.recordFailure();
+                logger.warn("Redis call failed, serving games from memory: {}", e.getMessage());
+            }
+        }
+        return fallback.get();
+    }
+
+    private <T> CompletionStage<T> callRemoteAsync(Supplier<CompletionStage<T>> call, Function<T, T> onSuccess, Supplier<T> fallback) {
+        if (!breaker.allowRequest()) {
+            return CompletableFuture.completedFuture(fallback.get());
+        }
+        CompletionStage<T> stage;
+        try {
+            stage = call.get();
+        } catch (RuntimeException e) {
+            stage = CompletableFuture.failedFuture(e);
+        }
+        return stage.handle((result, error) -> {
+            if (error == null) {
+                breaker.recordSuccess();
+                return onSuccess.apply(result);
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (!isStoreFailure(cause)) {
+                breaker.recordSuccess();
+                throw new CompletionException(cause);
+            }
+            breaker.recordFailure();
+            logger.warn("Redis call failed, serving games from memory: {}", cause.getMessage());
+            return fallback.get();
+        });
+    }
+
+    private static boolean isStoreFailure(Throwable error) {
+        return error instanceof DataAccessException || error instanceof RedisException;
+    }
+
+    private void failFastWhenOpen() {
+        if (breaker.getState() != CircuitBreaker.State.CLOSED) {
+            throw new RedisConnectionFailureException("Game store unavailable");
+        }
+    }
+
+    private Optional<Game> cache(String gameId, Optional<Game> game) {
+        if (game.isEmpty()) {
+            forget(gameId);
+            return game;
+        }
+        return Optional.of(local.putIfAbsent(gameId, game.get()));
+    }
+
+    private Optional<Game> findLocal(String gameId) {
+        Optional<Game> game = local.get(gameId);
+        if (game.isPresent()) {
+            return game;
+        }
+        byte[] snapshot;
+        synchronized (pending) {
+            snapshot = pending.get(gameId);
+        }
+        return snapshot == null ? Optional.empty() : cache(gameId, Optional.of(GameCodec.decode(snapshot)));
+    }
+
+    private Map<String, Game> findAllLocal(Collection<String> gameIds) {
+        Map<String, Game> games = new LinkedHashMap<>();
+        for (String gameId : gameIds) {
+            findLocal(gameId).ifPresent(game -> games.put(gameId, game));
+        }
+        return games;
+    }
+
+    private void keep(String gameId, Game game) {
+        local.put(gameId, game);
+    }
+
+    private void forget(String gameId) {
+        local.remove(gameId);
+    }
+
+    private boolean isPending(String gameId) {
+        synchronized (pending) {
+            return pending.containsKey(gameId);
+        }
+    }
+
+    private void enqueue(String gameId, Game game) {
+        byte[] snapshot = null;
+        if (game != null) {
+            game.markDirty(Game.DIRTY_ALL);
+            snapshot = GameCodec.encode(game);
+        }
+        synchronized (pending) {
+            pending.remove(gameId);
+            pending.put(gameId, snapshot);
+        }
+    }
+
+    /**
+     * Queues a write that failed on a Redis I/O thread. The game may be changing under its lock, which that
+     * thread must not wait for, so the game is encoded on the replay thread instead.
+     */
+    private void enqueueLater(String gameId, Game game) {
+        Runnable task = () -> locks.withLock(gameId, () -> {
+            enqueue(gameId, game);
+            return null;
+        });
+        if (replayExecutor == null || replayExecutor.isShutdown()) {
+            task.run();
+        } else {
+            replayExecutor.execute(task);
+        }
+    }
+
+    private void clearPending(String gameId) {
+        synchronized (pending) {
+            pending.remove(gameId);
+        }
+    }
+
+    private class AsyncView implements ReactiveGameRepository {
+
+        @Override
+        public CompletionStage<Game> save(String uuid, Game game) {
+            keep(uuid, game);
+            if (isPending(uuid)) {
+                game.markDirty(Game.DIRTY_ALL);
+            }
+            return callRemoteAsync(() -> remoteAsync.save(uuid, game).thenApply(saved -> true), saved -> {
+                clearPending(uuid);
+                return true;
+            }, () -> {
+                enqueueLater(uuid, game);
+                return false;
+            }).thenApply(saved -> game);
+        }
+
+        @Override
+        public CompletionStage<Optional<Game>> findById(String gameId) {
+            if (isPending(gameId)) {
+                return CompletableFuture.completedFuture(findLocal(gameId));
+            }
+            return callRemoteAsync(() -> remoteAsync.findById(gameId), found -> cache(gameId, found), () -> findLocal(gameId));
+        }
+
+        @Override
+        public CompletionStage<Optional<Types.GameStatus>> findStatus(String gameId) {
+            if (isPending(gameId)) {
+                return CompletableFuture.completedFuture(findLocal(gameId).map(Game::getStatus));
+            }
+            return callRemoteAsync(() -> remoteAsync.findStatus(gameId), Function.identity(), () -> local.getStatus(gameId));
+        }
+
+        @Override
+        public CompletionStage<Void> delete(String gameId) {
+            forget(gameId);
+            return callRemoteAsync(() -> remoteAsync.delete(gameId).thenApply(deleted -> true), deleted -> {
+                clearPending(gameId);
+                return true;
+            }, () -> {
+                enqueue(gameId, null);
+                return false;
+            }).thenApply(deleted -> null);
+        }
+    }
+}
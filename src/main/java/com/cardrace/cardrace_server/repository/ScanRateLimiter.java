@@ -0,0 +1,36 @@
+package com.cardrace.cardrace_server.repository;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Paces one scan segment to a read-capacity budget. Capacity is only known after a page
+ * has been read, so each page pays for itself by delaying the next request.
+ */
+class ScanRateLimiter {
+
+    private final double unitsPerSecond;
+    private long nextPermitNanos;
+
+    ScanRateLimiter(double unitsPerSecond) {
+        this.unitsPerSecond = unitsPerSecond;
+        this.nextPermitNanos = System.nanoTime();
+    }
+
+    void acquire() throws InterruptedException {
+        if (unitsPerSecond <= 0) {
+            return;
+        }
+        long waitNanos = nextPermitNanos - System.nanoTime();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    void consumed(double units) {
+        if (unitsPerSecond <= 0) {
+            return;
+        }
+        long cost = (long) (units / unitsPerSecond * TimeUnit.SECONDS.toNanos(1));
+        nextPermitNanos = Math.max(nextPermitNanos, System.nanoTime()) + cost;
+    }
+}
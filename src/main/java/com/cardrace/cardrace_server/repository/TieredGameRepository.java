@@ -0,0 +1,177 @@
+package com.cardrace.cardrace_server.repository;
+
+import com.cardrace.cardrace_server.model.game.Game;
+import com.cardrace.cardrace_server.model.game.Types;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Game store in three tiers. Active games are served from the {@link HotGameTier} on this node's heap; games
+ * idle past its threshold or pushed out by its byte budget are evicted and reloaded from the warm store on
+ * next use, which every save is also written through to. The warm store is Redis through
+ * {@link ResilientGameRepository} by default, or the local {@link JournalGameRepository} on single-node
+ * deployments ({@code game.store=journal}). Finished games are moved to the {@link GameArchiveRepository}
+ * cold store by {@link #archive}.
+ *
+ * Reads go to the heap first, which assumes a game's writes all go through one node, as they do while its
+ * players are connected to that node's socket rooms. Every caller on the node is handed the same heap object,
+ * so changes to it are made under the game's {@link GameLocks} lock.
+ */
+@Repository
+public class TieredGameRepository implements GameRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(TieredGameRepository.class);
+
+    private final HotGameTier hot;
+    private final GameRepository warm;
+    private final GameArchiveRepository cold;
+    private final ReactiveGameRepository async = new AsyncView();
+
+    @Autowired
+    public TieredGameRepository(HotGameTier hot, @Qualifier("warmGameStore") GameRepository warm, GameArchiveRepository cold) {
+        this.hot = hot;
+        this.warm = warm;
+        this.cold = cold;
+    }
+
+    /**
+     * @return A non-blocking view of this repository that answers heap hits without touching Redis
+     */
+    @Override
+    public ReactiveGameRepository async() {
+        return async;
+    }
+
+    @Override
+    public Game save(String uuid, Game game) {
+        return keep(uuid, warm.save(uuid, game));
+    }
+
+    @Override
+    public Optional<Game> findById(String gameId) {
+        Optional<Game> game = hot.get(gameId);
+        return game.isPresent() ? game : warm.findById(gameId).map(found -> keepLoaded(gameId, found));
+    }
+
+    /**
+     * @param gameId The ID of the game
+     * @return The game held on this node's heap, which every other caller on this node is also handed
+     */
+    public Optional<Game> findResident(String gameId) {
+        return hot.get(gameId);
+    }
+
+    @Override
+    public Optional<Types.GameStatus> findStatus(String gameId) {
+        Optional<Types.GameStatus> status = hot.getStatus(gameId);
+        return status.isPresent() ? status : warm.findStatus(gameId);
+    }
+
+    @Override
+    public void delete(String gameId) {
+        hot.remove(gameId);
+        warm.delete(gameId);
+    }
+
+    @Override
+    public Map<String, Game> findAllById(Collection<String> gameIds) {
+        Map<String, Game> games = new LinkedHashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (String gameId : gameIds) {
+            hot.get(gameId).ifPresentOrElse(game -> games.put(gameId, game), () -> misses.add(gameId));
+        }
+        if (!misses.isEmpty()) {
+            warm.findAllById(misses).forEach((gameId, game) -> games.put(gameId, keepLoaded(gameId, game)));
+        }
+        return games;
+    }
+
+    @Override
+    public void saveAll(Map<String, Game> games) {
+        warm.saveAll(games);
+        games.forEach(this::keep);
+    }
+
+    @Override
+    public void deleteAll(Collection<String> gameIds) {
+        gameIds.forEach(hot::remove);
+        warm.deleteAll(gameIds);
+    }
+
+    /**
+     * Moves a finished game to the cold store and removes it from the heap and Redis. The game is removed
+     * even if archiving fails, as it would otherwise linger until its Redis key expires.
+     *
+     * @param gameId The ID of the game
+     * @param game   The final state of the game
+     */
+    public void archive(String gameId, Game game) {
+        try {
+            cold.archive(gameId, game);
+        } catch (RuntimeException e) {
+            logger.error("Error archiving game {}", gameId, e);
+        }
+        delete(gameId);
+    }
+
+    /**
+     * @param gameId The ID of a finished game
+     * @return The final state of the game, if it was archived
+     */
+    public Optional<Game> findArchived(String gameId) {
+        return cold.findLatest(gameId);
+    }
+
+    // Redundant when the warm store is Redis, which keeps games in the same tier itself.
+    private Game keep(String gameId, Game game) {
+        hot.put(gameId, game);
+        return game;
+    }
+
+    private Game keepLoaded(String gameId, Game game) {
+        return hot.putIfAbsent(gameId, game);
+    }
+
+    private class AsyncView implements ReactiveGameRepository {
+
+        @Override
+        public CompletionStage<Game> save(String uuid, Game game) {
+            // Kept before the write rather than when it completes, as the game may have changed by then.
+            keep(uuid, game);
+            return warm.async().save(uuid, game);
+        }
+
+        @Override
+        public CompletionStage<Optional<Game>> findById(String gameId) {
+            Optional<Game> game = hot.get(gameId);
+            if (game.isPresent()) {
+                return CompletableFuture.completedFuture(game);
+            }
+            return warm.async().findById(gameId).thenApply(found -> found.map(loaded -> keepLoaded(gameId, loaded)));
+        }
+
+        @Override
+        public CompletionStage<Optional<Types.GameStatus>> findStatus(String gameId) {
+            Optional<Types.GameStatus> status = hot.getStatus(gameId);
+            return status.isPresent() ? CompletableFuture.completedFuture(status) : warm.async().findStatus(gameId);
+        }
+
+        @Override
+        public CompletionStage<Void> delete(String gameId) {
+            hot.remove(gameId);
+            return warm.async().delete(gameId);
+        }
+    }
+}
@@ -3,16 +3,21 @@ package com.cardrace.cardrace_server.repository;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.ScanResultPage;
 import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.ReturnConsumedCapacity;
 import com.cardrace.cardrace_server.controller.SocketIOEventHandler;
 import com.cardrace.cardrace_server.model.User;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.Optional;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,12 +25,23 @@ import org.slf4j.LoggerFactory;
 @Repository
 public class UserRepository {
 
+    private static final Object END_OF_SCAN = new Object();
+
     private final DynamoDBMapper dynamoDBMapper;
+    private final int scanSegments;
+    private final int scanPageSize;
+    private final double scanReadCapacityPerSegment;
     private static final Logger logger = LoggerFactory.getLogger(SocketIOEventHandler.class);
 
     @Autowired
-    public UserRepository(DynamoDBMapper dynamoDBMapper) {
+    public UserRepository(DynamoDBMapper dynamoDBMapper,
+                          @Value("${aws.dynamodb.scan.segments:4}") int scanSegments,
+                          @Value("${aws.dynamodb.scan.page-size:100}") int scanPageSize,
+                          @Value("${aws.dynamodb.scan.read-capacity-per-segment:25}") double scanReadCapacityPerSegment) {
         this.dynamoDBMapper = dynamoDBMapper;
+        this.scanSegments = scanSegments;
+        this.scanPageSize = scanPageSize;
+        this.scanReadCapacityPerSegment = scanReadCapacityPerSegment;
     }
 
     public User save(User user) {
@@ -110,4 +126,149 @@ public class UserRepository {
     public List<User> findAll() {
         return dynamoDBMapper.scan(User.class, new DynamoDBScanExpression());
     }
+
+    /**
+     * Reads every user with the configured number of parallel scan segments.
+     *
+     * @see #scanAll(int, double, Consumer)
+     */
+    public void scanAll(Consumer<User> consumer) throws InterruptedException {
+        scanAll(scanSegments, scanReadCapacityPerSegment, consumer);
+    }
+
+    /**
+     * Reads every user through a parallel segmented scan, one thread per segment, handing each
+     * user to the consumer as its page arrives. Only one page per segment is held at a time.
+     * The consumer is called concurrently from the segment threads and must be thread-safe.
+     *
+     * @param totalSegments           Number of parallel scan segments
+     * @param readCapacityPerSegment  Read capacity units per second each segment may consume, or 0 for no limit
+     * @param consumer                Receives every user exactly once
+     * @throws InterruptedException If the caller is interrupted while waiting for the segments
+     */
+    public void scanAll(int totalSegments, double readCapacityPerSegment, Consumer<User> consumer) throws InterruptedException {
+        ExecutorService executor = newScanExecutor(totalSegments);
+        try {
+            List<Future<?>> segments = new ArrayList<>();
+            for (int segment = 0; segment < totalSegments; segment++) {
+                int current = segment;
+                segments.add(executor.submit(() -> {
+                    scanSegment(current, totalSegments, readCapacityPerSegment, consumer);
+                    return null;
+                }));
+            }
+            for (Future<?> segment : segments) {
+                segment.get();
+            }
+        } catch (ExecutionException e) {
+            logger.error("Error scanning users: {}", e.getCause().getMessage(), e.getCause());
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Streams every user from a parallel segmented scan with the configured segment count.
+     * Segments feed a bounded queue, so a slow reader applies back-pressure instead of buffering the table.
+     * Closing the stream cancels any segments still running.
+     *
+     * @return A stream of all users in no particular order
+     */
+    public Stream<User> streamAll() {
+        return streamAll(scanSegments, scanReadCapacityPerSegment);
+    }
+
+    public Stream<User> streamAll(int totalSegments, double readCapacityPerSegment) {
+        BlockingQueue<Object> queue = new ArrayBlockingQueue<>(scanPageSize * totalSegments);
+        ExecutorService executor = newScanExecutor(1);
+        executor.submit(() -> {
+            Object last = END_OF_SCAN;
+            try {
+                scanAll(totalSegments, readCapacityPerSegment, user -> {
+                    try {
+                        queue.put(user);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new CancellationException("User stream closed");
+                    }
+                });
+            } catch (RuntimeException e) {
+                last = e;
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                queue.put(last);
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        Iterator<User> iterator = new Iterator<>() {
+            private Object next;
+
+            @Override
+            public boolean hasNext() {
+                if (next == null) {
+                    try {
+                        next = queue.take();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new CancellationException("Interrupted while streaming users");
+                    }
+                }
+                if (next instanceof RuntimeException e) {
+                    throw e;
+                }
+                return next != END_OF_SCAN;
+            }
+
+            @Override
+            public User next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                User user = (User) next;
+                next = null;
+                return user;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.NONNULL), false)
+                .onClose(executor::shutdownNow);
+    }
+
+    private void scanSegment(int segment, int totalSegments, double readCapacity, Consumer<User> consumer) throws InterruptedException {
+        ScanRateLimiter rateLimiter = new ScanRateLimiter(readCapacity);
+        Map<String, AttributeValue> lastKey = null;
+        do {
+            rateLimiter.acquire();
+            DynamoDBScanExpression expression = new DynamoDBScanExpression()
+                    .withSegment(segment)
+                    .withTotalSegments(totalSegments)
+                    .withLimit(scanPageSize)
+                    .withExclusiveStartKey(lastKey)
+                    .withReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+            ScanResultPage<User> page = dynamoDBMapper.scanPage(User.class, expression);
+            if (page.getConsumedCapacity() != null) {
+                rateLimiter.consumed(page.getConsumedCapacity().getCapacityUnits());
+            }
+            for (User user : page.getResults()) {
+                consumer.accept(user);
+            }
+            lastKey = page.getLastEvaluatedKey();
+        } while (lastKey != null && !Thread.currentThread().isInterrupted());
+    }
+
+    private static ExecutorService newScanExecutor(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "user-scan-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
 }
\ No newline at end of file
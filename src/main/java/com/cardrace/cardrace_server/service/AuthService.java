@@ -48,6 +48,9 @@ public class AuthService {
         if (userRepository.findByUsername(signupRequest.getUsername()).isPresent()) {
             throw new UsernameTakenException("Username is already taken");
         }
+        if (BotService.isBot(signupRequest.getUsername())) {
+            throw new UsernameTakenException("Username is reserved");
+        }
 
         User user = new User(
                 UUID.randomUUID().toString(),
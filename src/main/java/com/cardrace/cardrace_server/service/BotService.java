@@ -0,0 +1,292 @@
+package com.cardrace.cardrace_server.service;
+
+import com.cardrace.cardrace_server.dto.MoveDTO;
+import com.cardrace.cardrace_server.exceptions.IllegalMoveException;
+import com.cardrace.cardrace_server.exceptions.PlayerLimitException;
+import com.cardrace.cardrace_server.model.game.Game;
+import com.cardrace.cardrace_server.model.game.Types;
+import com.cardrace.cardrace_server.repository.GameLocks;
+import com.cardrace.cardrace_server.simulation.CandidateMove;
+import com.cardrace.cardrace_server.simulation.MctsEngine;
+import com.cardrace.cardrace_server.simulation.MctsResult;
+import com.cardrace.cardrace_server.simulation.MctsSearch;
+import com.cardrace.cardrace_server.simulation.MoveGenerator;
+import com.cardrace.cardrace_server.simulation.MoveKey;
+import com.cardrace.cardrace_server.simulation.PlayerStrategy;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-side bot players. Bots take seats like any player and their moves go through the same path as moves
+ * from sockets, so the game rules and persistence treat them no differently.
+ *
+ * Bots think on a small pool of their own, {@code bots.threads} threads behind a queue of
+ * {@code bots.queue-capacity} turns, so they never take threads from socket or Redis work. Each turn has
+ * {@code bots.move-budget-ms} from being scheduled to being played; a bot that cannot be scheduled, or whose
+ * turn runs past the budget, forfeits its hand so human players are never kept waiting on it.
+ *
+ * With {@code bots.strategy=mcts} bots search with the {@link MctsEngine} for most of their budget, on
+ * {@code bots.search-threads} threads of its own, keeping each bot's tree for the length of the game;
+ * otherwise they play the greedy self-play strategy. Hints for players always come from a search.
+ *
+ * Games are shared with the threads applying moves, so bots and hints search a copy taken under the game's
+ * lock, as the player to move sees it, never the game itself.
+ */
+@Service
+public class BotService {
+
+    public static final String BOT_PREFIX = "bot-";
+
+    private static final Logger logger = LoggerFactory.getLogger(BotService.class);
+
+    /**
+     * How bot moves reach the game: implemented by the socket layer, which applies and broadcasts them as it
+     * does moves from players.
+     */
+    public interface GameDriver {
+        /**
+         * Broadcasts a game whose players changed outside a move, such as bots taking seats.
+         */
+        void gameChanged(String gameId);
+
+        /**
+         * Applies a move and broadcasts the result.
+         *
+         * @return A stage completing once the move has been applied, or failing if it was rejected
+         */
+        CompletionStage<Optional<Game>> submitMove(String gameId, MoveDTO move);
+    }
+
+    private final GameService gameService;
+    private final GameLocks locks;
+    private final ThreadPoolExecutor thinkers;
+    private final long moveBudgetMillis;
+    private final long hintBudgetMillis;
+    private final boolean searchMoves;
+    private final MctsEngine engine;
+    // Each bot's search by game, so its tree carries over from turn to turn.
+    private final Map<String, Map<String, MctsSearch>> searches = new ConcurrentHashMap<>();
+    // Games with a bot turn scheduled, so a state broadcast twice does not play the turn twice.
+    private final Set<String> pendingTurns = ConcurrentHashMap.newKeySet();
+    private final SplittableRandom seeds = new SplittableRandom();
+    private volatile GameDriver driver;
+
+    @Autowired
+    public BotService(GameService gameService, GameLocks locks, @Value("${bots.threads:2}") int threads,
+                      @Value("${bots.queue-capacity:256}") int queueCapacity,
+                      @Value("${bots.move-budget-ms:200}") long moveBudgetMillis,
+                      @Value("${bots.strategy:greedy}") String strategy,
+                      @Value("${bots.search-threads:2}") int searchThreads,
+                      @Value("${bots.hint-budget-ms:500}") long hintBudgetMillis) {
+        this.gameService = gameService;
+        this.locks = locks;
+        this.moveBudgetMillis = moveBudgetMillis;
+        this.hintBudgetMillis = hintBudgetMillis;
+        this.searchMoves = "mcts".equalsIgnoreCase(strategy);
+        this.engine = new MctsEngine(searchThreads);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.thinkers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "bot-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    public static boolean isBot(String username) {
+        return username != null && username.startsWith(BOT_PREFIX);
+    }
+
+    public static String botName(int number) {
+        return BOT_PREFIX + number;
+    }
+
+    public void setDriver(GameDriver driver) {
+        this.driver = driver;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        thinkers.shutdownNow();
+        engine.close();
+    }
+
+    /**
+     * Seats bots in a waiting game and broadcasts the result. If that fills the game it starts, and the first
+     * turn is played if it falls to a bot.
+     *
+     * @param gameId The ID of the game
+     * @param count  The number of bots to seat, or null to fill every open seat
+     * @return The names of the bots seated
+     * @throws PlayerLimitException If the game is not waiting for players
+     */
+    public List<String> addBots(String gameId, Integer count) throws PlayerLimitException {
+        List<String> bots = gameService.addBots(gameId, count == null ? Integer.MAX_VALUE : count);
+        GameDriver current = driver;
+        if (current != null && !bots.isEmpty()) {
+            current.gameChanged(gameId);
+        }
+        return bots;
+    }
+
+    /**
+     * Schedules the current turn if it belongs to a bot. Called when a game starts and after each move a player
+     * makes; after a bot's own move the next bot turn is scheduled from here once the move is applied.
+     *
+     * @param gameId The ID of the game
+     * @param game   The current state of the game
+     */
+    public void onGameState(String gameId, Game game) {
+        if (game.getStatus() != Types.GameStatus.IN_PROGRESS) {
+            searches.remove(gameId);
+            return;
+        }
+        if (thinkers.isShutdown()) {
+            return;
+        }
+        String player = game.getCurrentPlayer();
+        if (!isBot(player) || driver == null || !pendingTurns.add(gameId)) {
+            return;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(moveBudgetMillis);
+        long seed = nextSeed();
+        CompletableFuture<MoveDTO> move;
+        try {
+            move = CompletableFuture.supplyAsync(() -> chooseMove(gameId, game, player, seed, deadline), thinkers);
+        } catch (RejectedExecutionException e) {
+            // Forfeit once the budget is up rather than at once, so a saturated pool is not answered with a
+            // burst of forfeits from every bot-only game.
+            logger.warn("Bot pool saturated, {} forfeits in game {}", player, gameId);
+            move = CompletableFuture.supplyAsync(() -> forfeit(player),
+                    CompletableFuture.delayedExecutor(moveBudgetMillis, TimeUnit.MILLISECONDS));
+        }
+        move.completeOnTimeout(null, moveBudgetMillis, TimeUnit.MILLISECONDS)
+                .thenCompose(chosen -> play(gameId, chosen == null ? forfeit(player) : chosen))
+                .whenComplete((updated, error) -> {
+                    pendingTurns.remove(gameId);
+                    if (updated != null) {
+                        updated.ifPresent(next -> onGameState(gameId, next));
+                    }
+                });
+    }
+
+    /**
+     * Reports a move applied to a game, so bots searching in it can reuse their trees.
+     */
+    public void moveApplied(String gameId, MoveDTO move) {
+        Map<String, MctsSearch> bots = searches.get(gameId);
+        if (bots != null) {
+            MoveKey key = move.isForfeit() ? MoveKey.FORFEIT : MoveKey.of(move.getMove());
+            bots.values().forEach(search -> search.advance(key));
+        }
+    }
+
+    /**
+     * Drops the search state of a game that ended without a final move, such as one a player left.
+     */
+    public void gameEnded(String gameId) {
+        searches.remove(gameId);
+    }
+
+    /**
+     * Searches for the move a player should make, on the bot pool and within {@code bots.hint-budget-ms}. The
+     * search runs on a copy of the game taken now, so later changes to the game do not disturb it.
+     *
+     * @param gameId The ID of the game
+     * @param game The game, with the player to move
+     * @param player The player asking
+     * @return A stage completing with the suggested move, or failing if the bot pool is saturated
+     */
+    public CompletionStage<MoveDTO> hint(String gameId, Game game, String player) {
+        Game snapshot = snapshot(gameId, game, player, new Random());
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                MctsResult result = engine.newSearch(player).search(snapshot, hintBudgetMillis);
+                return result.move() == null ? forfeit(player) : toMove(player, result.move());
+            }, thinkers);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private MoveDTO chooseMove(String gameId, Game game, String player, long seed, long deadlineNanos) {
+        Game snapshot = snapshot(gameId, game, player, new Random(seed));
+        // A quarter of the budget is left for applying the move.
+        long searchMillis = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()) * 3 / 4;
+        if (!searchMoves || searchMillis <= 0) {
+            return chooseMove(snapshot, player, seed, deadlineNanos);
+        }
+        MctsSearch search = searches.computeIfAbsent(gameId, id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(player, engine::newSearch);
+        MctsResult result = search.search(snapshot, searchMillis);
+        return result.move() == null ? forfeit(player) : toMove(player, result.move());
+    }
+
+    /**
+     * Copies a game as a player sees it, with the cards hidden from them dealt at random. The copy is taken under
+     * the game's lock, so it never holds half of a move.
+     */
+    private Game snapshot(String gameId, Game game, String player, Random random) {
+        return locks.withLock(gameId, () -> game.determinize(player, random));
+    }
+
+    /**
+     * Picks a move for a bot, taking the best the greedy strategy finds. Move generation does not touch the
+     * game, so it is safe to run while the game is only being read; if the deadline passes anyway the bot
+     * forfeits instead.
+     */
+    static MoveDTO chooseMove(Game game, String player, long seed, long deadlineNanos) {
+        List<CandidateMove> moves = MoveGenerator.legalMoves(game, player);
+        if (moves.isEmpty() || System.nanoTime() > deadlineNanos) {
+            return forfeit(player);
+        }
+        return toMove(player, PlayerStrategy.GREEDY.choose(moves, new SplittableRandom(seed)));
+    }
+
+    private static MoveDTO toMove(String player, CandidateMove move) {
+        return new MoveDTO(player, move.card(), move.substitute(), move.distances(), false);
+    }
+
+    /**
+     * Submits a move, and a forfeit in its place if the game rejects it, so a bot never holds up a game.
+     */
+    private CompletionStage<Optional<Game>> play(String gameId, MoveDTO move) {
+        return driver.submitMove(gameId, move).handle((game, error) -> {
+            Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+            if (cause instanceof IllegalMoveException && !move.isForfeit()) {
+                logger.warn("Bot move rejected in game {}, forfeiting: {}", gameId, cause.getMessage());
+                return driver.submitMove(gameId, forfeit(move.getUsername()));
+            }
+            return CompletableFuture.completedFuture(game);
+        }).thenCompose(stage -> stage);
+    }
+
+    private static MoveDTO forfeit(String player) {
+        return new MoveDTO(player, null, null, null, true);
+    }
+
+    private synchronized long nextSeed() {
+        return seeds.nextLong();
+    }
+}
@@ -0,0 +1,114 @@
+package com.cardrace.cardrace_server.service;
+
+import com.cardrace.cardrace_server.repository.IdBlockRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out short game codes that are unique across nodes. Each node leases a block of counter values from
+ * the {@link IdBlockRepository} and serves IDs from it with a single atomic increment, so the create path
+ * takes no lock and makes no collision check; only the thread that finds the block used up leases the next.
+ *
+ * Counter values are scrambled by a Feistel permutation, so consecutive games do not get guessable
+ * consecutive codes, and written in Crockford base32, which leaves out I, L, O and U to keep codes easy to
+ * read out and type. The first 2^30 values give 6-character codes; later ones give 8-character codes.
+ * Codes typed in by players go through {@link #normalize} before any lookup.
+ */
+@Component
+public class GameIdGenerator {
+
+    static final String ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+    private static final int SHORT_BITS = 30;
+    private static final int LONG_BITS = 40;
+    private static final int[] ROUND_KEYS = {0x5BD1E995, 0x27D4EB2F, 0x165667B1, 0x9E3779B9};
+
+    private record Block(AtomicLong next, long end) {}
+
+    private final IdBlockRepository idBlockRepository;
+    private final int blockSize;
+    private final Object leaseLock = new Object();
+    private volatile Block block = new Block(new AtomicLong(), 0);
+
+    public GameIdGenerator(IdBlockRepository idBlockRepository, @Value("${game.id.block-size:1000}") int blockSize) {
+        this.idBlockRepository = idBlockRepository;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * @return A game code no other call on any node has returned
+     */
+    public String nextId() {
+        while (true) {
+            Block current = block;
+            long value = current.next().getAndIncrement();
+            if (value < current.end()) {
+                return encode(value);
+            }
+            synchronized (leaseLock) {
+                if (block == current) {
+                    long start = idBlockRepository.leaseBlock(blockSize);
+                    block = new Block(new AtomicLong(start), start + blockSize);
+                }
+            }
+        }
+    }
+
+    /**
+     * Turns a game code as a player may type it into the code as issued: lowercase letters are raised, and O, I
+     * and L, which Crockford base32 leaves out, are read as the digits they resemble. IDs of any other length,
+     * such as the UUIDs games had before codes, are left as they are.
+     *
+     * @param gameId The ID as received
+     * @return The ID to look the game up by
+     */
+    public static String normalize(String gameId) {
+        if (gameId == null || (gameId.length() != SHORT_BITS / 5 && gameId.length() != LONG_BITS / 5)) {
+            return gameId;
+        }
+        char[] code = gameId.toUpperCase(Locale.ROOT).toCharArray();
+        for (int i = 0; i < code.length; i++) {
+            code[i] = switch (code[i]) {
+                case 'O' -> '0';
+                case 'I', 'L' -> '1';
+                default -> code[i];
+            };
+        }
+        return new String(code);
+    }
+
+    static String encode(long value) {
+        int bits = value < (1L << SHORT_BITS) ? SHORT_BITS : LONG_BITS;
+        if (value >= (1L << LONG_BITS)) {
+            throw new IllegalStateException("Game ID counter exhausted");
+        }
+        long scrambled = permute(value, bits);
+        char[] code = new char[bits / 5];
+        for (int i = code.length - 1; i >= 0; i--) {
+            code[i] = ALPHABET.charAt((int) (scrambled & 31));
+            scrambled >>>= 5;
+        }
+        return new String(code);
+    }
+
+    /**
+     * Balanced Feistel network over {@code bits} bits; every round is invertible, so the result is a
+     * permutation of [0, 2^bits) and distinct values always give distinct codes.
+     */
+    static long permute(long value, int bits) {
+        int half = bits / 2;
+        long mask = (1L << half) - 1;
+        long left = value >>> half;
+        long right = value & mask;
+        for (int key : ROUND_KEYS) {
+            long mixed = ((right * 0x9E3779B1L) ^ key) & 0xFFFFFFFFL;
+            mixed ^= mixed >>> 15;
+            long next = left ^ (mixed & mask);
+            left = right;
+            right = next;
+        }
+        return (left << half) | right;
+    }
+}
@@ -4,21 +4,45 @@ import com.cardrace.cardrace_server.dto.*;
 import com.cardrace.cardrace_server.exceptions.IllegalMoveException;
 import com.cardrace.cardrace_server.exceptions.InvalidMoveFormatException;
 import com.cardrace.cardrace_server.exceptions.PlayerLimitException;
+import com.cardrace.cardrace_server.model.MatchRecord;
+import com.cardrace.cardrace_server.model.game.Board;
 import com.cardrace.cardrace_server.model.game.Card;
 import com.cardrace.cardrace_server.model.game.Game;
+import com.cardrace.cardrace_server.model.game.GameCodec;
+import com.cardrace.cardrace_server.model.game.Move;
 import com.cardrace.cardrace_server.model.game.Types;
-import com.cardrace.cardrace_server.repository.RedisGameRepository;
+import com.cardrace.cardrace_server.repository.GameLocks;
+import com.cardrace.cardrace_server.repository.LobbyRepository;
+import com.cardrace.cardrace_server.repository.ReactiveGameRepository;
+import com.cardrace.cardrace_server.repository.RedisWriteBatch;
+import com.cardrace.cardrace_server.repository.TieredGameRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 
 @Service
 public class GameService {
     @Autowired
-    private final RedisGameRepository gameRepository;
-
-    public GameService(RedisGameRepository gameRepository) {
+    private final TieredGameRepository gameRepository;
+    private final LobbyRepository lobbyRepository;
+    private final RedisWriteBatch writeBatch;
+    private final ReactiveGameRepository reactiveGameRepository;
+    private final GameIdGenerator gameIdGenerator;
+    // Every change to a game goes through its lock, as callers on this node share one game object.
+    private final GameLocks locks;
+
+    public static final int MAX_LOBBY_PAGE_SIZE = 100;
+
+    public GameService(TieredGameRepository gameRepository, LobbyRepository lobbyRepository, RedisWriteBatch writeBatch,
+                       GameIdGenerator gameIdGenerator, GameLocks locks) {
         this.gameRepository = gameRepository;
+        this.lobbyRepository = lobbyRepository;
+        this.writeBatch = writeBatch;
+        this.reactiveGameRepository = gameRepository.async();
+        this.gameIdGenerator = gameIdGenerator;
+        this.locks = locks;
     }
 
     /**
@@ -29,11 +53,14 @@ public class GameService {
      * @return A unique game ID for the created game
      */
     public String createGame(String gameName, Integer numPlayers) {
-        String gameId = UUID.randomUUID().toString().substring(0, 6);
+        String gameId = gameIdGenerator.nextId();
 
         Game newGame = new Game(gameName, numPlayers);
-        gameRepository.save(gameId, newGame);
-        return gameId;
+        return writeBatch.run(() -> {
+            gameRepository.save(gameId, newGame);
+            lobbyRepository.upsert(gameId, gameName, 0, numPlayers);
+            return gameId;
+        });
     }
 
     /**
@@ -44,50 +71,112 @@ public class GameService {
      * @throws PlayerLimitException If the game is full or not in waiting status
      */
     public void joinGame(String gameId, String playerId) throws PlayerLimitException {
-        Game game = gameRepository.findById(gameId)
-                .orElseThrow(() -> new IllegalArgumentException("Game not found"));
+        locks.withLock(gameId, () -> {
+            Game game = gameRepository.findById(gameId)
+                    .orElseThrow(() -> new IllegalArgumentException("Game not found"));
+
+            if (game.getStatus() == Types.GameStatus.WAITING) {
+                game.addPlayer(playerId);
+                if (game.getNumCurrPlayers() == game.numPlayers) {
+                    game.initializeGame();
+                }
+            } else {
+                throw new PlayerLimitException("Game in progress or complete.");
+            }
+            return writeBatch.run(() -> {
+                gameRepository.save(gameId, game);
+                updateLobby(gameId, game);
+                return null;
+            });
+        });
+    }
 
-        if (game.getStatus() == Types.GameStatus.WAITING) {
-            game.addPlayer(playerId);
+    /**
+     * Seats bot players in a waiting game, starting it if that fills it.
+     *
+     * @param gameId The ID of the game
+     * @param count  The number of bots to seat; capped at the number of open seats
+     * @return The names of the bots seated
+     * @throws PlayerLimitException If the game is not in waiting status
+     */
+    public List<String> addBots(String gameId, int count) throws PlayerLimitException {
+        return locks.withLock(gameId, () -> {
+            Game game = gameRepository.findById(gameId)
+                    .orElseThrow(() -> new IllegalArgumentException("Game not found"));
+
+            if (game.getStatus() != Types.GameStatus.WAITING) {
+                throw new PlayerLimitException("Game in progress or complete.");
+            }
+            List<String> bots = new ArrayList<>();
+            for (int number = 1; bots.size() < count && game.getNumCurrPlayers() < game.numPlayers; number++) {
+                String bot = BotService.botName(number);
+                if (!game.getPlayers().contains(bot)) {
+                    game.addPlayer(bot);
+                    bots.add(bot);
+                }
+            }
             if (game.getNumCurrPlayers() == game.numPlayers) {
                 game.initializeGame();
             }
-        } else {
-            throw new PlayerLimitException("Game in progress or complete.");
-        }
-        gameRepository.save(gameId, game);
+            writeBatch.run(() -> {
+                gameRepository.save(gameId, game);
+                updateLobby(gameId, game);
+                return null;
+            });
+            return bots;
+        });
     }
 
     /**
-     * Removes a player from a game. If the game is in progress, it will be terminated early.
+     * Removes a player from a game. If the game is in progress, it will be terminated early, as will a waiting
+     * game left with only bots.
      *
      * @param gameId   The ID of the game
      * @param playerId The ID of the player leaving the game
      */
     public void leaveGame(String gameId, String playerId) {
-        Game game = gameRepository.findById(gameId)
-                .orElseThrow(() -> new IllegalArgumentException("Game not found"));
+        locks.withLock(gameId, () -> {
+            Game game = gameRepository.findById(gameId)
+                    .orElseThrow(() -> new IllegalArgumentException("Game not found"));
 
-        if (game.getStatus() == Types.GameStatus.IN_PROGRESS) {
-            earlyTerminate(gameId, playerId);
-        } else if (game.getStatus() == Types.GameStatus.WAITING && doesPlayerExist(gameId, playerId)) {
-            game.removePlayer(playerId);
-            if (game.getPlayers().isEmpty()) {
+            if (game.getStatus() == Types.GameStatus.IN_PROGRESS) {
                 earlyTerminate(gameId, playerId);
-            } else { gameRepository.save(gameId, game); }
-        }
+            } else if (game.getStatus() == Types.GameStatus.WAITING && doesPlayerExist(gameId, playerId)) {
+                game.removePlayer(playerId);
+                if (game.getPlayers().stream().allMatch(BotService::isBot)) {
+                    earlyTerminate(gameId, playerId);
+                } else {
+                    writeBatch.run(() -> {
+                        gameRepository.save(gameId, game);
+                        updateLobby(gameId, game);
+                        return null;
+                    });
+                }
+            }
+            return null;
+        });
     }
 
     /**
-     * Deletes a game from the repository.
+     * Deletes a game from the repository. Completed and terminated games are moved to the archive instead.
      *
      * @param gameId The ID of the game to delete
      */
     public void deleteGame(String gameId) {
-        Game game = gameRepository.findById(gameId)
-                .orElseThrow(() -> new IllegalArgumentException("Game not found"));
-
-        gameRepository.delete(gameId);
+        locks.withLock(gameId, () -> {
+            Game game = gameRepository.findById(gameId)
+                    .orElseThrow(() -> new IllegalArgumentException("Game not found"));
+
+            return writeBatch.run(() -> {
+                if (game.getStatus() == Types.GameStatus.COMPLETE || game.getStatus() == Types.GameStatus.TERMINATED) {
+                    gameRepository.archive(gameId, game);
+                } else {
+                    gameRepository.delete(gameId);
+                }
+                lobbyRepository.remove(gameId);
+                return null;
+            });
+        });
     }
 
     /**
@@ -98,29 +187,59 @@ public class GameService {
      * @throws IllegalMoveException If the move is not allowed
      */
     public void applyMove(String gameId, MoveDTO move) throws IllegalMoveException {
-        Game game = gameRepository.findById(gameId)
-                .orElseThrow(() -> new IllegalArgumentException("Game not found"));
+        locks.withLock(gameId, () -> {
+            Game game = gameRepository.findById(gameId)
+                    .orElseThrow(() -> new IllegalArgumentException("Game not found"));
 
-        if (!move.isForfeit()) {
-            if (game.getPlayerColor(move.getUsername()) == game.getCurrentPlayerColor()) {
-                game.applyMove(move.getCard(), move.getSubstitute(), move.getDistances());
-                game.incrementPlayerTurns(move.getUsername());
-                if (game.hasWon(move.getUsername())) {
-                    game.setStatus(Types.GameStatus.COMPLETE);
-                    game.setWinner(move.getUsername());
-                }
-                game.setLastCard(move.getCard());
-                game.updatePlayerHand(move.getUsername(), move.getCard());
-            } else throw new IllegalMoveException("Not player's turn!");
+            applyMove(game, move);
+            return gameRepository.save(gameId, game);
+        });
+    }
+
+    /**
+     * Applies a move without blocking: the game is loaded, updated and saved through the reactive
+     * repository, and the returned stage may complete on a Redis I/O thread, so continuations must not block.
+     * Games held on this node's heap are loaded without a Redis round trip. The move is applied and the save
+     * sent under the game's lock, which is taken off the Redis I/O thread if the game had to be loaded.
+     * Moves for games that do not exist or have already completed are ignored.
+     *
+     * @param gameId The ID of the game
+     * @param move   The move to apply
+     * @return A stage completing with a copy of the game as the move left it, taken under the lock, or empty
+     *         if the move was ignored; it fails with an {@link IllegalMoveException} if the move is not allowed
+     */
+    public CompletionStage<Optional<Game>> applyMoveAsync(String gameId, MoveDTO move) {
+        CompletableFuture<Optional<Game>> loaded = reactiveGameRepository.findById(gameId).toCompletableFuture();
+        return loaded.isDone()
+                ? loaded.thenCompose(found -> applyLoadedMove(gameId, found, move))
+                : loaded.thenComposeAsync(found -> applyLoadedMove(gameId, found, move));
+    }
+
+    private CompletionStage<Optional<Game>> applyLoadedMove(String gameId, Optional<Game> loaded, MoveDTO move) {
+        return locks.withLock(gameId, () -> {
+            // A racing load may have settled on another object; the move goes to the one every caller is handed.
+            Optional<Game> found = gameRepository.findResident(gameId).or(() -> loaded);
+            if (found.isEmpty() || found.get().getStatus() == Types.GameStatus.COMPLETE) {
+                return CompletableFuture.completedFuture(Optional.<Game>empty());
+            }
+            Game game = found.get();
+            try {
+                applyMove(game, move);
+            } catch (IllegalMoveException e) {
+                return CompletableFuture.<Optional<Game>>failedFuture(e);
+            }
+            // Broadcasts of the result are serialized after the lock is released, so they are built from a copy.
+            Game updated = copy(game);
+            return reactiveGameRepository.save(gameId, game).thenApply(saved -> Optional.of(updated));
+        });
+    }
+
+    private void applyMove(Game game, MoveDTO move) throws IllegalMoveException {
+        if (move.isForfeit()) {
+            game.forfeitTurn(move.getUsername());
         } else {
-            game.clearHand(move.getUsername());
-            game.setLastCard(null);
+            game.playTurn(move.getUsername(), move.getMove());
         }
-        if (game.timeToDeal()) {
-            game.dealOut();
-        }
-        game.nextTurn();
-        gameRepository.save(gameId, game);
     }
 
     /**
@@ -134,7 +253,7 @@ public class GameService {
         Card actingCard;
 
         if (move.isForfeit()) { return; }
-        if (!Objects.nonNull(move.getCard()) || !Objects.nonNull(move.getUsername()) || !Objects.nonNull(move.getDistances())) {
+        if (!Objects.nonNull(move.getCard()) || !Objects.nonNull(move.getUsername()) || !Objects.nonNull(move.getMove())) {
             throw new InvalidMoveFormatException("Move is missing required data!");
         }
         if (move.getCard().cardValue == Types.CardValue.JOKER) {
@@ -146,7 +265,14 @@ public class GameService {
             actingCard = move.getCard();
         }
 
-        Map<Integer, Integer> distances = move.getDistances();
+        Move distances = move.getMove();
+        // The board checks IDs against its own seats too; this turns away IDs no board has before a game is loaded.
+        for (int i = 0; i < distances.size(); i++) {
+            int marbleId = distances.marbleId(i);
+            if (marbleId < 0 || marbleId >= Types.Color.values().length * Board.MARBLES_PER_SEAT) {
+                throw new InvalidMoveFormatException("Move names a marble that does not exist!");
+            }
+        }
 
         switch (actingCard.cardValue) {
             case JACK -> {
@@ -155,11 +281,10 @@ public class GameService {
                 }
             }
             case SEVEN -> {
-                if (distances.isEmpty()) {
+                if (distances.size() == 0) {
                     throw new InvalidMoveFormatException("Seven move must involve at least one marble!");
                 }
-                int sum = distances.values().stream().mapToInt(Integer::intValue).sum();
-                if (sum != 7) {
+                if (distances.distanceSum() != 7) {
                     throw new InvalidMoveFormatException("Seven move distances must sum to 7!");
                 }
             }
@@ -167,8 +292,7 @@ public class GameService {
                 if (distances.size() != 1) {
                     throw new InvalidMoveFormatException("Move must involve exactly one marble!");
                 }
-                int distance = distances.values().iterator().next();
-                if (!Types.isValidCardValue(actingCard.cardValue, distance)) {
+                if (!Types.isValidCardValue(actingCard.cardValue, distances.distance(0))) {
                     throw new InvalidMoveFormatException("Invalid distance for the given card!");
                 }
             }
@@ -182,8 +306,31 @@ public class GameService {
      * @return true if the game is in the lobby, false otherwise
      */
     public boolean inLobby(String gameId) {
-        Optional<Game> game = gameRepository.findById(gameId);
-        return game.isPresent() && game.get().getStatus() == Types.GameStatus.WAITING;
+        return gameRepository.findStatus(gameId).orElse(null) == Types.GameStatus.WAITING;
+    }
+
+    /**
+     * Checks if a game is open for new players using the lobby index, without loading game state.
+     *
+     * @param gameId The ID of the game to check
+     * @return true if the game is waiting for players, false otherwise
+     */
+    public boolean isJoinable(String gameId) {
+        return lobbyRepository.isOpen(gameId);
+    }
+
+    /**
+     * Lists games waiting for players, newest first.
+     *
+     * @param page The zero-based page number
+     * @param size The number of lobbies per page, capped at {@value #MAX_LOBBY_PAGE_SIZE}
+     * @return A page of lobby summaries
+     */
+    public LobbyPageDTO getOpenLobbies(int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_LOBBY_PAGE_SIZE));
+        int pageNumber = Math.max(0, page);
+        return new LobbyPageDTO(pageNumber, pageSize,
+                lobbyRepository.findPage((long) pageNumber * pageSize, pageSize));
     }
 
     /**
@@ -193,8 +340,7 @@ public class GameService {
      * @return true if the game has been terminated, false otherwise
      */
     public boolean isTerminated(String gameId) {
-        Optional<Game> game = gameRepository.findById(gameId);
-        return game.isPresent() && game.get().getStatus() == Types.GameStatus.TERMINATED;
+        return gameRepository.findStatus(gameId).orElse(null) == Types.GameStatus.TERMINATED;
     }
 
     /**
@@ -204,8 +350,7 @@ public class GameService {
      * @return true if the game has been completed, false otherwise
      */
     public boolean hasCompleted(String gameId) {
-        Optional<Game> game = gameRepository.findById(gameId);
-        return game.isPresent() && game.get().getStatus() == Types.GameStatus.COMPLETE;
+        return gameRepository.findStatus(gameId).orElse(null) == Types.GameStatus.COMPLETE;
     }
 
     /**
@@ -229,6 +374,14 @@ public class GameService {
         return game.getWinner();
     }
 
+    private void updateLobby(String gameId, Game game) {
+        if (game.getStatus() == Types.GameStatus.WAITING) {
+            lobbyRepository.upsert(gameId, game.gameName, game.getNumCurrPlayers(), game.numPlayers);
+        } else {
+            lobbyRepository.remove(gameId);
+        }
+    }
+
     /**
      * Terminates a game early.
      *
@@ -236,12 +389,18 @@ public class GameService {
      * @param playerId The ID of the player causing the termination
      */
     public void earlyTerminate(String gameId, String playerId) {
-        Game game = gameRepository.findById(gameId)
-                .orElseThrow(() -> new IllegalArgumentException("Game not found"));
-
-        game.setStatus(Types.GameStatus.TERMINATED);
-        game.setWinner(playerId);
-        gameRepository.save(gameId, game);
+        locks.withLock(gameId, () -> {
+            Game game = gameRepository.findById(gameId)
+                    .orElseThrow(() -> new IllegalArgumentException("Game not found"));
+
+            game.setStatus(Types.GameStatus.TERMINATED);
+            game.setWinner(playerId);
+            return writeBatch.run(() -> {
+                gameRepository.save(gameId, game);
+                lobbyRepository.remove(gameId);
+                return null;
+            });
+        });
     }
 
     /**
@@ -254,6 +413,10 @@ public class GameService {
         Game game = gameRepository.findById(gameId)
                 .orElseThrow(() -> new IllegalArgumentException("Game not found"));
 
+        return getPlayerTurnInformation(game);
+    }
+
+    public Map<String, Integer> getPlayerTurnInformation(Game game) {
         HashMap<String, Integer> turnInformation = new HashMap<>();
         for (String player : game.getPlayers()) {
             turnInformation.put(player, game.getPlayerTurns(player));
@@ -262,6 +425,45 @@ public class GameService {
         return turnInformation;
     }
 
+    /**
+     * Builds one match history row per player of a completed game. The winner places first and the
+     * others are ranked by how many marbles reached their safe zone, with ties sharing a placement.
+     *
+     * @param gameId The ID of the completed game
+     * @return A match record for every player
+     */
+    public List<MatchRecord> getMatchRecords(String gameId) {
+        Game game = gameRepository.findById(gameId)
+                .orElseThrow(() -> new IllegalArgumentException("Game not found"));
+
+        return getMatchRecords(gameId, game);
+    }
+
+    public List<MatchRecord> getMatchRecords(String gameId, Game game) {
+        long completedAt = System.currentTimeMillis();
+        long durationSeconds = (completedAt - game.getStartedAt()) / 1000;
+        String winner = game.getWinner();
+
+        Map<String, Integer> progress = new HashMap<>();
+        for (String player : game.getPlayers()) {
+            int safe = game.getBoard().countSafeMarbles(game.getPlayerColor(player));
+            progress.put(player, player.equals(winner) ? Integer.MAX_VALUE : safe);
+        }
+
+        List<MatchRecord> records = new ArrayList<>();
+        for (String player : game.getPlayers()) {
+            int placement = 1;
+            for (int other : progress.values()) {
+                if (other > progress.get(player)) {
+                    placement++;
+                }
+            }
+            records.add(new MatchRecord(player, gameId, game.getPlayerColor(player).name(), placement,
+                    game.getPlayerTurns(player), durationSeconds, completedAt));
+        }
+        return records;
+    }
+
     /**
      * Retrieves the game state specific to a player.
      *
@@ -270,9 +472,13 @@ public class GameService {
      * @return A DTO containing the game state specific to the player
      */
     public SpecificGameStateDTO getPlayerSpecificGameState(String gameId, String playerId) {
-        Game game = gameRepository.findById(gameId)
+        Game game = findSnapshot(gameId)
                 .orElseThrow(() -> new IllegalArgumentException("Game not found"));
 
+        return getPlayerSpecificGameState(game, playerId);
+    }
+
+    public SpecificGameStateDTO getPlayerSpecificGameState(Game game, String playerId) {
         return new SpecificGameStateDTO(game.gameName, game.getBoard(), game.getPlayers(), game.getPlayerColorMap(), game.getCurrentPlayerColor(), game.getLastCard(), game.getStatus(), game.getWinner(), playerId, game.getPlayerHand(playerId), game.getPlayerColor(playerId));
     }
 
@@ -283,9 +489,13 @@ public class GameService {
      * @return A DTO containing the waiting game state
      */
     public WaitingGameStateDTO getWaitingGameState(String gameId) {
-        Game game = gameRepository.findById(gameId)
+        Game game = findSnapshot(gameId)
                 .orElseThrow(() -> new IllegalArgumentException("Game not found"));
 
+        return getWaitingGameState(game);
+    }
+
+    public WaitingGameStateDTO getWaitingGameState(Game game) {
         return new WaitingGameStateDTO(game.getStatus(), game.gameName, game.getPlayers());
     }
 
@@ -296,12 +506,39 @@ public class GameService {
      * @return A DTO containing the terminated game state
      */
     public EarlyTerminationDTO getTerminatedGameState(String gameId) {
-        Game game = gameRepository.findById(gameId)
+        Game game = findSnapshot(gameId)
                 .orElseThrow(() -> new IllegalArgumentException("Game not found"));
 
+        return getTerminatedGameState(game);
+    }
+
+    public EarlyTerminationDTO getTerminatedGameState(Game game) {
         return new EarlyTerminationDTO(game.getWinner(), game.getStatus());
     }
 
+    /**
+     * @param gameId The ID of the game
+     * @return The game, if it exists
+     */
+    public Optional<Game> findGame(String gameId) {
+        return gameRepository.findById(gameId);
+    }
+
+    /**
+     * Loads a copy of a game taken under its lock. Game states are built from copies, since they are serialized
+     * after the lock is released while moves may change the game itself.
+     *
+     * @param gameId The ID of the game
+     * @return A copy of the game, if it exists
+     */
+    public Optional<Game> findSnapshot(String gameId) {
+        return gameRepository.findById(gameId).map(game -> locks.withLock(gameId, () -> copy(game)));
+    }
+
+    private static Game copy(Game game) {
+        return GameCodec.decode(GameCodec.encode(game));
+    }
+
     /**
      * Checks if a game exists.
      *
@@ -309,7 +546,6 @@ public class GameService {
      * @return true if the game exists, false otherwise
      */
     public boolean doesGameExist(String gameId) {
-        Optional<Game> game = gameRepository.findById(gameId);
-        return game.isPresent();
+        return gameRepository.findStatus(gameId).isPresent();
     }
 }
\ No newline at end of file
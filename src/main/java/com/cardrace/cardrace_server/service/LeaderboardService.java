@@ -0,0 +1,108 @@
+package com.cardrace.cardrace_server.service;
+
+import com.cardrace.cardrace_server.dto.LeaderboardEntryDTO;
+import com.cardrace.cardrace_server.dto.LeaderboardPageDTO;
+import com.cardrace.cardrace_server.model.LeaderboardCategory;
+import com.cardrace.cardrace_server.repository.LeaderboardRepository;
+import com.cardrace.cardrace_server.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class LeaderboardService {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaderboardService.class);
+
+    private final LeaderboardRepository leaderboardRepository;
+    private final UserRepository userRepository;
+    private final boolean rebuildOnStartup;
+
+    @Autowired
+    public LeaderboardService(LeaderboardRepository leaderboardRepository, UserRepository userRepository,
+                              @Value("${leaderboard.rebuild-on-startup:false}") boolean rebuildOnStartup) {
+        this.leaderboardRepository = leaderboardRepository;
+        this.userRepository = userRepository;
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() throws InterruptedException {
+        if (rebuildOnStartup) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Backfills every leaderboard from the user table with a rate-limited parallel scan.
+     *
+     * @return The number of users read
+     * @throws InterruptedException If interrupted while the scan is running
+     */
+    public long rebuild() throws InterruptedException {
+        AtomicLong count = new AtomicLong();
+        userRepository.scanAll(user -> {
+            setStats(user.getUsername(), user.getGamesPlayed(), user.getWins());
+            count.incrementAndGet();
+        });
+        logger.info("Rebuilt leaderboards from {} users", count.get());
+        return count.get();
+    }
+
+    /**
+     * Records a finished game for a player across every leaderboard.
+     *
+     * @param username The player whose result is recorded
+     * @param won      Whether the player won the game
+     */
+    public void recordResult(String username, boolean won) {
+        leaderboardRepository.recordResult(username, won);
+    }
+
+    /**
+     * Overwrites a player's leaderboard entries with absolute counters, e.g. when rebuilding from the user table.
+     *
+     * @param username    The player to update
+     * @param gamesPlayed Total games played
+     * @param wins        Total wins
+     */
+    public void setStats(String username, int gamesPlayed, int wins) {
+        leaderboardRepository.setStats(username, gamesPlayed, wins);
+    }
+
+    /**
+     * Retrieves one page of a leaderboard, best first.
+     *
+     * @param category The ranking to read
+     * @param page     Zero-based page number
+     * @param size     Page size, capped at MAX_PAGE_SIZE
+     * @return The requested page of ranked entries
+     */
+    public LeaderboardPageDTO getPage(LeaderboardCategory category, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int pageNumber = Math.max(0, page);
+        List<LeaderboardEntryDTO> entries = leaderboardRepository.findPage(category, (long) pageNumber * pageSize, pageSize);
+        return new LeaderboardPageDTO(category, pageNumber, pageSize, entries);
+    }
+
+    /**
+     * Retrieves a player's own rank on a leaderboard.
+     *
+     * @param category The ranking to read
+     * @param username The player to look up
+     * @return The player's entry, or empty if they have not finished a game yet
+     */
+    public Optional<LeaderboardEntryDTO> getRank(LeaderboardCategory category, String username) {
+        return leaderboardRepository.findRank(category, username);
+    }
+}
@@ -0,0 +1,113 @@
+package com.cardrace.cardrace_server.service;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.QueryResultPage;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.cardrace.cardrace_server.dto.MatchHistoryEntryDTO;
+import com.cardrace.cardrace_server.dto.MatchHistoryPageDTO;
+import com.cardrace.cardrace_server.model.MatchRecord;
+import com.cardrace.cardrace_server.repository.MatchHistoryRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+@Service
+public class MatchHistoryService {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final Logger logger = LoggerFactory.getLogger(MatchHistoryService.class);
+
+    private final MatchHistoryRepository matchHistoryRepository;
+    private final BlockingQueue<MatchRecord> pending;
+    private final ScheduledExecutorService writer;
+
+    @Autowired
+    public MatchHistoryService(MatchHistoryRepository matchHistoryRepository,
+                               @Value("${match-history.queue-capacity:10000}") int queueCapacity,
+                               @Value("${match-history.flush-interval-ms:500}") long flushIntervalMs) {
+        this.matchHistoryRepository = matchHistoryRepository;
+        this.pending = new LinkedBlockingQueue<>(queueCapacity);
+        this.writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "match-history-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        writer.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queues the rows of a finished game. Rows are written in batches by a background writer,
+     * so the caller never waits on DynamoDB.
+     *
+     * @param records One row per player of the finished game
+     */
+    public void record(List<MatchRecord> records) {
+        for (MatchRecord record : records) {
+            if (!pending.offer(record)) {
+                logger.warn("Match history queue full, dropping record for game {}", record.getGameId());
+            }
+        }
+    }
+
+    /**
+     * Retrieves a page of a player's games, newest first.
+     *
+     * @param username The player whose history is read
+     * @param limit    Page size, capped at MAX_PAGE_SIZE
+     * @param cursor   Opaque cursor from the previous page, or null for the first page
+     * @return The page of games and the cursor for the next page, null when there are no more
+     */
+    public MatchHistoryPageDTO getHistory(String username, int limit, String cursor) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        QueryResultPage<MatchRecord> page = matchHistoryRepository.findRecent(username, pageSize, decodeCursor(cursor));
+
+        List<MatchHistoryEntryDTO> entries = page.getResults().stream().map(MatchHistoryEntryDTO::from).toList();
+        Map<String, AttributeValue> lastKey = page.getLastEvaluatedKey();
+        String nextCursor = lastKey == null ? null : encodeCursor(lastKey.get("sortKey").getS());
+        return new MatchHistoryPageDTO(entries, nextCursor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.shutdown();
+        flush();
+    }
+
+    private void flush() {
+        List<MatchRecord> batch = new ArrayList<>();
+        pending.drainTo(batch);
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            matchHistoryRepository.saveAll(batch);
+        } catch (Exception e) {
+            logger.error("Error writing {} match history records: {}", batch.size(), e.getMessage(), e);
+        }
+    }
+
+    private static String encodeCursor(String sortKey) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(sortKey.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid history cursor");
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.cardrace.cardrace_server.service;
+
+import com.cardrace.cardrace_server.model.game.Game;
+import com.cardrace.cardrace_server.model.game.GameCodec;
+import com.cardrace.cardrace_server.repository.GameRepository;
+import com.cardrace.cardrace_server.repository.HotGameTier;
+import com.cardrace.cardrace_server.repository.ResilientGameRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Carries a node's in-memory game state across a restart. On shutdown, once socket traffic has drained, the
+ * games resident on the heap and any writes still queued for Redis are written to a local snapshot file. On
+ * startup, before the socket server accepts connections, the snapshot is loaded back and deleted, so players
+ * reconnecting after a deploy find their games on the heap instead of every game reloading from Redis at once.
+ *
+ * A snapshot is ignored if it is older than {@code node.snapshot.max-age-seconds}, since other nodes may have
+ * served its games meanwhile, or if it was written with a different GameCodec version or fails its checksum.
+ * Each game is stored with its {@link Game#getVersion}, and resident games are restored only if the warm store
+ * still holds the same version, so a game another node moved on within that window is reloaded instead.
+ * Queued writes are ahead of the warm store by definition and are restored as they are.
+ */
+@Service
+public class NodeSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NodeSnapshotService.class);
+
+    static final int MAGIC = 0x43524E53;
+    static final byte FORMAT_VERSION = 2;
+    private static final byte RESIDENT = 0;
+    private static final byte QUEUED_SAVE = 1;
+    private static final byte QUEUED_DELETE = 2;
+
+    private final HotGameTier hotGameTier;
+    private final GameRepository warmGameStore;
+    private final ObjectProvider<ResilientGameRepository> resilientGameRepository;
+    private final Path path;
+    private final long maxAgeMillis;
+
+    public NodeSnapshotService(HotGameTier hotGameTier, @Qualifier("warmGameStore") GameRepository warmGameStore,
+                               ObjectProvider<ResilientGameRepository> resilientGameRepository,
+                               @Value("${node.snapshot.path:data/node-snapshot.bin}") String path,
+                               @Value("${node.snapshot.max-age-seconds:120}") long maxAgeSeconds) {
+        this.hotGameTier = hotGameTier;
+        this.warmGameStore = warmGameStore;
+        this.resilientGameRepository = resilientGameRepository;
+        this.path = Paths.get(path);
+        this.maxAgeMillis = maxAgeSeconds * 1000;
+    }
+
+    /**
+     * Writes the snapshot. Queued writes are first retried once, so only those Redis still cannot take are
+     * carried over.
+     */
+    public void save() {
+        ResilientGameRepository resilient = resilientGameRepository.getIfAvailable();
+        Map<String, Game> queued = new LinkedHashMap<>();
+        if (resilient != null) {
+            resilient.replayPending();
+            queued = resilient.queuedWrites();
+        }
+        Map<String, Game> resident = hotGameTier.residentGames();
+        resident.keySet().removeAll(queued.keySet());
+
+        long start = System.nanoTime();
+        try {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            try (OutputStream file = Files.newOutputStream(temp)) {
+                write(file, resident, queued, System.currentTimeMillis());
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.info("Wrote node snapshot of {} resident games and {} queued writes in {} ms", resident.size(),
+                    queued.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            logger.error("Error writing node snapshot to {}", path, e);
+        }
+    }
+
+    /**
+     * Loads and deletes the snapshot left by the previous run, if any.
+     */
+    @PostConstruct
+    public void restore() {
+        if (!Files.exists(path)) {
+            return;
+        }
+        long start = System.nanoTime();
+        Map<String, Game> resident = new LinkedHashMap<>();
+        Map<String, Game> queued = new LinkedHashMap<>();
+        Map<String, Long> versions = new HashMap<>();
+        try (InputStream file = Files.newInputStream(path)) {
+            if (!read(file, resident, queued, versions, System.currentTimeMillis() - maxAgeMillis)) {
+                return;
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Ignoring unreadable node snapshot {}: {}", path, e.getMessage());
+            return;
+        } finally {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                logger.warn("Error deleting node snapshot {}", path, e);
+            }
+        }
+
+        int dropped = dropChanged(resident, versions);
+        resident.forEach(hotGameTier::put);
+        ResilientGameRepository resilient = resilientGameRepository.getIfAvailable();
+        if (resilient != null) {
+            resilient.requeue(queued);
+        } else if (!queued.isEmpty()) {
+            logger.warn("Dropping {} queued Redis writes from node snapshot: the game store is not Redis", queued.size());
+        }
+        logger.info("Restored {} resident games and {} queued writes from node snapshot in {} ms, dropping {} games "
+                + "changed since", resident.size(), queued.size(), (System.nanoTime() - start) / 1_000_000, dropped);
+    }
+
+    /**
+     * Drops resident games whose version the warm store does not confirm, including those it could not be
+     * asked about; they load from the warm store on next use instead.
+     *
+     * @return The number of games dropped
+     */
+    private int dropChanged(Map<String, Game> resident, Map<String, Long> versions) {
+        if (resident.isEmpty()) {
+            return 0;
+        }
+        Map<String, Long> stored = storedVersions(resident.keySet());
+        int before = resident.size();
+        resident.keySet().removeIf(gameId -> !versions.get(gameId).equals(stored.get(gameId)));
+        return before - resident.size();
+    }
+
+    private Map<String, Long> storedVersions(Collection<String> gameIds) {
+        try {
+            return warmGameStore.findVersions(gameIds);
+        } catch (RuntimeException e) {
+            logger.warn("Could not check node snapshot against the game store: {}", e.getMessage());
+            return Map.of();
+        }
+    }
+
+    static void write(OutputStream target, Map<String, Game> resident, Map<String, Game> queued, long createdAt) throws IOException {
+        CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(target, 64 * 1024), new CRC32());
+        DataOutputStream out = new DataOutputStream(checked);
+        out.writeInt(MAGIC);
+        out.writeByte(FORMAT_VERSION);
+        out.writeByte(GameCodec.VERSION);
+        out.writeLong(createdAt);
+        out.writeInt(resident.size() + queued.size());
+        for (Map.Entry<String, Game> entry : resident.entrySet()) {
+            writeEntry(out, RESIDENT, entry.getKey(), entry.getValue());
+        }
+        for (Map.Entry<String, Game> entry : queued.entrySet()) {
+            writeEntry(out, entry.getValue() == null ? QUEUED_DELETE : QUEUED_SAVE, entry.getKey(), entry.getValue());
+        }
+        out.flush();
+        long checksum = checked.getChecksum().getValue();
+        out.writeLong(checksum);
+        out.flush();
+    }
+
+    static boolean read(InputStream source, Map<String, Game> resident, Map<String, Game> queued, Map<String, Long> versions,
+                        long notBefore) throws IOException {
+        CheckedInputStream checked = new CheckedInputStream(new BufferedInputStream(source, 64 * 1024), new CRC32());
+        DataInputStream in = new DataInputStream(checked);
+        if (in.readInt() != MAGIC || in.readByte() != FORMAT_VERSION || in.readByte() != GameCodec.VERSION) {
+            logger.warn("Ignoring node snapshot written by an incompatible version");
+            return false;
+        }
+        long createdAt = in.readLong();
+        if (createdAt < notBefore) {
+            logger.warn("Ignoring node snapshot taken {} s ago", (System.currentTimeMillis() - createdAt) / 1000);
+            return false;
+        }
+        Map<String, Game> readResident = new LinkedHashMap<>();
+        Map<String, Game> readQueued = new LinkedHashMap<>();
+        Map<String, Long> readVersions = new HashMap<>();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            byte kind = in.readByte();
+            String gameId = in.readUTF();
+            Game game = null;
+            if (kind != QUEUED_DELETE) {
+                byte[] bytes = new byte[in.readInt()];
+                in.readFully(bytes);
+                game = GameCodec.decode(bytes);
+                readVersions.put(gameId, in.readLong());
+            }
+            (kind == RESIDENT ? readResident : readQueued).put(gameId, game);
+        }
+        long expected = checked.getChecksum().getValue();
+        if (in.readLong() != expected) {
+            logger.warn("Ignoring node snapshot with a bad checksum");
+            return false;
+        }
+        resident.putAll(readResident);
+        queued.putAll(readQueued);
+        versions.putAll(readVersions);
+        return true;
+    }
+
+    private static void writeEntry(DataOutputStream out, byte kind, String gameId, Game game) throws IOException {
+        out.writeByte(kind);
+        out.writeUTF(gameId);
+        if (game != null) {
+            byte[] bytes = GameCodec.encode(game);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+            out.writeLong(game.getVersion());
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.cardrace.cardrace_server.service;
+
+import com.cardrace.cardrace_server.dto.UserProfileDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+public class UserProfileCache {
+
+    private final long ttlMillis;
+    private final Map<String, Entry> entries;
+
+    public UserProfileCache(@Value("${users.profile-cache.max-entries:10000}") int maxEntries,
+                            @Value("${users.profile-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.ttlMillis = ttlSeconds * 1000;
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * Returns the cached profile for a user, or null if it is missing or has expired.
+     * The TTL bounds staleness for counters updated by other nodes.
+     *
+     * @param username The username to look up
+     * @return The cached profile projection, or null
+     */
+    public UserProfileDTO get(String username) {
+        Entry entry = entries.get(username);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt < System.currentTimeMillis()) {
+            entries.remove(username, entry);
+            return null;
+        }
+        return entry.profile;
+    }
+
+    public void put(UserProfileDTO profile) {
+        entries.put(profile.username(), new Entry(profile, System.currentTimeMillis() + ttlMillis));
+    }
+
+    public void invalidate(String username) {
+        entries.remove(username);
+    }
+
+    private record Entry(UserProfileDTO profile, long expiresAt) {}
+}
@@ -1,20 +1,28 @@
 package com.cardrace.cardrace_server.service;
 
+import com.cardrace.cardrace_server.dto.UserProfileDTO;
 import com.cardrace.cardrace_server.model.User;
+import com.cardrace.cardrace_server.repository.AsyncUserRepository;
 import com.cardrace.cardrace_server.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class UserService {
 
     private final UserRepository userRepository;
+    private final AsyncUserRepository asyncUserRepository;
+    private final UserProfileCache profileCache;
 
     @Autowired
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, AsyncUserRepository asyncUserRepository, UserProfileCache profileCache) {
         this.userRepository = userRepository;
+        this.asyncUserRepository = asyncUserRepository;
+        this.profileCache = profileCache;
     }
 
     public User saveUser(User user) {
@@ -31,18 +39,35 @@ public class UserService {
 
     public void incrementGamesPlayed(String userId) {
         userRepository.incrementGamesPlayed(userId);
+        profileCache.invalidate(userId);
     }
 
     public void incrementWins(String userId) {
         userRepository.incrementWins(userId);
+        profileCache.invalidate(userId);
     }
 
     public void incrementTurns(String userId, int turnsTaken) {
         userRepository.incrementTurns(userId, turnsTaken);
+        profileCache.invalidate(userId);
     }
 
-    public User getUserProfile(String username) {
+    public CompletableFuture<Void> recordGameResults(Map<String, Integer> turnsByUsername, String winner) {
+        return asyncUserRepository.recordGameResults(turnsByUsername, winner)
+                .whenComplete((ignored, error) -> turnsByUsername.keySet().forEach(profileCache::invalidate));
+    }
+
+    public UserProfileDTO getUserProfile(String username) {
+        UserProfileDTO cached = profileCache.get(username);
+        if (cached != null) {
+            return cached;
+        }
         Optional<User> user = userRepository.findByUsername(username);
-        return user.orElse(null);
+        if (user.isEmpty()) {
+            return null;
+        }
+        UserProfileDTO profile = UserProfileDTO.from(user.get());
+        profileCache.put(profile);
+        return profile;
     }
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.cardrace.cardrace_server.simulation;
+
+import com.cardrace.cardrace_server.model.game.Card;
+import com.cardrace.cardrace_server.model.game.Types;
+
+import java.util.Map;
+
+/**
+ * A move the engine will accept in the current position, with what it does for the mover.
+ *
+ * @param card The card played from the hand
+ * @param substitute The card a Joker stands in for, or null
+ * @param distances Ordered marble to distance mapping, as Game.applyMove takes it
+ * @param progress Spaces the mover's marbles advance around their track, less any they go back
+ * @param captures Opposing marbles sent back to their reserves
+ * @param activates Whether a marble enters the board from the reserve
+ * @param entersSafeZone Whether a marble ends the move in its safe zone
+ */
+public record CandidateMove(Card card, Card substitute, Map<Integer, Integer> distances, int progress, int captures,
+                            boolean activates, boolean entersSafeZone) {
+
+    public Types.CardValue actingValue() {
+        return substitute != null ? substitute.cardValue : card.cardValue;
+    }
+}
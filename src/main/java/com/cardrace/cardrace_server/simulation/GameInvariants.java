@@ -0,0 +1,100 @@
+package com.cardrace.cardrace_server.simulation;
+
+import com.cardrace.cardrace_server.model.game.Board;
+import com.cardrace.cardrace_server.model.game.Game;
+import com.cardrace.cardrace_server.model.game.Hand;
+import com.cardrace.cardrace_server.model.game.Marble;
+import com.cardrace.cardrace_server.model.game.Types;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Consistency checks over a game in progress. Every marble must be in exactly one place, on the track, in
+ * its own color's safe zone or in reserve; no hand may hold more cards than the game deals;
+ * a completed game's winner must have a full safe zone; and the state hash and counters kept by the mutators
+ * must equal those computed from scratch, so a replay that bypassed them is caught.
+ */
+public final class GameInvariants {
+
+    private GameInvariants() {}
+
+    /**
+     * @param game The game to check
+     * @return A description of each violation found; empty if the game is consistent
+     */
+    public static List<String> check(Game game) {
+        List<String> violations = new ArrayList<>();
+        Board board = game.getBoard();
+        int[] seen = new int[board.numMarbles()];
+
+        for (int position = 0; position < board.getBoardSize(); position++) {
+            int marbleId = board.marbleAt(position);
+            if (marbleId != Board.NONE && count(violations, seen, marbleId, "space " + position)) {
+                seen[marbleId]++;
+            }
+        }
+        for (int seat = 0; seat < board.numSeats(); seat++) {
+            Types.Color color = board.seatColor(seat);
+            int filled = 0;
+            for (int slot = 0; slot < Board.SAFE_ZONE_SIZE; slot++) {
+                int marbleId = board.safeZoneSlot(color, slot);
+                if (marbleId != Board.NONE && count(violations, seen, marbleId, color + " safe zone")) {
+                    seen[marbleId]++;
+                    filled++;
+                    checkColor(violations, board.getMarble(marbleId), color, "safe zone");
+                }
+            }
+            if (board.countSafeMarbles(color) != filled) {
+                violations.add(color + " safe zone counts " + board.countSafeMarbles(color) + " marbles but holds " + filled);
+            }
+        }
+        for (int marbleId = 0; marbleId < seen.length; marbleId++) {
+            if (board.inReserve(marbleId)) {
+                seen[marbleId]++;
+            }
+        }
+        for (int marbleId = 0; marbleId < seen.length; marbleId++) {
+            if (seen[marbleId] == 0) {
+                violations.add("Marble " + marbleId + " is lost");
+            } else if (seen[marbleId] > 1) {
+                violations.add("Marble " + marbleId + " is in " + seen[marbleId] + " places");
+            }
+        }
+
+        int maxHandSize = Types.getHandSize(game.numPlayers);
+        boolean handsEmpty = true;
+        for (String player : game.getPlayers()) {
+            Hand hand = game.getPlayerHand(player);
+            if (hand != null && hand.getNumCards() > maxHandSize) {
+                violations.add(player + " holds " + hand.getNumCards() + " cards");
+            }
+            handsEmpty &= hand == null || hand.getNumCards() == 0;
+        }
+        if (game.timeToDeal() != handsEmpty) {
+            violations.add("Game says it is " + (handsEmpty ? "not " : "") + "time to deal");
+        }
+        if (game.getStatus() == Types.GameStatus.COMPLETE && (game.getWinner() == null || !game.hasWon(game.getWinner()))) {
+            violations.add("Game is complete but " + game.getWinner() + " has not filled their safe zone");
+        }
+        if (game.getStateHash() != game.computeStateHash()) {
+            violations.add("State hash " + Long.toHexString(game.getStateHash()) + " does not match the state, which hashes to "
+                    + Long.toHexString(game.computeStateHash()));
+        }
+        return violations;
+    }
+
+    private static boolean count(List<String> violations, int[] seen, int marbleId, String place) {
+        if (marbleId < 0 || marbleId >= seen.length) {
+            violations.add("Unknown marble " + marbleId + " in " + place);
+            return false;
+        }
+        return true;
+    }
+
+    private static void checkColor(List<String> violations, Marble marble, Types.Color color, String place) {
+        if (marble.getColor() != color) {
+            violations.add("Marble " + marble.id + " of " + marble.getColor() + " is in the " + color + " " + place);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.cardrace.cardrace_server.simulation;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+/**
+ * Monte Carlo tree search over the game engine, for bots and hints. Hidden cards are handled by searching
+ * over many deals of them: every iteration plays from a fresh {@link com.cardrace.cardrace_server.model.game.Game#determinize}
+ * copy, so the searching player's hand and the board are always exact while opponents' hands and the deck
+ * are guessed anew, and moves are matched across deals by their {@link MoveKey}. Playouts run the game
+ * engine itself on those copies, through Game.playTurn as real moves do, with no serialization involved.
+ *
+ * Searches are parallelized at the root: each worker grows a tree of its own on the engine's fork-join pool
+ * and the workers' visit counts are summed to pick the move, so workers share nothing while they search.
+ */
+public class MctsEngine implements AutoCloseable {
+
+    private final ForkJoinPool pool;
+    private final int parallelism;
+    private final double exploration;
+    private final PlayerStrategy playoutStrategy;
+    private final int maxPlayoutTurns;
+    private final int maxNodesPerSearch;
+
+    public MctsEngine(int parallelism) {
+        this(parallelism, 0.7, PlayerStrategy.GREEDY, 1000, 100_000);
+    }
+
+    /**
+     * @param parallelism Workers per search, each on its own pool thread
+     * @param exploration Weight of the exploration term of the upper confidence bound
+     * @param playoutStrategy How every player moves once a playout leaves the tree
+     * @param maxPlayoutTurns Turns after which a playout is scored by safe-zone progress instead of a winner
+     * @param maxNodesPerSearch Nodes a worker may add to its tree in one search
+     */
+    public MctsEngine(int parallelism, double exploration, PlayerStrategy playoutStrategy, int maxPlayoutTurns,
+                      int maxNodesPerSearch) {
+        this.parallelism = parallelism;
+        this.exploration = exploration;
+        this.playoutStrategy = playoutStrategy;
+        this.maxPlayoutTurns = maxPlayoutTurns;
+        this.maxNodesPerSearch = maxNodesPerSearch;
+        this.pool = new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("mcts-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * @param player The player the search plays for
+     * @return A search whose tree is kept between the player's turns
+     */
+    public MctsSearch newSearch(String player) {
+        return new MctsSearch(this, player);
+    }
+
+    public int parallelism() {
+        return parallelism;
+    }
+
+    double exploration() {
+        return exploration;
+    }
+
+    PlayerStrategy playoutStrategy() {
+        return playoutStrategy;
+    }
+
+    int maxPlayoutTurns() {
+        return maxPlayoutTurns;
+    }
+
+    int maxNodesPerSearch() {
+        return maxNodesPerSearch;
+    }
+
+    ForkJoinPool pool() {
+        return pool;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+}
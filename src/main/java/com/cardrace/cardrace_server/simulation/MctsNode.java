@@ -0,0 +1,42 @@
+package com.cardrace.cardrace_server.simulation;
+
+import com.cardrace.cardrace_server.model.game.Types;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A node of an information set search tree: the move that leads to it and the statistics gathered over the
+ * deals in which that move was available. Each tree belongs to one search worker, so nodes are not locked.
+ */
+final class MctsNode {
+
+    final MoveKey move;
+    final Types.Color mover;
+    final List<MctsNode> children = new ArrayList<>(4);
+    int visits;
+    int availability;
+    double reward;
+
+    MctsNode(MoveKey move, Types.Color mover) {
+        this.move = move;
+        this.mover = mover;
+    }
+
+    MctsNode child(MoveKey key) {
+        for (MctsNode child : children) {
+            if (child.move.equals(key)) {
+                return child;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Upper confidence bound for the mover, counted against the number of times the move could have been
+     * played rather than the parent's visits, since a move is missing from the deals that lack its card.
+     */
+    double bound(double exploration) {
+        return reward / visits + exploration * Math.sqrt(Math.log(availability) / visits);
+    }
+}
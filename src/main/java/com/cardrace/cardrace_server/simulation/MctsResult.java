@@ -0,0 +1,22 @@
+package com.cardrace.cardrace_server.simulation;
+
+/**
+ * The outcome of one search.
+ *
+ * @param move The move to play, or null if the player can only forfeit
+ * @param visits How often the search played the chosen move
+ * @param playouts Playouts completed across all workers
+ * @param reusedVisits Visits the tree carried over from earlier searches
+ * @param workers Workers that searched in parallel
+ * @param elapsedNanos Wall-clock time spent searching
+ */
+public record MctsResult(CandidateMove move, int visits, long playouts, long reusedVisits, int workers, long elapsedNanos) {
+
+    public double playoutsPerSecond() {
+        return elapsedNanos == 0 ? 0 : playouts * 1e9 / elapsedNanos;
+    }
+
+    public double playoutsPerSecondPerCore() {
+        return playoutsPerSecond() / workers;
+    }
+}
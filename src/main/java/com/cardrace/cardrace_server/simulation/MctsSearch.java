@@ -0,0 +1,292 @@
+package com.cardrace.cardrace_server.simulation;
+
+import com.cardrace.cardrace_server.exceptions.IllegalMoveException;
+import com.cardrace.cardrace_server.model.game.Game;
+import com.cardrace.cardrace_server.model.game.Types;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One player's search, kept for the length of a game so each turn starts from the tree the previous turns
+ * grew. Moves played in the game, the player's own and everyone else's, are reported through
+ * {@link #advance}, and the next search descends to the subtree they lead to. If a move was never explored,
+ * or the tree no longer matches whose turn it is, the search starts from an empty tree instead.
+ *
+ * {@link #advance} may be called from any thread; searches are run one at a time.
+ */
+public class MctsSearch {
+
+    private final MctsEngine engine;
+    private final String player;
+    private final Queue<MoveKey> played = new ConcurrentLinkedQueue<>();
+    private final SplittableRandom seeds = new SplittableRandom();
+    private MctsNode[] roots;
+
+    MctsSearch(MctsEngine engine, String player) {
+        this.engine = engine;
+        this.player = player;
+        this.roots = newRoots(engine.parallelism());
+    }
+
+    /**
+     * Records a move played in the game since the last search.
+     */
+    public void advance(MoveKey move) {
+        played.add(move);
+    }
+
+    /**
+     * Searches until the budget is spent and picks the move played most often across all workers. The game
+     * is only read, and must not change until the search returns.
+     *
+     * @param game The game, with the search's player to move
+     * @param budgetMillis Wall-clock time to search for
+     * @return The chosen move and the search's statistics
+     */
+    public synchronized MctsResult search(Game game, long budgetMillis) {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        descend(game.getCurrentPlayerColor());
+        long reusedVisits = 0;
+        for (MctsNode root : roots) {
+            reusedVisits += root.visits;
+        }
+
+        List<ForkJoinTask<Long>> workers = new ArrayList<>(roots.length);
+        for (MctsNode root : roots) {
+            Worker worker = new Worker(root, game, nextSeed(), deadline);
+            workers.add(engine.pool().submit(worker::run));
+        }
+        long playouts = 0;
+        try {
+            for (ForkJoinTask<Long> worker : workers) {
+                playouts += worker.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Search interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Search failed", e.getCause());
+        }
+        return choose(game, playouts, reusedVisits, System.nanoTime() - start);
+    }
+
+    private MctsResult choose(Game game, long playouts, long reusedVisits, long elapsedNanos) {
+        List<CandidateMove> moves = MoveGenerator.legalMoves(game, player);
+        if (moves.isEmpty()) {
+            return new MctsResult(null, 0, playouts, reusedVisits, roots.length, elapsedNanos);
+        }
+        Map<MoveKey, Integer> visits = new HashMap<>();
+        for (MctsNode root : roots) {
+            for (MctsNode child : root.children) {
+                visits.merge(child.move, child.visits, Integer::sum);
+            }
+        }
+        CandidateMove best = null;
+        int bestVisits = -1;
+        for (CandidateMove move : moves) {
+            int moveVisits = visits.getOrDefault(MoveKey.of(move), 0);
+            if (moveVisits > bestVisits) {
+                best = move;
+                bestVisits = moveVisits;
+            }
+        }
+        if (bestVisits == 0) {
+            best = PlayerStrategy.GREEDY.choose(moves, new SplittableRandom(nextSeed()));
+        }
+        return new MctsResult(best, bestVisits, playouts, reusedVisits, roots.length, elapsedNanos);
+    }
+
+    /**
+     * Moves each worker's root down the moves played since the last search. A worker whose tree never
+     * explored one of them, or whose tree expects another player to move, starts again from an empty root.
+     */
+    private void descend(Types.Color toMove) {
+        MoveKey move;
+        while ((move = played.poll()) != null) {
+            for (int i = 0; i < roots.length; i++) {
+                MctsNode next = roots[i].child(move);
+                roots[i] = next != null ? next : new MctsNode(null, null);
+            }
+        }
+        for (int i = 0; i < roots.length; i++) {
+            List<MctsNode> children = roots[i].children;
+            if (!children.isEmpty() && children.get(0).mover != toMove) {
+                roots[i] = new MctsNode(null, null);
+            }
+        }
+    }
+
+    private long nextSeed() {
+        return seeds.nextLong();
+    }
+
+    private static MctsNode[] newRoots(int count) {
+        MctsNode[] roots = new MctsNode[count];
+        for (int i = 0; i < count; i++) {
+            roots[i] = new MctsNode(null, null);
+        }
+        return roots;
+    }
+
+    /**
+     * Grows one tree until the deadline: each iteration deals the hidden cards afresh, descends by upper
+     * confidence bound among the moves that deal allows, adds one node, plays the game out and scores it.
+     */
+    private final class Worker {
+        private final MctsNode root;
+        private final Game game;
+        private final SplittableRandom random;
+        private final Random deckRandom;
+        private final long deadline;
+        private final List<MctsNode> path = new ArrayList<>();
+        private final List<CandidateMove> unexplored = new ArrayList<>();
+        private final double[] rewards = new double[Types.Color.values().length];
+        private int nodes;
+
+        Worker(MctsNode root, Game game, long seed, long deadline) {
+            this.root = root;
+            this.game = game;
+            this.random = new SplittableRandom(seed);
+            this.deckRandom = new Random(random.nextLong());
+            this.deadline = deadline;
+        }
+
+        long run() {
+            long playouts = 0;
+            do {
+                if (iterate()) {
+                    playouts++;
+                }
+            } while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted());
+            return playouts;
+        }
+
+        private boolean iterate() {
+            Game state = game.determinize(player, deckRandom);
+            path.clear();
+            path.add(root);
+            try {
+                select(state);
+                playOut(state);
+            } catch (IllegalMoveException e) {
+                return false;
+            }
+            score(state);
+            for (MctsNode node : path) {
+                node.visits++;
+                if (node.mover != null) {
+                    node.reward += rewards[node.mover.ordinal()];
+                }
+            }
+            return true;
+        }
+
+        private void select(Game state) throws IllegalMoveException {
+            MctsNode node = root;
+            while (state.getStatus() == Types.GameStatus.IN_PROGRESS) {
+                String mover = state.getCurrentPlayer();
+                Types.Color color = state.getCurrentPlayerColor();
+                List<CandidateMove> moves = MoveGenerator.legalMoves(state, mover);
+                if (moves.isEmpty()) {
+                    MctsNode next = node.child(MoveKey.FORFEIT);
+                    if (next == null) {
+                        if (nodes >= engine.maxNodesPerSearch()) {
+                            return;
+                        }
+                        next = new MctsNode(MoveKey.FORFEIT, color);
+                        node.children.add(next);
+                        nodes++;
+                    }
+                    next.availability++;
+                    state.forfeitTurn(mover);
+                    path.add(next);
+                    if (next.visits == 0) {
+                        return;
+                    }
+                    node = next;
+                    continue;
+                }
+
+                MctsNode best = null;
+                CandidateMove bestMove = null;
+                double bestBound = Double.NEGATIVE_INFINITY;
+                unexplored.clear();
+                for (CandidateMove move : moves) {
+                    MctsNode child = node.child(MoveKey.of(move));
+                    if (child == null) {
+                        unexplored.add(move);
+                        continue;
+                    }
+                    child.availability++;
+                    if (child.visits == 0) {
+                        continue;
+                    }
+                    double bound = child.bound(engine.exploration());
+                    if (bound > bestBound) {
+                        best = child;
+                        bestMove = move;
+                        bestBound = bound;
+                    }
+                }
+                if (!unexplored.isEmpty() && nodes < engine.maxNodesPerSearch()) {
+                    CandidateMove move = unexplored.get(random.nextInt(unexplored.size()));
+                    MctsNode child = new MctsNode(MoveKey.of(move), color);
+                    child.availability = 1;
+                    node.children.add(child);
+                    nodes++;
+                    state.playTurn(mover, move.card(), move.substitute(), move.distances());
+                    path.add(child);
+                    return;
+                }
+                if (best == null) {
+                    return;
+                }
+                state.playTurn(mover, bestMove.card(), bestMove.substitute(), bestMove.distances());
+                path.add(best);
+                node = best;
+            }
+        }
+
+        private void playOut(Game state) throws IllegalMoveException {
+            PlayerStrategy strategy = engine.playoutStrategy();
+            for (int turn = 0; state.getStatus() == Types.GameStatus.IN_PROGRESS && turn < engine.maxPlayoutTurns(); turn++) {
+                String mover = state.getCurrentPlayer();
+                List<CandidateMove> moves = MoveGenerator.legalMoves(state, mover);
+                if (moves.isEmpty()) {
+                    state.forfeitTurn(mover);
+                } else {
+                    CandidateMove move = strategy.choose(moves, random);
+                    state.playTurn(mover, move.card(), move.substitute(), move.distances());
+                }
+            }
+        }
+
+        /**
+         * A win scores 1 for the winner and nothing for the rest. A playout cut off before anyone won scores
+         * each player's share of marbles in their safe zone, at most half a win.
+         */
+        private void score(Game state) {
+            Arrays.fill(rewards, 0);
+            if (state.getStatus() == Types.GameStatus.COMPLETE) {
+                rewards[state.getPlayerColor(state.getWinner()).ordinal()] = 1;
+                return;
+            }
+            for (String other : state.getPlayers()) {
+                Types.Color color = state.getPlayerColor(other);
+                rewards[color.ordinal()] = state.getBoard().countSafeMarbles(color) / 8.0;
+            }
+        }
+    }
+}
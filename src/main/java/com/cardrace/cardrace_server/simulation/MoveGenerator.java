@@ -0,0 +1,270 @@
+package com.cardrace.cardrace_server.simulation;
+
+import com.cardrace.cardrace_server.model.game.Board;
+import com.cardrace.cardrace_server.model.game.Card;
+import com.cardrace.cardrace_server.model.game.Game;
+import com.cardrace.cardrace_server.model.game.Hand;
+import com.cardrace.cardrace_server.model.game.Marble;
+import com.cardrace.cardrace_server.model.game.Types;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lists the moves a player can make with their hand. Paths are traced over the board the same way
+ * Board.moveMarble walks them, but without changing it, so every listed move is one the engine accepts.
+ * Players move only their own marbles, and a Jack swaps one of them with an opponent's marble on the track.
+ * A Seven is played on one marble or split over two; splits whose paths interfere are left out.
+ */
+public final class MoveGenerator {
+
+    private static final Types.CardValue[] SUBSTITUTES = Arrays.stream(Types.CardValue.values())
+            .filter(value -> value != Types.CardValue.JOKER)
+            .toArray(Types.CardValue[]::new);
+
+    private static final class Walk {
+        boolean legal;
+        boolean safe;
+        boolean backwards;
+        int from;
+        int steps;
+        int destination;
+        int captured;
+        int progress;
+
+        boolean covers(int position, int boardSize) {
+            for (int i = 1; i <= steps; i++) {
+                int step = backwards ? (from - i + boardSize * 2) % boardSize : (from + i) % boardSize;
+                if (step == position) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private MoveGenerator() {}
+
+    /**
+     * @param game A game in progress
+     * @param username The player to move
+     * @return Every distinct move the player's hand allows; empty if the player can only forfeit
+     */
+    public static List<CandidateMove> legalMoves(Game game, String username) {
+        return legalMoves(game.getBoard(), game.getPlayerColor(username), game.getPlayerHand(username));
+    }
+
+    /**
+     * Lists moves from the parts of a game a client sees, such as a player's game state.
+     *
+     * @param board The board
+     * @param color The color of the player to move
+     * @param hand The player's hand
+     * @return Every distinct move the hand allows; empty if the player can only forfeit
+     */
+    public static List<CandidateMove> legalMoves(Board board, Types.Color color, Hand hand) {
+        List<CandidateMove> moves = new ArrayList<>();
+        if (color == null || hand == null) {
+            return moves;
+        }
+        int[] track = trackPositions(board);
+        List<Integer> own = new ArrayList<>(4);
+        List<Integer> opponents = new ArrayList<>();
+        for (int marbleId = 0; marbleId < track.length; marbleId++) {
+            if (track[marbleId] >= 0) {
+                (board.getMarble(marbleId).getColor() == color ? own : opponents).add(marbleId);
+            }
+        }
+
+        Set<Card> seen = new HashSet<>();
+        for (Card card : hand.getCards()) {
+            if (!seen.add(card)) {
+                continue;
+            }
+            if (card.cardValue == Types.CardValue.JOKER) {
+                for (Types.CardValue value : SUBSTITUTES) {
+                    addMoves(moves, board, track, color, own, opponents, card, Card.of(value, card.cardSuit));
+                }
+            } else {
+                addMoves(moves, board, track, color, own, opponents, card, null);
+            }
+        }
+        return moves;
+    }
+
+    private static void addMoves(List<CandidateMove> moves, Board board, int[] track, Types.Color color, List<Integer> own,
+                                 List<Integer> opponents, Card card, Card substitute) {
+        Types.CardValue value = substitute != null ? substitute.cardValue : card.cardValue;
+        switch (value) {
+            case JACK -> {
+                for (int marbleId : own) {
+                    for (int targetId : opponents) {
+                        int progress = progress(board, color, track[targetId]) - progress(board, color, track[marbleId]);
+                        moves.add(new CandidateMove(card, substitute, distances(marbleId, 0, targetId, 0), progress, 0, false, false));
+                    }
+                }
+            }
+            case SEVEN -> {
+                for (int marbleId : own) {
+                    addSingle(moves, board, track, color, card, substitute, marbleId, 7, true);
+                }
+                for (int first : own) {
+                    for (int second : own) {
+                        if (first != second) {
+                            for (int split = 1; split < 7; split++) {
+                                addSplit(moves, board, track, color, card, substitute, first, split, second, 7 - split);
+                            }
+                        }
+                    }
+                }
+            }
+            default -> {
+                if (value == Types.CardValue.ACE || value == Types.CardValue.KING) {
+                    addActivation(moves, board, track, color, card, substitute);
+                }
+                for (int distance = -4; distance <= 13; distance++) {
+                    if (distance != 0 && Types.isValidCardValue(value, distance)) {
+                        for (int marbleId : own) {
+                            addSingle(moves, board, track, color, card, substitute, marbleId, distance, false);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static void addActivation(List<CandidateMove> moves, Board board, int[] track, Types.Color color, Card card,
+                                      Card substitute) {
+        int reserveId = board.firstInReserve(color);
+        if (reserveId == Board.NONE) {
+            return;
+        }
+        int tenantId = board.marbleAt(board.getStartPosition(color));
+        int captures = 0;
+        if (tenantId != Board.NONE) {
+            Marble tenant = board.getMarble(tenantId);
+            if (tenant.getColor() == color && tenant.getState() == Types.MarbleState.PROTECTED) {
+                return;
+            }
+            captures = tenant.getColor() != color ? 1 : 0;
+        }
+        moves.add(new CandidateMove(card, substitute, distances(reserveId, 0), 0, captures, true, false));
+    }
+
+    private static void addSingle(List<CandidateMove> moves, Board board, int[] track, Types.Color color, Card card,
+                                  Card substitute, int marbleId, int distance, boolean bully) {
+        Walk walk = walk(board, track, color, marbleId, distance, bully);
+        if (walk.legal) {
+            moves.add(new CandidateMove(card, substitute, distances(marbleId, distance), walk.progress,
+                    Integer.bitCount(walk.captured), false, walk.safe));
+        }
+    }
+
+    private static void addSplit(List<CandidateMove> moves, Board board, int[] track, Types.Color color, Card card,
+                                 Card substitute, int first, int firstDistance, int second, int secondDistance) {
+        Walk firstWalk = walk(board, track, color, first, firstDistance, true);
+        if (!firstWalk.legal || firstWalk.covers(track[second], board.getBoardSize())) {
+            return;
+        }
+        Walk secondWalk = walk(board, track, color, second, secondDistance, true);
+        if (!secondWalk.legal || firstWalk.safe == secondWalk.safe && firstWalk.destination == secondWalk.destination) {
+            return;
+        }
+        moves.add(new CandidateMove(card, substitute, distances(first, firstDistance, second, secondDistance),
+                firstWalk.progress + secondWalk.progress, Integer.bitCount(firstWalk.captured | secondWalk.captured),
+                false, firstWalk.safe || secondWalk.safe));
+    }
+
+    /**
+     * Traces a move as Board.moveMarble makes it. Captured opposing marbles are collected as a bit set of
+     * marble IDs, so the two halves of a split Seven do not count a marble twice.
+     */
+    private static Walk walk(Board board, int[] track, Types.Color color, int marbleId, int distance, boolean bully) {
+        Walk walk = new Walk();
+        Marble marble = board.getMarble(marbleId);
+        int boardSize = board.getBoardSize();
+        int start = board.getStartPosition(marble.getColor());
+        int current = track[marbleId];
+        int remaining = Math.abs(distance);
+        walk.from = current;
+        walk.backwards = distance < 0;
+
+        while (remaining > 0) {
+            if (!walk.backwards && current == start && marble.getState() != Types.MarbleState.PROTECTED) {
+                int slot = remaining - 1;
+                if (slot < Board.SAFE_ZONE_SIZE && board.safeZoneSlot(marble.getColor(), slot) == Board.NONE) {
+                    walk.legal = true;
+                    walk.safe = true;
+                    walk.destination = slot;
+                    walk.progress = boardSize + slot - progress(board, color, walk.from);
+                    return walk;
+                }
+            }
+            current = walk.backwards ? (current - 1 + boardSize) % boardSize : (current + 1) % boardSize;
+            remaining--;
+            walk.steps++;
+            if (bully) {
+                capture(board, walk, color, board.marbleAt(current));
+            }
+        }
+        int landingId = board.marbleAt(current);
+        if (landingId != Board.NONE) {
+            if (board.isProtected(landingId)) {
+                return walk;
+            }
+            capture(board, walk, color, landingId);
+        }
+        walk.legal = true;
+        walk.destination = current;
+        walk.progress = progress(board, color, current) - progress(board, color, walk.from);
+        return walk;
+    }
+
+    private static void capture(Board board, Walk walk, Types.Color color, int marbleId) {
+        if (marbleId == Board.NONE) {
+            return;
+        }
+        Marble marble = board.getMarble(marbleId);
+        if (marble.getState() != Types.MarbleState.PROTECTED && marble.getColor() != color) {
+            walk.captured |= 1 << marbleId;
+        }
+    }
+
+    /**
+     * @return How far along its color's lap a track position lies, counting from the start space
+     */
+    private static int progress(Board board, Types.Color color, int position) {
+        int boardSize = board.getBoardSize();
+        return (position - board.getStartPosition(color) + boardSize) % boardSize;
+    }
+
+    private static int[] trackPositions(Board board) {
+        int[] track = new int[board.numMarbles()];
+        Arrays.fill(track, -1);
+        for (int position = 0; position < board.getBoardSize(); position++) {
+            int marbleId = board.marbleAt(position);
+            if (marbleId != Board.NONE) {
+                track[marbleId] = position;
+            }
+        }
+        return track;
+    }
+
+    private static Map<Integer, Integer> distances(int marbleId, int distance) {
+        Map<Integer, Integer> distances = new LinkedHashMap<>(2);
+        distances.put(marbleId, distance);
+        return distances;
+    }
+
+    private static Map<Integer, Integer> distances(int first, int firstDistance, int second, int secondDistance) {
+        Map<Integer, Integer> distances = new LinkedHashMap<>(4);
+        distances.put(first, firstDistance);
+        distances.put(second, secondDistance);
+        return distances;
+    }
+}
@@ -0,0 +1,66 @@
+package com.cardrace.cardrace_server.simulation;
+
+import com.cardrace.cardrace_server.model.game.Card;
+import com.cardrace.cardrace_server.model.game.Move;
+import com.cardrace.cardrace_server.model.game.Types;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Identifies a move independently of the position it is played in, so the same move found in different
+ * deals of the hidden cards meets the same search tree node. Two copies of a card give the same key.
+ *
+ * @param card The value of the card played, or null for a forfeit
+ * @param suit The suit of the card played, or null for a forfeit
+ * @param substitute The value a Joker stands in for, or null
+ * @param distances Marble and distance pairs in the order they are played
+ */
+public record MoveKey(Types.CardValue card, Types.CardSuit suit, Types.CardValue substitute, int[] distances) {
+
+    public static final MoveKey FORFEIT = new MoveKey(null, null, null, new int[0]);
+
+    public static MoveKey of(CandidateMove move) {
+        return of(move.card(), move.substitute(), move.distances());
+    }
+
+    public static MoveKey of(Card card, Card substitute, Map<Integer, Integer> distances) {
+        int[] pairs = new int[distances.size() * 2];
+        int i = 0;
+        for (Map.Entry<Integer, Integer> entry : distances.entrySet()) {
+            pairs[i++] = entry.getKey();
+            pairs[i++] = entry.getValue();
+        }
+        return new MoveKey(card.cardValue, card.cardSuit, substitute == null ? null : substitute.cardValue, pairs);
+    }
+
+    public static MoveKey of(Move move) {
+        int[] pairs = new int[move.size() * 2];
+        for (int i = 0; i < move.size(); i++) {
+            pairs[i * 2] = move.marbleId(i);
+            pairs[i * 2 + 1] = move.distance(i);
+        }
+        Card card = move.getCard();
+        Card substitute = move.getSubstitute();
+        return new MoveKey(card.cardValue, card.cardSuit, substitute == null ? null : substitute.cardValue, pairs);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof MoveKey other && card == other.card && suit == other.suit
+                && substitute == other.substitute && Arrays.equals(distances, other.distances);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 31 * (card == null ? 0 : card.hashCode()) + (suit == null ? 0 : suit.hashCode());
+        hash = 31 * hash + (substitute == null ? 0 : substitute.hashCode());
+        return 31 * hash + Arrays.hashCode(distances);
+    }
+
+    @Override
+    public String toString() {
+        return this == FORFEIT || card == null ? "forfeit"
+                : card + (substitute == null ? "" : " as " + substitute) + " " + Arrays.toString(distances);
+    }
+}
@@ -0,0 +1,55 @@
+package com.cardrace.cardrace_server.simulation;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * How a simulated player picks among its legal moves.
+ */
+public enum PlayerStrategy {
+
+    /**
+     * Any legal move, uniformly.
+     */
+    RANDOM {
+        @Override
+        public CandidateMove choose(List<CandidateMove> moves, SplittableRandom random) {
+            return moves.get(random.nextInt(moves.size()));
+        }
+    },
+
+    /**
+     * The move scoring best for the mover right now: reaching the safe zone first, then sending opposing
+     * marbles home, then bringing a marble out, then distance gained. Ties are broken at random.
+     */
+    GREEDY {
+        @Override
+        public CandidateMove choose(List<CandidateMove> moves, SplittableRandom random) {
+            CandidateMove best = null;
+            int bestScore = Integer.MIN_VALUE;
+            int ties = 0;
+            for (CandidateMove move : moves) {
+                int score = score(move);
+                if (score > bestScore) {
+                    best = move;
+                    bestScore = score;
+                    ties = 1;
+                } else if (score == bestScore && random.nextInt(++ties) == 0) {
+                    best = move;
+                }
+            }
+            return best;
+        }
+    };
+
+    /**
+     * @param moves The legal moves, never empty
+     * @param random Source of randomness owned by the calling thread
+     * @return The move to play
+     */
+    public abstract CandidateMove choose(List<CandidateMove> moves, SplittableRandom random);
+
+    static int score(CandidateMove move) {
+        return (move.entersSafeZone() ? 1000 : 0) + 100 * move.captures() + (move.activates() ? 50 : 0) + move.progress();
+    }
+}
@@ -0,0 +1,129 @@
+package com.cardrace.cardrace_server.simulation;
+
+import com.cardrace.cardrace_server.exceptions.IllegalMoveException;
+import com.cardrace.cardrace_server.exceptions.PlayerLimitException;
+import com.cardrace.cardrace_server.model.game.Game;
+import com.cardrace.cardrace_server.model.game.Types;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Plays whole games with no clients, Redis or Spring context: each game runs from Game.initializeGame until
+ * a player has won, every turn going through Game.playTurn or Game.forfeitTurn as socket moves do. Games run
+ * in parallel on a fork-join pool of their own.
+ *
+ * With invariant checks on, the game is checked after every turn and abandoned at the first violation; the
+ * checks include the game's own turn counters against the turns the simulator counted itself. A move
+ * the generator listed but the engine rejected is counted and the player forfeits instead, so both kinds of
+ * disagreement between the engine and its rules show up in the report.
+ */
+public class SelfPlaySimulator {
+
+    private final int parallelism;
+    private final int maxTurns;
+    private final boolean checkInvariants;
+
+    /**
+     * @param parallelism Threads playing games
+     * @param maxTurns Turns after which a game is abandoned as unfinished
+     * @param checkInvariants Whether to check the game after every turn
+     */
+    public SelfPlaySimulator(int parallelism, int maxTurns, boolean checkInvariants) {
+        this.parallelism = parallelism;
+        this.maxTurns = maxTurns;
+        this.checkInvariants = checkInvariants;
+    }
+
+    /**
+     * @param games Number of games to play
+     * @param numPlayers Players per game
+     * @param strategy How every player picks its moves
+     * @param seed Seed for the players' choices; deals and seat colors are not seeded
+     * @return The totals of the run
+     */
+    public SimulationReport run(int games, int numPlayers, PlayerStrategy strategy, long seed) {
+        SimulationReport report = new SimulationReport(numPlayers, strategy);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        long start = System.nanoTime();
+        try {
+            pool.submit(() -> IntStream.range(0, games).parallel().forEach(index ->
+                    play(index, numPlayers, strategy, new SplittableRandom(seed + index * 0x9E3779B97F4A7C15L), report))).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Simulation failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        report.finish(System.nanoTime() - start);
+        return report;
+    }
+
+    private void play(int index, int numPlayers, PlayerStrategy strategy, SplittableRandom random, SimulationReport report) {
+        Game game = newGame("simulation-" + index, numPlayers);
+        int[] played = new int[numPlayers];
+        int turn = 0;
+        while (game.getStatus() == Types.GameStatus.IN_PROGRESS && turn < maxTurns) {
+            String player = game.getCurrentPlayer();
+            List<CandidateMove> moves = MoveGenerator.legalMoves(game, player);
+            CandidateMove move = null;
+            try {
+                if (moves.isEmpty()) {
+                    game.forfeitTurn(player);
+                    report.recordForfeit();
+                } else {
+                    move = strategy.choose(moves, random);
+                    try {
+                        game.playTurn(player, move.card(), move.substitute(), move.distances());
+                        played[game.getPlayers().indexOf(player)]++;
+                        report.recordMove(move);
+                    } catch (IllegalMoveException e) {
+                        report.recordRejected();
+                        game.forfeitTurn(player);
+                    }
+                }
+            } catch (RuntimeException e) {
+                report.recordViolation(describe(index, turn, move, List.of(e.toString())));
+                break;
+            }
+            turn++;
+            if (checkInvariants) {
+                List<String> violations = GameInvariants.check(game);
+                int seat = game.getPlayers().indexOf(player);
+                if (game.getPlayerTurns(player) != played[seat]) {
+                    violations = new ArrayList<>(violations);
+                    violations.add(player + " has " + game.getPlayerTurns(player) + " turns but played " + played[seat]);
+                }
+                if (!violations.isEmpty()) {
+                    report.recordViolation(describe(index, turn, move, violations));
+                    break;
+                }
+            }
+        }
+        report.recordGame(turn, game.getStatus() == Types.GameStatus.COMPLETE);
+    }
+
+    static Game newGame(String gameName, int numPlayers) {
+        Game game = new Game(gameName, numPlayers);
+        try {
+            for (int i = 0; i < numPlayers; i++) {
+                game.addPlayer("player" + i);
+            }
+        } catch (PlayerLimitException e) {
+            throw new IllegalStateException(e);
+        }
+        game.initializeGame();
+        return game;
+    }
+
+    private static String describe(int index, int turn, CandidateMove move, List<String> violations) {
+        return "game " + index + " turn " + turn + (move == null ? "" : " after " + move.actingValue() + " "
+                + move.distances()) + ": " + String.join("; ", violations);
+    }
+}
@@ -0,0 +1,118 @@
+package com.cardrace.cardrace_server.simulation;
+
+import com.cardrace.cardrace_server.model.game.Types;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Totals from a simulation run. Games played on different threads record into it concurrently.
+ */
+public class SimulationReport {
+
+    static final int MAX_VIOLATION_SAMPLES = 20;
+
+    private final int numPlayers;
+    private final PlayerStrategy strategy;
+    private final LongAdder games = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder turns = new LongAdder();
+    private final LongAdder forfeits = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder violations = new LongAdder();
+    private final Map<Types.CardValue, LongAdder> moves = new EnumMap<>(Types.CardValue.class);
+    private final ConcurrentLinkedQueue<String> violationSamples = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger sampled = new AtomicInteger();
+    private volatile long elapsedNanos;
+
+    SimulationReport(int numPlayers, PlayerStrategy strategy) {
+        this.numPlayers = numPlayers;
+        this.strategy = strategy;
+        for (Types.CardValue value : Types.CardValue.values()) {
+            moves.put(value, new LongAdder());
+        }
+    }
+
+    void recordMove(CandidateMove move) {
+        moves.get(move.actingValue()).increment();
+    }
+
+    void recordForfeit() {
+        forfeits.increment();
+    }
+
+    void recordRejected() {
+        rejected.increment();
+    }
+
+    void recordViolation(String description) {
+        violations.increment();
+        if (sampled.incrementAndGet() <= MAX_VIOLATION_SAMPLES) {
+            violationSamples.add(description);
+        }
+    }
+
+    void recordGame(int gameTurns, boolean gameCompleted) {
+        games.increment();
+        turns.add(gameTurns);
+        if (gameCompleted) {
+            completed.increment();
+        }
+    }
+
+    void finish(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long games() { return games.sum(); }
+    public long completedGames() { return completed.sum(); }
+    public long turns() { return turns.sum(); }
+    public long forfeits() { return forfeits.sum(); }
+    public long rejectedMoves() { return rejected.sum(); }
+    public long violations() { return violations.sum(); }
+    public List<String> violationSamples() { return new ArrayList<>(violationSamples); }
+    public long elapsedNanos() { return elapsedNanos; }
+
+    /**
+     * @return Moves played by acting card value, a Joker counting as the card it stood in for
+     */
+    public Map<Types.CardValue, Long> moveCounts() {
+        Map<Types.CardValue, Long> counts = new EnumMap<>(Types.CardValue.class);
+        moves.forEach((value, count) -> {
+            if (count.sum() > 0) {
+                counts.put(value, count.sum());
+            }
+        });
+        return counts;
+    }
+
+    public double gamesPerSecond() {
+        return elapsedNanos == 0 ? 0 : games() * 1e9 / elapsedNanos;
+    }
+
+    public double averageTurns() {
+        long played = games();
+        return played == 0 ? 0 : (double) turns() / played;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("players=%d strategy=%s games=%d completed=%d in %.2f s (%.0f games/s)%n",
+                numPlayers, strategy, games(), completedGames(), elapsedNanos / 1e9, gamesPerSecond()));
+        report.append(String.format("turns/game=%.1f forfeits=%d rejected=%d violations=%d%n",
+                averageTurns(), forfeits(), rejectedMoves(), violations()));
+        long played = moveCounts().values().stream().mapToLong(Long::longValue).sum();
+        moveCounts().forEach((value, count) ->
+                report.append(String.format("  %-6s %10d %5.1f%%%n", value, count, 100.0 * count / played)));
+        for (String violation : violationSamples) {
+            report.append("  violation: ").append(violation).append(System.lineSeparator());
+        }
+        return report.toString();
+    }
+}
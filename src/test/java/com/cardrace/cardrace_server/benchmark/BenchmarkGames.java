@@ -0,0 +1,111 @@
+package com.cardrace.cardrace_server.benchmark;
+
+import com.cardrace.cardrace_server.model.game.Card;
+import com.cardrace.cardrace_server.model.game.Game;
+import com.cardrace.cardrace_server.model.game.Hand;
+import com.cardrace.cardrace_server.model.game.Types;
+import com.cardrace.cardrace_server.simulation.CandidateMove;
+import com.cardrace.cardrace_server.simulation.MoveGenerator;
+import com.cardrace.cardrace_server.simulation.PlayerStrategy;
+
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * Builds game states for benchmarks: games that have been played for a number of turns, with cards
+ * spent, marbles spread over the board and hands re-dealt, rather than freshly initialized games.
+ */
+final class BenchmarkGames {
+
+    private BenchmarkGames() {}
+
+    /**
+     * A freshly initialized game in which every seat has entered its first marble (ID seat * 4) and moved it
+     * one space past its start, leaving the start spaces free and the marbles protected. A marble at seat
+     * start + 1 can move up to 13 forward or 4 back without meeting another marble.
+     */
+    static Game started(int numPlayers) throws Exception {
+        Game game = new Game("benchmark", numPlayers);
+        for (int i = 0; i < numPlayers; i++) {
+            game.addPlayer("player" + i);
+        }
+        game.initializeGame();
+        for (int seat = 0; seat < numPlayers; seat++) {
+            game.getBoard().activateMarble(seat * 4);
+            game.getBoard().moveMarble(seat * 4, 1, false);
+        }
+        return game;
+    }
+
+    static Game played(int numPlayers, int turns, long seed) throws Exception {
+        Random random = new Random(seed);
+        Game game = new Game("benchmark", numPlayers);
+        for (int i = 0; i < numPlayers; i++) {
+            game.addPlayer("player" + i);
+        }
+        game.initializeGame();
+
+        for (int turn = 0; turn < turns; turn++) {
+            String player = currentPlayer(game);
+            Types.Color color = game.getPlayerColor(player);
+            Hand hand = game.getPlayerHand(player);
+            if (hand.getNumCards() > 0) {
+                List<Card> cards = hand.getCards();
+                Card card = cards.get(random.nextInt(cards.size()));
+                int marbleId = colorIndex(game, color) * 4 + random.nextInt(4);
+                try {
+                    if (game.getBoard().inReserve(marbleId)) {
+                        game.getBoard().activateMarble(marbleId);
+                    } else {
+                        game.getBoard().moveMarble(marbleId, 1 + random.nextInt(13), false);
+                    }
+                } catch (Exception ignored) {
+                    // Illegal for this position; the card is still spent.
+                }
+                game.setLastCard(card);
+                game.updatePlayerHand(player, card);
+                game.incrementPlayerTurns(player);
+            }
+            if (game.timeToDeal()) {
+                game.dealOut();
+            }
+            game.nextTurn();
+        }
+        return game;
+    }
+
+    /**
+     * A game played for a number of turns by greedy players through Game.playTurn, so unlike {@link #played}
+     * every move in it was legal.
+     */
+    static Game selfPlayed(int numPlayers, int turns, long seed) throws Exception {
+        Game game = played(numPlayers, 0, seed);
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int turn = 0; turn < turns && game.getStatus() == Types.GameStatus.IN_PROGRESS; turn++) {
+            String player = game.getCurrentPlayer();
+            List<CandidateMove> moves = MoveGenerator.legalMoves(game, player);
+            if (moves.isEmpty()) {
+                game.forfeitTurn(player);
+            } else {
+                CandidateMove move = PlayerStrategy.GREEDY.choose(moves, random);
+                game.playTurn(player, move.card(), move.substitute(), move.distances());
+            }
+        }
+        return game;
+    }
+
+    static String currentPlayer(Game game) {
+        Types.Color current = game.getCurrentPlayerColor();
+        for (String player : game.getPlayers()) {
+            if (game.getPlayerColor(player) == current) {
+                return player;
+            }
+        }
+        throw new IllegalStateException("No current player");
+    }
+
+    private static int colorIndex(Game game, Types.Color color) {
+        return game.getBoard().seatOf(color);
+    }
+}
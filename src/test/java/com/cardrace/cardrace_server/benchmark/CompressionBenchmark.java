@@ -0,0 +1,68 @@
+package com.cardrace.cardrace_server.benchmark;
+
+import com.cardrace.cardrace_server.config.RedisConfig;
+import com.cardrace.cardrace_server.model.game.Game;
+import com.cardrace.cardrace_server.repository.CompressingRedisSerializer;
+import com.cardrace.cardrace_server.repository.GameRedisSerializer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures bytes saved against CPU spent by CompressingRedisSerializer on played 6-player game states,
+ * for both the binary codec and legacy JSON, at deflate levels 1 and 6.
+ *
+ * Usage: CompressionBenchmark [states=200] [rounds=200]
+ */
+public class CompressionBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int states = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        List<Game> games = new ArrayList<>();
+        for (int i = 0; i < states; i++) {
+            games.add(BenchmarkGames.played(6, 10 + i % 150, i));
+        }
+
+        Jackson2JsonRedisSerializer<Game> json = new Jackson2JsonRedisSerializer<>(RedisConfig.gameObjectMapper(), Game.class);
+        report("binary", new GameRedisSerializer(json, false), games, rounds);
+        report("json", new GameRedisSerializer(json, true), games, rounds);
+    }
+
+    private static void report(String format, RedisSerializer<Game> base, List<Game> games, int rounds) {
+        for (int level : new int[]{1, 6}) {
+            CompressingRedisSerializer<Game> compressing = new CompressingRedisSerializer<>(base, 0, level);
+            long rawBytes = 0;
+            long compressedBytes = 0;
+            List<byte[]> encoded = new ArrayList<>();
+            for (Game game : games) {
+                rawBytes += base.serialize(game).length;
+                byte[] bytes = compressing.serialize(game);
+                compressedBytes += bytes.length;
+                encoded.add(bytes);
+            }
+
+            double rawEncode = time(rounds, () -> games.forEach(base::serialize)) / games.size();
+            double encode = time(rounds, () -> games.forEach(compressing::serialize)) / games.size();
+            double decode = time(rounds, () -> encoded.forEach(compressing::deserialize)) / games.size();
+
+            System.out.printf("%-6s level=%d avg raw=%5d B compressed=%5d B saved=%4.1f%% encode=%6.0fns (+%5.0fns over raw) decode=%6.0fns%n",
+                    format, level, rawBytes / games.size(), compressedBytes / games.size(),
+                    100.0 * (rawBytes - compressedBytes) / rawBytes, encode, encode - rawEncode, decode);
+        }
+    }
+
+    private static double time(int rounds, Runnable task) {
+        for (int i = 0; i < rounds / 4; i++) {
+            task.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            task.run();
+        }
+        return (System.nanoTime() - start) / (double) rounds;
+    }
+}
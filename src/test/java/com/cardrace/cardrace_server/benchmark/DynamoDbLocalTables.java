@@ -0,0 +1,50 @@
+package com.cardrace.cardrace_server.benchmark;
+
+import com.amazonaws.auth.AWSStaticCredentialsProvider;
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.client.builder.AwsClientBuilder;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.model.CreateTableRequest;
+import com.amazonaws.services.dynamodbv2.model.Projection;
+import com.amazonaws.services.dynamodbv2.model.ProjectionType;
+import com.amazonaws.services.dynamodbv2.model.ProvisionedThroughput;
+import com.amazonaws.services.dynamodbv2.util.TableUtils;
+import com.cardrace.cardrace_server.model.ArchivedGame;
+import com.cardrace.cardrace_server.model.MatchRecord;
+import com.cardrace.cardrace_server.model.User;
+
+/**
+ * Creates the server's tables, with the indexes declared on the models, in a DynamoDB Local instance, so a
+ * load test can run against a local stand-in instead of AWS:
+ *
+ *   docker run -p 8000:8000 amazon/dynamodb-local -jar DynamoDBLocal.jar -inMemory -sharedDb
+ *
+ * Usage: DynamoDbLocalTables [endpoint=http://localhost:8000] [region=us-east-1]
+ */
+public class DynamoDbLocalTables {
+
+    public static void main(String[] args) {
+        String endpoint = args.length > 0 ? args[0] : "http://localhost:8000";
+        String region = args.length > 1 ? args[1] : "us-east-1";
+        AmazonDynamoDB dynamoDB = AmazonDynamoDBClientBuilder.standard()
+                .withEndpointConfiguration(new AwsClientBuilder.EndpointConfiguration(endpoint, region))
+                .withCredentials(new AWSStaticCredentialsProvider(new BasicAWSCredentials("local", "local")))
+                .build();
+        DynamoDBMapper mapper = new DynamoDBMapper(dynamoDB);
+        ProvisionedThroughput throughput = new ProvisionedThroughput(1000L, 1000L);
+
+        for (Class<?> model : new Class<?>[]{User.class, MatchRecord.class, ArchivedGame.class}) {
+            CreateTableRequest request = mapper.generateCreateTableRequest(model).withProvisionedThroughput(throughput);
+            if (request.getGlobalSecondaryIndexes() != null) {
+                request.getGlobalSecondaryIndexes().forEach(index -> index
+                        .withProjection(new Projection().withProjectionType(ProjectionType.ALL))
+                        .withProvisionedThroughput(throughput));
+            }
+            boolean created = TableUtils.createTableIfNotExists(dynamoDB, request);
+            System.out.printf("%-12s %s%n", request.getTableName(), created ? "created" : "already exists");
+        }
+        dynamoDB.shutdown();
+    }
+}
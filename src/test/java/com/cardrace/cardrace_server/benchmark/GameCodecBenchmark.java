@@ -0,0 +1,55 @@
+package com.cardrace.cardrace_server.benchmark;
+
+import com.cardrace.cardrace_server.config.RedisConfig;
+import com.cardrace.cardrace_server.model.game.Game;
+import com.cardrace.cardrace_server.model.game.GameCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+
+/**
+ * Compares the Redis JSON serializer with GameCodec: serialized bytes and encode/decode time per game
+ * for 2, 4 and 6 player games in progress.
+ *
+ * Usage: GameCodecBenchmark [iterations=200000]
+ */
+public class GameCodecBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        ObjectMapper objectMapper = RedisConfig.gameObjectMapper();
+        Jackson2JsonRedisSerializer<Game> json = new Jackson2JsonRedisSerializer<>(objectMapper, Game.class);
+
+        for (int numPlayers : new int[]{2, 4, 6}) {
+            Game game = new Game("benchmark", numPlayers);
+            for (int i = 0; i < numPlayers; i++) {
+                game.addPlayer("player" + i);
+            }
+            game.initializeGame();
+            for (int color = 0; color < numPlayers; color++) {
+                game.getBoard().activateMarble(color * 4);
+            }
+
+            byte[] jsonBytes = json.serialize(game);
+            byte[] binaryBytes = GameCodec.encode(game);
+
+            double jsonEncode = time(iterations, () -> json.serialize(game));
+            double jsonDecode = time(iterations, () -> json.deserialize(jsonBytes));
+            double binaryEncode = time(iterations, () -> GameCodec.encode(game));
+            double binaryDecode = time(iterations, () -> GameCodec.decode(binaryBytes));
+
+            System.out.printf("players=%d json: %5d bytes encode=%7.0fns decode=%7.0fns | binary: %4d bytes encode=%6.0fns decode=%6.0fns%n",
+                    numPlayers, jsonBytes.length, jsonEncode, jsonDecode, binaryBytes.length, binaryEncode, binaryDecode);
+        }
+    }
+
+    private static double time(int iterations, Runnable task) {
+        for (int i = 0; i < iterations / 4; i++) {
+            task.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            task.run();
+        }
+        return (System.nanoTime() - start) / (double) iterations;
+    }
+}
@@ -0,0 +1,72 @@
+package com.cardrace.cardrace_server.benchmark;
+
+import com.cardrace.cardrace_server.model.game.Game;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+/**
+ * Measures the heap retained per game for 2, 4 and 6 players, for idle lobbies (a waiting game with one
+ * player) and for active games played for a few rounds. Each kind is measured by holding many games at
+ * once and dividing the growth of the heap after full collections by their number, so the figure includes
+ * everything a game keeps reachable and nothing it shares with other games.
+ *
+ * Run with a fixed heap and a single collector for stable numbers, e.g. -Xms2g -Xmx2g -XX:+UseSerialGC.
+ *
+ * Usage: GameFootprintBenchmark [games=20000] [rounds=8]
+ */
+public class GameFootprintBenchmark {
+
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+
+        for (int numPlayers : new int[]{2, 4, 6}) {
+            long lobby = retainedBytesPerGame(count, index -> {
+                Game game = new Game("lobby-" + index, numPlayers);
+                game.addPlayer("player-" + index);
+                return game;
+            });
+            long active = retainedBytesPerGame(count, index ->
+                    BenchmarkGames.selfPlayed(numPlayers, numPlayers * rounds, index));
+            System.out.printf("players=%d  idle lobby=%6d bytes  active game=%6d bytes  "
+                            + "1M lobbies=%6.0f MB  100k games=%6.0f MB%n",
+                    numPlayers, lobby, active, lobby * 1e6 / 1048576, active * 1e5 / 1048576);
+        }
+    }
+
+    private static long retainedBytesPerGame(int count, GameFactory factory) throws Exception {
+        // Warm up, so classes and caches the games touch are loaded before the baseline is taken.
+        for (int i = 0; i < 100; i++) {
+            factory.create(i);
+        }
+        Game[] games = new Game[count];
+        long before = usedAfterGc();
+        for (int i = 0; i < count; i++) {
+            games[i] = factory.create(i);
+        }
+        long after = usedAfterGc();
+        long perGame = (after - before) / count;
+        if (games[count - 1] == null) {
+            throw new IllegalStateException();
+        }
+        return perGame;
+    }
+
+    private static long usedAfterGc() throws InterruptedException {
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            Thread.sleep(50);
+            used = Math.min(used, MEMORY.getHeapMemoryUsage().getUsed());
+        }
+        return used;
+    }
+
+    @FunctionalInterface
+    private interface GameFactory {
+        Game create(int index) throws Exception;
+    }
+}
@@ -0,0 +1,60 @@
+package com.cardrace.cardrace_server.benchmark;
+
+import com.cardrace.cardrace_server.service.GameIdGenerator;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Measures game IDs generated per second across thread counts, comparing the previous UUID prefix with
+ * GameIdGenerator. Blocks are leased from an in-process counter, so the figures exclude the Redis round trip
+ * that one call per block pays.
+ *
+ * Usage: GameIdBenchmark [idsPerThread=2000000] [blockSize=1000]
+ */
+public class GameIdBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int idsPerThread = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int blockSize = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+
+        AtomicLong counter = new AtomicLong();
+        GameIdGenerator generator = new GameIdGenerator(counter::getAndAdd, blockSize);
+
+        for (int threads : new int[]{1, 2, 4, 8, 16}) {
+            run("uuid prefix", threads, idsPerThread, () -> UUID.randomUUID().toString().substring(0, 6));
+            run("block generator", threads, idsPerThread, generator::nextId);
+        }
+    }
+
+    private static void run(String name, int threads, int idsPerThread, Supplier<String> ids) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    int sink = 0;
+                    for (int i = 0; i < idsPerThread; i++) {
+                        sink += ids.get().charAt(0);
+                    }
+                    if (sink == 42) {
+                        System.out.print("");
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+            thread.start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        System.out.printf("%-16s %2d threads %12.0f ids/s%n", name, threads, threads * (double) idsPerThread / seconds);
+    }
+}
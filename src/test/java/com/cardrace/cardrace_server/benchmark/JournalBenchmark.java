@@ -0,0 +1,75 @@
+package com.cardrace.cardrace_server.benchmark;
+
+import com.cardrace.cardrace_server.model.game.Game;
+import com.cardrace.cardrace_server.repository.JournalGameRepository;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Saves played games into a fresh journal and reports save and load latency percentiles, then reopens the
+ * journal and reports how long recovery takes. Each game is saved several times so recovery also has to
+ * skip superseded records.
+ *
+ * Usage: JournalBenchmark [games=100000] [savesPerGame=3] [flushIntervalMs=1000]
+ */
+public class JournalBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int numGames = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int savesPerGame = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        long flushIntervalMs = args.length > 2 ? Long.parseLong(args[2]) : 1000;
+
+        Game[] games = new Game[256];
+        for (int i = 0; i < games.length; i++) {
+            games[i] = BenchmarkGames.played(4, 20 + i % 100, i);
+        }
+
+        Path directory = Files.createTempDirectory("journal-bench");
+        try {
+            JournalGameRepository journal = new JournalGameRepository(directory.toString(), 64 << 20, flushIntervalMs, 3_600_000);
+            long[] saves = new long[numGames * savesPerGame];
+            int n = 0;
+            for (int round = 0; round < savesPerGame; round++) {
+                for (int i = 0; i < numGames; i++) {
+                    long start = System.nanoTime();
+                    journal.save("game-" + i, games[(i + round) % games.length]);
+                    saves[n++] = System.nanoTime() - start;
+                }
+            }
+            report("save", saves);
+
+            long[] loads = new long[numGames];
+            for (int i = 0; i < numGames; i++) {
+                long start = System.nanoTime();
+                journal.findById("game-" + i).orElseThrow();
+                loads[i] = System.nanoTime() - start;
+            }
+            report("load", loads);
+            journal.close();
+
+            long start = System.nanoTime();
+            JournalGameRepository reopened = new JournalGameRepository(directory.toString(), 64 << 20, flushIntervalMs, 3_600_000);
+            double recoveryMillis = (System.nanoTime() - start) / 1e6;
+            for (int i = 0; i < numGames; i++) {
+                reopened.findStatus("game-" + i).orElseThrow();
+            }
+            System.out.printf("recovered %d games from %d records in %.0f ms%n", numGames, saves.length, recoveryMillis);
+            reopened.close();
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private static void report(String name, long[] latencies) {
+        Arrays.sort(latencies);
+        System.out.printf("%-6s %8d ops  p50=%7.2f us  p99=%7.2f us  p99.9=%8.2f us  max=%9.2f us%n",
+                name, latencies.length, latencies[latencies.length / 2] / 1e3, latencies[(int) (latencies.length * 0.99)] / 1e3,
+                latencies[(int) (latencies.length * 0.999)] / 1e3, latencies[latencies.length - 1] / 1e3);
+    }
+}
@@ -0,0 +1,96 @@
+package com.cardrace.cardrace_server.benchmark;
+
+import com.sun.management.OperatingSystemMXBean;
+import com.sun.tools.attach.VirtualMachine;
+
+import javax.management.MBeanServerConnection;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+import javax.management.remote.JMXServiceURL;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples CPU and heap of a JVM once a second and totals its garbage collection over the run. The JVM is this
+ * one, or another local one reached through the attach API by process ID, such as a server under load.
+ */
+final class JvmMetrics implements AutoCloseable {
+
+    private final String name;
+    private final JMXConnector connector;
+    private final OperatingSystemMXBean os;
+    private final MemoryMXBean memory;
+    private final List<GarbageCollectorMXBean> collectors;
+    private final ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "jvm-metrics");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final long startGcCount;
+    private final long startGcMillis;
+    private double cpuTotal;
+    private double cpuMax;
+    private long heapMax;
+    private int samples;
+
+    private JvmMetrics(String name, JMXConnector connector, MBeanServerConnection server) throws IOException {
+        this.name = name;
+        this.connector = connector;
+        this.os = ManagementFactory.newPlatformMXBeanProxy(server, ManagementFactory.OPERATING_SYSTEM_MXBEAN_NAME,
+                OperatingSystemMXBean.class);
+        this.memory = ManagementFactory.newPlatformMXBeanProxy(server, ManagementFactory.MEMORY_MXBEAN_NAME, MemoryMXBean.class);
+        this.collectors = ManagementFactory.getPlatformMXBeans(server, GarbageCollectorMXBean.class);
+        this.startGcCount = collectors.stream().mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+        this.startGcMillis = collectors.stream().mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+        sampler.scheduleAtFixedRate(this::sample, 1, 1, TimeUnit.SECONDS);
+    }
+
+    static JvmMetrics local(String name) throws IOException {
+        return new JvmMetrics(name, null, ManagementFactory.getPlatformMBeanServer());
+    }
+
+    static JvmMetrics attach(String name, String pid) throws Exception {
+        VirtualMachine vm = VirtualMachine.attach(pid);
+        try {
+            JMXConnector connector = JMXConnectorFactory.connect(new JMXServiceURL(vm.startLocalManagementAgent()));
+            return new JvmMetrics(name, connector, connector.getMBeanServerConnection());
+        } finally {
+            vm.detach();
+        }
+    }
+
+    private synchronized void sample() {
+        try {
+            double cpu = Math.max(0, os.getProcessCpuLoad());
+            cpuTotal += cpu;
+            cpuMax = Math.max(cpuMax, cpu);
+            heapMax = Math.max(heapMax, memory.getHeapMemoryUsage().getUsed());
+            samples++;
+        } catch (RuntimeException e) {
+            // The JVM may have exited; keep what was sampled.
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        long gcCount = collectors.stream().mapToLong(GarbageCollectorMXBean::getCollectionCount).sum() - startGcCount;
+        long gcMillis = collectors.stream().mapToLong(GarbageCollectorMXBean::getCollectionTime).sum() - startGcMillis;
+        return String.format("%-6s cpu avg=%5.1f%% max=%5.1f%% of %d cores  heap max=%6.1f MB  gc=%d collections, %d ms",
+                name, samples == 0 ? 0 : 100 * cpuTotal / samples, 100 * cpuMax, os.getAvailableProcessors(),
+                heapMax / 1048576.0, gcCount, gcMillis);
+    }
+
+    @Override
+    public void close() throws IOException {
+        sampler.shutdownNow();
+        if (connector != null) {
+            connector.close();
+        }
+    }
+}
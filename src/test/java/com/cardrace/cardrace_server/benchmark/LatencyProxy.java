@@ -0,0 +1,112 @@
+package com.cardrace.cardrace_server.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * TCP proxy that delays every chunk by half the configured round trip time in each direction, for
+ * measuring how many round trips a client makes. Counts the chunks sent by clients, which for a
+ * request/response protocol such as RESP is the number of round trips. While stalled, chunks are held in
+ * both directions and delivered once the stall ends, the way a paused Redis behaves.
+ */
+final class LatencyProxy implements AutoCloseable {
+
+    private record Chunk(byte[] bytes, long dueNanos) {}
+
+    private final ServerSocket serverSocket;
+    private final String targetHost;
+    private final int targetPort;
+    private final long oneWayDelayNanos;
+    private final AtomicLong clientWrites = new AtomicLong();
+    private volatile boolean stalled;
+
+    LatencyProxy(String targetHost, int targetPort, double roundTripMillis) throws IOException {
+        this.serverSocket = new ServerSocket(0);
+        this.targetHost = targetHost;
+        this.targetPort = targetPort;
+        this.oneWayDelayNanos = (long) (roundTripMillis * 500_000);
+        daemon(this::acceptLoop, "proxy-accept");
+    }
+
+    int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    long clientWrites() {
+        return clientWrites.get();
+    }
+
+    void setStalled(boolean stalled) {
+        this.stalled = stalled;
+    }
+
+    private void acceptLoop() {
+        try {
+            while (!serverSocket.isClosed()) {
+                Socket client = serverSocket.accept();
+                Socket server = new Socket(targetHost, targetPort);
+                client.setTcpNoDelay(true);
+                server.setTcpNoDelay(true);
+                pump(client, server, clientWrites);
+                pump(server, client, new AtomicLong());
+            }
+        } catch (IOException closed) {
+            // proxy shut down
+        }
+    }
+
+    private void pump(Socket from, Socket to, AtomicLong chunks) throws IOException {
+        BlockingQueue<Chunk> queue = new LinkedBlockingQueue<>();
+        InputStream in = from.getInputStream();
+        OutputStream out = to.getOutputStream();
+        daemon(() -> {
+            byte[] buffer = new byte[64 * 1024];
+            try {
+                int read;
+                while ((read = in.read(buffer)) > 0) {
+                    chunks.incrementAndGet();
+                    queue.add(new Chunk(Arrays.copyOf(buffer, read), System.nanoTime() + oneWayDelayNanos));
+                }
+            } catch (IOException closed) {
+                // connection closed
+            }
+        }, "proxy-read");
+        daemon(() -> {
+            try {
+                while (true) {
+                    Chunk chunk = queue.take();
+                    long wait;
+                    while ((wait = chunk.dueNanos() - System.nanoTime()) > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    while (stalled) {
+                        LockSupport.parkNanos(1_000_000);
+                    }
+                    out.write(chunk.bytes());
+                    out.flush();
+                }
+            } catch (IOException | InterruptedException closed) {
+                // connection closed
+            }
+        }, "proxy-write");
+    }
+
+    private static void daemon(Runnable task, String name) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+}
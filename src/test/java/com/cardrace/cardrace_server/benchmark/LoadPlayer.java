@@ -0,0 +1,168 @@
+package com.cardrace.cardrace_server.benchmark;
+
+import com.cardrace.cardrace_server.model.game.Board;
+import com.cardrace.cardrace_server.model.game.Card;
+import com.cardrace.cardrace_server.model.game.Hand;
+import com.cardrace.cardrace_server.model.game.Types;
+import com.cardrace.cardrace_server.simulation.CandidateMove;
+import com.cardrace.cardrace_server.simulation.MoveGenerator;
+import com.cardrace.cardrace_server.simulation.PlayerStrategy;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.socket.client.IO;
+import io.socket.client.Socket;
+import io.socket.engineio.client.transports.WebSocket;
+import org.HdrHistogram.Recorder;
+import org.json.JSONObject;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One simulated player in a load test: a Socket.IO connection made with the player's token and game ID, as
+ * the web client makes it. Whenever a game state shows it is this player's turn, a random legal move is sent,
+ * or a forfeit if there is none, and the time until the next game state arrives is recorded in microseconds.
+ *
+ * Socket.IO delivers every connection's events on one thread, so that thread only timestamps events; states
+ * are decoded and moves chosen on the given executor, and states overtaken by a newer one are skipped.
+ */
+final class LoadPlayer {
+
+    static final class Stats {
+        final LongAdder moves = new LongAdder();
+        final LongAdder forfeits = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder errors = new LongAdder();
+    }
+
+    private final String username;
+    private final ObjectMapper objectMapper;
+    private final Executor executor;
+    private final Recorder latencies;
+    private final Stats stats;
+    private final CountDownLatch finished;
+    private final SplittableRandom random;
+    private final Socket socket;
+    private final AtomicBoolean done = new AtomicBoolean();
+    private volatile long submittedAt;
+    private volatile long latestState;
+
+    LoadPlayer(String socketUrl, String username, String token, String gameId, ObjectMapper objectMapper, Executor executor,
+               Recorder latencies, Stats stats, CountDownLatch finished, long seed) {
+        this.username = username;
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        this.latencies = latencies;
+        this.stats = stats;
+        this.finished = finished;
+        this.random = new SplittableRandom(seed);
+
+        IO.Options options = new IO.Options();
+        options.forceNew = true;
+        options.reconnection = false;
+        options.transports = new String[]{WebSocket.NAME};
+        options.query = "token=" + token + "&gameId=" + gameId;
+        this.socket = IO.socket(URI.create(socketUrl), options);
+        socket.on("gameState", args -> onGameState(args[0]));
+        socket.on("moveResult", args -> onMoveRejected());
+        socket.on(Socket.EVENT_CONNECT_ERROR, args -> fail());
+        socket.on(Socket.EVENT_DISCONNECT, args -> fail());
+    }
+
+    void connect() {
+        socket.connect();
+    }
+
+    void close() {
+        done.set(true);
+        socket.close();
+    }
+
+    private void onGameState(Object state) {
+        long receivedAt = System.nanoTime();
+        long sentAt = submittedAt;
+        if (sentAt != 0) {
+            submittedAt = 0;
+            latencies.recordValue((receivedAt - sentAt) / 1000);
+        }
+        long sequence = ++latestState;
+        executor.execute(() -> play(sequence, state.toString()));
+    }
+
+    private void onMoveRejected() {
+        stats.rejected.increment();
+        submittedAt = 0;
+        executor.execute(() -> send(null));
+    }
+
+    private synchronized void play(long sequence, String json) {
+        if (sequence != latestState || done.get()) {
+            return;
+        }
+        try {
+            JsonNode state = objectMapper.readTree(json);
+            Types.GameStatus status = Types.GameStatus.valueOf(state.path("status").asText());
+            if (status == Types.GameStatus.COMPLETE || status == Types.GameStatus.TERMINATED) {
+                finish();
+                return;
+            }
+            if (status != Types.GameStatus.IN_PROGRESS || submittedAt != 0
+                    || !state.path("currentColor").asText().equals(state.path("playerColor").asText())) {
+                return;
+            }
+            Board board = objectMapper.treeToValue(state.get("board"), Board.class);
+            Hand hand = objectMapper.treeToValue(state.get("playerHand"), Hand.class);
+            Types.Color color = Types.Color.valueOf(state.path("playerColor").asText());
+            List<CandidateMove> moves = MoveGenerator.legalMoves(board, color, hand);
+            send(moves.isEmpty() ? null : PlayerStrategy.RANDOM.choose(moves, random));
+        } catch (Exception e) {
+            stats.errors.increment();
+        }
+    }
+
+    private void send(CandidateMove move) {
+        ObjectNode payload = objectMapper.createObjectNode();
+        payload.put("username", username);
+        payload.put("forfeit", move == null);
+        if (move != null) {
+            payload.set("card", card(move.card()));
+            payload.set("substitute", move.substitute() == null ? null : card(move.substitute()));
+            ArrayNode distances = payload.putArray("distances");
+            for (Map.Entry<Integer, Integer> entry : move.distances().entrySet()) {
+                distances.addArray().add(entry.getKey()).add(entry.getValue());
+            }
+            stats.moves.increment();
+        } else {
+            stats.forfeits.increment();
+        }
+        submittedAt = System.nanoTime();
+        socket.emit("move", new JSONObject(payload.toString()));
+    }
+
+    private ObjectNode card(Card card) {
+        return objectMapper.createObjectNode()
+                .put("cardValue", card.cardValue.name())
+                .put("cardSuit", card.cardSuit.name());
+    }
+
+    private void fail() {
+        if (!done.get()) {
+            stats.errors.increment();
+            finish();
+        }
+    }
+
+    private void finish() {
+        if (done.compareAndSet(false, true)) {
+            finished.countDown();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.cardrace.cardrace_server.benchmark;
+
+import com.cardrace.cardrace_server.model.game.Game;
+import com.cardrace.cardrace_server.simulation.MctsEngine;
+import com.cardrace.cardrace_server.simulation.MctsResult;
+
+/**
+ * Searches the same mid-game position with 1, 2, 4 ... up to all cores and prints playouts per second in
+ * total and per core, with the speedup over one core. Each worker count gets a discarded warm-up search
+ * and then several timed ones on a fresh tree each.
+ *
+ * Usage: MctsBenchmark [budgetMs=1000] [maxThreads=all cores] [players=4] [searches=5]
+ */
+public class MctsBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        long budgetMillis = args.length > 0 ? Long.parseLong(args[0]) : 1000;
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int numPlayers = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        int searches = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+
+        Game game = BenchmarkGames.selfPlayed(numPlayers, numPlayers * 8, 42);
+        String player = game.getCurrentPlayer();
+        System.out.printf("%d players, %d ms per search, %d cores available%n", numPlayers, budgetMillis,
+                Runtime.getRuntime().availableProcessors());
+
+        double baseline = 0;
+        for (int threads = 1; threads <= maxThreads; threads = threads < maxThreads ? Math.min(threads * 2, maxThreads) : threads + 1) {
+            try (MctsEngine engine = new MctsEngine(threads)) {
+                engine.newSearch(player).search(game, budgetMillis);
+                long playouts = 0;
+                long elapsedNanos = 0;
+                for (int i = 0; i < searches; i++) {
+                    MctsResult result = engine.newSearch(player).search(game, budgetMillis);
+                    playouts += result.playouts();
+                    elapsedNanos += result.elapsedNanos();
+                }
+                double perSecond = playouts * 1e9 / elapsedNanos;
+                if (threads == 1) {
+                    baseline = perSecond;
+                }
+                System.out.printf("threads=%2d  playouts/s=%9.0f  per core=%8.0f  speedup=%5.2fx%n",
+                        threads, perSecond, perSecond / threads, perSecond / baseline);
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.cardrace.cardrace_server.benchmark;
+
+import com.cardrace.cardrace_server.dto.MoveDTO;
+import com.cardrace.cardrace_server.dto.MoveReader;
+import com.cardrace.cardrace_server.exceptions.IllegalMoveException;
+import com.cardrace.cardrace_server.model.game.Board;
+import com.cardrace.cardrace_server.model.game.Game;
+import com.cardrace.cardrace_server.model.game.Move;
+import com.cardrace.cardrace_server.model.game.Types;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bytes allocated per move along the move path, read from the JVM's per-thread allocation counter after a
+ * warm-up of the same length. Moves are played by the last seat of a four player game started as in
+ * BenchmarkGames.started, and undone on the board after each one: a Five, a Seven, a Jack swap and a Joker
+ * played as a Ten, in turn.
+ *
+ * Decoding is measured as a Socket.IO event is decoded, one payload at a time into a new MoveDTO, and as
+ * a stream of payloads read by one MoveReader from one parser. Applying is measured through the boxed
+ * distance map and through Move, and the last line decodes and applies together.
+ *
+ * Usage: MoveAllocationBenchmark [moves=1000000]
+ */
+public class MoveAllocationBenchmark {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) throws Exception {
+        int moves = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int marble = 12;
+        String[] json = {
+                moveJson(card("FIVE", "HEARTS"), "null", "[[" + marble + ",5]]"),
+                moveJson(card("SEVEN", "CLUBS"), "null", "[[" + marble + ",7]]"),
+                moveJson(card("JACK", "SPADES"), "null", "[[" + marble + ",0],[0,0]]"),
+                moveJson(card("JOKER", "JOKER"), card("TEN", "DIAMONDS"), "[[" + marble + ",10]]"),
+        };
+        byte[][] payloads = new byte[json.length][];
+        ObjectReader dtoReader = new ObjectMapper().readerFor(MoveDTO.class);
+        MoveDTO[] dtos = new MoveDTO[json.length];
+        List<Map<Integer, Integer>> maps = new ArrayList<>();
+        for (int i = 0; i < json.length; i++) {
+            payloads[i] = json[i].getBytes(StandardCharsets.UTF_8);
+            dtos[i] = dtoReader.readValue(payloads[i]);
+            maps.add(dtos[i].getDistances());
+        }
+        Game game = BenchmarkGames.started(4);
+        Board board = game.getBoard();
+        long hash = game.getStateHash();
+
+        MoveReader reader = new MoveReader();
+        JsonParser parser = new JsonFactory().createParser(new RepeatingStream((String.join("\n", json) + "\n").getBytes(StandardCharsets.UTF_8)));
+
+        report("decode MoveDTO per payload", bytesPerMove(moves, i -> dtoReader.readValue(payloads[i % payloads.length])));
+        report("decode MoveReader on stream", bytesPerMove(moves, i -> reader.read(parser)));
+        report("apply distance map", bytesPerMove(moves, i -> {
+            MoveDTO dto = dtos[i % dtos.length];
+            game.applyMove(dto.getCard(), dto.getSubstitute(), maps.get(i % dtos.length));
+            undo(board, dto.getMove());
+        }));
+        report("apply Move", bytesPerMove(moves, i -> {
+            Move move = dtos[i % dtos.length].getMove();
+            game.applyMove(move);
+            undo(board, move);
+        }));
+        report("decode on stream and apply", bytesPerMove(moves, i -> {
+            reader.read(parser);
+            game.applyMove(reader.move());
+            undo(board, reader.move());
+        }));
+
+        if (game.getStateHash() != hash) {
+            throw new IllegalStateException("Moves were not undone");
+        }
+    }
+
+    private static double bytesPerMove(int moves, Step step) throws Exception {
+        for (int i = 0; i < moves; i++) {
+            step.run(i);
+        }
+        long before = THREADS.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < moves; i++) {
+            step.run(i);
+        }
+        return (THREADS.getCurrentThreadAllocatedBytes() - before) / (double) moves;
+    }
+
+    private static void report(String name, double bytes) {
+        System.out.printf("%-30s %8.2f bytes/move%n", name, bytes);
+    }
+
+    /**
+     * Takes a move back on the board: a swap is swapped back, and moved marbles are moved back in reverse
+     * order, protected first so that moving back across a start space does not enter the safe zone.
+     */
+    private static void undo(Board board, Move move) throws IllegalMoveException {
+        if (move.actingCard().cardValue == Types.CardValue.JACK) {
+            board.swapMarble(move.marbleId(0), move.marbleId(1));
+        }
+        for (int i = move.size() - 1; i >= 0; i--) {
+            board.setMarbleState(move.marbleId(i), Types.MarbleState.PROTECTED);
+            if (move.distance(i) != 0) {
+                board.moveMarble(move.marbleId(i), -move.distance(i), false);
+            }
+        }
+    }
+
+    private static String moveJson(String card, String substitute, String distances) {
+        return "{\"username\":\"player3\",\"card\":" + card + ",\"substitute\":" + substitute
+                + ",\"distances\":" + distances + ",\"forfeit\":false}";
+    }
+
+    private static String card(String value, String suit) {
+        return "{\"cardValue\":\"" + value + "\",\"cardSuit\":\"" + suit + "\"}";
+    }
+
+    /**
+     * Serves the same bytes over and over, standing in for a connection that keeps sending moves.
+     */
+    private static final class RepeatingStream extends InputStream {
+        private final byte[] bytes;
+        private int position;
+
+        RepeatingStream(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public int read() {
+            int value = bytes[position] & 0xFF;
+            position = (position + 1) % bytes.length;
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            int count = Math.min(length, bytes.length - position);
+            System.arraycopy(bytes, position, buffer, offset, count);
+            position = (position + count) % bytes.length;
+            return count;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Step {
+        void run(int index) throws Exception;
+    }
+}
@@ -0,0 +1,153 @@
+package com.cardrace.cardrace_server.benchmark;
+
+import com.cardrace.cardrace_server.config.RedisConfig;
+import com.cardrace.cardrace_server.model.game.Game;
+import com.cardrace.cardrace_server.repository.RedisGameRepository;
+import com.cardrace.cardrace_server.repository.RedisReactiveGameRepository;
+import com.cardrace.cardrace_server.repository.RedisWriteBatch;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Plays one move (load, update, save) in each of many concurrent games against a real Redis, once with the
+ * blocking repository on thread pools of several sizes and once with the reactive repository issuing every
+ * move from a single thread, and reports peak live threads, throughput and latency percentiles. Latency
+ * runs from the moment a move is submitted, so queueing for a free thread counts. Requires a Redis server.
+ *
+ * Usage: ReactiveRepositoryBenchmark [host=localhost] [port=6379] [games=10000] [rounds=5]
+ */
+public class ReactiveRepositoryBenchmark {
+
+    private static final int MAX_IN_FLIGHT = 10_000;
+
+    public static void main(String[] args) throws Exception {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 6379;
+        int numGames = args.length > 2 ? Integer.parseInt(args[2]) : 10_000;
+        int rounds = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+
+        RedisConfig config = new RedisConfig();
+        ReflectionTestUtils.setField(config, "redisHost", host);
+        ReflectionTestUtils.setField(config, "redisPort", port);
+        ReflectionTestUtils.setField(config, "poolMaxActive", 16);
+        ReflectionTestUtils.setField(config, "poolMinIdle", 2);
+        ReflectionTestUtils.setField(config, "commandTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(config, "connectTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(config, "compressionEnabled", true);
+        ReflectionTestUtils.setField(config, "compressionThresholdBytes", 256);
+        ReflectionTestUtils.setField(config, "compressionLevel", 1);
+        LettuceConnectionFactory factory = config.redisConnectionFactory();
+        factory.afterPropertiesSet();
+        factory.start();
+
+        RedisGameRepository blocking = new RedisGameRepository(config.redisTemplate(factory), config.gameHashRedisTemplate(factory),
+                new RedisWriteBatch(config.stringRedisTemplate(factory)));
+        RedisReactiveGameRepository reactive = new RedisReactiveGameRepository(config.reactiveGameHashRedisTemplate(factory),
+                config.redisTemplate(factory));
+
+        List<String> ids = new ArrayList<>();
+        Map<String, Game> chunk = new LinkedHashMap<>();
+        for (int i = 0; i < numGames; i++) {
+            String id = "bench-" + i;
+            ids.add(id);
+            chunk.put(id, BenchmarkGames.played(4, 20 + i % 100, i));
+            if (chunk.size() == 500) {
+                blocking.saveAll(chunk);
+                chunk.clear();
+            }
+        }
+        blocking.saveAll(chunk);
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        for (int poolSize : new int[]{64, 512}) {
+            ExecutorService pool = Executors.newFixedThreadPool(poolSize);
+            runBlocking(blocking, pool, ids);
+            threads.resetPeakThreadCount();
+            long[] latencies = new long[ids.size() * rounds];
+            long start = System.nanoTime();
+            for (int round = 0; round < rounds; round++) {
+                long[] roundLatencies = runBlocking(blocking, pool, ids);
+                System.arraycopy(roundLatencies, 0, latencies, round * ids.size(), ids.size());
+            }
+            report("blocking, " + poolSize + " threads", latencies, System.nanoTime() - start, threads.getPeakThreadCount());
+            pool.shutdown();
+        }
+
+        runReactive(reactive, ids);
+        threads.resetPeakThreadCount();
+        long[] latencies = new long[ids.size() * rounds];
+        long start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            long[] roundLatencies = runReactive(reactive, ids);
+            System.arraycopy(roundLatencies, 0, latencies, round * ids.size(), ids.size());
+        }
+        report("reactive, 1 issuing thread", latencies, System.nanoTime() - start, threads.getPeakThreadCount());
+
+        blocking.deleteAll(ids);
+        factory.destroy();
+    }
+
+    private static long[] runBlocking(RedisGameRepository repository, ExecutorService pool, List<String> ids) throws InterruptedException {
+        long[] latencies = new long[ids.size()];
+        CountDownLatch done = new CountDownLatch(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            int index = i;
+            long submitted = System.nanoTime();
+            pool.execute(() -> {
+                Game game = repository.findById(ids.get(index)).orElseThrow();
+                game.markDirty(Game.DIRTY_META | Game.DIRTY_TURNS);
+                repository.save(ids.get(index), game);
+                latencies[index] = System.nanoTime() - submitted;
+                done.countDown();
+            });
+        }
+        done.await();
+        return latencies;
+    }
+
+    private static long[] runReactive(RedisReactiveGameRepository repository, List<String> ids) throws InterruptedException {
+        long[] latencies = new long[ids.size()];
+        Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT);
+        CountDownLatch done = new CountDownLatch(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            int index = i;
+            inFlight.acquire();
+            long submitted = System.nanoTime();
+            repository.findById(ids.get(index))
+                    .thenCompose(game -> {
+                        game.orElseThrow().markDirty(Game.DIRTY_META | Game.DIRTY_TURNS);
+                        return repository.save(ids.get(index), game.get());
+                    })
+                    .whenComplete((game, error) -> {
+                        if (error != null) {
+                            error.printStackTrace();
+                        }
+                        latencies[index] = System.nanoTime() - submitted;
+                        inFlight.release();
+                        done.countDown();
+                    });
+        }
+        done.await();
+        return latencies;
+    }
+
+    private static void report(String name, long[] latencies, long elapsedNanos, int peakThreads) {
+        Arrays.sort(latencies);
+        System.out.printf("%-28s peak threads=%4d  %8.0f moves/s  p50=%7.2f ms  p99=%7.2f ms  max=%7.2f ms%n",
+                name, peakThreads, latencies.length / (elapsedNanos / 1e9),
+                latencies[latencies.length / 2] / 1e6, latencies[(int) (latencies.length * 0.99)] / 1e6,
+                latencies[latencies.length - 1] / 1e6);
+    }
+}
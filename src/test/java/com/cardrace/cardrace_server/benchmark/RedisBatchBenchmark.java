@@ -0,0 +1,106 @@
+package com.cardrace.cardrace_server.benchmark;
+
+import com.cardrace.cardrace_server.config.RedisConfig;
+import com.cardrace.cardrace_server.model.game.Game;
+import com.cardrace.cardrace_server.repository.RedisGameRepository;
+import com.cardrace.cardrace_server.repository.RedisLobbyRepository;
+import com.cardrace.cardrace_server.repository.RedisWriteBatch;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures round trips and latency of game store operations against a real Redis reached through a
+ * latency-injecting proxy, comparing one write per call with writes grouped by RedisWriteBatch and the
+ * multi-get/multi-save batch API. Requires a Redis server.
+ *
+ * Usage: RedisBatchBenchmark [host=localhost] [port=6379] [iterations=100]
+ */
+public class RedisBatchBenchmark {
+
+    private static final int BATCH_SIZE = 16;
+
+    public static void main(String[] args) throws Exception {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 6379;
+        int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+
+        Game game = BenchmarkGames.played(6, 40, 1);
+        Map<String, Game> games = new LinkedHashMap<>();
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            games.put("bench" + i, BenchmarkGames.played(6, 10 + i * 8, i));
+        }
+        List<String> ids = List.copyOf(games.keySet());
+
+        for (double rtt : new double[]{0, 1, 5}) {
+            try (LatencyProxy proxy = new LatencyProxy(host, port, rtt)) {
+                RedisConfig config = new RedisConfig();
+                ReflectionTestUtils.setField(config, "redisHost", "localhost");
+                ReflectionTestUtils.setField(config, "redisPort", proxy.port());
+                ReflectionTestUtils.setField(config, "poolMaxActive", 16);
+                ReflectionTestUtils.setField(config, "poolMinIdle", 2);
+                ReflectionTestUtils.setField(config, "commandTimeoutMs", 5000L);
+                ReflectionTestUtils.setField(config, "connectTimeoutMs", 1000L);
+                ReflectionTestUtils.setField(config, "compressionEnabled", true);
+                ReflectionTestUtils.setField(config, "compressionThresholdBytes", 256);
+                ReflectionTestUtils.setField(config, "compressionLevel", 1);
+                LettuceConnectionFactory factory = config.redisConnectionFactory();
+                factory.afterPropertiesSet();
+                factory.start();
+                RedisWriteBatch writeBatch = new RedisWriteBatch(config.stringRedisTemplate(factory));
+                RedisGameRepository gameRepository = new RedisGameRepository(config.redisTemplate(factory), config.gameHashRedisTemplate(factory), writeBatch);
+                RedisLobbyRepository lobbyRepository = new RedisLobbyRepository(config.stringRedisTemplate(factory), writeBatch);
+
+                System.out.printf("RTT %.0f ms%n", rtt);
+                report(proxy, "join: save + lobby, separate", iterations, () -> {
+                    game.markDirty(Game.DIRTY_META);
+                    gameRepository.save("bench", game);
+                    lobbyRepository.upsert("bench", "bench", 3, 6);
+                });
+                report(proxy, "join: save + lobby, one batch", iterations, () -> writeBatch.run(() -> {
+                    game.markDirty(Game.DIRTY_META);
+                    gameRepository.save("bench", game);
+                    lobbyRepository.upsert("bench", "bench", 3, 6);
+                    return null;
+                }));
+                report(proxy, "move: load + save", iterations, () -> {
+                    Game loaded = gameRepository.findById("bench").orElseThrow();
+                    loaded.markDirty(Game.DIRTY_META | Game.DIRTY_TURNS | Game.DIRTY_BOARD);
+                    gameRepository.save("bench", loaded);
+                });
+                report(proxy, BATCH_SIZE + " saves, one per call", iterations, () -> games.forEach((id, g) -> {
+                    g.markDirty(Game.DIRTY_ALL);
+                    gameRepository.save(id, g);
+                }));
+                report(proxy, BATCH_SIZE + " saves, saveAll", iterations, () -> {
+                    games.values().forEach(g -> g.markDirty(Game.DIRTY_ALL));
+                    gameRepository.saveAll(games);
+                });
+                report(proxy, BATCH_SIZE + " loads, one per call", iterations, () -> ids.forEach(gameRepository::findById));
+                report(proxy, BATCH_SIZE + " loads, findAllById", iterations, () -> gameRepository.findAllById(ids));
+                report(proxy, BATCH_SIZE + " deletes, deleteAll", iterations, () -> gameRepository.deleteAll(ids));
+
+                gameRepository.delete("bench");
+                lobbyRepository.remove("bench");
+                factory.destroy();
+            }
+        }
+    }
+
+    private static void report(LatencyProxy proxy, String name, int iterations, Runnable operation) {
+        for (int i = 0; i < Math.max(5, iterations / 10); i++) {
+            operation.run();
+        }
+        long writesBefore = proxy.clientWrites();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            operation.run();
+        }
+        double micros = (System.nanoTime() - start) / 1000.0 / iterations;
+        double roundTrips = (proxy.clientWrites() - writesBefore) / (double) iterations;
+        System.out.printf("  %-34s %5.1f round trips %9.0f us/op%n", name, roundTrips, micros);
+    }
+}
@@ -0,0 +1,119 @@
+package com.cardrace.cardrace_server.benchmark;
+
+import com.cardrace.cardrace_server.config.RedisConfig;
+import com.cardrace.cardrace_server.model.game.Game;
+import com.cardrace.cardrace_server.repository.GameLocks;
+import com.cardrace.cardrace_server.repository.GameRepository;
+import com.cardrace.cardrace_server.repository.HotGameTier;
+import com.cardrace.cardrace_server.repository.RedisGameRepository;
+import com.cardrace.cardrace_server.repository.RedisReactiveGameRepository;
+import com.cardrace.cardrace_server.repository.RedisWriteBatch;
+import com.cardrace.cardrace_server.repository.ResilientGameRepository;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plays moves (load, update, save) in a set of games through the resilient game store while the Redis
+ * connection is healthy, while a fault-injecting proxy stalls it, and after the stall ends, and reports move
+ * latency for each phase and how long queued writes take to replay. The plain Redis repository is measured
+ * during the stall for comparison. Requires a Redis server.
+ *
+ * Usage: RedisOutageBenchmark [host=localhost] [port=6379] [games=50] [outageSeconds=10] [commandTimeoutMs=500]
+ */
+public class RedisOutageBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 6379;
+        int numGames = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+        long outageMillis = (args.length > 3 ? Long.parseLong(args[3]) : 10) * 1000;
+        long commandTimeoutMs = args.length > 4 ? Long.parseLong(args[4]) : 500;
+
+        try (LatencyProxy proxy = new LatencyProxy(host, port, 0)) {
+            RedisConfig config = new RedisConfig();
+            ReflectionTestUtils.setField(config, "redisHost", "localhost");
+            ReflectionTestUtils.setField(config, "redisPort", proxy.port());
+            ReflectionTestUtils.setField(config, "poolMaxActive", 16);
+            ReflectionTestUtils.setField(config, "poolMinIdle", 2);
+            ReflectionTestUtils.setField(config, "commandTimeoutMs", commandTimeoutMs);
+            ReflectionTestUtils.setField(config, "connectTimeoutMs", 1000L);
+            ReflectionTestUtils.setField(config, "compressionEnabled", true);
+            ReflectionTestUtils.setField(config, "compressionThresholdBytes", 256);
+            ReflectionTestUtils.setField(config, "compressionLevel", 1);
+            LettuceConnectionFactory factory = config.redisConnectionFactory();
+            factory.afterPropertiesSet();
+            factory.start();
+
+            RedisWriteBatch writeBatch = new RedisWriteBatch(config.stringRedisTemplate(factory));
+            RedisGameRepository redis = new RedisGameRepository(config.redisTemplate(factory), config.gameHashRedisTemplate(factory), writeBatch);
+            RedisReactiveGameRepository redisAsync = new RedisReactiveGameRepository(config.reactiveGameHashRedisTemplate(factory),
+                    config.redisTemplate(factory));
+            ResilientGameRepository resilient = new ResilientGameRepository(redis, redisAsync, writeBatch,
+                    new HotGameTier(Long.MAX_VALUE, 1800), new GameLocks(), 5, 1000, 200);
+
+            List<String> ids = new ArrayList<>();
+            Map<String, Game> games = new LinkedHashMap<>();
+            for (int i = 0; i < numGames; i++) {
+                String id = "outage-" + i;
+                ids.add(id);
+                games.put(id, BenchmarkGames.played(4, 20 + i % 100, i));
+            }
+            redis.saveAll(games);
+            ids.forEach(resilient::findById);
+
+            report("resilient, healthy", playFor(resilient, ids, 2000));
+
+            proxy.setStalled(true);
+            report("plain redis, stalled", playFor(redis, ids.subList(0, 1), Math.min(outageMillis, 3 * commandTimeoutMs)));
+            report("resilient, stalled", playFor(resilient, ids, outageMillis));
+            System.out.printf("  %d games with queued writes at end of stall%n", resilient.pendingWrites());
+
+            proxy.setStalled(false);
+            long recoverStart = System.nanoTime();
+            while (resilient.pendingWrites() > 0) {
+                Thread.sleep(10);
+            }
+            System.out.printf("  queued writes replayed in %.0f ms%n", (System.nanoTime() - recoverStart) / 1e6);
+            report("resilient, recovered", playFor(resilient, ids, 2000));
+
+            resilient.shutdown();
+            redis.deleteAll(ids);
+            factory.destroy();
+        }
+    }
+
+    private static long[] playFor(GameRepository repository, List<String> ids, long millis) {
+        List<Long> latencies = new ArrayList<>();
+        long end = System.nanoTime() + millis * 1_000_000;
+        int failures = 0;
+        for (int i = 0; System.nanoTime() < end; i++) {
+            String id = ids.get(i % ids.size());
+            long start = System.nanoTime();
+            try {
+                Game game = repository.findById(id).orElseThrow();
+                game.markDirty(Game.DIRTY_META | Game.DIRTY_TURNS);
+                repository.save(id, game);
+            } catch (RuntimeException e) {
+                failures++;
+            }
+            latencies.add(System.nanoTime() - start);
+        }
+        if (failures > 0) {
+            System.out.printf("  %d of %d moves failed%n", failures, latencies.size());
+        }
+        return latencies.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static void report(String name, long[] latencies) {
+        Arrays.sort(latencies);
+        System.out.printf("%-24s %7d moves  p50=%8.3f ms  p99=%8.3f ms  max=%8.2f ms%n",
+                name, latencies.length, latencies[latencies.length / 2] / 1e6,
+                latencies[(int) (latencies.length * 0.99)] / 1e6, latencies[latencies.length - 1] / 1e6);
+    }
+}
@@ -0,0 +1,27 @@
+package com.cardrace.cardrace_server.benchmark;
+
+import com.cardrace.cardrace_server.simulation.PlayerStrategy;
+import com.cardrace.cardrace_server.simulation.SelfPlaySimulator;
+
+/**
+ * Plays games headlessly for 2, 4 and 6 players with each player strategy and prints games per second, turns
+ * per game, the move mix and any invariant violations. A warm-up run at each size is played and discarded.
+ *
+ * Usage: SelfPlayBenchmark [games=10000] [threads=all cores] [checkInvariants=true]
+ */
+public class SelfPlayBenchmark {
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        boolean checkInvariants = args.length <= 2 || Boolean.parseBoolean(args[2]);
+        SelfPlaySimulator simulator = new SelfPlaySimulator(threads, 10_000, checkInvariants);
+
+        for (int numPlayers : new int[]{2, 4, 6}) {
+            for (PlayerStrategy strategy : PlayerStrategy.values()) {
+                simulator.run(Math.max(1, games / 10), numPlayers, strategy, 1);
+                System.out.print(simulator.run(games, numPlayers, strategy, 42));
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.cardrace.cardrace_server.benchmark;
+
+import com.cardrace.cardrace_server.config.RedisConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives a running server end to end with simulated players. Each player signs up through /api/auth, the
+ * first player of each game creates it through /api/games/create, and every player then connects over
+ * Socket.IO with its token and the game ID, which seats it, and plays random legal moves until the game
+ * ends. Reports move latency from submission to the mover's next gameState as an HdrHistogram percentile
+ * distribution, with CPU, heap and GC for this JVM and, given its process ID, for the server.
+ *
+ * To keep the whole run on one machine, the server can use local stand-ins for Redis and DynamoDB:
+ *
+ *   game.store=journal, lobby.store=memory, leaderboard.store=memory   (no Redis traffic)
+ *   aws.dynamodb.endpoint=http://localhost:8000                        (DynamoDB Local; see DynamoDbLocalTables)
+ *
+ * Usage: SocketLoadTest [games=100] [playersPerGame=4] [apiUrl=http://localhost:8080]
+ *                       [socketUrl=http://localhost:9092] [serverPid=] [timeoutSeconds=600]
+ */
+public class SocketLoadTest {
+
+    private static final String PASSWORD = "load-test-password";
+
+    public static void main(String[] args) throws Exception {
+        int numGames = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int playersPerGame = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        String apiUrl = args.length > 2 ? args[2] : "http://localhost:8080";
+        String socketUrl = args.length > 3 ? args[3] : "http://localhost:9092";
+        String serverPid = args.length > 4 && !args[4].isEmpty() ? args[4] : null;
+        long timeoutSeconds = args.length > 5 ? Long.parseLong(args[5]) : 600;
+
+        ObjectMapper objectMapper = RedisConfig.gameObjectMapper();
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        HttpClient http = HttpClient.newBuilder().executor(executor).build();
+        String run = Long.toString(System.currentTimeMillis() % 1_000_000_000L, 36);
+
+        List<CompletableFuture<String>> signups = new ArrayList<>();
+        for (int i = 0; i < numGames * playersPerGame; i++) {
+            signups.add(signUp(http, objectMapper, apiUrl, username(run, i)));
+        }
+        List<String> tokens = new ArrayList<>();
+        for (CompletableFuture<String> signup : signups) {
+            tokens.add(signup.join());
+        }
+        System.out.printf("signed up %d players%n", tokens.size());
+
+        Recorder latencies = new Recorder(3);
+        LoadPlayer.Stats stats = new LoadPlayer.Stats();
+        CountDownLatch finished = new CountDownLatch(numGames * playersPerGame);
+        List<LoadPlayer> players = new ArrayList<>();
+        JvmMetrics server = serverPid == null ? null : JvmMetrics.attach("server", serverPid);
+        JvmMetrics client = JvmMetrics.local("client");
+        long start = System.nanoTime();
+
+        for (int game = 0; game < numGames; game++) {
+            int first = game * playersPerGame;
+            String gameId = createGame(http, apiUrl, tokens.get(first), "load-" + run + "-" + game, playersPerGame);
+            for (int seat = 0; seat < playersPerGame; seat++) {
+                LoadPlayer player = new LoadPlayer(socketUrl, username(run, first + seat), tokens.get(first + seat), gameId,
+                        objectMapper, executor, latencies, stats, finished, first + seat);
+                players.add(player);
+                player.connect();
+            }
+        }
+        boolean completed = finished.await(timeoutSeconds, TimeUnit.SECONDS);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Histogram histogram = latencies.getIntervalHistogram();
+        System.out.printf("%d games x %d players in %.1f s%s%n", numGames, playersPerGame, seconds,
+                completed ? "" : " (timed out with " + finished.getCount() + " players still playing)");
+        System.out.printf("moves=%d (%.0f/s) forfeits=%d rejected=%d errors=%d%n", stats.moves.sum(),
+                stats.moves.sum() / seconds, stats.forfeits.sum(), stats.rejected.sum(), stats.errors.sum());
+        System.out.printf("move -> gameState latency: p50=%.2f ms p90=%.2f ms p99=%.2f ms p99.9=%.2f ms max=%.2f ms%n",
+                histogram.getValueAtPercentile(50) / 1e3, histogram.getValueAtPercentile(90) / 1e3,
+                histogram.getValueAtPercentile(99) / 1e3, histogram.getValueAtPercentile(99.9) / 1e3,
+                histogram.getMaxValue() / 1e3);
+        if (server != null) {
+            System.out.println(server);
+            server.close();
+        }
+        System.out.println(client);
+        client.close();
+        System.out.println();
+        histogram.outputPercentileDistribution(System.out, 1000.0);
+
+        players.forEach(LoadPlayer::close);
+        executor.shutdownNow();
+        System.exit(0);
+    }
+
+    private static String username(String run, int index) {
+        return "ld" + run + "x" + index;
+    }
+
+    /**
+     * Signs a player up, or logs in if the name is already taken by an earlier run.
+     */
+    private static CompletableFuture<String> signUp(HttpClient http, ObjectMapper objectMapper, String apiUrl, String username) {
+        String body = objectMapper.createObjectNode().put("username", username).put("password", PASSWORD).toString();
+        return post(http, apiUrl + "/api/auth/signup", body)
+                .thenCompose(response -> response.statusCode() == 200
+                        ? CompletableFuture.completedFuture(response)
+                        : post(http, apiUrl + "/api/auth/login", body))
+                .thenApply(response -> {
+                    if (response.statusCode() != 200) {
+                        throw new IllegalStateException("Could not sign in " + username + ": " + response.statusCode());
+                    }
+                    try {
+                        return objectMapper.readTree(response.body()).path("accessToken").asText();
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+    }
+
+    private static String createGame(HttpClient http, String apiUrl, String token, String gameName, int numPlayers) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(apiUrl + "/api/games/create?gameName="
+                        + URLEncoder.encode(gameName, StandardCharsets.UTF_8) + "&numPlayers=" + numPlayers))
+                .header("Authorization", "Bearer " + token)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Could not create game: " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    private static CompletableFuture<HttpResponse<String>> post(HttpClient http, String url, String json) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        return http.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
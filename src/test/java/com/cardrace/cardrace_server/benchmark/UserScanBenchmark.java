@@ -0,0 +1,76 @@
+package com.cardrace.cardrace_server.benchmark;
+
+import com.amazonaws.auth.AWSStaticCredentialsProvider;
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.client.builder.AwsClientBuilder;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.model.*;
+import com.cardrace.cardrace_server.model.User;
+import com.cardrace.cardrace_server.repository.UserRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures UserRepository.scanAll throughput against DynamoDB Local with 1, 4 and 16 segments.
+ * Seeds the Users table on first run. Rate limiting is disabled so the numbers show raw scan throughput.
+ *
+ * Usage: UserScanBenchmark [endpoint=http://localhost:8000] [users=50000]
+ */
+public class UserScanBenchmark {
+
+    private static final int[] SEGMENTS = {1, 4, 16};
+
+    public static void main(String[] args) throws Exception {
+        String endpoint = args.length > 0 ? args[0] : "http://localhost:8000";
+        int users = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+
+        AmazonDynamoDB client = AmazonDynamoDBClientBuilder.standard()
+                .withEndpointConfiguration(new AwsClientBuilder.EndpointConfiguration(endpoint, "us-east-1"))
+                .withCredentials(new AWSStaticCredentialsProvider(new BasicAWSCredentials("local", "local")))
+                .build();
+        DynamoDBMapper mapper = new DynamoDBMapper(client);
+        UserRepository repository = new UserRepository(mapper, 4, 100, 0);
+
+        seed(client, mapper, users);
+
+        for (int segments : SEGMENTS) {
+            repository.scanAll(segments, 0, user -> { });
+            AtomicLong count = new AtomicLong();
+            long start = System.nanoTime();
+            repository.scanAll(segments, 0, user -> count.incrementAndGet());
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("segments=%-3d users=%d time=%.2fs throughput=%.0f users/s%n",
+                    segments, count.get(), seconds, count.get() / seconds);
+        }
+        client.shutdown();
+    }
+
+    private static void seed(AmazonDynamoDB client, DynamoDBMapper mapper, int users) {
+        if (client.listTables().getTableNames().contains("Users")) {
+            return;
+        }
+        CreateTableRequest request = mapper.generateCreateTableRequest(User.class)
+                .withProvisionedThroughput(new ProvisionedThroughput(1000L, 1000L));
+        request.getGlobalSecondaryIndexes().forEach(index -> index
+                .withProjection(new Projection().withProjectionType(ProjectionType.ALL))
+                .withProvisionedThroughput(new ProvisionedThroughput(1000L, 1000L)));
+        client.createTable(request);
+
+        List<User> batch = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            User user = new User("user-" + i, "player" + i, "password-hash-" + i);
+            user.setGamesPlayed(i % 200);
+            user.setWins(i % 50);
+            batch.add(user);
+            if (batch.size() == 1000) {
+                mapper.batchSave(batch);
+                batch.clear();
+            }
+        }
+        mapper.batchSave(batch);
+    }
+}
@@ -0,0 +1,83 @@
+package com.cardrace.cardrace_server.dto;
+
+import com.cardrace.cardrace_server.model.game.Card;
+import com.cardrace.cardrace_server.model.game.Move;
+import com.cardrace.cardrace_server.model.game.Types;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveReaderTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void readsStreamOfMovesIntoOneMove() throws Exception {
+        String payloads = String.join("\n",
+                "{\"username\":\"alice\",\"card\":{\"cardValue\":\"SEVEN\",\"cardSuit\":\"CLUBS\"},\"substitute\":null,"
+                        + "\"distances\":[[5,3],[4,4]],\"forfeit\":false}",
+                "{\"extra\":{\"nested\":[1,2]},\"card\":{\"cardSuit\":\"JOKER\",\"cardValue\":\"JOKER\"},"
+                        + "\"substitute\":{\"cardValue\":\"TEN\",\"cardSuit\":\"HEARTS\"},\"distances\":[[8,10]],\"username\":\"bob\"}",
+                "{\"username\":\"carol\",\"card\":null,\"forfeit\":true}");
+        MoveReader reader = new MoveReader();
+        JsonParser parser = new JsonFactory().createParser(payloads);
+
+        assertTrue(reader.read(parser));
+        Move move = reader.move();
+        assertEquals("alice", reader.username().toString());
+        assertSame(Card.of(Types.CardValue.SEVEN, Types.CardSuit.CLUBS), move.getCard());
+        assertEquals(2, move.size());
+        assertEquals(5, move.marbleId(0));
+        assertEquals(4, move.marbleId(1));
+        assertEquals(7, move.distanceSum());
+
+        assertTrue(reader.read(parser));
+        assertSame(move, reader.move());
+        assertEquals("bob", reader.username().toString());
+        assertSame(Card.of(Types.CardValue.TEN, Types.CardSuit.HEARTS), move.actingCard());
+        assertEquals(Map.of(8, 10), move.toMap());
+
+        assertTrue(reader.read(parser));
+        assertTrue(reader.isForfeit());
+        assertFalse(reader.hasDistances());
+        assertNull(move.getCard());
+
+        assertFalse(reader.read(parser));
+    }
+
+    @Test
+    void decodedMoveKeepsPayloadShape() throws Exception {
+        String payload = "{\"username\":\"alice\",\"card\":{\"cardValue\":\"SEVEN\",\"cardSuit\":\"CLUBS\"},"
+                + "\"substitute\":null,\"distances\":[[5,3],[4,1],[9],[4,4]],\"forfeit\":false}";
+
+        MoveDTO move = objectMapper.readValue(payload, MoveDTO.class);
+
+        assertEquals(List.of(5, 4), List.copyOf(move.getDistances().keySet()));
+        assertEquals(4, move.getDistances().get(4));
+        JsonNode json = objectMapper.valueToTree(move);
+        assertEquals(3, json.get("distances").get("5").asInt());
+        assertFalse(json.has("move"));
+
+        MoveDTO missing = objectMapper.readValue("{\"username\":\"alice\",\"forfeit\":true}", MoveDTO.class);
+        assertNull(missing.getMove());
+        assertNull(missing.getDistances());
+        assertTrue(missing.isForfeit());
+    }
+
+    @Test
+    void rejectsMalformedDistances() {
+        for (String distances : new String[]{"[[1,\"2\"]]", "{\"1\":2}", "[[0,1],[1,1],[2,1],[3,1],[4,1],[5,1],[6,1],[7,1]]"}) {
+            String payload = "{\"username\":\"alice\",\"card\":{\"cardValue\":\"SEVEN\",\"cardSuit\":\"CLUBS\"},"
+                    + "\"distances\":" + distances + "}";
+            assertThrows(JsonProcessingException.class, () -> objectMapper.readValue(payload, MoveDTO.class), distances);
+        }
+    }
+}
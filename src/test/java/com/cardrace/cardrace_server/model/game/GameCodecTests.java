@@ -0,0 +1,91 @@
+package com.cardrace.cardrace_server.model.game;
+
+import com.cardrace.cardrace_server.config.RedisConfig;
+import com.cardrace.cardrace_server.repository.GameRedisSerializer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameCodecTests {
+
+    private final ObjectMapper objectMapper = RedisConfig.gameObjectMapper();
+
+    @Test
+    void roundTripsWaitingGame() throws Exception {
+        Game game = new Game("lobby", 4);
+        game.addPlayer("alice");
+        game.addPlayer("bob");
+
+        assertSameState(game, GameCodec.decode(GameCodec.encode(game)));
+    }
+
+    @Test
+    void roundTripsGamesInProgress() throws Exception {
+        for (int numPlayers : new int[]{2, 4, 6}) {
+            Game game = TestGames.startedGame(numPlayers);
+            Board board = game.getBoard();
+            board.activateMarble(0);
+            board.moveMarble(0, 5, false);
+            board.activateMarble(4);
+            game.incrementPlayerTurns("player0");
+            game.setLastCard(new Card(Types.CardValue.FIVE, Types.CardSuit.CLUBS));
+
+            assertSameState(game, GameCodec.decode(GameCodec.encode(game)));
+        }
+    }
+
+    @Test
+    void serializerReadsLegacyJson() throws Exception {
+        Game game = TestGames.startedGame(4);
+        GameRedisSerializer serializer = new GameRedisSerializer(new Jackson2JsonRedisSerializer<>(objectMapper, Game.class), false);
+        byte[] legacy = objectMapper.writeValueAsBytes(game);
+
+        assertSameState(game, serializer.deserialize(legacy));
+        assertTrue(GameCodec.isEncoded(serializer.serialize(game)));
+    }
+
+    @Test
+    void jsonKeepsBoardShape() throws Exception {
+        Game game = TestGames.startedGame(4);
+        Board board = game.getBoard();
+        board.activateMarble(0);
+        board.setMarbleState(0, Types.MarbleState.UNPROTECTED);
+        board.moveMarble(0, 60, false);
+        board.moveMarble(0, 5, false);
+        board.activateMarble(4);
+        board.setMarbleState(4, Types.MarbleState.UNPROTECTED);
+        board.moveMarble(4, 44, false);
+        board.activateMarble(8);
+        board.setMarbleState(8, Types.MarbleState.UNPROTECTED);
+        board.moveMarble(8, 28, false);
+
+        JsonNode json = objectMapper.valueToTree(game);
+        JsonNode boardJson = json.get("board");
+        assertEquals(16, boardJson.get("marbles").size());
+        assertEquals("UNPROTECTED", boardJson.get("marbles").get("8").get("state").asText());
+        assertEquals(64, boardJson.get("spaces").size());
+        assertEquals(8, boardJson.get("spaces").get(60).asInt());
+        assertEquals(0, boardJson.get("safeZones").get(game.getPlayerColor("player0").name()).get(0).asInt());
+        assertEquals(4, boardJson.get("reserves").get(game.getPlayerColor("player1").name()).size());
+        assertEquals(16, boardJson.get("startPositions").get(game.getPlayerColor("player1").name()).asInt());
+        assertEquals(4, json.get("playerColorMap").size());
+        assertEquals(4, json.get("colorHandMap").size());
+
+        assertEquals(json, objectMapper.valueToTree(objectMapper.treeToValue(json, Game.class)));
+    }
+
+    @Test
+    void rejectsUnknownVersion() throws Exception {
+        byte[] bytes = GameCodec.encode(TestGames.startedGame(2));
+        bytes[1] = (byte) (GameCodec.VERSION + 1);
+
+        assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(bytes));
+    }
+
+    private void assertSameState(Game expected, Game actual) {
+        assertEquals(objectMapper.valueToTree(expected), objectMapper.valueToTree(actual));
+    }
+}
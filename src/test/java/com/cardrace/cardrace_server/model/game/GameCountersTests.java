@@ -0,0 +1,76 @@
+package com.cardrace.cardrace_server.model.game;
+
+import com.cardrace.cardrace_server.config.RedisConfig;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameCountersTests {
+
+    private final ObjectMapper objectMapper = RedisConfig.gameObjectMapper();
+
+    @Test
+    void turnCountersSurviveRoundTrips() throws Exception {
+        Game game = TestGames.startedGame(4);
+        game.incrementPlayerTurns("player2");
+        game.incrementPlayerTurns("player2");
+        game.incrementPlayerTurns("player0");
+
+        JsonNode json = objectMapper.valueToTree(game);
+        assertEquals(2, json.get("playerTurnCounter").get("player2").asInt());
+        assertEquals(4, json.get("playerTurnCounter").size());
+
+        for (Game restored : List.of(objectMapper.treeToValue(json, Game.class), GameCodec.decode(GameCodec.encode(game)))) {
+            assertEquals(2, restored.getPlayerTurns("player2"));
+            assertEquals(1, restored.getPlayerTurns("player0"));
+            assertEquals(0, restored.getPlayerTurns("player3"));
+            restored.incrementPlayerTurns("player3");
+            assertEquals(1, restored.getPlayerTurns("player3"));
+        }
+    }
+
+    @Test
+    void waitingGameHasNoTurnCounters() throws Exception {
+        Game game = new Game("lobby", 4);
+        game.addPlayer("alice");
+
+        JsonNode json = objectMapper.valueToTree(game);
+        assertEquals(0, json.get("playerTurnCounter").size());
+        assertEquals(json, objectMapper.valueToTree(objectMapper.treeToValue(json, Game.class)));
+    }
+
+    @Test
+    void dealIsDueOnlyOnceEveryHandIsEmpty() throws Exception {
+        Game game = TestGames.startedGame(2);
+        assertFalse(game.timeToDeal());
+
+        Game restored = objectMapper.readValue(objectMapper.writeValueAsBytes(game), Game.class);
+        restored.clearHand("player0");
+        assertFalse(restored.timeToDeal());
+        for (Card card : restored.getPlayerHand("player1").getCards()) {
+            restored.updatePlayerHand("player1", card);
+        }
+        assertTrue(restored.timeToDeal());
+
+        restored.dealOut();
+        assertFalse(restored.timeToDeal());
+    }
+
+    @Test
+    void winIsRecognizedFromSafeZoneCount() throws Exception {
+        Board board = new Board(List.of(Types.Color.RED, Types.Color.BLUE));
+        for (int marbleId = 0; marbleId < Board.SAFE_ZONE_SIZE; marbleId++) {
+            board.activateMarble(marbleId);
+            board.setMarbleState(marbleId, Types.MarbleState.UNPROTECTED);
+            board.moveMarble(marbleId, Board.SAFE_ZONE_SIZE - marbleId, false);
+            assertEquals(marbleId + 1, board.countSafeMarbles(Types.Color.RED));
+        }
+
+        assertEquals(Board.SAFE_ZONE_SIZE, board.copy().countSafeMarbles(Types.Color.RED));
+        assertEquals(0, board.countSafeMarbles(Types.Color.BLUE));
+    }
+}
@@ -0,0 +1,121 @@
+package com.cardrace.cardrace_server.model.game;
+
+import com.cardrace.cardrace_server.config.RedisConfig;
+import com.cardrace.cardrace_server.exceptions.IllegalMoveException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StateHashTests {
+
+    private final ObjectMapper objectMapper = RedisConfig.gameObjectMapper();
+
+    @Test
+    void samePositionReachedTwoWaysHashesEqually() throws Exception {
+        List<Types.Color> colors = List.of(Types.Color.RED, Types.Color.BLUE);
+        Board stepped = new Board(colors);
+        stepped.activateMarble(0);
+        stepped.moveMarble(0, 3, false);
+        stepped.moveMarble(0, 2, false);
+        stepped.setMarbleState(0, Types.MarbleState.UNPROTECTED);
+
+        Board direct = new Board(colors);
+        direct.activateMarble(0);
+        direct.moveMarble(0, 5, false);
+        direct.setMarbleState(0, Types.MarbleState.UNPROTECTED);
+
+        assertEquals(direct.getHash(), stepped.getHash());
+        assertEquals(stepped.computeHash(), stepped.getHash());
+    }
+
+    @Test
+    void hashFollowsCapturesAndSwaps() throws Exception {
+        Board board = new Board(List.of(Types.Color.RED, Types.Color.BLUE));
+        long initial = board.getHash();
+        board.activateMarble(0);
+        board.activateMarble(4);
+        assertNotEquals(initial, board.getHash());
+
+        board.setMarbleState(4, Types.MarbleState.UNPROTECTED);
+        board.moveMarble(0, 16, false);
+        assertTrue(board.inReserve(4));
+        assertEquals(board.computeHash(), board.getHash());
+
+        board.moveMarble(0, 1, false);
+        board.activateMarble(4);
+        board.setMarbleState(0, Types.MarbleState.UNPROTECTED);
+        board.setMarbleState(4, Types.MarbleState.UNPROTECTED);
+        long beforeSwap = board.getHash();
+        board.swapMarble(0, 4);
+        assertNotEquals(beforeSwap, board.getHash());
+        assertEquals(board.computeHash(), board.getHash());
+        board.swapMarble(0, 4);
+        assertEquals(beforeSwap, board.getHash());
+    }
+
+    @Test
+    void gameHashFollowsTurnsAndSurvivesRoundTrips() throws Exception {
+        Game game = TestGames.startedGame(4);
+        long dealt = game.getStateHash();
+        String player = game.getCurrentPlayer();
+        game.forfeitTurn(player);
+        assertNotEquals(dealt, game.getStateHash());
+        assertEquals(game.computeStateHash(), game.getStateHash());
+
+        assertEquals(game.getStateHash(), GameCodec.decode(GameCodec.encode(game)).getStateHash());
+        assertEquals(game.getStateHash(), objectMapper.readValue(objectMapper.writeValueAsBytes(game), Game.class).getStateHash());
+        assertEquals(game.getBoard().getHash(), game.determinize(player, new Random(1)).getBoard().getHash());
+    }
+
+    @Test
+    void playedCardLeavesHandHash() throws Exception {
+        Game game = TestGames.startedGame(2);
+        long dealt = game.getStateHash();
+        String player = game.getCurrentPlayer();
+        Card card = game.getPlayerHand(player).getCards().get(0);
+        game.updatePlayerHand(player, card);
+
+        assertNotEquals(dealt, game.getStateHash());
+        assertEquals(game.computeStateHash(), game.getStateHash());
+    }
+
+    @Test
+    void rejectedMoveLeavesBoardAsItWas() throws Exception {
+        Game game = TestGames.startedGame(2);
+        Board board = game.getBoard();
+        board.activateMarble(0);
+        board.setMarbleState(0, Types.MarbleState.UNPROTECTED);
+        long before = board.getHash();
+
+        Map<Integer, Integer> distances = new LinkedHashMap<>();
+        distances.put(0, 3);
+        distances.put(1, 4);
+        assertThrows(IllegalMoveException.class,
+                () -> game.applyMove(Card.of(Types.CardValue.SEVEN, Types.CardSuit.CLUBS), null, distances));
+
+        assertEquals(before, board.getHash());
+        assertEquals(board.computeHash(), board.getHash());
+        assertEquals(0, board.findMarble(0));
+        assertFalse(board.isProtected(0));
+    }
+
+    @Test
+    void marbleOffTheBoardChangesNothing() throws Exception {
+        Board board = new Board(List.of(Types.Color.RED, Types.Color.BLUE));
+        long initial = board.getHash();
+
+        assertThrows(IllegalArgumentException.class, () -> board.activateMarble(33));
+        assertThrows(IllegalArgumentException.class, () -> board.setMarbleState(8, Types.MarbleState.UNPROTECTED));
+        assertThrows(IllegalArgumentException.class, () -> board.inReserve(-1));
+
+        assertEquals(initial, board.getHash());
+        assertTrue(board.inReserve(1));
+        assertTrue(board.isProtected(1));
+    }
+}
@@ -0,0 +1,23 @@
+package com.cardrace.cardrace_server.model.game;
+
+import com.cardrace.cardrace_server.exceptions.PlayerLimitException;
+
+/**
+ * Builds game states shared by tests.
+ */
+public final class TestGames {
+
+    private TestGames() {}
+
+    /**
+     * A freshly initialized game with every seat taken, by players named player0, player1 and so on.
+     */
+    public static Game startedGame(int numPlayers) throws PlayerLimitException {
+        Game game = new Game("game", numPlayers);
+        for (int i = 0; i < numPlayers; i++) {
+            game.addPlayer("player" + i);
+        }
+        game.initializeGame();
+        return game;
+    }
+}
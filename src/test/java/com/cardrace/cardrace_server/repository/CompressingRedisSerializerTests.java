@@ -0,0 +1,52 @@
+package com.cardrace.cardrace_server.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressingRedisSerializerTests {
+
+    private final CompressingRedisSerializer<String> serializer =
+            new CompressingRedisSerializer<>(RedisSerializer.string(), 64, 1);
+
+    @Test
+    void leavesSmallValuesUncompressed() {
+        byte[] bytes = serializer.serialize("short");
+
+        assertArrayEquals(RedisSerializer.string().serialize("short"), bytes);
+        assertEquals("short", serializer.deserialize(bytes));
+    }
+
+    @Test
+    void compressesLargeValuesBehindMagicHeader() {
+        String value = "{\"spaces\":[null,null,null,null]}".repeat(40);
+        byte[] bytes = serializer.serialize(value);
+
+        assertEquals(CompressingRedisSerializer.MAGIC, bytes[0]);
+        assertTrue(bytes.length < value.length());
+        assertEquals(value, serializer.deserialize(bytes));
+    }
+
+    @Test
+    void readsCompressedValuesAfterThresholdIsRaised() {
+        String value = "x".repeat(500);
+        byte[] bytes = serializer.serialize(value);
+        CompressingRedisSerializer<String> disabled =
+                new CompressingRedisSerializer<>(RedisSerializer.string(), Integer.MAX_VALUE, 1);
+
+        assertEquals(value, disabled.deserialize(bytes));
+    }
+
+    @Test
+    void corruptValuesFailAsSerializationErrors() {
+        byte magic = CompressingRedisSerializer.MAGIC;
+
+        assertThrows(SerializationException.class, () -> serializer.deserialize(new byte[]{magic}));
+        assertThrows(SerializationException.class, () -> serializer.deserialize(new byte[]{magic, (byte) 0x80}));
+        assertThrows(SerializationException.class,
+                () -> serializer.deserialize(new byte[]{magic, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x7F}));
+        assertThrows(SerializationException.class, () -> serializer.deserialize(new byte[]{magic, 0x10, 1, 2, 3}));
+    }
+}
@@ -0,0 +1,66 @@
+package com.cardrace.cardrace_server.repository;
+
+import com.cardrace.cardrace_server.model.game.Game;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotGameTierTests {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final long lobbyBytes = HotGameTier.estimateBytes(new Game("lobby", 4));
+    private final HotGameTier tier = new HotGameTier(4 * lobbyBytes, 1000, clock::get);
+
+    @Test
+    void overBudgetEvictsLeastRecentlyUsed() {
+        for (String id : new String[]{"a", "b", "c", "d"}) {
+            tier.put(id, new Game(id, 4));
+            clock.incrementAndGet();
+        }
+        tier.get("a");
+        tier.put("e", new Game("e", 4));
+
+        assertFalse(tier.contains("b"));
+        assertTrue(tier.contains("a"));
+        assertTrue(tier.contains("e"));
+        assertEquals(4 * lobbyBytes, tier.estimatedBytes());
+    }
+
+    @Test
+    void guardedGamesAreNeverEvicted() {
+        tier.setEvictionGuard(gameId -> false);
+        for (int i = 0; i < 8; i++) {
+            tier.put("game" + i, new Game("game", 4));
+        }
+        clock.addAndGet(5000);
+
+        assertEquals(0, tier.evictIdle());
+        assertEquals(8, tier.size());
+    }
+
+    @Test
+    void idleGamesAreEvicted() {
+        tier.put("idle", new Game("idle", 4));
+        clock.addAndGet(800);
+        tier.put("active", new Game("active", 4));
+        clock.addAndGet(400);
+
+        assertEquals(1, tier.evictIdle());
+        assertTrue(tier.get("idle").isEmpty());
+        assertTrue(tier.get("active").isPresent());
+        assertEquals(lobbyBytes, tier.estimatedBytes());
+    }
+
+    @Test
+    void startedGamesWeighMoreThanLobbies() throws Exception {
+        Game game = new Game("game", 4);
+        for (int i = 0; i < 4; i++) {
+            game.addPlayer("player" + i);
+        }
+        game.initializeGame();
+
+        assertTrue(HotGameTier.estimateBytes(game) > lobbyBytes);
+    }
+}
@@ -0,0 +1,100 @@
+package com.cardrace.cardrace_server.repository;
+
+import com.cardrace.cardrace_server.model.game.Game;
+import com.cardrace.cardrace_server.model.game.Types;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalGameRepositoryTests {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void gamesSurviveReopen() throws Exception {
+        JournalGameRepository journal = new JournalGameRepository(directory, 1 << 20, 0.5, false);
+        Game game = new Game("game", 4);
+        game.addPlayer("player0");
+        journal.save("a", game);
+        journal.save("b", new Game("other", 6));
+        journal.delete("b");
+        journal.close();
+
+        JournalGameRepository reopened = new JournalGameRepository(directory, 1 << 20, 0.5, false);
+        Game recovered = reopened.findById("a").orElseThrow();
+        assertEquals(List.of("player0"), recovered.getPlayers());
+        assertEquals(Optional.of(Types.GameStatus.WAITING), reopened.findStatus("a"));
+        assertTrue(reopened.findById("b").isEmpty());
+        reopened.close();
+    }
+
+    @Test
+    void tornTailIsDiscarded() throws Exception {
+        JournalGameRepository journal = new JournalGameRepository(directory, 1 << 20, 0.5, false);
+        journal.save("a", new Game("a", 4));
+        journal.save("b", new Game("b", 4));
+        journal.close();
+
+        Path segment = onlySegment();
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(segment));
+        int last = 0;
+        for (int position = 0; bytes.getInt(position) != 0; position += JournalGameRepository.HEADER_BYTES + bytes.getInt(position)) {
+            last = position;
+        }
+        bytes.put(last + JournalGameRepository.HEADER_BYTES + 4, (byte) ~bytes.get(last + JournalGameRepository.HEADER_BYTES + 4));
+        Files.write(segment, bytes.array());
+
+        JournalGameRepository reopened = new JournalGameRepository(directory, 1 << 20, 0.5, false);
+        assertTrue(reopened.findById("a").isPresent());
+        assertTrue(reopened.findById("b").isEmpty());
+        reopened.save("c", new Game("c", 4));
+        reopened.close();
+
+        JournalGameRepository again = new JournalGameRepository(directory, 1 << 20, 0.5, false);
+        assertTrue(again.findById("a").isPresent());
+        assertTrue(again.findById("c").isPresent());
+        again.close();
+    }
+
+    @Test
+    void compactionDropsSupersededRecords() throws Exception {
+        JournalGameRepository journal = new JournalGameRepository(directory, 4096, 0.5, false);
+        Game game = new Game("game", 4);
+        journal.save("deleted", new Game("deleted", 4));
+        for (int i = 0; i < 4; i++) {
+            game.addPlayer("player" + i);
+            journal.save("kept", game);
+        }
+        for (int i = 0; i < 500; i++) {
+            journal.save("kept", game);
+        }
+        journal.delete("deleted");
+        int before = journal.segmentCount();
+
+        assertTrue(journal.compact() > 0);
+        assertTrue(journal.segmentCount() < before);
+        journal.close();
+
+        JournalGameRepository reopened = new JournalGameRepository(directory, 4096, 0.5, false);
+        assertEquals(4, reopened.findById("kept").orElseThrow().getPlayers().size());
+        assertTrue(reopened.findById("deleted").isEmpty());
+        reopened.close();
+    }
+
+    private Path onlySegment() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = files.toList();
+            assertEquals(1, segments.size());
+            return segments.get(0);
+        }
+    }
+}
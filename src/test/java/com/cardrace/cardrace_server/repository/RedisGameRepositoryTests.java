@@ -0,0 +1,73 @@
+package com.cardrace.cardrace_server.repository;
+
+import com.cardrace.cardrace_server.config.RedisConfig;
+import com.cardrace.cardrace_server.model.game.Card;
+import com.cardrace.cardrace_server.model.game.Game;
+import com.cardrace.cardrace_server.model.game.GameCodec;
+import com.cardrace.cardrace_server.model.game.TestGames;
+import com.cardrace.cardrace_server.model.game.Types;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedisGameRepositoryTests {
+
+    private final ObjectMapper objectMapper = RedisConfig.gameObjectMapper();
+
+    @Test
+    void newGameWritesEveryField() throws Exception {
+        Game game = TestGames.startedGame(4);
+        Map<String, byte[]> fields = RedisGameRepository.dirtyFields(game, game.getDirtyFields());
+
+        assertTrue(fields.keySet().containsAll(List.of("status", "meta", "turns", "board", "deck")));
+        assertEquals(objectMapper.valueToTree(game), objectMapper.valueToTree(RedisGameRepository.assemble(fields)));
+    }
+
+    @Test
+    void turnWritesOnlyChangedFields() throws Exception {
+        Game game = TestGames.startedGame(4);
+        Map<String, byte[]> stored = new HashMap<>(RedisGameRepository.dirtyFields(game, game.getDirtyFields()));
+        game.clearDirtyFields();
+
+        String player = game.getPlayers().get(0);
+        Card card = game.getPlayerHand(player).getCards().get(0);
+        game.incrementPlayerTurns(player);
+        game.setLastCard(card);
+        game.updatePlayerHand(player, card);
+        game.nextTurn();
+
+        Map<String, byte[]> written = RedisGameRepository.dirtyFields(game, game.getDirtyFields());
+        assertEquals(Set.of("status", "meta", "turns", "hand:" + game.getPlayerColor(player).name(), "version"), written.keySet());
+        assertEquals(game.getVersion(), GameCodec.decodeVersion(written.get("version")));
+
+        stored.putAll(written);
+        assertEquals(objectMapper.valueToTree(game), objectMapper.valueToTree(RedisGameRepository.assemble(stored)));
+    }
+
+    @Test
+    void waitingGameHasNoBoardFields() {
+        Game game = new Game("lobby", 4);
+        Map<String, byte[]> fields = RedisGameRepository.dirtyFields(game, game.getDirtyFields());
+
+        assertEquals(Set.of("status", "meta", "version"), fields.keySet());
+        assertEquals(Types.GameStatus.WAITING, RedisGameRepository.assemble(fields).getStatus());
+    }
+
+    @Test
+    void versionNeverReadsAsCompressed() {
+        RedisSerializer<byte[]> serializer = RedisConfig.gameHashValueSerializer(1, 1);
+        long version = 0xDF00_0000_0000_0001L;
+
+        byte[] stored = serializer.serialize(GameCodec.encodeVersion(version));
+
+        assertNotEquals(CompressingRedisSerializer.MAGIC, stored[0]);
+        assertEquals(version, GameCodec.decodeVersion(serializer.deserialize(stored)));
+    }
+}
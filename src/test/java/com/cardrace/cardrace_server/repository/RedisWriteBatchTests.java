@@ -0,0 +1,69 @@
+package com.cardrace.cardrace_server.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedisWriteBatchTests {
+
+    private final List<String> dropped = new ArrayList<>();
+
+    @Test
+    void sentWritesAreNotDropped() {
+        RedisWriteBatch batch = new RedisWriteBatch(template(false));
+
+        batch.run(() -> {
+            batch.submit(connection -> null, () -> dropped.add("first"));
+            batch.submit(connection -> null, () -> dropped.add("second"));
+            return null;
+        });
+        batch.submit(connection -> null, () -> dropped.add("single"));
+
+        assertEquals(List.of(), dropped);
+    }
+
+    @Test
+    void failedFlushRunsDropActions() {
+        RedisWriteBatch batch = new RedisWriteBatch(template(true));
+
+        assertThrows(QueryTimeoutException.class, () -> batch.run(() -> {
+            batch.submit(connection -> null, () -> dropped.add("first"));
+            batch.submit(connection -> null, () -> dropped.add("second"));
+            return null;
+        }));
+        assertThrows(QueryTimeoutException.class, () -> batch.submit(connection -> null, () -> dropped.add("single")));
+
+        assertEquals(List.of("first", "second", "single"), dropped);
+        assertFalse(batch.isOpen());
+    }
+
+    @Test
+    void failedWorkRunsDropActions() {
+        RedisWriteBatch batch = new RedisWriteBatch(template(false));
+
+        assertThrows(IllegalStateException.class, () -> batch.run(() -> {
+            batch.submit(connection -> null, () -> dropped.add("queued"));
+            throw new IllegalStateException("work failed");
+        }));
+
+        assertEquals(List.of("queued"), dropped);
+    }
+
+    private static StringRedisTemplate template(boolean failing) {
+        return new StringRedisTemplate() {
+            @Override
+            public List<Object> executePipelined(RedisCallback<?> action) {
+                if (failing) {
+                    throw new QueryTimeoutException("Redis timed out");
+                }
+                return List.of();
+            }
+        };
+    }
+}
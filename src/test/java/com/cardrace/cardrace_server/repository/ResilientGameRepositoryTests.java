@@ -0,0 +1,197 @@
+package com.cardrace.cardrace_server.repository;
+
+import com.cardrace.cardrace_server.model.game.Game;
+import com.cardrace.cardrace_server.model.game.Types;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResilientGameRepositoryTests {
+
+    private final FlakyGameRepository remote = new FlakyGameRepository();
+    private final AtomicLong clock = new AtomicLong();
+    private final CircuitBreaker breaker = new CircuitBreaker(2, 1000, clock::get);
+    private final RedisWriteBatch writeBatch = new RedisWriteBatch(null);
+    private final HotGameTier local = new HotGameTier(1 << 20, 60_000, clock::get);
+    private final ResilientGameRepository repository = new ResilientGameRepository(remote,
+            ReactiveGameRepository.completed(remote), writeBatch, breaker, local, new GameLocks());
+
+    @Test
+    void loadedGamesKeepRunningWhileRedisIsDown() throws Exception {
+        Game game = new Game("game", 4);
+        repository.save("a", game);
+        remote.down = true;
+
+        game.addPlayer("player0");
+        repository.save("a", game);
+
+        assertSame(game, repository.findById("a").orElseThrow());
+        assertEquals(Optional.of(Types.GameStatus.WAITING), repository.findStatus("a"));
+        assertEquals(1, repository.pendingWrites());
+        assertTrue(repository.findById("unknown").isEmpty());
+    }
+
+    @Test
+    void breakerOpensAfterConsecutiveFailures() {
+        remote.down = true;
+        repository.findById("a");
+        repository.findById("a");
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        int calls = remote.calls;
+        repository.findById("a");
+        assertEquals(calls, remote.calls);
+
+        clock.addAndGet(1000);
+        remote.down = false;
+        repository.findById("a");
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void queuedWritesReplayWhenRedisRecovers() throws Exception {
+        Game kept = new Game("kept", 4);
+        repository.save("kept", kept);
+        repository.save("gone", new Game("gone", 4));
+        remote.down = true;
+
+        kept.addPlayer("player0");
+        repository.save("kept", kept);
+        repository.delete("gone");
+        repository.replayPending();
+        assertEquals(2, repository.pendingWrites());
+
+        remote.down = false;
+        clock.addAndGet(1000);
+        repository.replayPending();
+
+        assertEquals(0, repository.pendingWrites());
+        assertEquals(1, remote.store.findById("kept").orElseThrow().getNumCurrPlayers());
+        assertTrue(remote.store.findById("gone").isEmpty());
+    }
+
+    @Test
+    void replayWritesGameAsQueued() throws Exception {
+        Game game = new Game("game", 4);
+        repository.save("a", game);
+        remote.down = true;
+
+        game.addPlayer("player0");
+        repository.save("a", game);
+        game.addPlayer("player1");
+        game.clearDirtyFields();
+        game.markDirty(Game.DIRTY_META);
+
+        remote.down = false;
+        clock.addAndGet(1000);
+        repository.replayPending();
+
+        Game replayed = remote.store.findById("a").orElseThrow();
+        assertNotSame(game, replayed);
+        assertEquals(1, replayed.getNumCurrPlayers());
+        assertEquals(Game.DIRTY_META, game.getDirtyFields());
+    }
+
+    @Test
+    void queuedGameIsDecodedWhenDroppedFromLocalTier() throws Exception {
+        Game game = new Game("game", 4);
+        repository.save("a", game);
+        remote.down = true;
+        game.addPlayer("player0");
+        repository.save("a", game);
+
+        local.remove("a");
+
+        Game restored = repository.findById("a").orElseThrow();
+        assertNotSame(game, restored);
+        assertEquals(1, restored.getNumCurrPlayers());
+        assertSame(restored, repository.findById("a").orElseThrow());
+    }
+
+    @Test
+    void asyncViewFallsBackToLocalTier() {
+        Game game = new Game("game", 4);
+        repository.async().save("a", game).toCompletableFuture().join();
+        remote.down = true;
+
+        assertSame(game, repository.async().findById("a").toCompletableFuture().join().orElseThrow());
+        repository.async().save("a", game).toCompletableFuture().join();
+        assertEquals(1, repository.pendingWrites());
+    }
+
+    @Test
+    void batchedWritesFailFastWhileBreakerIsOpen() {
+        remote.down = true;
+        repository.findById("a");
+        repository.findById("a");
+
+        assertThrows(RedisConnectionFailureException.class,
+                () -> writeBatch.run(() -> repository.save("a", new Game("game", 4))));
+        assertEquals(0, repository.pendingWrites());
+    }
+
+    /**
+     * In-memory stand-in for Redis that fails every call while down.
+     */
+    private static class FlakyGameRepository implements GameRepository {
+
+        final InMemoryGameRepository store = new InMemoryGameRepository();
+        volatile boolean down;
+        int calls;
+
+        private void call() {
+            calls++;
+            if (down) {
+                throw new RedisConnectionFailureException("Redis is down");
+            }
+        }
+
+        @Override
+        public Game save(String uuid, Game game) {
+            call();
+            return store.save(uuid, game);
+        }
+
+        @Override
+        public Optional<Game> findById(String gameId) {
+            call();
+            return store.findById(gameId);
+        }
+
+        @Override
+        public Optional<Types.GameStatus> findStatus(String gameId) {
+            call();
+            return store.findStatus(gameId);
+        }
+
+        @Override
+        public void delete(String gameId) {
+            call();
+            store.delete(gameId);
+        }
+
+        @Override
+        public Map<String, Game> findAllById(Collection<String> gameIds) {
+            call();
+            return store.findAllById(gameIds);
+        }
+
+        @Override
+        public void saveAll(Map<String, Game> games) {
+            call();
+            store.saveAll(games);
+        }
+
+        @Override
+        public void deleteAll(Collection<String> gameIds) {
+            call();
+            store.deleteAll(gameIds);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.cardrace.cardrace_server.service;
+
+import com.cardrace.cardrace_server.dto.MoveDTO;
+import com.cardrace.cardrace_server.exceptions.IllegalMoveException;
+import com.cardrace.cardrace_server.exceptions.PlayerLimitException;
+import com.cardrace.cardrace_server.model.game.Game;
+import com.cardrace.cardrace_server.model.game.Types;
+import com.cardrace.cardrace_server.repository.GameLocks;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BotServiceTests {
+
+    private final BotService botService = new BotService(null, new GameLocks(), 1, 16, 1000, "greedy", 1, 100);
+
+    @AfterEach
+    void shutdown() {
+        botService.shutdown();
+    }
+
+    @Test
+    void botsPlayGameToCompletion() throws Exception {
+        Game game = botGame(4);
+        GameDriverStub driver = new GameDriverStub(game, false);
+        botService.setDriver(driver);
+
+        botService.onGameState("game", game);
+
+        assertTrue(driver.completed.await(30, TimeUnit.SECONDS));
+        assertEquals(Types.GameStatus.COMPLETE, game.getStatus());
+        assertTrue(BotService.isBot(game.getWinner()));
+        assertTrue(driver.moves.stream().anyMatch(move -> !move.isForfeit()));
+    }
+
+    @Test
+    void rejectedMoveIsReplacedByForfeit() throws Exception {
+        Game game = botGame(2);
+        GameDriverStub driver = new GameDriverStub(game, true);
+        botService.setDriver(driver);
+
+        botService.onGameState("game", game);
+
+        assertTrue(driver.afterRejection.await(30, TimeUnit.SECONDS));
+        MoveDTO rejected = driver.moves.get(driver.rejectedAt);
+        MoveDTO replacement = driver.moves.get(driver.rejectedAt + 1);
+        assertFalse(rejected.isForfeit());
+        assertTrue(replacement.isForfeit());
+        assertEquals(rejected.getUsername(), replacement.getUsername());
+    }
+
+    @Test
+    void humanTurnIsNotPlayed() throws Exception {
+        Game game = new Game("game", 2);
+        game.addPlayer("player0");
+        game.addPlayer(BotService.botName(1));
+        game.initializeGame();
+        GameDriverStub driver = new GameDriverStub(game, false);
+        botService.setDriver(driver);
+
+        while (BotService.isBot(game.getCurrentPlayer())) {
+            game.forfeitTurn(game.getCurrentPlayer());
+        }
+        botService.onGameState("game", game);
+
+        assertTrue(driver.moves.isEmpty());
+    }
+
+    private static Game botGame(int numPlayers) throws PlayerLimitException {
+        Game game = new Game("game", numPlayers);
+        for (int i = 1; i <= numPlayers; i++) {
+            game.addPlayer(BotService.botName(i));
+        }
+        game.initializeGame();
+        return game;
+    }
+
+    /**
+     * Applies moves straight to the game, as the socket layer does through the game service.
+     */
+    private static final class GameDriverStub implements BotService.GameDriver {
+        final Game game;
+        final List<MoveDTO> moves = new CopyOnWriteArrayList<>();
+        final CountDownLatch completed = new CountDownLatch(1);
+        final CountDownLatch afterRejection = new CountDownLatch(1);
+        final boolean rejectFirstPlay;
+        volatile int rejectedAt = -1;
+
+        GameDriverStub(Game game, boolean rejectFirstPlay) {
+            this.game = game;
+            this.rejectFirstPlay = rejectFirstPlay;
+        }
+
+        @Override
+        public void gameChanged(String gameId) {
+        }
+
+        @Override
+        public CompletionStage<Optional<Game>> submitMove(String gameId, MoveDTO move) {
+            moves.add(move);
+            if (rejectedAt >= 0) {
+                afterRejection.countDown();
+            }
+            try {
+                if (rejectFirstPlay && rejectedAt < 0 && !move.isForfeit()) {
+                    rejectedAt = moves.size() - 1;
+                    throw new IllegalMoveException("Rejected for test");
+                }
+                if (move.isForfeit()) {
+                    game.forfeitTurn(move.getUsername());
+                } else {
+                    game.playTurn(move.getUsername(), move.getMove());
+                }
+            } catch (IllegalMoveException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+            if (game.getStatus() == Types.GameStatus.COMPLETE) {
+                completed.countDown();
+            }
+            return CompletableFuture.completedFuture(Optional.of(game));
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.cardrace.cardrace_server.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameIdGeneratorTests {
+
+    @Test
+    void permutationIsBijective() {
+        BitSet seen = new BitSet(1 << 20);
+        for (long value = 0; value < (1 << 20); value++) {
+            seen.set((int) GameIdGenerator.permute(value, 20));
+        }
+        assertEquals(1 << 20, seen.cardinality());
+    }
+
+    @Test
+    void codesAreShortAndReadable() {
+        Set<String> codes = new HashSet<>();
+        for (long value = 0; value < 100_000; value++) {
+            String code = GameIdGenerator.encode(value);
+            assertEquals(6, code.length());
+            assertTrue(code.chars().allMatch(c -> GameIdGenerator.ALPHABET.indexOf(c) >= 0));
+            assertTrue(codes.add(code));
+        }
+        assertEquals(8, GameIdGenerator.encode(1L << 30).length());
+    }
+
+    @Test
+    void typedCodesNormalizeToIssuedOnes() {
+        String code = GameIdGenerator.encode(12345);
+        String typed = code.toLowerCase().replace('0', 'o').replace('1', 'l');
+
+        assertEquals(code, GameIdGenerator.normalize(typed));
+        assertEquals("1100ABCD", GameIdGenerator.normalize("iLoOabcd"));
+        String legacy = "5f0c2a1e-7b3d-4c1a-9e2f-0a1b2c3d4e5f";
+        assertEquals(legacy, GameIdGenerator.normalize(legacy));
+        assertNull(GameIdGenerator.normalize(null));
+    }
+
+    @Test
+    void concurrentCallersNeverShareAnId() throws Exception {
+        AtomicLong counter = new AtomicLong();
+        AtomicInteger leases = new AtomicInteger();
+        GameIdGenerator generator = new GameIdGenerator(size -> {
+            leases.incrementAndGet();
+            return counter.getAndAdd(size);
+        }, 100);
+
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            workers.add(pool.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    assertTrue(ids.add(generator.nextId()));
+                }
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        pool.shutdown();
+
+        assertEquals(80_000, ids.size());
+        assertTrue(leases.get() >= 800);
+    }
+}
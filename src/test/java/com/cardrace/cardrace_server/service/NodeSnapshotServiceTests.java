@@ -0,0 +1,99 @@
+package com.cardrace.cardrace_server.service;
+
+import com.cardrace.cardrace_server.model.game.Game;
+import com.cardrace.cardrace_server.repository.HotGameTier;
+import com.cardrace.cardrace_server.repository.InMemoryGameRepository;
+import com.cardrace.cardrace_server.repository.ResilientGameRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NodeSnapshotServiceTests {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void snapshotRoundTrips() throws Exception {
+        Game lobby = new Game("lobby", 4);
+        lobby.addPlayer("player0");
+        Map<String, Game> queued = new LinkedHashMap<>();
+        queued.put("saved", new Game("saved", 6));
+        queued.put("deleted", null);
+        byte[] snapshot = write(Map.of("lobby", lobby), queued, 1000);
+
+        Map<String, Game> resident = new HashMap<>();
+        Map<String, Game> readQueued = new LinkedHashMap<>();
+        Map<String, Long> versions = new HashMap<>();
+        assertTrue(NodeSnapshotService.read(new ByteArrayInputStream(snapshot), resident, readQueued, versions, 0));
+
+        assertEquals(List.of("player0"), resident.get("lobby").getPlayers());
+        assertEquals(lobby.getVersion(), (long) versions.get("lobby"));
+        assertEquals(List.of("saved", "deleted"), List.copyOf(readQueued.keySet()));
+        assertEquals(6, readQueued.get("saved").numPlayers);
+        assertNull(readQueued.get("deleted"));
+    }
+
+    @Test
+    void staleSnapshotIsIgnored() throws Exception {
+        byte[] snapshot = write(Map.of("lobby", new Game("lobby", 4)), Map.of(), 1000);
+        Map<String, Game> resident = new HashMap<>();
+
+        assertFalse(NodeSnapshotService.read(new ByteArrayInputStream(snapshot), resident, new HashMap<>(), new HashMap<>(), 2000));
+        assertTrue(resident.isEmpty());
+    }
+
+    @Test
+    void corruptSnapshotIsIgnored() throws Exception {
+        byte[] snapshot = write(Map.of("lobby", new Game("lobby", 4)), Map.of(), 1000);
+        snapshot[snapshot.length - 12] ^= 0x01;
+        Map<String, Game> resident = new HashMap<>();
+
+        boolean loaded;
+        try {
+            loaded = NodeSnapshotService.read(new ByteArrayInputStream(snapshot), resident, new HashMap<>(), new HashMap<>(), 0);
+        } catch (RuntimeException e) {
+            loaded = false;
+        }
+        assertFalse(loaded);
+        assertTrue(resident.isEmpty());
+    }
+
+    @Test
+    void restoreDropsGamesChangedInTheStore() throws Exception {
+        InMemoryGameRepository warm = new InMemoryGameRepository();
+        warm.save("kept", new Game("kept", 4));
+        warm.save("moved", new Game("moved", 4));
+        Path path = directory.resolve("node-snapshot.bin");
+        try (OutputStream out = Files.newOutputStream(path)) {
+            NodeSnapshotService.write(out, warm.findAllById(List.of("kept", "moved")), Map.of(), System.currentTimeMillis());
+        }
+        warm.findById("moved").orElseThrow().addPlayer("player0");
+
+        HotGameTier hot = new HotGameTier(1 << 20, 60);
+        new NodeSnapshotService(hot, warm, new DefaultListableBeanFactory().getBeanProvider(ResilientGameRepository.class),
+                path.toString(), 120).restore();
+
+        assertTrue(hot.contains("kept"));
+        assertFalse(hot.contains("moved"));
+        assertFalse(Files.exists(path));
+    }
+
+    private static byte[] write(Map<String, Game> resident, Map<String, Game> queued, long createdAt) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        NodeSnapshotService.write(out, resident, queued, createdAt);
+        return out.toByteArray();
+    }
+}
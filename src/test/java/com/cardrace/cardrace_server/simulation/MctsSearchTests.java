@@ -0,0 +1,93 @@
+package com.cardrace.cardrace_server.simulation;
+
+import com.cardrace.cardrace_server.model.game.Game;
+import com.cardrace.cardrace_server.model.game.GameCodec;
+import com.cardrace.cardrace_server.model.game.Types;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MctsSearchTests {
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 4, 6})
+    void determinizedCopyKeepsObserverView(int numPlayers) throws Exception {
+        Game game = midGame(numPlayers);
+        String observer = game.getCurrentPlayer();
+
+        Game copy = game.determinize(observer, new Random(1));
+
+        assertEquals(game.getPlayerHand(observer).getCards(), copy.getPlayerHand(observer).getCards());
+        for (String player : game.getPlayers()) {
+            assertEquals(game.getPlayerHand(player).getNumCards(), copy.getPlayerHand(player).getNumCards());
+        }
+        assertTrue(GameInvariants.check(copy).isEmpty());
+        copy.getBoard().setMarbleState(0, game.getBoard().isProtected(0) ? Types.MarbleState.UNPROTECTED : Types.MarbleState.PROTECTED);
+        assertNotEquals(game.getBoard().isProtected(0), copy.getBoard().isProtected(0));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {2, 4, 6})
+    void searchPicksLegalMoveWithoutChangingGame(int numPlayers) throws Exception {
+        Game game = midGame(numPlayers);
+        String player = game.getCurrentPlayer();
+        byte[] before = GameCodec.encode(game);
+
+        MctsResult result;
+        try (MctsEngine engine = new MctsEngine(2)) {
+            result = engine.newSearch(player).search(game, 100);
+        }
+
+        assertArrayEquals(before, GameCodec.encode(game));
+        assertTrue(result.playouts() > 0);
+        List<CandidateMove> moves = MoveGenerator.legalMoves(game, player);
+        if (moves.isEmpty()) {
+            assertNull(result.move());
+        } else {
+            assertTrue(moves.contains(result.move()));
+        }
+    }
+
+    @Test
+    void treeIsReusedAfterMove() throws Exception {
+        Game game = midGame(2);
+        while (MoveGenerator.legalMoves(game, game.getCurrentPlayer()).isEmpty()) {
+            game.forfeitTurn(game.getCurrentPlayer());
+        }
+        String player = game.getCurrentPlayer();
+
+        try (MctsEngine engine = new MctsEngine(1)) {
+            MctsSearch search = engine.newSearch(player);
+            MctsResult first = search.search(game, 200);
+            CandidateMove move = first.move();
+            game.playTurn(player, move.card(), move.substitute(), move.distances());
+            search.advance(MoveKey.of(move));
+
+            MctsResult second = search.search(game, 0);
+
+            assertEquals(first.visits(), second.reusedVisits());
+        }
+    }
+
+    private static Game midGame(int numPlayers) throws Exception {
+        Game game = SelfPlaySimulator.newGame("search", numPlayers);
+        SplittableRandom random = new SplittableRandom(3);
+        for (int turn = 0; turn < numPlayers * 6; turn++) {
+            String player = game.getCurrentPlayer();
+            List<CandidateMove> moves = MoveGenerator.legalMoves(game, player);
+            if (moves.isEmpty()) {
+                game.forfeitTurn(player);
+            } else {
+                CandidateMove move = PlayerStrategy.GREEDY.choose(moves, random);
+                game.playTurn(player, move.card(), move.substitute(), move.distances());
+            }
+        }
+        return game;
+    }
+}
@@ -0,0 +1,40 @@
+package com.cardrace.cardrace_server.simulation;
+
+import com.cardrace.cardrace_server.config.RedisConfig;
+import com.cardrace.cardrace_server.model.game.Game;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SelfPlaySimulatorTests {
+
+    @ParameterizedTest
+    @CsvSource({"2, RANDOM", "4, RANDOM", "6, RANDOM", "2, GREEDY", "4, GREEDY", "6, GREEDY"})
+    void gamesPlayToCompletionWithoutViolations(int numPlayers, PlayerStrategy strategy) {
+        SimulationReport report = new SelfPlaySimulator(2, 5000, true).run(50, numPlayers, strategy, 7);
+
+        assertEquals(0, report.violations(), report::toString);
+        assertEquals(0, report.rejectedMoves(), report::toString);
+        assertEquals(50, report.games());
+        assertEquals(50, report.completedGames(), report::toString);
+    }
+
+    @Test
+    void lostMarbleIsReported() throws Exception {
+        ObjectMapper objectMapper = RedisConfig.gameObjectMapper();
+        Game game = SelfPlaySimulator.newGame("lost", 4);
+        assertTrue(GameInvariants.check(game).isEmpty());
+
+        ObjectNode json = objectMapper.valueToTree(game);
+        ObjectNode reserves = (ObjectNode) json.get("board").get("reserves");
+        ((ArrayNode) reserves.elements().next()).remove(0);
+        Game corrupted = objectMapper.treeToValue(json, Game.class);
+
+        assertEquals(1, GameInvariants.check(corrupted).size());
+    }
+}